@@ -87,6 +87,9 @@ dependencies {
     implementation("com.journeyapps:zxing-android-embedded:4.1.0")
     implementation("androidx.core:core:1.13.1")
 
+    // Background uploads that survive process death
+    implementation("androidx.work:work-runtime:2.10.0")
+
     implementation("com.google.android.gms:play-services-maps:19.0.0")
     implementation("com.google.android.gms:play-services-location:21.0.1")
 
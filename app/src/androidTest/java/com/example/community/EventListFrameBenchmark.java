@@ -0,0 +1,180 @@
+package com.example.community;
+
+import static org.junit.Assert.assertTrue;
+
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.view.Choreographer;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.fragment.app.Fragment;
+import androidx.fragment.app.testing.FragmentScenario;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.community.ArrayAdapters.EventArrayAdapter;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures dropped frames while a 5k-event list is filtered keystroke by keystroke and
+ * scrolled at the same time, once with a full rebind per keystroke (what the adapters did
+ * with {@code notifyDataSetChanged()}) and once with diffed list submissions.
+ *
+ * <p>Both runs are logged; timings depend on the device, so only the diffed run is checked
+ * against the full rebind, with some slack for noise.
+ */
+@RunWith(AndroidJUnit4.class)
+public class EventListFrameBenchmark {
+
+    private static final String TAG = "EventListFrameBenchmark";
+
+    private static final int EVENT_COUNT = 5000;
+    private static final String[] KEYSTROKES = {"1", "12", "123", "1234", "123", "12", "1", ""};
+    private static final int ROUNDS = 5;
+    private static final long KEYSTROKE_INTERVAL_MS = 80;
+    private static final long SETTLE_MS = 500;
+    private static final int SCROLL_PX = 600;
+
+    /** Hosts a bare RecyclerView, so only list binding is measured. */
+    public static class ListFragment extends Fragment {
+        RecyclerView list;
+
+        @Override
+        public View onCreateView(@NonNull LayoutInflater inflater, ViewGroup container,
+                                 Bundle savedInstanceState) {
+            list = new RecyclerView(requireContext());
+            list.setLayoutManager(new LinearLayoutManager(requireContext()));
+            // animations would add the same cost to both runs
+            list.setItemAnimator(null);
+            return list;
+        }
+    }
+
+    @Test
+    public void diffedUpdatesDropFewerFrames() throws Exception {
+        List<Event> events = new ArrayList<>(EVENT_COUNT);
+        for (int i = 0; i < EVENT_COUNT; i++) {
+            Event event = new Event();
+            event.setEventID("event-" + i);
+            event.setTitle("Event " + i);
+            event.setDescription("Benchmark event number " + i);
+            events.add(event);
+        }
+
+        FrameRecorder fullRebind = run(events, false);
+        FrameRecorder diffed = run(events, true);
+
+        Log.i(TAG, String.format("events=%d keystrokes=%d fullRebind: frames=%d dropped=%d worst=%.1fms "
+                        + "diffed: frames=%d dropped=%d worst=%.1fms",
+                EVENT_COUNT, ROUNDS * KEYSTROKES.length,
+                fullRebind.frames, fullRebind.dropped, fullRebind.worstNanos / 1e6,
+                diffed.frames, diffed.dropped, diffed.worstNanos / 1e6));
+
+        assertTrue("Should have recorded frames", diffed.frames > 0 && fullRebind.frames > 0);
+        assertTrue("Diffed updates should not drop noticeably more frames",
+                diffed.dropped <= fullRebind.dropped + 2);
+    }
+
+    /**
+     * Filters and scrolls the list on the main thread, recording frame times until it settles.
+     */
+    private FrameRecorder run(List<Event> events, boolean diffed) throws InterruptedException {
+        FrameRecorder recorder = new FrameRecorder();
+        CountDownLatch done = new CountDownLatch(1);
+        int updates = ROUNDS * KEYSTROKES.length;
+
+        try (FragmentScenario<ListFragment> scenario = FragmentScenario.launchInContainer(ListFragment.class)) {
+            scenario.onFragment(fragment -> {
+                EventArrayAdapter adapter = new EventArrayAdapter();
+                fragment.list.setAdapter(adapter);
+                adapter.submitList(events);
+
+                Handler handler = new Handler(Looper.getMainLooper());
+                handler.postDelayed(recorder::start, SETTLE_MS);
+                for (int i = 0; i < updates; i++) {
+                    String query = KEYSTROKES[i % KEYSTROKES.length];
+                    boolean last = i == updates - 1;
+                    handler.postDelayed(() -> {
+                        List<Event> filtered = filter(events, query);
+                        fragment.list.smoothScrollBy(0, SCROLL_PX);
+                        if (diffed) {
+                            adapter.submitList(filtered);
+                        } else {
+                            // drops every row and binds the new list from scratch
+                            adapter.submitList(null);
+                            adapter.submitList(filtered);
+                        }
+                        if (last) {
+                            handler.postDelayed(() -> {
+                                recorder.stop();
+                                done.countDown();
+                            }, SETTLE_MS);
+                        }
+                    }, SETTLE_MS + (i + 1) * KEYSTROKE_INTERVAL_MS);
+                }
+            });
+            assertTrue("Benchmark should finish", done.await(2, TimeUnit.MINUTES));
+        }
+        return recorder;
+    }
+
+    private static List<Event> filter(List<Event> events, String query) {
+        List<Event> filtered = new ArrayList<>();
+        for (Event event : events) {
+            if (event.getTitle().contains(query)) {
+                filtered.add(event);
+            }
+        }
+        return filtered;
+    }
+
+    /**
+     * Counts frames and the vsyncs missed between them, taking a 60 Hz frame as the budget.
+     */
+    private static class FrameRecorder implements Choreographer.FrameCallback {
+        private static final long FRAME_BUDGET_NANOS = 16_666_667L;
+
+        int frames;
+        int dropped;
+        long worstNanos;
+        private long lastFrameNanos;
+        private boolean running;
+
+        void start() {
+            running = true;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+
+        void stop() {
+            running = false;
+        }
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            if (!running) {
+                return;
+            }
+            if (lastFrameNanos != 0) {
+                long interval = frameTimeNanos - lastFrameNanos;
+                frames++;
+                dropped += Math.max(0, Math.round((double) interval / FRAME_BUDGET_NANOS) - 1);
+                worstNanos = Math.max(worstNanos, interval);
+            }
+            lastFrameNanos = frameTimeNanos;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+}
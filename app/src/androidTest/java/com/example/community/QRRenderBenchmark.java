@@ -0,0 +1,92 @@
+package com.example.community;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Color;
+import android.util.Log;
+
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.google.android.gms.tasks.Tasks;
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the old QR rendering, one {@code setPixel} call per pixel of a 512x512 bitmap,
+ * with the module-scale {@code setPixels} renderer, and with a cached lookup through
+ * {@link QRCodeCache}, which is what the event screen now pays after the first render.
+ *
+ * <p>Median times are logged; timings depend on the device, so only the ordering of the
+ * old and new renders is checked.
+ */
+@RunWith(AndroidJUnit4.class)
+public class QRRenderBenchmark {
+
+    private static final String TAG = "QRRenderBenchmark";
+
+    private static final int SIZE = 512;
+    private static final int WARMUP = 5;
+    private static final int RUNS = 30;
+
+    private interface Render {
+        void run(String eventID) throws Exception;
+    }
+
+    @Test
+    public void moduleScaleRenderBeatsPerPixelRender() throws Exception {
+        Context context = ApplicationProvider.getApplicationContext();
+        QRCodeCache cache = QRCodeCache.getInstance(context);
+        String cachedEventID = UUID.randomUUID().toString();
+        Tasks.await(cache.get(cachedEventID), 10, TimeUnit.SECONDS);
+
+        double perPixelMs = median(QRRenderBenchmark::renderPerPixel);
+        double moduleScaleMs = median(eventID -> QRCodeCache.render(eventID, SIZE));
+        double cachedMs = median(eventID -> Tasks.await(cache.get(cachedEventID), 10, TimeUnit.SECONDS));
+
+        Log.i(TAG, String.format("size=%d runs=%d setPixel=%.2fms setPixels=%.2fms cached=%.3fms "
+                        + "speedup=%.1fx", SIZE, RUNS, perPixelMs, moduleScaleMs, cachedMs,
+                perPixelMs / moduleScaleMs));
+
+        Bitmap bitmap = QRCodeCache.render("event-123", SIZE);
+        assertEquals("Should use whole pixels per module", 0, bitmap.getWidth() % 29);
+        assertTrue("setPixels render should beat per-pixel render", moduleScaleMs < perPixelMs);
+    }
+
+    /** The rendering QRCodeService used before, kept here as the baseline. */
+    private static void renderPerPixel(String eventID) throws Exception {
+        BitMatrix bitMatrix = new QRCodeWriter().encode(eventID, BarcodeFormat.QR_CODE, SIZE, SIZE);
+        Bitmap bitmap = Bitmap.createBitmap(SIZE, SIZE, Bitmap.Config.RGB_565);
+        for (int x = 0; x < SIZE; x++) {
+            for (int y = 0; y < SIZE; y++) {
+                bitmap.setPixel(x, y, bitMatrix.get(x, y) ? Color.BLACK : Color.WHITE);
+            }
+        }
+    }
+
+    private static double median(Render render) throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            render.run(UUID.randomUUID().toString());
+        }
+        double[] millis = new double[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            String eventID = UUID.randomUUID().toString();
+            long start = System.nanoTime();
+            render.run(eventID);
+            millis[i] = (System.nanoTime() - start) / 1e6;
+        }
+        Arrays.sort(millis);
+        return millis[RUNS / 2];
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.community;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.FirebaseFirestore;
+
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hammers the transactional join path with concurrent joiners and reports
+ * throughput and capacity overshoot.
+ *
+ * <p>Runs against the local Firestore emulator ({@code firebase emulators:start --only firestore});
+ * skipped when Firestore was already bound to the production backend in this process.
+ */
+@RunWith(AndroidJUnit4.class)
+public class WaitlistJoinBenchmark {
+
+    private static final String TAG = "WaitlistJoinBenchmark";
+    private static final String EMULATOR_HOST = "10.0.2.2";
+    private static final int EMULATOR_PORT = 8080;
+
+    private static final int CLIENTS = 300;
+    private static final int WAITLIST_CAPACITY = 50;
+
+    @BeforeClass
+    public static void useEmulator() {
+        try {
+            FirebaseFirestore.getInstance().useEmulator(EMULATOR_HOST, EMULATOR_PORT);
+        } catch (IllegalStateException e) {
+            Assume.assumeNoException("Firestore already in use, emulator not available", e);
+        }
+    }
+
+    @Test
+    public void concurrentJoinsNeverOvershootCapacity() throws Exception {
+        EventRepository eventRepository = new EventRepository();
+        WaitlistRepository waitlistRepository = new WaitlistRepository();
+        WaitingListEntryService waitingListEntryService = new WaitingListEntryService();
+
+        Event event = new Event();
+        event.setEventID(UUID.randomUUID().toString());
+        event.setOrganizerID("benchmark-organizer");
+        event.setTitle("Join benchmark");
+        event.setStatus(EventStatus.OPEN);
+        event.setMaxCapacity(WAITLIST_CAPACITY);
+        event.setCurrentCapacity(0);
+        event.setWaitlistCapacity(WAITLIST_CAPACITY);
+        Tasks.await(eventRepository.create(event), 30, TimeUnit.SECONDS);
+        Tasks.await(waitlistRepository.rebuildCounters(event.getEventID()), 30, TimeUnit.SECONDS);
+
+        List<Task<Void>> joins = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < CLIENTS; i++) {
+            joins.add(waitingListEntryService.join("benchmark-user-" + i, event.getEventID()));
+        }
+        try {
+            Tasks.await(Tasks.whenAll(joins), 5, TimeUnit.MINUTES);
+        } catch (Exception ignored) {
+            // joins past capacity, or that lose the retry race, are expected to fail
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        int succeeded = 0;
+        for (Task<Void> join : joins) {
+            if (join.isSuccessful()) {
+                succeeded++;
+            }
+        }
+        int stored = Tasks.await(
+                waitlistRepository.listByEventAndStatus(event.getEventID(), EntryStatus.WAITING),
+                30, TimeUnit.SECONDS).size();
+        long counted = Tasks.await(
+                waitlistRepository.countByEventAndStatus(event.getEventID(), EntryStatus.WAITING),
+                30, TimeUnit.SECONDS);
+
+        double seconds = elapsedNanos / 1e9;
+        Log.i(TAG, String.format("clients=%d capacity=%d accepted=%d stored=%d counter=%d "
+                        + "elapsed=%.2fs throughput=%.1f joins/s overshoot=%d",
+                CLIENTS, WAITLIST_CAPACITY, succeeded, stored, counted,
+                seconds, CLIENTS / seconds, Math.max(0, stored - WAITLIST_CAPACITY)));
+
+        assertTrue("Waitlist should never exceed capacity", stored <= WAITLIST_CAPACITY);
+        assertEquals("Every accepted join should be stored", succeeded, stored);
+        assertEquals("Counter should match stored entries", stored, counted);
+    }
+}
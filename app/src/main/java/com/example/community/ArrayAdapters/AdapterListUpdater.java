@@ -0,0 +1,53 @@
+package com.example.community.ArrayAdapters;
+
+import androidx.recyclerview.widget.ListAdapter;
+
+import com.example.community.ListChangeListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Applies live list changes to a backing list and hands a copy of it to a
+ * {@link ListAdapter} once per database snapshot, so the adapter only rebinds the rows
+ * that changed.
+ *
+ * @param <T> type of the items
+ */
+public class AdapterListUpdater<T> implements ListChangeListener<T> {
+
+    private final List<T> items;
+    private final ListAdapter<T, ?> adapter;
+
+    /**
+     * Creates an updater for an adapter.
+     *
+     * @param items   list kept in step with the live query
+     * @param adapter adapter to submit the list to
+     */
+    public AdapterListUpdater(List<T> items, ListAdapter<T, ?> adapter) {
+        this.items = items;
+        this.adapter = adapter;
+    }
+
+    @Override
+    public void onAdded(T item, int index) {
+        items.add(index, item);
+    }
+
+    @Override
+    public void onModified(T item, int oldIndex, int newIndex) {
+        items.remove(oldIndex);
+        items.add(newIndex, item);
+    }
+
+    @Override
+    public void onRemoved(T item, int index) {
+        items.remove(index);
+    }
+
+    @Override
+    public void onChangesApplied() {
+        adapter.submitList(new ArrayList<>(items));
+    }
+}
@@ -10,20 +10,36 @@ import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.community.R;
 import com.example.community.User;
 import com.example.community.UserService;
 
-import java.util.List;
+import java.util.Objects;
 
 /**
- * Adapter for the admin host list
+ * Adapter for the admin host list.
+ * Lists are handed over with {@link #submitList} and only changed rows are rebound.
  */
-public class AdminHostAdapter extends RecyclerView.Adapter<AdminHostAdapter.HostViewHolder> {
+public class AdminHostAdapter extends ListAdapter<User, AdminHostAdapter.HostViewHolder> {
 
-    private List<User> userList;
+    /** Matches users by ID and compares the name shown in a row */
+    static final DiffUtil.ItemCallback<User> DIFF_CALLBACK = new DiffUtil.ItemCallback<User>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull User oldItem, @NonNull User newItem) {
+            return Objects.equals(oldItem.getUserID(), newItem.getUserID());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull User oldItem, @NonNull User newItem) {
+            return Objects.equals(oldItem.getUsername(), newItem.getUsername());
+        }
+    };
+
+    private final StableIds stableIds = new StableIds();
     private final UserService userService;
     private final Context context;
 
@@ -37,15 +53,15 @@ public class AdminHostAdapter extends RecyclerView.Adapter<AdminHostAdapter.Host
     private final OnHostListener onHostListener;
 
     /**
-     * Constructs an AdminHostAdapter
+     * Constructs an AdminHostAdapter. Users are shown once a list is submitted.
      *
      * @param context the application context
-     * @param userList te list of users to display
      * @param onHostListener the listener for host actions
      */
-    public AdminHostAdapter(Context context, List<User> userList, OnHostListener onHostListener) {
+    public AdminHostAdapter(Context context, OnHostListener onHostListener) {
+        super(DIFF_CALLBACK);
+        setHasStableIds(true);
         this.context = context;
-        this.userList = userList;
         this.userService = new UserService();
         this.onHostListener = onHostListener;
     }
@@ -75,7 +91,7 @@ public class AdminHostAdapter extends RecyclerView.Adapter<AdminHostAdapter.Host
      */
     @Override
     public void onBindViewHolder(@NonNull HostViewHolder holder, int position) {
-        User user = userList.get(position);
+        User user = getItem(position);
 
         String displayName = (user.getUsername() != null && !user.getUsername().isEmpty()) ? user.getUsername() : user.getUserID();
         holder.hostNameTextView.setText(displayName);
@@ -89,13 +105,14 @@ public class AdminHostAdapter extends RecyclerView.Adapter<AdminHostAdapter.Host
     }
 
     /**
-     * Returns total number of items in the user list
+     * Returns the stable ID of the user at a position
      *
-     * @return size of the user list
+     * @param position position of the item in the user list
+     * @return ID that stays the same for the user across list updates
      */
     @Override
-    public int getItemCount() {
-        return userList.size();
+    public long getItemId(int position) {
+        return stableIds.idFor(getItem(position).getUserID());
     }
 
     // ViewHolder class that holds the views for each item
@@ -10,23 +10,46 @@ import android.widget.TextView;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.community.Event;
+import com.example.community.ImageVariants;
 import com.example.community.R;
 import com.squareup.picasso.Picasso;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Objects;
 
 /**
  * RecyclerView Adapter for displaying a list of {@link Event} objects.
  * Each item in the list shows the event's name and description.
+ * <p>
+ *     Lists are handed over with {@link #submitList}; the differences from the current list are
+ *     computed off the main thread, so only rows whose event changed are rebound and posters
+ *     of unchanged rows are not reloaded.
+ * </p>
  */
-public class EventArrayAdapter extends RecyclerView.Adapter<EventArrayAdapter.ViewHolder> {
+public class EventArrayAdapter extends ListAdapter<Event, EventArrayAdapter.ViewHolder> {
 
-    /** List of events to display in the RecyclerView */
-    private List<Event> events;
+    /** Matches events by ID and compares the fields shown in a row */
+    static final DiffUtil.ItemCallback<Event> DIFF_CALLBACK = new DiffUtil.ItemCallback<Event>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Event oldItem, @NonNull Event newItem) {
+            return Objects.equals(oldItem.getEventID(), newItem.getEventID());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Event oldItem, @NonNull Event newItem) {
+            return Objects.equals(oldItem.getTitle(), newItem.getTitle())
+                    && Objects.equals(oldItem.getDescription(), newItem.getDescription())
+                    && Objects.equals(oldItem.getPosterImageURL(), newItem.getPosterImageURL())
+                    && Objects.equals(oldItem.getPosterVariantURLs(), newItem.getPosterVariantURLs());
+        }
+    };
+
+    /** Row IDs that stay the same for an event across list updates */
+    private final StableIds stableIds = new StableIds();
 
     /** Listener for click events on individual Event items */
     private OnEventClickListener listener;
@@ -70,7 +93,7 @@ public class EventArrayAdapter extends RecyclerView.Adapter<EventArrayAdapter.Vi
             view.setOnClickListener(v -> {
                 int position = getBindingAdapterPosition();
                 if (position != RecyclerView.NO_POSITION && listener != null) {
-                    listener.onEventClick(events.get(position));
+                    listener.onEventClick(getItem(position));
                 }
             });
 
@@ -78,12 +101,11 @@ public class EventArrayAdapter extends RecyclerView.Adapter<EventArrayAdapter.Vi
     }
 
     /**
-     * Constructor for EventArrayAdapter.
-     *
-     * @param events List of Event objects to display.
+     * Constructor for EventArrayAdapter. Events are shown once a list is submitted.
      */
-    public EventArrayAdapter(List<Event> events) {
-        this.events = events;
+    public EventArrayAdapter() {
+        super(DIFF_CALLBACK);
+        setHasStableIds(true);
     }
 
     /**
@@ -107,11 +129,12 @@ public class EventArrayAdapter extends RecyclerView.Adapter<EventArrayAdapter.Vi
      */
     @Override
     public void onBindViewHolder(ViewHolder viewHolder, final int position) {
-        Event event = events.get(position);
+        Event event = getItem(position);
         viewHolder.eventName.setText(event.getTitle());
         viewHolder.eventDescription.setText(event.getDescription());
 
-        String posterURL = event.getPosterImageURL();
+        // load the smallest poster variant that fills the thumbnail
+        String posterURL = event.posterURLFor(ImageVariants.forView(viewHolder.eventThumbnail));
         if (posterURL != null && !posterURL.isEmpty()) {
             Picasso.get()
                     .load(posterURL)
@@ -127,13 +150,14 @@ public class EventArrayAdapter extends RecyclerView.Adapter<EventArrayAdapter.Vi
     }
 
     /**
-     * Returns the total number of items in the data set.
+     * Returns the stable ID of the event at a position.
      *
-     * @return Number of events in the adapter.
+     * @param position Position of the item in the data set.
+     * @return ID that stays the same for the event across list updates.
      */
     @Override
-    public int getItemCount() {
-        return events.size();
+    public long getItemId(int position) {
+        return stableIds.idFor(getItem(position).getEventID());
     }
 
     /**
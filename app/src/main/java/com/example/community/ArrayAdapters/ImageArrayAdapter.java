@@ -8,21 +8,41 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.community.Image;
+import com.example.community.ImageVariants;
 import com.example.community.R;
 import com.example.community.UserRepository;
 import com.squareup.picasso.Picasso;
 
-import java.util.List;
+import java.util.Objects;
 
 /**
- * Adapter for displaying a list of images
+ * Adapter for displaying a list of images.
+ * Lists are handed over with {@link #submitList} and only changed rows are rebound, so
+ * unchanged rows do not reload their image or uploader name.
  */
-public class ImageArrayAdapter extends RecyclerView.Adapter<ImageArrayAdapter.ImageViewHolder> {
+public class ImageArrayAdapter extends ListAdapter<Image, ImageArrayAdapter.ImageViewHolder> {
 
-    private final List<Image> imageList;
+    /** Matches images by ID and compares the fields shown in a row */
+    static final DiffUtil.ItemCallback<Image> DIFF_CALLBACK = new DiffUtil.ItemCallback<Image>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Image oldItem, @NonNull Image newItem) {
+            return Objects.equals(oldItem.getImageID(), newItem.getImageID());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Image oldItem, @NonNull Image newItem) {
+            return Objects.equals(oldItem.getImageURL(), newItem.getImageURL())
+                    && Objects.equals(oldItem.getVariantURLs(), newItem.getVariantURLs())
+                    && Objects.equals(oldItem.getUploadedBy(), newItem.getUploadedBy());
+        }
+    };
+
+    private final StableIds stableIds = new StableIds();
     private final OnImageDeleteListener listener;
 
     /**
@@ -33,13 +53,13 @@ public class ImageArrayAdapter extends RecyclerView.Adapter<ImageArrayAdapter.Im
     }
 
     /**
-     * Constructs an ImageArrayAdapter
+     * Constructs an ImageArrayAdapter. Images are shown once a list is submitted.
      *
-     * @param imageList list of images to display
      * @param listener listener for handling image deletion
      */
-    public ImageArrayAdapter(List<Image> imageList, OnImageDeleteListener listener) {
-        this.imageList = imageList;
+    public ImageArrayAdapter(OnImageDeleteListener listener) {
+        super(DIFF_CALLBACK);
+        setHasStableIds(true);
         this.listener = listener;
     }
 
@@ -66,7 +86,7 @@ public class ImageArrayAdapter extends RecyclerView.Adapter<ImageArrayAdapter.Im
      */
     @Override
     public void onBindViewHolder(@NonNull ImageViewHolder holder, int position) {
-        Image image = imageList.get(position);
+        Image image = getItem(position);
         String uploaderID = image.getUploadedBy();
 
         if (uploaderID != null && !uploaderID.isEmpty()) {
@@ -91,9 +111,10 @@ public class ImageArrayAdapter extends RecyclerView.Adapter<ImageArrayAdapter.Im
             holder.imageInfo.setText("Uploaded by: \nUnknown");
         }
 
-        if (image.getImageURL() != null && !image.getImageURL().isEmpty()) {
+        String imageURL = image.urlFor(ImageVariants.forView(holder.imageView));
+        if (imageURL != null && !imageURL.isEmpty()) {
             Picasso.get()
-                    .load(image.getImageURL())
+                    .load(imageURL)
                     .placeholder(android.R.drawable.ic_menu_gallery)
                     .error(android.R.drawable.stat_notify_error)
                     .into(holder.imageView);
@@ -109,12 +130,13 @@ public class ImageArrayAdapter extends RecyclerView.Adapter<ImageArrayAdapter.Im
     }
 
     /**
-     * Returns total number of item,s in the list
-     * @return
+     * Returns the stable ID of the image at a position
+     * @param position position of the item in the list
+     * @return ID that stays the same for the image across list updates
      */
     @Override
-    public int getItemCount() {
-        return imageList.size();
+    public long getItemId(int position) {
+        return stableIds.idFor(getItem(position).getImageID());
     }
 
     /**
@@ -8,19 +8,37 @@ import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.community.Notification;
 import com.example.community.NotificationType;
 import com.example.community.R;
 
-import java.util.ArrayList;
+import java.util.Objects;
 
 /**
  * RecyclerView Adapter for displaying a list of {@link Notification} objects.
  * Provides buttons for actions such as Accept, Decline, or View Event based on notification type.
+ * Lists are handed over with {@link #submitList} and only changed rows are rebound.
  */
-public class NotificationAdapter extends RecyclerView.Adapter<NotificationAdapter.ViewHolder> {
+public class NotificationAdapter extends ListAdapter<Notification, NotificationAdapter.ViewHolder> {
+
+    /** Matches notifications by ID and compares the fields shown in a row */
+    static final DiffUtil.ItemCallback<Notification> DIFF_CALLBACK = new DiffUtil.ItemCallback<Notification>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Notification oldItem, @NonNull Notification newItem) {
+            return Objects.equals(oldItem.getNotificationID(), newItem.getNotificationID());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Notification oldItem, @NonNull Notification newItem) {
+            return Objects.equals(oldItem.getMessage(), newItem.getMessage())
+                    && oldItem.getType() == newItem.getType()
+                    && Objects.equals(oldItem.getEventID(), newItem.getEventID());
+        }
+    };
 
     /** Listener interface for handling notification actions */
     public interface NotificationActionListener {
@@ -46,21 +64,20 @@ public class NotificationAdapter extends RecyclerView.Adapter<NotificationAdapte
         void onViewEvent(Notification notification);
     }
 
-    /** List of notifications to display */
-    private final ArrayList<Notification> notifications;
+    /** Row IDs that stay the same for a notification across list updates */
+    private final StableIds stableIds = new StableIds();
 
     /** Listener for handling notification actions */
     private final NotificationActionListener listener;
 
     /**
-     * Constructor for NotificationAdapter.
+     * Constructor for NotificationAdapter. Notifications are shown once a list is submitted.
      *
-     * @param notifications List of notifications to display.
      * @param listener Listener for handling Accept, Decline, or View Event actions.
      */
-    public NotificationAdapter(ArrayList<Notification> notifications,
-                               NotificationActionListener listener) {
-        this.notifications = notifications;
+    public NotificationAdapter(NotificationActionListener listener) {
+        super(DIFF_CALLBACK);
+        setHasStableIds(true);
         this.listener = listener;
     }
 
@@ -88,7 +105,7 @@ public class NotificationAdapter extends RecyclerView.Adapter<NotificationAdapte
      */
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        Notification n = notifications.get(position);
+        Notification n = getItem(position);
 
         // Set main notification text
         holder.messageText.setText(n.getMessage());
@@ -124,13 +141,14 @@ public class NotificationAdapter extends RecyclerView.Adapter<NotificationAdapte
     }
 
     /**
-     * Returns the total number of notifications in the adapter.
+     * Returns the stable ID of the notification at a position.
      *
-     * @return Size of the notifications list.
+     * @param position Position of the item in the notifications list.
+     * @return ID that stays the same for the notification across list updates.
      */
     @Override
-    public int getItemCount() {
-        return notifications.size();
+    public long getItemId(int position) {
+        return stableIds.idFor(getItem(position).getNotificationID());
     }
 
     /**
@@ -163,11 +181,4 @@ public class NotificationAdapter extends RecyclerView.Adapter<NotificationAdapte
             declineButton = itemView.findViewById(R.id.declineButton);
         }
     }
-    public void removeNotification(Notification notification) {
-        int index = notifications.indexOf(notification);
-        if (index != -1) {
-            notifications.remove(index);
-            notifyItemRemoved(index);
-        }
-    }
 }
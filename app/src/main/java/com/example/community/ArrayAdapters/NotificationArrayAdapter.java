@@ -6,29 +6,72 @@ import android.view.ViewGroup;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.community.Notification;
 import com.example.community.R;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-
-public class NotificationArrayAdapter extends RecyclerView.Adapter<NotificationArrayAdapter.ViewHolder> {
-    private final List<Notification> notifications;
+import java.util.Objects;
+
+/**
+ * Adapter for the admin notification log, grouping consecutive notifications of an event
+ * under a header with the event title.
+ * Lists are handed over with {@link #submitList} and only changed rows are rebound.
+ */
+public class NotificationArrayAdapter extends ListAdapter<Notification, NotificationArrayAdapter.ViewHolder> {
     private final Map<String, String> eventTitleMap;
+    private final StableIds stableIds = new StableIds();
 
     /**
-     * Constructor accepting the list of notifications and the map of Event IDs to Event Titles.
+     * Constructor accepting the map of Event IDs to Event Titles.
+     * Notifications are shown once a list is submitted.
      *
-     * @param notifications List of notification objects.
      * @param eventTitleMap Map where Key = EventID and Value = Event Title.
      */
-    public NotificationArrayAdapter(List<Notification> notifications, Map<String, String> eventTitleMap) {
-        this.notifications = notifications;
+    public NotificationArrayAdapter(Map<String, String> eventTitleMap) {
+        super(NotificationAdapter.DIFF_CALLBACK);
+        setHasStableIds(true);
         this.eventTitleMap = eventTitleMap;
     }
 
+    /**
+     * Redraws rows whose header appears or disappears because the row above them changed,
+     * which the item comparison alone does not catch.
+     *
+     * @param previousList list shown before
+     * @param currentList list shown now
+     */
+    @Override
+    public void onCurrentListChanged(@NonNull List<Notification> previousList,
+                                     @NonNull List<Notification> currentList) {
+        Map<String, Boolean> previousHeaders = new HashMap<>();
+        for (int i = 0; i < previousList.size(); i++) {
+            previousHeaders.put(previousList.get(i).getNotificationID(), showsHeader(previousList, i));
+        }
+        for (int i = 0; i < currentList.size(); i++) {
+            Boolean before = previousHeaders.get(currentList.get(i).getNotificationID());
+            if (before != null && before != showsHeader(currentList, i)) {
+                notifyItemChanged(i);
+            }
+        }
+    }
+
+    /**
+     * Returns whether a row starts a new event group.
+     *
+     * @param list notifications in display order
+     * @param position position of the row
+     * @return true if the row shows an event header
+     */
+    private static boolean showsHeader(List<Notification> list, int position) {
+        return position == 0
+                || !Objects.equals(list.get(position).getEventID(), list.get(position - 1).getEventID());
+    }
+
     @NonNull
     @Override
     public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
@@ -38,26 +81,13 @@ public class NotificationArrayAdapter extends RecyclerView.Adapter<NotificationA
 
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        Notification notif = notifications.get(position);
+        Notification notif = getItem(position);
 
         holder.message.setText(notif.getMessage() != null ? "-> " + notif.getMessage() : "");
 
-        boolean showHeader = false;
         String currentEventID = notif.getEventID();
 
-        if (position == 0) {
-            showHeader = true;
-        } else {
-            String prevEventID = notifications.get(position - 1).getEventID();
-
-            if (currentEventID != null && !currentEventID.equals(prevEventID)) {
-                showHeader = true;
-            } else if (currentEventID == null && prevEventID != null) {
-                showHeader = true;
-            }
-        }
-
-        if (showHeader) {
+        if (showsHeader(getCurrentList(), position)) {
             holder.headerTitle.setVisibility(View.VISIBLE);
 
             if (currentEventID != null) {
@@ -72,8 +102,8 @@ public class NotificationArrayAdapter extends RecyclerView.Adapter<NotificationA
     }
 
     @Override
-    public int getItemCount() {
-        return notifications.size();
+    public long getItemId(int position) {
+        return stableIds.idFor(getItem(position).getNotificationID());
     }
 
     public static class ViewHolder extends RecyclerView.ViewHolder {
@@ -0,0 +1,34 @@
+package com.example.community.ArrayAdapters;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hands out a distinct {@code long} for each document ID an adapter has shown, so rows
+ * keep their view holders across list updates. Unlike hashing the ID, two documents can
+ * never share a number.
+ */
+final class StableIds {
+
+    private final Map<String, Long> ids = new HashMap<>();
+
+    /**
+     * Returns the number for a document ID, assigning the next free one on first use.
+     *
+     * @param key document ID, or null
+     * @return stable ID, or {@link RecyclerView#NO_ID} for a null key
+     */
+    long idFor(String key) {
+        if (key == null) {
+            return RecyclerView.NO_ID;
+        }
+        Long id = ids.get(key);
+        if (id == null) {
+            id = (long) ids.size();
+            ids.put(key, id);
+        }
+        return id;
+    }
+}
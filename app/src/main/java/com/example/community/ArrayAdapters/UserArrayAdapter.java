@@ -8,24 +8,42 @@ import android.widget.CheckBox;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.community.R;
 import com.example.community.User;
 import com.example.community.WaitingListEntry;
 
-import java.util.List;
+import java.util.Objects;
 
 /**
  * RecyclerView Adapter for displaying a list of {@link User} objects.
  * Shows each user's name, email, and phone number.
+ * Lists are handed over with {@link #submitList} and only changed rows are rebound.
  */
-public class UserArrayAdapter extends RecyclerView.Adapter<UserArrayAdapter.ViewHolder> {
+public class UserArrayAdapter extends ListAdapter<User, UserArrayAdapter.ViewHolder> {
     /** Tag for logging*/
     private static final String TAG = "UserArrayAdapter";
 
-    /** List of users to display in the RecyclerView */
-    private List<User> users;
+    /** Matches users by ID and compares the fields shown in a row */
+    static final DiffUtil.ItemCallback<User> DIFF_CALLBACK = new DiffUtil.ItemCallback<User>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull User oldItem, @NonNull User newItem) {
+            return Objects.equals(oldItem.getUserID(), newItem.getUserID());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull User oldItem, @NonNull User newItem) {
+            return Objects.equals(oldItem.getUsername(), newItem.getUsername())
+                    && Objects.equals(oldItem.getEmail(), newItem.getEmail())
+                    && Objects.equals(oldItem.getPhoneNumber(), newItem.getPhoneNumber());
+        }
+    };
+
+    /** Row IDs that stay the same for a user across list updates */
+    private final StableIds stableIds = new StableIds();
     private String listType;
     private OnUserSelectionListener selectionListener;
 
@@ -61,13 +79,13 @@ public class UserArrayAdapter extends RecyclerView.Adapter<UserArrayAdapter.View
     }
 
     /**
-     * Constructor for UserArrayAdapter.
+     * Constructor for UserArrayAdapter. Users are shown once a list is submitted.
      *
-     * @param users List of User objects to display.
      * @param listType The type of list being displayed
      */
-    public UserArrayAdapter(List<User> users, String listType){
-        this.users = users;
+    public UserArrayAdapter(String listType){
+        super(DIFF_CALLBACK);
+        setHasStableIds(true);
         this.listType = listType;
     }
 
@@ -99,7 +117,7 @@ public class UserArrayAdapter extends RecyclerView.Adapter<UserArrayAdapter.View
      */
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        User user = users.get(position);
+        User user = getItem(position);
         String displayName = user.getUsername();
         holder.userNameTextView.setText(displayName);
         holder.userEmailTextView.setText(user.getEmail());
@@ -130,13 +148,14 @@ public class UserArrayAdapter extends RecyclerView.Adapter<UserArrayAdapter.View
     }
 
     /**
-     * Returns the total number of users in the adapter.
+     * Returns the stable ID of the user at a position.
      *
-     * @return Size of the users list.
+     * @param position Position of the item in the users list.
+     * @return ID that stays the same for the user across list updates.
      */
     @Override
-    public int getItemCount() {
-        return users.size();
+    public long getItemId(int position) {
+        return stableIds.idFor(getItem(position).getUserID());
     }
 
     public interface OnUserSelectionListener {
@@ -0,0 +1,67 @@
+package com.example.community;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Runs asynchronous work over a list of items with a bounded number of tasks in flight.
+ */
+public final class BoundedTasks {
+
+    private BoundedTasks() { }
+
+    /**
+     * Runs a task for each item, with at most {@code maxInFlight} of them running at once.
+     * Items are started in list order as earlier ones finish. Every item is attempted even
+     * if others fail.
+     *
+     * @param items       items to process
+     * @param maxInFlight maximum number of tasks running at once
+     * @param action      starts the task for one item
+     * @param <T>         type of the items
+     * @return task that completes when every item has been processed, failing with the
+     *         first failure if any item failed
+     */
+    public static <T> Task<Void> forEachBounded(List<T> items, int maxInFlight,
+                                                Function<T, Task<Void>> action) {
+        AtomicInteger next = new AtomicInteger();
+        AtomicReference<Exception> firstFailure = new AtomicReference<>();
+        List<Task<Void>> workers = new ArrayList<>();
+        int workerCount = Math.min(maxInFlight, items.size());
+        for (int i = 0; i < workerCount; i++) {
+            workers.add(runRemaining(items, next, action, firstFailure));
+        }
+        return Tasks.whenAll(workers).continueWithTask(task -> {
+            Exception failure = firstFailure.get();
+            if (failure != null) {
+                return Tasks.forException(failure);
+            }
+            return task;
+        });
+    }
+
+    /**
+     * Processes items one after another until none are left. Each worker started by
+     * {@link #forEachBounded} runs one of these.
+     */
+    private static <T> Task<Void> runRemaining(List<T> items, AtomicInteger next,
+                                               Function<T, Task<Void>> action,
+                                               AtomicReference<Exception> firstFailure) {
+        int index = next.getAndIncrement();
+        if (index >= items.size()) {
+            return Tasks.forResult(null);
+        }
+        return action.apply(items.get(index)).continueWithTask(task -> {
+            if (!task.isSuccessful()) {
+                firstFailure.compareAndSet(null, task.getException());
+            }
+            return runRemaining(items, next, action, firstFailure);
+        });
+    }
+}
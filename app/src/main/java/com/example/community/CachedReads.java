@@ -0,0 +1,109 @@
+package com.example.community;
+
+import android.util.Log;
+
+import com.google.android.gms.tasks.OnSuccessListener;
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.Source;
+
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Runs Firestore reads under a {@link ReadPolicy} and records them in {@link ReadStats}.
+ */
+final class CachedReads {
+
+    private static final String TAG = "CachedReads";
+    /** Number of reads between two hit ratio log lines. */
+    private static final long LOG_EVERY = 50;
+
+    private CachedReads() { }
+
+    /**
+     * Reads a document under a policy. A cached copy of a missing document counts as a miss.
+     *
+     * @param ref       document to read
+     * @param policy    where to read from
+     * @param onRefresh called with the server copy after a stale answer, or null
+     * @return task containing the snapshot
+     */
+    static Task<DocumentSnapshot> get(DocumentReference ref, ReadPolicy policy,
+                                      OnSuccessListener<DocumentSnapshot> onRefresh) {
+        return read(ref::get, policy, DocumentSnapshot::exists,
+                snapshot -> snapshot.getMetadata().isFromCache(), onRefresh);
+    }
+
+    /**
+     * Reads a query under a policy. An empty cached result counts as a miss. A cached
+     * result only holds documents this device has seen, so it may be incomplete; it is only
+     * answered from under {@link ReadPolicy#STALE_WHILE_REVALIDATE}, whose refresh brings the
+     * full result. {@link ReadPolicy#CACHE_FIRST} reads queries like {@link ReadPolicy#DEFAULT}.
+     *
+     * @param query     query to run
+     * @param policy    where to read from
+     * @param onRefresh called with the server result after a stale answer, or null
+     * @return task containing the query result
+     */
+    static Task<QuerySnapshot> get(Query query, ReadPolicy policy,
+                                   OnSuccessListener<QuerySnapshot> onRefresh) {
+        ReadPolicy queryPolicy = policy == ReadPolicy.CACHE_FIRST ? ReadPolicy.DEFAULT : policy;
+        return read(query::get, queryPolicy, snapshot -> !snapshot.isEmpty(),
+                snapshot -> snapshot.getMetadata().isFromCache(), onRefresh);
+    }
+
+    private static <T> Task<T> read(Function<Source, Task<T>> fetch, ReadPolicy policy,
+                                    Predicate<T> usable, Predicate<T> fromCache,
+                                    OnSuccessListener<T> onRefresh) {
+        switch (policy) {
+            case SERVER_ONLY:
+                return record(fetch.apply(Source.SERVER), fromCache);
+            case CACHE_FIRST:
+            case STALE_WHILE_REVALIDATE:
+                return fetch.apply(Source.CACHE).continueWithTask(cacheTask -> {
+                    if (cacheTask.isSuccessful() && usable.test(cacheTask.getResult())) {
+                        ReadStats.getInstance().recordCacheHit();
+                        log();
+                        if (policy == ReadPolicy.STALE_WHILE_REVALIDATE) {
+                            Task<T> refresh = record(fetch.apply(Source.SERVER), fromCache);
+                            if (onRefresh != null) {
+                                refresh.addOnSuccessListener(onRefresh);
+                            }
+                            refresh.addOnFailureListener(e -> Log.w(TAG, "Background refresh failed", e));
+                        }
+                        return cacheTask;
+                    }
+                    ReadStats.getInstance().recordCacheMiss();
+                    return record(fetch.apply(Source.DEFAULT), fromCache);
+                });
+            default:
+                return record(fetch.apply(Source.DEFAULT), fromCache);
+        }
+    }
+
+    /**
+     * Counts a finished read as a server read, or as a cache hit when the default
+     * source fell back to the cache.
+     */
+    private static <T> Task<T> record(Task<T> task, Predicate<T> fromCache) {
+        return task.addOnSuccessListener(result -> {
+            if (fromCache.test(result)) {
+                ReadStats.getInstance().recordCacheHit();
+            } else {
+                ReadStats.getInstance().recordServerRead();
+            }
+            log();
+        });
+    }
+
+    private static void log() {
+        ReadStats stats = ReadStats.getInstance();
+        if ((stats.getCacheHits() + stats.getServerReads()) % LOG_EVERY == 0) {
+            Log.d(TAG, "Read stats: " + stats);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.community;
+
+import java.util.function.IntToLongFunction;
+
+/**
+ * Picks the encoder quality that keeps an image within a byte budget.
+ */
+public final class CompressionBudget {
+
+    private CompressionBudget() { }
+
+    /**
+     * Finds the highest quality whose encoded size fits the budget, by binary search.
+     * Assumes the encoded size grows with the quality, which holds for JPEG and lossy WebP.
+     *
+     * @param encodedSize function giving the encoded size in bytes at a quality
+     * @param maxBytes    largest encoded size allowed
+     * @param minQuality  lowest quality to try; returned when nothing fits
+     * @param maxQuality  highest quality to try
+     * @return the quality to encode with
+     */
+    public static int bestQuality(IntToLongFunction encodedSize, long maxBytes,
+                                  int minQuality, int maxQuality) {
+        if (encodedSize.applyAsLong(maxQuality) <= maxBytes) {
+            return maxQuality;
+        }
+        int low = minQuality;
+        int high = maxQuality - 1;
+        int best = minQuality;
+        while (low <= high) {
+            int quality = (low + high) >>> 1;
+            if (encodedSize.applyAsLong(quality) <= maxBytes) {
+                best = quality;
+                low = quality + 1;
+            } else {
+                high = quality - 1;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.community;
+
+import java.util.Arrays;
+
+/**
+ * Index of date intervals, in epoch days, for finding the intervals that overlap a range.
+ *
+ * <p>Intervals are identified by the order they were added in. They are kept sorted by start
+ * day, re-sorted lazily on the first query after an add. A query binary-searches the intervals
+ * that start no later than the end of the range and, using the longest interval seen, no earlier
+ * than any interval that could still reach its start, and only checks the end day of those.
+ */
+public class DateIntervalIndex {
+
+    /** Lower bound meaning the range has no start. */
+    public static final int UNBOUNDED_FROM = Integer.MIN_VALUE;
+    /** Upper bound meaning the range has no end. */
+    public static final int UNBOUNDED_TO = Integer.MAX_VALUE;
+
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private int size;
+
+    // start << 32 | id for every dated interval, sorted when sortedValid is true
+    private long[] byStart = new long[16];
+    private int datedCount;
+    private boolean sortedValid = true;
+    private int longest;
+
+    /**
+     * Adds an interval. An interval without a valid start never overlaps a bounded range;
+     * a missing or earlier end is treated as a one-day interval.
+     *
+     * @param startDay first day of the interval, or {@link DateValidation#NO_DATE}
+     * @param endDay   last day of the interval, or {@link DateValidation#NO_DATE}
+     * @return id of the interval
+     */
+    public int add(int startDay, int endDay) {
+        if (endDay == DateValidation.NO_DATE || endDay < startDay) {
+            endDay = startDay;
+        }
+        if (size == starts.length) {
+            starts = Arrays.copyOf(starts, size * 2);
+            ends = Arrays.copyOf(ends, size * 2);
+        }
+        int id = size++;
+        starts[id] = startDay;
+        ends[id] = endDay;
+
+        if (startDay != DateValidation.NO_DATE) {
+            if (datedCount == byStart.length) {
+                byStart = Arrays.copyOf(byStart, datedCount * 2);
+            }
+            byStart[datedCount++] = ((long) startDay << 32) | id;
+            sortedValid = false;
+            longest = Math.max(longest, endDay - startDay);
+        }
+        return id;
+    }
+
+    /**
+     * Removes every interval.
+     */
+    public void clear() {
+        size = 0;
+        datedCount = 0;
+        sortedValid = true;
+        longest = 0;
+    }
+
+    /**
+     * Returns the number of intervals added.
+     *
+     * @return number of intervals
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether one interval overlaps a range.
+     *
+     * @param id      id of the interval
+     * @param fromDay first day of the range, or {@link #UNBOUNDED_FROM}
+     * @param toDay   last day of the range, or {@link #UNBOUNDED_TO}
+     * @return true if the interval shares at least one day with the range
+     */
+    public boolean overlaps(int id, int fromDay, int toDay) {
+        if (fromDay == UNBOUNDED_FROM && toDay == UNBOUNDED_TO) {
+            return true;
+        }
+        return starts[id] != DateValidation.NO_DATE && starts[id] <= toDay && ends[id] >= fromDay;
+    }
+
+    /**
+     * Finds every interval that overlaps a range.
+     *
+     * @param fromDay first day of the range, or {@link #UNBOUNDED_FROM}
+     * @param toDay   last day of the range, or {@link #UNBOUNDED_TO}
+     * @return ids of the overlapping intervals, in ascending order
+     */
+    public int[] query(int fromDay, int toDay) {
+        if (fromDay == UNBOUNDED_FROM && toDay == UNBOUNDED_TO) {
+            int[] all = new int[size];
+            for (int i = 0; i < size; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+        if (!sortedValid) {
+            Arrays.sort(byStart, 0, datedCount);
+            sortedValid = true;
+        }
+
+        // intervals starting before this cannot reach fromDay
+        long earliestStart = (long) fromDay - longest;
+        int lo = lowerBound(earliestStart);
+        int hi = lowerBound((long) toDay + 1);
+
+        int[] ids = new int[Math.max(0, hi - lo)];
+        int count = 0;
+        for (int i = lo; i < hi; i++) {
+            int id = (int) byStart[i];
+            if (ends[id] >= fromDay) {
+                ids[count++] = id;
+            }
+        }
+        ids = Arrays.copyOf(ids, count);
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    /**
+     * Returns the index of the first sorted interval whose start day is at least {@code day}.
+     */
+    private int lowerBound(long day) {
+        int lo = 0;
+        int hi = datedCount;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if ((byStart[mid] >> 32) < day) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.community;
 
+import java.time.DateTimeException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
@@ -11,6 +12,9 @@ import java.time.format.DateTimeParseException;
 public class DateValidation {
     public static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
+    /** Epoch day returned by {@link #toEpochDay(String)} for a missing or invalid date. */
+    public static final int NO_DATE = Integer.MIN_VALUE;
+
     /**
      * Checks if a date string matches the expected format (yyyy-MM-dd).
      *
@@ -50,14 +54,50 @@ public class DateValidation {
      * @return true if date is within range, false otherwise
      */
     public static boolean isInDateRange(String date, String startDate, String endDate) {
-        if (!isValidDateFormat(date)
-                || !isValidDateFormat(startDate) || !isValidDateFormat(endDate)) {
+        int d = toEpochDay(date);
+        int start = toEpochDay(startDate);
+        int end = toEpochDay(endDate);
+        if (d == NO_DATE || start == NO_DATE || end == NO_DATE) {
             return false;
         }
-        LocalDate d = LocalDate.parse(date, DATE_FORMAT);
-        LocalDate start = LocalDate.parse(startDate, DATE_FORMAT);
-        LocalDate end = LocalDate.parse(endDate, DATE_FORMAT);
-        return !d.isBefore(start) && !d.isAfter(end);
+        return d >= start && d <= end;
+    }
+
+    /**
+     * Converts a yyyy-MM-dd date string to the number of days since 1970-01-01.
+     * Reads the digits directly instead of going through a {@link DateTimeFormatter},
+     * so it is cheap enough to call for every event in a list.
+     *
+     * @param date date string to convert, may be null
+     * @return epoch day of the date, or {@link #NO_DATE} if it is missing or invalid
+     */
+    public static int toEpochDay(String date) {
+        if (date == null || date.length() != 10 || date.charAt(4) != '-' || date.charAt(7) != '-') {
+            return NO_DATE;
+        }
+        int year = parseDigits(date, 0, 4);
+        int month = parseDigits(date, 5, 7);
+        int day = parseDigits(date, 8, 10);
+        if (year < 0 || month < 0 || day < 0) {
+            return NO_DATE;
+        }
+        try {
+            return (int) LocalDate.of(year, month, day).toEpochDay();
+        } catch (DateTimeException e) {
+            return NO_DATE;
+        }
+    }
+
+    private static int parseDigits(String s, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
     }
 
     /**
@@ -0,0 +1,41 @@
+package com.example.community;
+
+/**
+ * Rules for the lease held by whoever is running a cascade deletion.
+ *
+ * <p>A deletion is claimed by saving the claimant's user ID and an expiry time, and the
+ * lease is renewed as the deletion makes progress. Another user may only take the deletion
+ * over once the lease has expired, so a deletion abandoned by a device that went away is
+ * finished later while two live runners never work on it at once. Expiry is compared with
+ * the device clock, so the lease is kept far longer than any expected clock skew.
+ */
+public final class DeletionLease {
+
+    /** How long a claim lasts without being renewed, in milliseconds */
+    public static final long DURATION_MILLIS = 10 * 60 * 1000;
+
+    private DeletionLease() { }
+
+    /**
+     * Checks whether a deletion can be claimed.
+     *
+     * @param holderID        ID of the user holding the lease, or null if nobody does
+     * @param expiresAtMillis time the current lease expires, in epoch milliseconds
+     * @param claimantID      ID of the user claiming the deletion
+     * @param nowMillis       current time, in epoch milliseconds
+     * @return true if nobody else holds a live lease
+     */
+    public static boolean canClaim(String holderID, long expiresAtMillis, String claimantID, long nowMillis) {
+        return holderID == null || holderID.equals(claimantID) || nowMillis >= expiresAtMillis;
+    }
+
+    /**
+     * Gets the expiry of a lease claimed or renewed now.
+     *
+     * @param nowMillis current time, in epoch milliseconds
+     * @return time the lease expires, in epoch milliseconds
+     */
+    public static long expiryFrom(long nowMillis) {
+        return nowMillis + DURATION_MILLIS;
+    }
+}
@@ -1,9 +1,12 @@
 package com.example.community;
 
+import com.google.firebase.Timestamp;
 import com.google.firebase.firestore.DocumentId;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Represents an event in the CommUnity app.
@@ -33,6 +36,7 @@ public class Event {
     private String QRCodeImageURL;
     private String posterImageID;
     private String posterImageURL;
+    private Map<String, String> posterVariantURLs = new HashMap<>();
 
     private List<String> waitListUserIDs = new ArrayList<>();
     private List<String> attendeeListUserIDs = new ArrayList<>();
@@ -41,6 +45,11 @@ public class Event {
 
     private boolean requiresGeolocation = false;
 
+    private List<LotteryDrawRecord> lotteryDraws = new ArrayList<>();
+
+    private String deletionClaimedBy;
+    private Timestamp deletionLeaseExpiresAt;
+
     /**
      * Default constructor required for Firebase.
      */
@@ -174,6 +183,26 @@ public class Event {
         this.posterImageURL = posterImageURL;
     }
 
+    public Map<String, String> getPosterVariantURLs() {
+        return posterVariantURLs;
+    }
+
+    public void setPosterVariantURLs(Map<String, String> posterVariantURLs) {
+        this.posterVariantURLs = posterVariantURLs;
+    }
+
+    /**
+     * Gets the URL of a resized copy of the poster.
+     * Posters uploaded before variants were generated only have the original.
+     *
+     * @param variant size of the poster wanted
+     * @return URL of the variant, or the original poster URL if the variant is missing
+     */
+    public String posterURLFor(ImageVariant variant) {
+        String url = posterVariantURLs != null ? posterVariantURLs.get(variant.getKey()) : null;
+        return url != null ? url : posterImageURL;
+    }
+
     public List<String> getWaitListUserIDs() {
         return waitListUserIDs;
     }
@@ -397,6 +426,46 @@ public class Event {
         }
     }
 
+    /**
+     * Checks if registration is open on the given date.
+     * A missing or malformed registration bound is treated as unbounded.
+     *
+     * @param date date to check, in yyyy-MM-dd format
+     * @return true if the date is within the registration period, false otherwise
+     */
+    public boolean isRegistrationOpen(String date) {
+        if (registrationStart != null && DateValidation.isValidDateFormat(registrationStart)
+                && date.compareTo(registrationStart) < 0) {
+            return false;
+        }
+        return registrationEnd == null || !DateValidation.isValidDateFormat(registrationEnd)
+                || date.compareTo(registrationEnd) <= 0;
+    }
+
+    public List<LotteryDrawRecord> getLotteryDraws() {
+        return lotteryDraws;
+    }
+
+    public void setLotteryDraws(List<LotteryDrawRecord> lotteryDraws) {
+        this.lotteryDraws = lotteryDraws;
+    }
+
+    public String getDeletionClaimedBy() {
+        return deletionClaimedBy;
+    }
+
+    public void setDeletionClaimedBy(String deletionClaimedBy) {
+        this.deletionClaimedBy = deletionClaimedBy;
+    }
+
+    public Timestamp getDeletionLeaseExpiresAt() {
+        return deletionLeaseExpiresAt;
+    }
+
+    public void setDeletionLeaseExpiresAt(Timestamp deletionLeaseExpiresAt) {
+        this.deletionLeaseExpiresAt = deletionLeaseExpiresAt;
+    }
+
     public boolean getRequiresGeolocation() {
         return requiresGeolocation;
     }
@@ -2,23 +2,60 @@ package com.example.community;
 
 import android.util.Log;
 
+import com.google.android.gms.tasks.OnSuccessListener;
 import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.AggregateSource;
 import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.WriteBatch;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Repository for managing event data in Firestore.
  * Handles all database operations for events.
+ * Default reads of the same event by ID that overlap share one request, and the server's
+ * answer is reused for a few seconds, so a multi-step workflow reads each event once.
+ * Every write through this class drops the reused result. Each caller gets its own Event,
+ * but it may be a few seconds old, so checks that must hold when writing, such as
+ * capacity, belong in a transaction rather than on the returned Event.
  */
 public class EventRepository {
 
     private final String TAG = "EventRepository";
 
+    /** Maximum number of events whose last read is reused. */
+    private static final int EVENT_MEMO_SIZE = 100;
+    /** How long the last read of an event is reused. */
+    private static final long EVENT_MEMO_MILLIS = 3000;
+
+    /** Subcollection of an event holding the entrant lists of its lottery draws. */
+    private static final String SUBCOLLECTION_DRAW_ENTRANTS = "drawEntrants";
+    /** Maximum number of entrant IDs stored in one draw entrant document. */
+    static final int MAX_DRAW_ENTRANTS_PER_DOC = 5000;
+    private static final String FIELD_DELETION_CLAIMED_BY = "deletionClaimedBy";
+    private static final String FIELD_DELETION_LEASE = "deletionLeaseExpiresAt";
+    /** Maximum number of writes in one batch. */
+    private static final int MAX_BATCH_WRITES = 500;
+
+    private static final TaskCache<DocumentSnapshot> eventMemo =
+            new TaskCache<>(EVENT_MEMO_SIZE, EVENT_MEMO_MILLIS);
+
     private FirebaseFirestore db;
     private CollectionReference eventsRef;
 
@@ -38,7 +75,7 @@ public class EventRepository {
      * @return task that completes when creation finishes
      */
     public Task<Void> create(Event event) {
-        return eventsRef.document(event.getEventID()).set(event);
+        return invalidating(event.getEventID(), eventsRef.document(event.getEventID()).set(event));
     }
 
     /**
@@ -48,7 +85,46 @@ public class EventRepository {
      * @return task containing the event or null if not found
      */
     public Task<Event> getByID(String eventID) {
-        return eventsRef.document(eventID).get().continueWith(task -> {
+        return getByID(eventID, ReadPolicy.DEFAULT, null);
+    }
+
+    /**
+     * Retrieves an event by its ID under a read policy.
+     *
+     * @param eventID   ID of the event
+     * @param policy    where to read the event from
+     * @param onRefresh called with the server copy after a stale answer, or null
+     * @return task containing the event or null if not found
+     */
+    public Task<Event> getByID(String eventID, ReadPolicy policy, OnSuccessListener<Event> onRefresh) {
+        if (policy == ReadPolicy.DEFAULT) {
+            return eventMemo.get(eventID, () -> readForMemo(eventID)).continueWith(task ->
+                    task.getResult().exists() ? task.getResult().toObject(Event.class) : null);
+        }
+        return readEvent(eventID, policy, onRefresh);
+    }
+
+    /**
+     * Reads an event snapshot for the memo. Snapshots of missing events, and those the SDK
+     * answered from its local cache, are returned but not kept.
+     */
+    private Task<DocumentSnapshot> readForMemo(String eventID) {
+        return CachedReads.get(eventsRef.document(eventID), ReadPolicy.DEFAULT, null).continueWith(task -> {
+            DocumentSnapshot snapshot = task.getResult();
+            if (!snapshot.exists() || snapshot.getMetadata().isFromCache()) {
+                eventMemo.invalidate(eventID);
+            }
+            return snapshot;
+        });
+    }
+
+    /**
+     * Reads an event from Firestore, bypassing the memoized reads.
+     */
+    private Task<Event> readEvent(String eventID, ReadPolicy policy, OnSuccessListener<Event> onRefresh) {
+        OnSuccessListener<DocumentSnapshot> onRefreshSnapshot = onRefresh == null ? null
+                : snapshot -> onRefresh.onSuccess(snapshot.exists() ? snapshot.toObject(Event.class) : null);
+        return CachedReads.get(eventsRef.document(eventID), policy, onRefreshSnapshot).continueWith(task -> {
             DocumentSnapshot snapshot = task.getResult();
             return snapshot.exists() ? snapshot.toObject(Event.class) : null;
         });
@@ -61,7 +137,163 @@ public class EventRepository {
      * @return task that completes when update finishes
      */
     public Task<Void> update(Event event) {
-        return eventsRef.document(event.getEventID()).set(event);
+        return invalidating(event.getEventID(), eventsRef.document(event.getEventID()).set(event));
+    }
+
+    /**
+     * Updates only the given fields of an event, leaving every other field untouched.
+     * Fails with NOT_FOUND if the event does not exist.
+     *
+     * @param eventID ID of the event
+     * @param fields  field names mapped to their new values
+     * @return task that completes when update finishes
+     */
+    public Task<Void> update(String eventID, Map<String, Object> fields) {
+        return invalidating(eventID, eventsRef.document(eventID).update(fields));
+    }
+
+    /**
+     * Sets an event's poster fields in one transaction, leaving every other field untouched.
+     *
+     * @param eventID     ID of the event
+     * @param imageID     ID of the new poster image
+     * @param imageURL    download URL of the new poster
+     * @param variantURLs download URLs of the poster's size variants, by variant key
+     * @return task containing the ID of the poster it replaced, or null if there was none;
+     *         fails if the event does not exist
+     */
+    public Task<String> setPoster(String eventID, String imageID, String imageURL,
+                                  Map<String, String> variantURLs) {
+        DocumentReference ref = eventsRef.document(eventID);
+        eventMemo.invalidate(eventID);
+        return db.runTransaction(transaction -> {
+            DocumentSnapshot snapshot = transaction.get(ref);
+            if (!snapshot.exists()) {
+                throw new IllegalArgumentException("Event not found");
+            }
+            Map<String, Object> poster = new HashMap<>();
+            poster.put("posterImageID", imageID);
+            poster.put("posterImageURL", imageURL);
+            poster.put("posterVariantURLs", variantURLs);
+            transaction.update(ref, poster);
+            return snapshot.getString("posterImageID");
+        }).addOnCompleteListener(task -> eventMemo.invalidate(eventID));
+    }
+
+    /**
+     * Appends a lottery draw record to an event's draw history.
+     *
+     * @param eventID ID of the event
+     * @param record  record of the draw
+     * @return task that completes when the record is saved
+     */
+    public Task<Void> addLotteryDraw(String eventID, LotteryDrawRecord record) {
+        return invalidating(eventID,
+                eventsRef.document(eventID).update("lotteryDraws", FieldValue.arrayUnion(record)));
+    }
+
+    /**
+     * Saves one chunk of the IDs of the entrants of a lottery draw, in the order they were
+     * drawn from, at {@code events/{eventID}/drawEntrants/{drawID}_{index}}.
+     * A chunk holds at most {@value #MAX_DRAW_ENTRANTS_PER_DOC} IDs.
+     *
+     * @param eventID    ID of the event
+     * @param drawID     ID of the draw
+     * @param index      position of the chunk in the draw's entrant list, starting at 0
+     * @param entrantIDs IDs of the entrants in the chunk, in draw order
+     * @return task that completes when the chunk is saved
+     */
+    public Task<Void> saveDrawEntrantChunk(String eventID, String drawID, int index, List<String> entrantIDs) {
+        if (entrantIDs.size() > MAX_DRAW_ENTRANTS_PER_DOC) {
+            return Tasks.forException(new IllegalArgumentException(
+                    "Draw entrant chunk holds more than " + MAX_DRAW_ENTRANTS_PER_DOC + " IDs"));
+        }
+        return drawEntrantsRef(eventID, drawID, index)
+                .set(Collections.singletonMap("userIDs", new ArrayList<>(entrantIDs)));
+    }
+
+    /**
+     * Reads the IDs of the entrants of a past lottery draw, in the order they were drawn from.
+     *
+     * @param eventID ID of the event
+     * @param record  record of the draw
+     * @return task containing the entrant IDs; fails if the draw was recorded without them
+     */
+    public Task<List<String>> getDrawEntrants(String eventID, LotteryDrawRecord record) {
+        if (record.getDrawID() == null) {
+            return Tasks.forException(new IllegalStateException("Draw was recorded without its entrants"));
+        }
+        List<Task<List<String>>> reads = new ArrayList<>();
+        for (int i = 0; i < record.getEntrantChunkCount(); i++) {
+            reads.add(getDrawEntrantChunk(eventID, record.getDrawID(), i));
+        }
+        return Tasks.<List<String>>whenAllSuccess(reads).continueWith(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            List<String> entrantIDs = new ArrayList<>();
+            for (List<String> chunk : task.getResult()) {
+                entrantIDs.addAll(chunk);
+            }
+            return entrantIDs;
+        });
+    }
+
+    /**
+     * Reads one chunk of the IDs of the entrants of a lottery draw.
+     *
+     * @param eventID ID of the event
+     * @param drawID  ID of the draw
+     * @param index   position of the chunk in the draw's entrant list, starting at 0
+     * @return task containing the entrant IDs of the chunk, in draw order
+     */
+    public Task<List<String>> getDrawEntrantChunk(String eventID, String drawID, int index) {
+        return drawEntrantsRef(eventID, drawID, index).get().continueWith(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            List<?> chunk = (List<?>) task.getResult().get("userIDs");
+            if (chunk == null) {
+                throw new IllegalStateException("Draw entrants missing for " + drawID);
+            }
+            List<String> entrantIDs = new ArrayList<>();
+            for (Object userID : chunk) {
+                entrantIDs.add((String) userID);
+            }
+            return entrantIDs;
+        });
+    }
+
+    /**
+     * Deletes the stored entrant lists of an event's lottery draws.
+     *
+     * @param eventID ID of the event
+     * @param records records of the draws
+     * @return task that completes when every list is deleted
+     */
+    public Task<Void> deleteDrawEntrants(String eventID, List<LotteryDrawRecord> records) {
+        List<Task<Void>> batches = new ArrayList<>();
+        WriteBatch batch = db.batch();
+        int writes = 0;
+        for (LotteryDrawRecord record : records) {
+            if (record.getDrawID() == null) {
+                continue;
+            }
+            for (int i = 0; i < record.getEntrantChunkCount(); i++) {
+                batch.delete(drawEntrantsRef(eventID, record.getDrawID(), i));
+                if (++writes % MAX_BATCH_WRITES == 0) {
+                    batches.add(batch.commit());
+                    batch = db.batch();
+                }
+            }
+        }
+        batches.add(batch.commit());
+        return Tasks.whenAll(batches);
+    }
+
+    private DocumentReference drawEntrantsRef(String eventID, String drawID, int index) {
+        return eventsRef.document(eventID).collection(SUBCOLLECTION_DRAW_ENTRANTS)
+                .document(drawID + "_" + index);
     }
 
     /**
@@ -72,7 +304,103 @@ public class EventRepository {
      * @return task that completes when deletion finishes
      */
     public Task<Void> delete(String eventID) {
-        return eventsRef.document(eventID).delete();
+        return invalidating(eventID, eventsRef.document(eventID).delete());
+    }
+
+    /**
+     * Changes the status of an organizer's event in one transaction, writing only the status.
+     * Events whose cascade deletion has started are left alone, so a deleted event is
+     * never brought back to life.
+     *
+     * @param eventID     ID of the event
+     * @param organizerID ID of the organizer making the change
+     * @param status      new status
+     * @return task that completes when the status is saved; fails with IllegalArgumentException
+     *         if the event does not exist, SecurityException if it belongs to another organizer,
+     *         or IllegalStateException if it is being deleted
+     */
+    public Task<Void> setStatus(String eventID, String organizerID, EventStatus status) {
+        DocumentReference ref = eventsRef.document(eventID);
+        eventMemo.invalidate(eventID);
+        return db.runTransaction(transaction -> {
+            DocumentSnapshot snapshot = transaction.get(ref);
+            if (!snapshot.exists()) {
+                throw new IllegalArgumentException("Event not found");
+            }
+            if (!organizerID.equals(snapshot.getString("organizerID"))) {
+                throw new SecurityException("Not authorized");
+            }
+            if (EventStatus.DELETING.name().equals(snapshot.getString("status"))) {
+                throw new IllegalStateException("Event is being deleted: " + eventID);
+            }
+            transaction.update(ref, "status", status.name());
+            return null;
+        }).addOnCompleteListener(task -> eventMemo.invalidate(eventID));
+    }
+
+    /**
+     * Claims an event's cascade deletion, or renews the claim, in one transaction.
+     * The event is marked {@link EventStatus#DELETING}, hiding it from open-event queries,
+     * and the runner's ID and a lease expiry are saved on it. Fails if another runner holds
+     * a live lease, so only one runner works on an event at a time.
+     *
+     * @param eventID  ID of the event
+     * @param runnerID ID of the signed-in account running the deletion
+     * @return task containing the event as read by the claim, or failing if the event is
+     *         gone or already claimed
+     */
+    public Task<Event> claimDeletion(String eventID, String runnerID) {
+        DocumentReference ref = eventsRef.document(eventID);
+        eventMemo.invalidate(eventID);
+        return db.runTransaction(transaction -> {
+            DocumentSnapshot snapshot = transaction.get(ref);
+            Event event = snapshot.exists() ? snapshot.toObject(Event.class) : null;
+            if (event == null) {
+                throw new IllegalArgumentException("Event not found");
+            }
+
+            long now = System.currentTimeMillis();
+            Timestamp expiresAt = event.getDeletionLeaseExpiresAt();
+            if (event.getStatus() == EventStatus.DELETING
+                    && !DeletionLease.canClaim(event.getDeletionClaimedBy(),
+                            expiresAt != null ? expiresAt.toDate().getTime() : 0, runnerID, now)) {
+                throw new IllegalStateException("Event is already being deleted: " + eventID);
+            }
+
+            Map<String, Object> claim = new HashMap<>();
+            claim.put("status", EventStatus.DELETING.name());
+            claim.put(FIELD_DELETION_CLAIMED_BY, runnerID);
+            claim.put(FIELD_DELETION_LEASE, new Timestamp(new Date(DeletionLease.expiryFrom(now))));
+            transaction.update(ref, claim);
+            return event;
+        }).addOnCompleteListener(task -> eventMemo.invalidate(eventID));
+    }
+
+    /**
+     * Lists the IDs of events whose cascade deletion was started but never finished, and
+     * that belong to the given organizer or were claimed by the given runner.
+     *
+     * @param organizerID ID of the signed-in user
+     * @param runnerID    ID of the signed-in account
+     * @return task containing the IDs of events marked as deleting
+     */
+    public Task<List<String>> listPendingDeletions(String organizerID, String runnerID) {
+        Query deleting = eventsRef.whereEqualTo("status", EventStatus.DELETING.name());
+        List<Task<QuerySnapshot>> queries = new ArrayList<>();
+        queries.add(deleting.whereEqualTo("organizerID", organizerID).get());
+        queries.add(deleting.whereEqualTo(FIELD_DELETION_CLAIMED_BY, runnerID).get());
+        return Tasks.<QuerySnapshot>whenAllSuccess(queries).continueWith(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            Set<String> eventIDs = new LinkedHashSet<>();
+            for (QuerySnapshot snapshot : task.getResult()) {
+                for (DocumentSnapshot doc : snapshot) {
+                    eventIDs.add(doc.getId());
+                }
+            }
+            return new ArrayList<>(eventIDs);
+        });
     }
 
     /**
@@ -99,51 +427,113 @@ public class EventRepository {
     }
 
     /**
-     * Lists events created by a specific organizer.
+     * Lists events created by a specific organizer, one page at a time.
      *
-     * @param organizerID  ID of the organizer
-     * @param limit        maximum number of events to return
-     * @param startAfterID ID to start pagination after
-     * @return task containing list of events
+     * @param organizerID ID of the organizer
+     * @param limit       maximum number of events to return
+     * @param startAfter  last snapshot of the previous page, or null for the first page
+     * @return task containing the page of events
      */
-    public Task<List<Event>> listEventsByOrganizer(String organizerID, int limit,
-                                                   String startAfterID) {
-        com.google.firebase.firestore.Query query =
-                eventsRef.whereEqualTo("organizerID", organizerID).limit(limit);
+    public Task<Page<Event>> listEventsByOrganizer(String organizerID, int limit,
+                                                   DocumentSnapshot startAfter) {
+        Query query = eventsRef.whereEqualTo("organizerID", organizerID);
+        return getPage(query.orderBy(FieldPath.documentId()), limit, startAfter);
+    }
 
-        if (startAfterID != null) {
-            query = query.startAfter(startAfterID);
+    /**
+     * Creates a live query over the events created by an organizer, ordered by ID.
+     *
+     * @param organizerID ID of the organizer
+     * @return live query that starts listening once observed
+     */
+    public LiveQuery<Event> watchEventsByOrganizer(String organizerID) {
+        return new LiveQuery<>(eventsRef.whereEqualTo("organizerID", organizerID)
+                .orderBy(FieldPath.documentId()), Event.class);
+    }
+
+    /**
+     * Lists upcoming open events within a date range that carry any of the given tags,
+     * one page at a time. Events are ordered by start date when a range is given,
+     * otherwise by ID.
+     *
+     * @param fromDate   earliest event start date
+     * @param toDate     latest event start date
+     * @param tags       optional tags to filter by, at most {@link TagQuery#MAX_DISJUNCTION_VALUES}
+     * @param limit      maximum number of events to return
+     * @param startAfter last snapshot of the previous page, or null for the first page
+     * @return task containing the page of matching events
+     */
+    public Task<Page<Event>> listUpcoming(String fromDate, String toDate, List<String> tags,
+                                          int limit, DocumentSnapshot startAfter) {
+        if (tags != null && tags.size() > TagQuery.MAX_DISJUNCTION_VALUES) {
+            return Tasks.forException(new IllegalArgumentException(
+                    "At most " + TagQuery.MAX_DISJUNCTION_VALUES + " tags per query"));
         }
+        Query query = upcomingQuery(fromDate, toDate, tags);
 
-        return query.get().continueWith(task -> {
-            if (!task.isSuccessful()) {
-                throw task.getException();
-            }
+        // range filters must be ordered on first; the ID keeps the order stable
+        if (fromDate != null || toDate != null) {
+            query = query.orderBy("eventStartDate");
+        }
+        query = query.orderBy(FieldPath.documentId());
 
-            List<Event> events = new ArrayList<>();
-            for (DocumentSnapshot doc : task.getResult()) {
-                Event event = doc.toObject(Event.class);
-                if (event != null) {
-                    events.add(event);
-                }
-            }
-            return events;
-        });
+        return getPage(query, limit, startAfter)
+                .addOnSuccessListener(page ->
+                        Log.d("EventRepository", "Found " + page.getItems().size() + " events"));
     }
 
     /**
-     * Lists upcoming open events within a date range and optional tag filter.
+     * Counts upcoming open events within a date range that carry a tag, on the server
+     * without downloading them.
      *
-     * @param fromDate     earliest event start date
-     * @param toDate       latest event start date
-     * @param tags         optional list of tags to filter by
-     * @param limit        maximum number of events to return
-     * @param startAfterID ID to start pagination after
-     * @return task containing list of matching events
+     * @param fromDate earliest event start date
+     * @param toDate   latest event start date
+     * @param tag      tag to count
+     * @return task containing the count
      */
-    public Task<List<Event>> listUpcoming(String fromDate, String toDate, List<String> tags,
-                                          int limit, String startAfterID) {
+    public Task<Long> countUpcoming(String fromDate, String toDate, String tag) {
+        return upcomingQuery(fromDate, toDate, Collections.singletonList(tag))
+                .count()
+                .get(AggregateSource.SERVER)
+                .continueWith(task -> {
+                    if (!task.isSuccessful()) {
+                        throw task.getException();
+                    }
+                    return task.getResult().getCount();
+                });
+    }
 
+    /**
+     * Lists open events carrying any of the given tags, one page at a time.
+     *
+     * @param tags       tags to filter by, at most {@link TagQuery#MAX_DISJUNCTION_VALUES};
+     *                   all events are listed if empty
+     * @param limit      maximum number of events to return
+     * @param startAfter last snapshot of the previous page, or null for the first page
+     * @return task containing the page of matching events
+     */
+    public Task<Page<Event>> listByTags(List<String> tags, int limit, DocumentSnapshot startAfter) {
+        if (tags != null && tags.size() > TagQuery.MAX_DISJUNCTION_VALUES) {
+            return Tasks.forException(new IllegalArgumentException(
+                    "At most " + TagQuery.MAX_DISJUNCTION_VALUES + " tags per query"));
+        }
+        Query query = eventsRef;
+        if (tags != null && !tags.isEmpty()) {
+            query = eventsRef.whereEqualTo("status", EventStatus.OPEN.name());
+            query = withTags(query, tags);
+        }
+        return getPage(query.orderBy(FieldPath.documentId()), limit, startAfter);
+    }
+
+    /**
+     * Builds the unordered query for upcoming open events.
+     *
+     * @param fromDate earliest event start date, or null
+     * @param toDate   latest event start date, or null
+     * @param tags     tags of which an event must carry at least one, or null
+     * @return the filtered query
+     */
+    private Query upcomingQuery(String fromDate, String toDate, List<String> tags) {
         Query query = eventsRef
                 .whereEqualTo("status", EventStatus.OPEN.name());  // only open events
 
@@ -154,68 +544,63 @@ public class EventRepository {
             query = query.whereLessThanOrEqualTo("eventStartDate", toDate);
         }
         if (tags != null && !tags.isEmpty()) {
-            query = query.whereArrayContains("tags", tags.get(0));
+            query = withTags(query, tags);
         }
+        return query;
+    }
 
-        query = query.limit(limit);
-        if (startAfterID != null) {
-            query = query.startAfter(startAfterID);
+    /**
+     * Filters a query to documents carrying at least one of the tags.
+     */
+    private Query withTags(Query query, List<String> tags) {
+        if (tags.size() == 1) {
+            return query.whereArrayContains("tags", tags.get(0));
         }
-
-        return query.get().continueWith(task -> {
-            if (!task.isSuccessful()) {
-                throw task.getException();
-            }
-            java.util.List<Event> events = new java.util.ArrayList<>();
-            for (com.google.firebase.firestore.DocumentSnapshot doc : task.getResult()) {
-                Event e = doc.toObject(Event.class);
-                if (e != null) {
-                    events.add(e);
-                    Log.d("EventRepository", "Found event: " +e.getTitle());
-                }
-            }
-            Log.d("EventRepository", "Found " + events.size() + " events");
-            return events;
-        });
+        return query.whereArrayContainsAny("tags", tags);
     }
 
     /**
-     * Lists events matching tags with pagination.
+     * Drops the reused read of an event. Call it after writing to the event document
+     * from outside this class.
      *
-     * @param tags         list of tags to filter by
-     * @param limit        maximum number of events to return
-     * @param startAfterID ID to start pagination after
-     * @return task containing list of matching events
+     * @param eventID ID of the event
      */
-    public Task<List<Event>> listByTags(List<String> tags, int limit, String startAfterID) {
-        if (tags == null || tags.isEmpty()) {
-            return getAll();
-        }
-
-        com.google.firebase.firestore.Query query = eventsRef
-                .whereEqualTo("status", EventStatus.OPEN.name());
+    static void invalidateCachedEvent(String eventID) {
+        eventMemo.invalidate(eventID);
+    }
 
-        // For simplicity, we'll match any of the tags (OR logic)
-        // For more complex matching, consider using array-contains-any if under 10 tags
-        query = query.whereArrayContains("tags", tags.get(0));
+    /**
+     * Drops the reused read of an event when a write starts and again when it finishes,
+     * so a read that overlaps the write is not reused.
+     *
+     * @param eventID ID of the event being written
+     * @param write   the write
+     * @return the write task
+     */
+    private Task<Void> invalidating(String eventID, Task<Void> write) {
+        eventMemo.invalidate(eventID);
+        return write.addOnCompleteListener(task -> eventMemo.invalidate(eventID));
+    }
 
+    /**
+     * Runs an ordered event query for one page.
+     *
+     * @param query      ordered query to page through
+     * @param limit      maximum number of events on the page
+     * @param startAfter last snapshot of the previous page, or null for the first page
+     * @return task containing the page of events
+     */
+    private Task<Page<Event>> getPage(Query query, int limit, DocumentSnapshot startAfter) {
         query = query.limit(limit);
-        if (startAfterID != null) {
-            query = query.startAfter(startAfterID);
+        if (startAfter != null) {
+            query = query.startAfter(startAfter);
         }
 
-        return query.get().continueWith(task -> {
+        return CachedReads.get(query, ReadPolicy.DEFAULT, null).continueWith(task -> {
             if (!task.isSuccessful()) {
                 throw task.getException();
             }
-            java.util.List<Event> events = new java.util.ArrayList<>();
-            for (com.google.firebase.firestore.DocumentSnapshot doc : task.getResult()) {
-                Event e = doc.toObject(Event.class);
-                if (e != null) {
-                    events.add(e);
-                }
-            }
-            return events;
+            return Page.of(task.getResult(), Event.class, limit);
         });
     }
 
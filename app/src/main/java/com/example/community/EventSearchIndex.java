@@ -0,0 +1,314 @@
+package com.example.community;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * In-memory full-text index over a growing list of events, used to filter the event feed.
+ *
+ * <p>The title, location and description of each event are split into lowercase tokens once,
+ * when the event is added. Tokens are stored in a prefix trie whose nodes hold posting lists
+ * of event positions, so a query term matches every token it is a prefix of (type-ahead).
+ * Start and end dates are parsed once into epoch days and kept in a {@link DateIntervalIndex}.
+ * Events can be added a page at a time as they load.
+ */
+public class EventSearchIndex {
+
+    private static final int TITLE_WEIGHT = 3;
+    private static final int LOCATION_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private final List<Event> events = new ArrayList<>();
+    private final DateIntervalIndex dates = new DateIntervalIndex();
+    private TrieNode root = new TrieNode();
+
+    // scratch space reused by every query, grown with the index
+    private int[] queryStamps = new int[0];
+    private int[] matchedTerms = new int[0];
+    private int[] scores = new int[0];
+    private int queryStamp;
+
+    /**
+     * Adds an event to the end of the index.
+     *
+     * @param event event to add
+     */
+    public void add(Event event) {
+        int position = events.size();
+        events.add(event);
+        dates.add(DateValidation.toEpochDay(event.getEventStartDate()),
+                DateValidation.toEpochDay(event.getEventEndDate()));
+
+        indexField(event.getTitle(), position, TITLE_WEIGHT);
+        indexField(event.getLocation(), position, LOCATION_WEIGHT);
+        indexField(event.getDescription(), position, DESCRIPTION_WEIGHT);
+    }
+
+    /**
+     * Adds several events to the end of the index, in order.
+     *
+     * @param newEvents events to add
+     */
+    public void addAll(List<Event> newEvents) {
+        for (Event event : newEvents) {
+            add(event);
+        }
+    }
+
+    /**
+     * Removes every event from the index.
+     */
+    public void clear() {
+        events.clear();
+        dates.clear();
+        root = new TrieNode();
+    }
+
+    /**
+     * Returns the number of events in the index.
+     *
+     * @return number of indexed events
+     */
+    public int size() {
+        return events.size();
+    }
+
+    /**
+     * Finds the events matching every term of a query.
+     *
+     * @param query search text; empty matches every event
+     * @return matching events, best match first
+     * @see #search(String, String, String)
+     */
+    public List<Event> search(String query) {
+        return search(query, null, null);
+    }
+
+    /**
+     * Finds the events matching every term of a query that also overlap a date range.
+     *
+     * @param query    search text; empty matches every event
+     * @param fromDate earliest date in yyyy-MM-dd format, or null for no lower bound
+     * @param toDate   latest date in yyyy-MM-dd format, or null for no upper bound
+     * @return matching events, best match first
+     * @see #search(String, int, int)
+     */
+    public List<Event> search(String query, String fromDate, String toDate) {
+        int fromDay = DateValidation.toEpochDay(fromDate);
+        int toDay = DateValidation.toEpochDay(toDate);
+        return search(query,
+                fromDay == DateValidation.NO_DATE ? DateIntervalIndex.UNBOUNDED_FROM : fromDay,
+                toDay == DateValidation.NO_DATE ? DateIntervalIndex.UNBOUNDED_TO : toDay);
+    }
+
+    /**
+     * Finds the events matching every term of a query that also overlap a date range.
+     * Each term matches tokens it is a prefix of. Events are ranked by the summed weight of
+     * their matches (title over location over description), then by the order they were added.
+     * Without query terms, events in the range are returned in the order they were added.
+     *
+     * @param query   search text; empty matches every event
+     * @param fromDay first epoch day of the range, or {@link DateIntervalIndex#UNBOUNDED_FROM}
+     * @param toDay   last epoch day of the range, or {@link DateIntervalIndex#UNBOUNDED_TO}
+     * @return matching events, best match first
+     */
+    public List<Event> search(String query, int fromDay, int toDay) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (terms.isEmpty()) {
+            int[] ids = dates.query(fromDay, toDay);
+            List<Event> all = new ArrayList<>(ids.length);
+            for (int id : ids) {
+                all.add(events.get(id));
+            }
+            return all;
+        }
+
+        ensureScratchCapacity();
+        queryStamp++;
+        int[] candidates = new int[0];
+        int candidateCount = 0;
+
+        for (int t = 0; t < terms.size(); t++) {
+            TrieNode node = find(terms.get(t));
+            if (node == null) {
+                return new ArrayList<>();
+            }
+            List<PostingList> postings = new ArrayList<>();
+            collectPostings(node, postings);
+
+            for (PostingList list : postings) {
+                for (int i = 0; i < list.size; i++) {
+                    int doc = list.docs[i];
+                    int weight = list.weights[i];
+                    if (t == 0) {
+                        if (queryStamps[doc] != queryStamp) {
+                            queryStamps[doc] = queryStamp;
+                            matchedTerms[doc] = 1;
+                            scores[doc] = weight;
+                            if (candidateCount == candidates.length) {
+                                candidates = Arrays.copyOf(candidates, Math.max(16, candidateCount * 2));
+                            }
+                            candidates[candidateCount++] = doc;
+                        } else {
+                            scores[doc] += weight;
+                        }
+                    } else if (queryStamps[doc] == queryStamp) {
+                        if (matchedTerms[doc] == t) {
+                            // first match of this term; earlier terms all matched
+                            matchedTerms[doc] = t + 1;
+                            scores[doc] += weight;
+                        } else if (matchedTerms[doc] == t + 1) {
+                            scores[doc] += weight;
+                        }
+                    }
+                }
+            }
+        }
+
+        // sort by score descending, then position ascending, packed into one long per event
+        long[] ranked = new long[candidateCount];
+        int rankedCount = 0;
+        for (int i = 0; i < candidateCount; i++) {
+            int doc = candidates[i];
+            if (matchedTerms[doc] == terms.size() && dates.overlaps(doc, fromDay, toDay)) {
+                ranked[rankedCount++] = ((long) (Integer.MAX_VALUE - scores[doc]) << 32) | doc;
+            }
+        }
+        Arrays.sort(ranked, 0, rankedCount);
+
+        List<Event> results = new ArrayList<>(rankedCount);
+        for (int i = 0; i < rankedCount; i++) {
+            results.add(events.get((int) ranked[i]));
+        }
+        return results;
+    }
+
+    /**
+     * Splits text into lowercase tokens of letters and digits.
+     *
+     * @param text text to split, may be null
+     * @return tokens in the order they appear
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                token.append(Character.toLowerCase(c));
+            } else if (token.length() > 0) {
+                tokens.add(token.toString());
+                token.setLength(0);
+            }
+        }
+        if (token.length() > 0) {
+            tokens.add(token.toString());
+        }
+        return tokens;
+    }
+
+    private void indexField(String text, int position, int weight) {
+        for (String token : tokenize(text)) {
+            TrieNode node = root;
+            for (int i = 0; i < token.length(); i++) {
+                node = node.childOrCreate(token.charAt(i));
+            }
+            if (node.postings == null) {
+                node.postings = new PostingList();
+            }
+            node.postings.add(position, weight);
+        }
+    }
+
+    private TrieNode find(String prefix) {
+        TrieNode node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.child(prefix.charAt(i));
+        }
+        return node;
+    }
+
+    private void collectPostings(TrieNode node, List<PostingList> out) {
+        if (node.postings != null) {
+            out.add(node.postings);
+        }
+        for (int i = 0; i < node.childCount; i++) {
+            collectPostings(node.children[i], out);
+        }
+    }
+
+    private void ensureScratchCapacity() {
+        if (scores.length < events.size()) {
+            int capacity = Math.max(events.size(), scores.length * 2);
+            queryStamps = Arrays.copyOf(queryStamps, capacity);
+            matchedTerms = Arrays.copyOf(matchedTerms, capacity);
+            scores = Arrays.copyOf(scores, capacity);
+        }
+    }
+
+    /**
+     * Node of the token trie. Children are kept in small parallel arrays, since most
+     * nodes have only a few.
+     */
+    private static class TrieNode {
+        char[] keys = new char[0];
+        TrieNode[] children = new TrieNode[0];
+        int childCount;
+        PostingList postings;
+
+        TrieNode child(char key) {
+            for (int i = 0; i < childCount; i++) {
+                if (keys[i] == key) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        TrieNode childOrCreate(char key) {
+            TrieNode existing = child(key);
+            if (existing != null) {
+                return existing;
+            }
+            if (childCount == keys.length) {
+                int capacity = Math.max(2, childCount * 2);
+                keys = Arrays.copyOf(keys, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            TrieNode node = new TrieNode();
+            keys[childCount] = key;
+            children[childCount] = node;
+            childCount++;
+            return node;
+        }
+    }
+
+    /**
+     * Positions of the events containing one token, in ascending order, with the summed
+     * weight of the token's occurrences in each event.
+     */
+    private static class PostingList {
+        int[] docs = new int[4];
+        int[] weights = new int[4];
+        int size;
+
+        void add(int doc, int weight) {
+            if (size > 0 && docs[size - 1] == doc) {
+                weights[size - 1] += weight;
+                return;
+            }
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            docs[size] = doc;
+            weights[size] = weight;
+            size++;
+        }
+    }
+}
@@ -2,12 +2,24 @@ package com.example.community;
 
 import android.util.Log;
 
+import com.google.android.gms.tasks.OnSuccessListener;
 import com.google.android.gms.tasks.Task;
 import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseUser;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestoreException;
 
 import java.time.LocalDate;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Service layer for event operations.
@@ -15,12 +27,17 @@ import java.util.List;
  */
 public class EventService {
     private static final String TAG = "EventService";
+    /** Maximum number of waitlist delete batches in flight at once. */
+    private static final int MAX_IN_FLIGHT_DELETE_BATCHES = 4;
+    /** Number of events fetched per query when listing every upcoming event. */
+    private static final int UPCOMING_PAGE_SIZE = 50;
     private final EventRepository eventRepository;
     private final WaitlistRepository waitlistRepository;
     private final QRCodeService qrCodeService;
     private final ImageService imageService;
     private final UserRepository userRepository;
     private final NotificationRepository notificationRepository;
+    private final JoinedEventsCache joinedEventsCache;
 
     /**
      * Creates a new EventService instance.
@@ -33,6 +50,7 @@ public class EventService {
         this.imageService = new ImageService();
         this.userRepository = new UserRepository();
         this.notificationRepository = new NotificationRepository();
+        this.joinedEventsCache = JoinedEventsCache.getInstance();
     }
 
     /**
@@ -73,21 +91,17 @@ public class EventService {
                     final String eventID = e.getEventID();
 
                     // append to organizer.eventsCreatedIDs
-                    return userRepository
-                            .getByUserID(organizerID)
+                    return userRepository.addCreatedEvent(organizerID, eventID)
                             .continueWithTask(ut -> {
-                                User u = ut.getResult();
-                                if (u == null) {
-                                    return Tasks
-                                            .forException(new IllegalArgumentException("Organizer not found"));
-                                }
-                                if (!u.hasEventCreated(eventID)) {
-                                    u.addEventCreated(eventID);
-                                    return userRepository
-                                            .update(u)
-                                            .continueWith(tt -> eventID);
+                                if (!ut.isSuccessful()) {
+                                    Exception ex = ut.getException();
+                                    if (ex instanceof FirebaseFirestoreException
+                                            && ((FirebaseFirestoreException) ex).getCode()
+                                            == FirebaseFirestoreException.Code.NOT_FOUND) {
+                                        return Tasks.forException(new IllegalArgumentException("Organizer not found"));
+                                    }
+                                    return Tasks.forException(ex);
                                 }
-                                // already recorded; just return id
                                 return Tasks.forResult(eventID);
                             });
                 });
@@ -112,17 +126,7 @@ public class EventService {
      * @return task that completes when status is updated
      */
     public Task<Void> publishEvent(String organizerID, String eventID) {
-        return eventRepository.getByID(eventID).continueWithTask(task -> {
-            Event event = task.getResult();
-            if (event == null) {
-                return Tasks.forException(new IllegalArgumentException("Event not found"));
-            }
-            if (!event.getOrganizerID().equals(organizerID)) {
-                return Tasks.forException(new SecurityException("Not authorized"));
-            }
-            event.setStatus(EventStatus.OPEN);
-            return eventRepository.update(event);
-        });
+        return eventRepository.setStatus(eventID, organizerID, EventStatus.OPEN);
     }
 
     /**
@@ -133,17 +137,7 @@ public class EventService {
      * @return task that completes when status is updated
      */
     public Task<Void> cancelEvent(String organizerID, String eventID) {
-        return eventRepository.getByID(eventID).continueWithTask(task -> {
-            Event event = task.getResult();
-            if (event == null) {
-                return Tasks.forException(new IllegalArgumentException("Event not found"));
-            }
-            if (!event.getOrganizerID().equals(organizerID)) {
-                return Tasks.forException(new SecurityException("Not authorized"));
-            }
-            event.setStatus(EventStatus.CANCELLED);
-            return eventRepository.update(event);
-        });
+        return eventRepository.setStatus(eventID, organizerID, EventStatus.CANCELLED);
     }
 
     /**
@@ -151,11 +145,21 @@ public class EventService {
      *
      * @param organizerID  ID of the organizer
      * @param limit        maximum number of events to return
-     * @param startAfterID ID to start pagination after
-     * @return task containing list of events
+     * @param startAfter   last snapshot of the previous page, or null for the first page
+     * @return task containing the page of events
      */
-    public Task<List<Event>> listEventsByOrganizer(String organizerID, int limit, String startAfterID) {
-        return eventRepository.listEventsByOrganizer(organizerID, limit, startAfterID);
+    public Task<Page<Event>> listEventsByOrganizer(String organizerID, int limit, DocumentSnapshot startAfter) {
+        return eventRepository.listEventsByOrganizer(organizerID, limit, startAfter);
+    }
+
+    /**
+     * Creates a live query over the events created by an organizer.
+     *
+     * @param organizerID ID of the organizer
+     * @return live query that starts listening once observed
+     */
+    public LiveQuery<Event> watchEventsByOrganizer(String organizerID) {
+        return eventRepository.watchEventsByOrganizer(organizerID);
     }
 
     /**
@@ -183,7 +187,7 @@ public class EventService {
     }
 
     /**
-     * Lists all upcoming open events within a date range.
+     * Lists all upcoming open events within a date range that carry any of the given tags.
      *
      * @param fromDate earliest event start date
      * @param toDate   latest event start date
@@ -191,20 +195,131 @@ public class EventService {
      * @return task containing list of open events
      */
     public Task<List<Event>> listUpcoming(String fromDate, String toDate, List<String> tags) {
-        return eventRepository.listUpcoming(fromDate, toDate, tags, 50, null).continueWith(task -> {
-            List<Event> all = task.getResult();
-            List<Event> openOnly = new java.util.ArrayList<>();
-            for (Event e : all) {
-                if (e != null && e.getStatus() == EventStatus.OPEN) {
-                    openOnly.add(e);
-                }
+        return listUpcoming(fromDate, toDate, tags, TagMatch.ANY);
+    }
+
+    /**
+     * Lists all upcoming open events within a date range that match a tag filter.
+     * Any number of tags is accepted: ANY splits them into array-contains-any queries
+     * of at most {@link TagQuery#MAX_DISJUNCTION_VALUES} tags run in parallel, and ALL
+     * fetches only the events of the rarest tag and checks the other tags on the client.
+     *
+     * @param fromDate earliest event start date
+     * @param toDate   latest event start date
+     * @param tags     optional list of tags to filter by
+     * @param match    whether events need any or all of the tags
+     * @return task containing list of open events
+     */
+    public Task<List<Event>> listUpcoming(String fromDate, String toDate, List<String> tags,
+                                          TagMatch match) {
+        List<String> wanted = TagQuery.normalize(tags);
+        if (wanted.isEmpty()) {
+            return collectUpcoming(fromDate, toDate, null, null, new ArrayList<>());
+        }
+        if (match == TagMatch.ALL && wanted.size() > 1) {
+            return listUpcomingWithAllTags(fromDate, toDate, wanted);
+        }
+        return listUpcomingWithAnyTag(fromDate, toDate, wanted);
+    }
+
+    /**
+     * Lists upcoming open events within a date range, one page at a time.
+     *
+     * @param fromDate   earliest event start date
+     * @param toDate     latest event start date
+     * @param tags       optional list of tags to filter by
+     * @param limit      maximum number of events to return
+     * @param startAfter last snapshot of the previous page, or null for the first page
+     * @return task containing the page of open events
+     */
+    public Task<Page<Event>> listUpcomingPage(String fromDate, String toDate, List<String> tags,
+                                              int limit, DocumentSnapshot startAfter) {
+        return eventRepository.listUpcoming(fromDate, toDate, tags, limit, startAfter);
+    }
+
+    /**
+     * Runs one array-contains-any query per group of tags in parallel and merges the
+     * results, dropping events that matched in more than one group.
+     */
+    private Task<List<Event>> listUpcomingWithAnyTag(String fromDate, String toDate, List<String> tags) {
+        List<List<String>> chunks = TagQuery.chunks(tags);
+        if (chunks.size() == 1) {
+            return collectUpcoming(fromDate, toDate, tags, null, new ArrayList<>());
+        }
+
+        List<Task<List<Event>>> queries = new ArrayList<>();
+        for (List<String> chunk : chunks) {
+            queries.add(collectUpcoming(fromDate, toDate, chunk, null, new ArrayList<>()));
+        }
+        return Tasks.<List<Event>>whenAllSuccess(queries).continueWith(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            List<Event> merged = TagQuery.union(task.getResult(), Event::getEventID);
+            // keep the order a single query would have returned
+            Comparator<Event> byID = Comparator.comparing(Event::getEventID);
+            if (fromDate != null || toDate != null) {
+                merged.sort(Comparator.comparing(Event::getEventStartDate,
+                        Comparator.nullsFirst(Comparator.<String>naturalOrder())).thenComparing(byID));
+            } else {
+                merged.sort(byID);
             }
-            return openOnly;
+            return merged;
         });
     }
 
+    /**
+     * Counts the events of each tag on the server, then fetches the events of the rarest
+     * tag and keeps those carrying every other tag. If a count fails, that tag is never
+     * picked; the result is the same, only more events are read.
+     */
+    private Task<List<Event>> listUpcomingWithAllTags(String fromDate, String toDate, List<String> tags) {
+        List<Task<Long>> counts = new ArrayList<>();
+        for (String tag : tags) {
+            counts.add(eventRepository.countUpcoming(fromDate, toDate, tag)
+                    .continueWith(task -> task.isSuccessful() ? task.getResult() : null));
+        }
+        return Tasks.whenAllComplete(counts).continueWithTask(countTask -> {
+            List<Long> sizes = new ArrayList<>();
+            for (Task<Long> count : counts) {
+                sizes.add(count.getResult());
+            }
+            String rarest = tags.get(TagQuery.indexOfSmallest(sizes));
+            Log.d(TAG, "Matching all of " + tags + " starting from " + rarest);
+
+            return collectUpcoming(fromDate, toDate, Collections.singletonList(rarest), null, new ArrayList<>())
+                    .continueWith(task -> {
+                        if (!task.isSuccessful()) {
+                            throw task.getException();
+                        }
+                        return TagQuery.withAllTags(task.getResult(), tags);
+                    });
+        });
+    }
+
+    /**
+     * Fetches pages of upcoming events until the last one, adding them to a list.
+     */
+    private Task<List<Event>> collectUpcoming(String fromDate, String toDate, List<String> tags,
+                                              DocumentSnapshot startAfter, List<Event> events) {
+        return eventRepository.listUpcoming(fromDate, toDate, tags, UPCOMING_PAGE_SIZE, startAfter)
+                .continueWithTask(task -> {
+                    if (!task.isSuccessful()) {
+                        throw task.getException();
+                    }
+                    Page<Event> page = task.getResult();
+                    events.addAll(page.getItems());
+                    if (!page.hasMore()) {
+                        return Tasks.forResult(events);
+                    }
+                    return collectUpcoming(fromDate, toDate, tags, page.getLastSnapshot(), events);
+                });
+    }
+
     /**
      * Lists events a user can join (not already on waitlist).
+     * The user's waitlist entries are read with one query, cached for the session,
+     * and fetched alongside the events.
      *
      * @param userID   ID of the user
      * @param fromDate earliest event start date
@@ -213,33 +328,56 @@ public class EventService {
      * @return task containing list of joinable events
      */
     public Task<List<Event>> listJoinable(String userID, String fromDate, String toDate, List<String> tags) {
-        return listUpcoming(fromDate, toDate, tags)   // already filtered to OPEN
-                .onSuccessTask(events -> {
-                    List<Task<Boolean>> checks = new java.util.ArrayList<>();
-                    for (Event e : events) {
-                        checks.add(waitlistRepository.getByID(e.getEventID(), userID).continueWith(t -> t.getResult() == null));
-                    }
-                    return Tasks.whenAllSuccess(checks).continueWith(t -> {
-                        List<?> results = t.getResult();
-                        List<Event> joinable = new java.util.ArrayList<>();
-                        for (int i = 0; i < events.size(); i++) {
-                            boolean canJoin = (Boolean) results.get(i);
-                            if (canJoin) {
-                                joinable.add(events.get(i));
-                            }
-                        }
-                        return joinable;
-                    });
-                });
+        Task<List<Event>> upcomingTask = listUpcoming(fromDate, toDate, tags);   // already filtered to OPEN
+        Task<Set<String>> joinedTask = getJoinedEventIDs(userID);
+        return Tasks.whenAll(upcomingTask, joinedTask).continueWith(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            Set<String> joined = joinedTask.getResult();
+            List<Event> joinable = new ArrayList<>();
+            for (Event e : upcomingTask.getResult()) {
+                if (!joined.contains(e.getEventID())) {
+                    joinable.add(e);
+                }
+            }
+            return joinable;
+        });
     }
 
     /**
-     * Lists joinable events filtered by user interests.
+     * Gets the IDs of the events a user has a waitlist entry for, from the session
+     * cache or with one query across every waitlist.
+     *
+     * @param userID ID of the user
+     * @return task containing the joined event IDs
+     */
+    private Task<Set<String>> getJoinedEventIDs(String userID) {
+        Set<String> cached = joinedEventsCache.get(userID);
+        if (cached != null) {
+            return Tasks.forResult(cached);
+        }
+        long loadedFrom = joinedEventsCache.generation();
+        return waitlistRepository.listByUser(userID).continueWith(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            Set<String> joined = new HashSet<>();
+            for (WaitingListEntry entry : task.getResult()) {
+                joined.add(entry.getEventID());
+            }
+            joinedEventsCache.put(userID, joined, loadedFrom);
+            return joined;
+        });
+    }
+
+    /**
+     * Lists joinable events carrying any of the user's interests.
      *
      * @param userID   ID of the user
      * @param fromDate earliest event start date
      * @param toDate   latest event start date
-     * @param tags     optional list of tags to filter by
+     * @param tags     the user's interests; any number of tags is accepted
      * @return task containing list of matching events
      */
     public Task<List<Event>> listJoinableByInterests(String userID, String fromDate, String toDate, List<String> tags) {
@@ -256,6 +394,18 @@ public class EventService {
         return eventRepository.getByID(eventID);
     }
 
+    /**
+     * Retrieves a single event by ID under a read policy.
+     *
+     * @param eventID   ID of the event
+     * @param policy    where to read the event from
+     * @param onRefresh called with the server copy after a stale answer, or null
+     * @return task containing the event
+     */
+    public Task<Event> getEvent(String eventID, ReadPolicy policy, OnSuccessListener<Event> onRefresh) {
+        return eventRepository.getByID(eventID, policy, onRefresh);
+    }
+
     /**
      * Gets the QR code URL for an event.
      *
@@ -282,22 +432,7 @@ public class EventService {
     public Task<List<User>> getAttendees(String eventID) {
         return waitlistRepository
                 .listByEventAndStatus(eventID, EntryStatus.ACCEPTED)
-                .onSuccessTask(entries -> {
-                    java.util.List<Task<User>> reads = new java.util.ArrayList<>();
-                    for (WaitingListEntry e : entries) {
-                        reads.add(userRepository.getByUserID(e.getUserID()));
-                    }
-                    return com.google.android.gms.tasks.Tasks.whenAllSuccess(reads)
-                            .continueWith(t -> {
-                                java.util.List<?> results = t.getResult();
-                                java.util.List<User> users = new java.util.ArrayList<>();
-                                for (Object o : results) {
-                                    User u = (User) o;
-                                    if (u != null) users.add(u);
-                                }
-                                return users;
-                            });
-                });
+                .onSuccessTask(this::getUsersForEntries);
     }
 
     /**
@@ -309,22 +444,7 @@ public class EventService {
     public Task<List<User>> getCancelledUsers(String eventID) {
         return waitlistRepository
                 .listByEventAndStatus(eventID, EntryStatus.CANCELLED)
-                .onSuccessTask(entries -> {
-                    java.util.List<Task<User>> reads = new java.util.ArrayList<>();
-                    for (WaitingListEntry e : entries) {
-                        reads.add(userRepository.getByUserID(e.getUserID()));
-                    }
-                    return com.google.android.gms.tasks.Tasks.whenAllSuccess(reads)
-                            .continueWith(t -> {
-                                java.util.List<?> results = t.getResult();
-                                java.util.List<User> users = new java.util.ArrayList<>();
-                                for (Object o : results) {
-                                    User u = (User) o;
-                                    if (u != null) users.add(u);
-                                }
-                                return users;
-                            });
-                });
+                .onSuccessTask(this::getUsersForEntries);
     }
 
     /**
@@ -336,22 +456,21 @@ public class EventService {
     public Task<List<User>> getDeclinedUsers(String eventID) {
         return waitlistRepository
                 .listByEventAndStatus(eventID, EntryStatus.DECLINED)
-                .onSuccessTask(entries -> {
-                    java.util.List<Task<User>> reads = new java.util.ArrayList<>();
-                    for (WaitingListEntry e : entries) {
-                        reads.add(userRepository.getByUserID(e.getUserID()));
-                    }
-                    return com.google.android.gms.tasks.Tasks.whenAllSuccess(reads)
-                            .continueWith(t -> {
-                                java.util.List<?> results = t.getResult();
-                                java.util.List<User> users = new java.util.ArrayList<>();
-                                for (Object o : results) {
-                                    User u = (User) o;
-                                    if (u != null) users.add(u);
-                                }
-                                return users;
-                            });
-                });
+                .onSuccessTask(this::getUsersForEntries);
+    }
+
+    /**
+     * Looks up the users of the given waitlist entries in batched reads.
+     *
+     * @param entries waitlist entries
+     * @return task containing the users, in entry order
+     */
+    private Task<List<User>> getUsersForEntries(List<WaitingListEntry> entries) {
+        List<String> userIDs = new ArrayList<>(entries.size());
+        for (WaitingListEntry e : entries) {
+            userIDs.add(e.getUserID());
+        }
+        return userRepository.getByIDs(userIDs);
     }
 
     /**
@@ -407,6 +526,17 @@ public class EventService {
         });
     }
 
+    /**
+     * Completely deletes an event and all related data (cascade deletion).
+     *
+     * @param eventID     ID of the event to delete
+     * @return task that completes when all cascading deletions are done
+     * @see #deleteEvent(String, ProgressListener)
+     */
+    public Task<Void> deleteEvent(String eventID) {
+        return deleteEvent(eventID, null);
+    }
+
     /**
      * Completely deletes an event and all related data (cascade deletion).
      *
@@ -416,144 +546,250 @@ public class EventService {
      * - Event from organizer's eventsCreatedIDs
      * - Event poster image
      * - Event QR code image
+     * - Entrant lists of the event's lottery draws
      * - All notifications related to the event
      * - The event document itself
      *
-     * @param eventID     ID of the event to delete
+     * The deletion is first claimed for the signed-in account with
+     * {@link EventRepository#claimDeletion}, which marks the event {@link EventStatus#DELETING}
+     * and fails if someone else is already deleting it; the claim is renewed once the
+     * waitlist is cleared. Every step is idempotent, so a deletion cut short (e.g. by process death)
+     * is finished by {@link #resumePendingDeletions(String)}. Waitlist entries are streamed in pages;
+     * each page is deleted in one batch together with the matching user list removals.
+     *
+     * @param eventID          ID of the event to delete
+     * @param progressListener listener notified as waitlist entries are deleted, or null
      * @return task that completes when all cascading deletions are done
      */
-    public Task<Void> deleteEvent(String eventID) {
+    public Task<Void> deleteEvent(String eventID, ProgressListener progressListener) {
         Log.d(TAG, "Starting cascade deletion for event: " + eventID);
 
-        return eventRepository.getByID(eventID).continueWithTask(eventTask -> {
-            if (!eventTask.isSuccessful()) {
-                Log.e(TAG, "Failed to get event", eventTask.getException());
-                return Tasks.forException(eventTask.getException());
-            }
+        String runnerID = currentRunnerID();
+        if (runnerID == null) {
+            return Tasks.forException(new IllegalStateException("Not signed in"));
+        }
 
-            Event event = eventTask.getResult();
-            if (event == null) {
-                Log.e(TAG, "Event not found: " + eventID);
-                return Tasks.forException(new IllegalArgumentException("Event not found"));
+        return eventRepository.claimDeletion(eventID, runnerID).continueWithTask(claimTask -> {
+            if (!claimTask.isSuccessful()) {
+                Log.e(TAG, "Could not claim deletion of event " + eventID, claimTask.getException());
+                return Tasks.forException(claimTask.getException());
             }
 
-            Log.d(TAG, "tarting cleanup");
+            Event event = claimTask.getResult();
+            return deleteEventImages(event).continueWithTask(imageResult -> {
+                if (!imageResult.isSuccessful()) {
+                    throw imageResult.getException();
+                }
+                // the total is only used for progress, so a failed count is not fatal
+                return waitlistRepository.countByEvent(eventID)
+                        .continueWith(countTask -> countTask.isSuccessful()
+                                ? countTask.getResult().intValue() : 0);
+            }).continueWithTask(countTask -> {
+                if (!countTask.isSuccessful()) {
+                    throw countTask.getException();
+                }
+                int total = countTask.getResult();
+
+                // clean up waitlists
+                Log.d(TAG, "Cleaning up waitlists");
+                return deleteWaitlistPages(eventID, null, new ArrayDeque<>(),
+                        new AtomicInteger(), total, progressListener);
+            }).continueWithTask(waitlistResult -> {
+                if (!waitlistResult.isSuccessful()) {
+                    Log.e(TAG, "Waitlist cleanup failed", waitlistResult.getException());
+                    throw waitlistResult.getException();
+                }
+                Log.d(TAG, "Waitlist cleanup completed");
 
-            // delete images first (before event document is deleted)
-            Log.d(TAG, "Deleting images");
-            List<Task<Void>> imageTasks = new ArrayList<>();
+                // renew the claim, failing here if another runner has taken the deletion over
+                return eventRepository.claimDeletion(eventID, runnerID);
+            }).continueWithTask(renewResult -> {
+                if (!renewResult.isSuccessful()) {
+                    throw renewResult.getException();
+                }
 
-            if (event.getPosterImageID() != null) {
-                Task<Void> deletePoster = imageService.deleteEventPoster(eventID)
-                        .addOnSuccessListener(v -> Log.d(TAG, "Deleted poster image"))
-                        .addOnFailureListener(e -> Log.e(TAG, "Failed to delete poster", e));
-                imageTasks.add(deletePoster);
-            }
-            if (event.getQRCodeImageID() != null) {
-                Task<Void> deleteQR = qrCodeService.deleteEventQRCode(eventID)
-                        .addOnSuccessListener(v -> Log.d(TAG, "Deleted QR code"))
-                        .addOnFailureListener(e -> Log.e(TAG, "Failed to delete QR code", e));
-                imageTasks.add(deleteQR);
-            }
+                List<Task<Void>> allTasks = new ArrayList<>();
 
-            // wait for images to be deleted first
-            return Tasks.whenAll(imageTasks).continueWithTask(imageResult -> {
-                        List<Task<Void>> allTasks = new ArrayList<>();
-
-                        // clean up waitlists
-                        Log.d(TAG, "Cleaning up waitlists");
-                        Task<Void> waitlistCleanup = waitlistRepository.listByEvent(eventID)
-                                .continueWithTask(wTask -> {
-                                    if (!wTask.isSuccessful()) {
-                                        Log.e(TAG, "Failed to list waitlist entries", wTask.getException());
-                                        return Tasks.forResult(null);
-                                    }
+                // remove event from organizer's eventsCreatedIDs
+                Log.d(TAG, "Cleaning up organizer");
+                Task<Void> organizerCleanup = userRepository
+                        .removeCreatedEvent(event.getOrganizerID(), eventID)
+                        .continueWith(oTask -> {
+                            if (!oTask.isSuccessful()) {
+                                // the organizer may already be gone
+                                Log.e(TAG, "Failed to cleanup organizer", oTask.getException());
+                            }
+                            return null;
+                        });
+                allTasks.add(organizerCleanup);
 
-                                    List<WaitingListEntry> entries = wTask.getResult();
-                                    if (entries == null || entries.isEmpty()) {
-                                        Log.d(TAG, "No waitlist entries to clean up");
-                                        return Tasks.forResult(null);
-                                    }
+                // delete waitlist status counters
+                allTasks.add(waitlistRepository.deleteCounters(eventID));
 
-                                    Log.d(TAG, "Found " + entries.size() + " waitlist entries to clean");
-                                    List<Task<Void>> tasks = new ArrayList<>();
-
-                                    for (WaitingListEntry entry : entries) {
-                                        // remove event from each user's lists
-                                        Task<Void> userCleanup = userRepository.getByUserID(entry.getUserID())
-                                                .continueWithTask(uTask -> {
-                                                    if (!uTask.isSuccessful()) {
-                                                        Log.e(TAG, "Failed to get user", uTask.getException());
-                                                        return Tasks.forResult(null);
-                                                    }
-
-                                                    User user = uTask.getResult();
-                                                    if (user == null) return Tasks.forResult(null);
-
-                                                    if (user.hasEventInWaitlist(eventID)) {
-                                                        user.getWaitingListsJoinedIDs().remove(eventID);
-                                                    }
-                                                    if (user.hasEventInAttendingList(eventID)) {
-                                                        user.getAttendingListsIDs().remove(eventID);
-                                                    }
-                                                    if (user.hasEventInRegistrationHistory(eventID)) {
-                                                        user.getRegistrationHistoryIDs().remove(eventID);
-                                                    }
-
-                                                    return userRepository.update(user);
-                                                })
-                                                .addOnFailureListener(e -> Log.e(TAG, "Failed to update user", e));
-                                        tasks.add(userCleanup);
-
-                                        // delete the waitlist entry
-                                        Task<Void> deleteEntry = waitlistRepository.delete(eventID, entry.getUserID())
-                                                .addOnFailureListener(e -> Log.e(TAG, "Failed to delete waitlist entry", e));
-                                        tasks.add(deleteEntry);
-                                    }
+                // delete the entrant lists of past lottery draws
+                allTasks.add(eventRepository.deleteDrawEntrants(eventID, event.getLotteryDraws()));
 
-                                    return Tasks.whenAll(tasks);
-                                })
-                                .addOnSuccessListener(v -> Log.d(TAG, "Waitlist cleanup completed"))
-                                .addOnFailureListener(e -> Log.e(TAG, "Waitlist cleanup failed", e));
-                        allTasks.add(waitlistCleanup);
-
-                        // remove event from organizer's eventsCreatedIDs
-                        Log.d(TAG, "Cleaning up organizer");
-                        Task<Void> organizerCleanup = userRepository
-                                .getByUserID(event.getOrganizerID())
-                                .continueWithTask(oTask -> {
-                                    if (!oTask.isSuccessful()) {
-                                        Log.e(TAG, "Failed to get organizer", oTask.getException());
-                                        return Tasks.forResult(null);
-                                    }
+                // delete all notifications
+                Log.d(TAG, "Deleting notifications");
+                allTasks.add(notificationRepository.deleteAllForEvent(eventID));
 
-                                    User organizer = oTask.getResult();
-                                    if (organizer != null && organizer.hasEventCreated(eventID)) {
-                                        organizer.getEventsCreatedIDs().remove(eventID);
-                                        return userRepository.update(organizer);
-                                    }
-                                    return Tasks.forResult(null);
-                                })
-                                .addOnSuccessListener(v -> Log.d(TAG, "Organizer cleanup completed"))
-                                .addOnFailureListener(e -> Log.e(TAG, "Failed to cleanup organizer", e));
-                        allTasks.add(organizerCleanup);
-
-                        // delete all notifications
-                        Log.d(TAG, "Deleting notifications");
-                        Task<Void> notificationCleanup = notificationRepository.deleteAllForEvent(eventID)
-                                .addOnSuccessListener(v -> Log.d(TAG, "Notifications deleted"))
-                                .addOnFailureListener(e -> Log.e(TAG, "Failed to delete notifications", e));
-                        allTasks.add(notificationCleanup);
-
-                        // delete the event document last
-                        Log.d(TAG, "Deleting event document");
-                        return Tasks.whenAll(allTasks).continueWithTask(cleanupResult -> {
-                            return eventRepository.delete(eventID)
-                                    .addOnSuccessListener(v -> Log.d(TAG, "Event document deleted"))
-                                    .addOnFailureListener(e -> Log.e(TAG, "Failed to delete event document", e));
-                        });
-                    }).addOnSuccessListener(v -> Log.d(TAG, "Event cascade deletion completed successfully"))
+                return Tasks.whenAll(allTasks);
+            }).continueWithTask(cleanupResult -> {
+                if (!cleanupResult.isSuccessful()) {
+                    Log.e(TAG, "Cleanup failed, event left for resumption", cleanupResult.getException());
+                    throw cleanupResult.getException();
+                }
+
+                // delete the event document last
+                Log.d(TAG, "Deleting event document");
+                return eventRepository.delete(eventID);
+            }).addOnSuccessListener(v -> Log.d(TAG, "Event cascade deletion completed successfully"))
                     .addOnFailureListener(e -> Log.e(TAG, "Event cascade deletion failed", e));
         });
     }
+
+    /**
+     * Finishes the event deletions of the signed-in user that were started but never
+     * completed: those of events they organize, and those this account had claimed.
+     * Events are resumed one at a time; a failure on one, including an event whose deletion
+     * is still claimed by someone else, does not stop the rest.
+     *
+     * @param userID ID of the signed-in user
+     * @return task that completes when every pending deletion has been attempted
+     */
+    public Task<Void> resumePendingDeletions(String userID) {
+        String runnerID = currentRunnerID();
+        if (runnerID == null) {
+            return Tasks.forResult(null);
+        }
+        return eventRepository.listPendingDeletions(userID, runnerID).onSuccessTask(eventIDs -> {
+            Task<Void> chain = Tasks.forResult(null);
+            for (String eventID : eventIDs) {
+                chain = chain.continueWithTask(previous -> {
+                    Log.d(TAG, "Resuming deletion of event: " + eventID);
+                    return deleteEvent(eventID).continueWith(task -> null);
+                });
+            }
+            return chain;
+        });
+    }
+
+    /**
+     * Gets the ID deletions are claimed under, which is the signed-in Firebase account.
+     *
+     * @return the account's UID, or null if nobody is signed in
+     */
+    private String currentRunnerID() {
+        FirebaseUser account = FirebaseAuth.getInstance().getCurrentUser();
+        return account != null ? account.getUid() : null;
+    }
+
+    /**
+     * Deletes an event's poster and QR code images. Failures are logged and ignored,
+     * since the images may already be gone on a resumed deletion.
+     *
+     * @param event event whose images to delete
+     * @return task that completes when both deletions have finished
+     */
+    private Task<Void> deleteEventImages(Event event) {
+        Log.d(TAG, "Deleting images");
+        String eventID = event.getEventID();
+        List<Task<Void>> imageTasks = new ArrayList<>();
+
+        if (event.getPosterImageID() != null) {
+            Task<Void> deletePoster = imageService.deleteEventPoster(eventID)
+                    .addOnSuccessListener(v -> Log.d(TAG, "Deleted poster image"))
+                    .addOnFailureListener(e -> Log.e(TAG, "Failed to delete poster", e));
+            imageTasks.add(deletePoster);
+        }
+        if (event.getQRCodeImageID() != null) {
+            Task<Void> deleteQR = qrCodeService.deleteEventQRCode(eventID)
+                    .addOnSuccessListener(v -> Log.d(TAG, "Deleted QR code"))
+                    .addOnFailureListener(e -> Log.e(TAG, "Failed to delete QR code", e));
+            imageTasks.add(deleteQR);
+        }
+        return Tasks.whenAll(imageTasks).continueWith(task -> null);
+    }
+
+    /**
+     * Streams an event's waitlist page by page and deletes each page in one batch.
+     * The next page is read while earlier batches commit, with at most
+     * {@value #MAX_IN_FLIGHT_DELETE_BATCHES} batches in flight.
+     *
+     * @param eventID          ID of the event
+     * @param startAfter       last snapshot of the previous page, or null to start at the beginning
+     * @param inFlight         batches committed but not yet awaited
+     * @param deleted          number of entries deleted so far
+     * @param total            number of entries on the waitlist when deletion started
+     * @param progressListener listener notified after each committed batch, or null
+     * @return task that completes when every page has been deleted
+     */
+    private Task<Void> deleteWaitlistPages(String eventID, DocumentSnapshot startAfter,
+                                           Deque<Task<Void>> inFlight, AtomicInteger deleted,
+                                           int total, ProgressListener progressListener) {
+        return waitlistRepository.pageByEvent(eventID, WaitlistRepository.MAX_ENTRIES_PER_BATCH, startAfter)
+                .continueWithTask(pageTask -> {
+                    if (!pageTask.isSuccessful()) {
+                        throw pageTask.getException();
+                    }
+                    Page<WaitingListEntry> page = pageTask.getResult();
+                    List<WaitingListEntry> entries = page.getItems();
+                    if (!entries.isEmpty()) {
+                        inFlight.add(deleteWaitlistPage(eventID, entries).addOnSuccessListener(v -> {
+                            int done = deleted.addAndGet(entries.size());
+                            if (progressListener != null) {
+                                progressListener.onProgress(done, Math.max(done, total));
+                            }
+                        }));
+                    }
+                    if (!page.hasMore()) {
+                        return Tasks.whenAll(inFlight);
+                    }
+
+                    Task<Void> window = inFlight.size() < MAX_IN_FLIGHT_DELETE_BATCHES
+                            ? Tasks.forResult(null)
+                            : inFlight.poll();
+                    return window.continueWithTask(windowTask -> {
+                        if (!windowTask.isSuccessful()) {
+                            throw windowTask.getException();
+                        }
+                        return deleteWaitlistPages(eventID, page.getLastSnapshot(), inFlight,
+                                deleted, total, progressListener);
+                    });
+                });
+    }
+
+    /**
+     * Deletes one page of waitlist entries and unlinks the event from their users.
+     * If some of the users no longer exist the batch is retried with only the users that do.
+     *
+     * @param eventID ID of the event
+     * @param entries entries to delete
+     * @return task that completes when the page is deleted
+     */
+    private Task<Void> deleteWaitlistPage(String eventID, List<WaitingListEntry> entries) {
+        List<String> userIDs = new ArrayList<>(entries.size());
+        for (WaitingListEntry entry : entries) {
+            userIDs.add(entry.getUserID());
+        }
+
+        return waitlistRepository.deleteAndUnlinkUsers(eventID, entries, userIDs)
+                .continueWithTask(task -> {
+                    Exception e = task.getException();
+                    if (task.isSuccessful() || !(e instanceof FirebaseFirestoreException)
+                            || ((FirebaseFirestoreException) e).getCode() != FirebaseFirestoreException.Code.NOT_FOUND) {
+                        return task;
+                    }
+                    return userRepository.getByIDs(userIDs).continueWithTask(usersTask -> {
+                        if (!usersTask.isSuccessful()) {
+                            throw usersTask.getException();
+                        }
+                        List<String> existingIDs = new ArrayList<>();
+                        for (User user : usersTask.getResult()) {
+                            existingIDs.add(user.getUserID());
+                        }
+                        return waitlistRepository.deleteAndUnlinkUsers(eventID, entries, existingIDs);
+                    });
+                });
+    }
 }
@@ -3,10 +3,12 @@ package com.example.community;
 /**
  * Enum representing the publication status of an event.
  * Tracks event lifecycle from draft to cancelled.
+ * DELETING marks an event whose cascade deletion has started but not finished.
  */
 public enum EventStatus {
     DRAFT,
     OPEN,
     CLOSED,
-    CANCELLED
+    CANCELLED,
+    DELETING
 }
\ No newline at end of file
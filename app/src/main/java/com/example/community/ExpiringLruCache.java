@@ -0,0 +1,149 @@
+package com.example.community;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Size-bounded cache that drops the least recently used entry when full and treats
+ * entries older than a time to live as missing.
+ *
+ * @param <K> type of the keys
+ * @param <V> type of the values
+ */
+public class ExpiringLruCache<K, V> {
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+
+    /**
+     * Creates a cache that reads the time from the system clock.
+     *
+     * @param maxSize   maximum number of entries
+     * @param ttlMillis how long an entry stays valid after it is put, in milliseconds
+     */
+    public ExpiringLruCache(int maxSize, long ttlMillis) {
+        this(maxSize, ttlMillis, System::currentTimeMillis);
+    }
+
+    /**
+     * Creates a cache that reads the time from the given clock.
+     *
+     * @param maxSize   maximum number of entries
+     * @param ttlMillis how long an entry stays valid after it is put, in milliseconds
+     * @param clock     source of the current time in milliseconds
+     */
+    public ExpiringLruCache(int maxSize, long ttlMillis, LongSupplier clock) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Cache size must be at least 1");
+        }
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Returns the value for a key and marks it as recently used.
+     *
+     * @param key key to look up
+     * @return the value, or null if it is missing or expired
+     */
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        if (clock.getAsLong() - entry.storedAt >= ttlMillis) {
+            entries.remove(key);
+            expirations++;
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.value;
+    }
+
+    /**
+     * Stores a value, evicting the least recently used entry if the cache is full.
+     *
+     * @param key   key to store under
+     * @param value value to store, not null
+     */
+    public synchronized void put(K key, V value) {
+        entries.put(key, new Entry<>(value, clock.getAsLong()));
+        Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxSize) {
+            eldest.next();
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Removes the value for a key.
+     *
+     * @param key key to remove
+     */
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Removes every value.
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Returns the number of entries held, including expired ones not yet looked up.
+     *
+     * @return number of entries
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized long getExpirations() {
+        return expirations;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format(Locale.US, "size=%d hits=%d misses=%d evictions=%d expirations=%d",
+                entries.size(), hits, misses, evictions, expirations);
+    }
+
+    private static class Entry<V> {
+        final V value;
+        final long storedAt;
+
+        Entry(V value, long storedAt) {
+            this.value = value;
+            this.storedAt = storedAt;
+        }
+    }
+}
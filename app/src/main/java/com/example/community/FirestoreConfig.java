@@ -0,0 +1,43 @@
+package com.example.community;
+
+import android.util.Log;
+
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreSettings;
+import com.google.firebase.firestore.PersistentCacheSettings;
+
+/**
+ * Configures the Firestore instance shared by the repositories.
+ */
+public final class FirestoreConfig {
+
+    private static final String TAG = "FirestoreConfig";
+    /** Size of the on-disk cache; large enough to keep every screen a user visits warm. */
+    public static final long CACHE_SIZE_BYTES = 100L * 1024 * 1024;
+
+    private static boolean configured;
+
+    private FirestoreConfig() { }
+
+    /**
+     * Turns on the persistent cache with a fixed size. Must run before the first
+     * repository is created; later calls do nothing.
+     */
+    public static synchronized void configure() {
+        if (configured) {
+            return;
+        }
+        configured = true;
+        FirebaseFirestoreSettings settings = new FirebaseFirestoreSettings.Builder()
+                .setLocalCacheSettings(PersistentCacheSettings.newBuilder()
+                        .setSizeBytes(CACHE_SIZE_BYTES)
+                        .build())
+                .build();
+        try {
+            FirebaseFirestore.getInstance().setFirestoreSettings(settings);
+        } catch (IllegalStateException e) {
+            // Firestore was already used, so it keeps its default cache
+            Log.w(TAG, "Firestore settings could not be applied", e);
+        }
+    }
+}
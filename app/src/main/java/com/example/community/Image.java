@@ -2,6 +2,9 @@ package com.example.community;
 
 import com.google.firebase.Timestamp;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Represents an uploaded image with metadata.
  * Stores storage path, URL, and upload information.
@@ -12,6 +15,7 @@ public class Image {
     private String imageURL;
     private String uploadedBy;
     private Timestamp uploadedAt;
+    private Map<String, String> variantURLs = new HashMap<>();
 
     /**
      * Default constructor required for Firebase.
@@ -57,4 +61,23 @@ public class Image {
     public void setUploadedAt(Timestamp uploadedAt) {
         this.uploadedAt = uploadedAt;
     }
+
+    public Map<String, String> getVariantURLs() {
+        return variantURLs;
+    }
+
+    public void setVariantURLs(Map<String, String> variantURLs) {
+        this.variantURLs = variantURLs;
+    }
+
+    /**
+     * Gets the URL of a resized copy of the image.
+     *
+     * @param variant size of the image wanted
+     * @return URL of the variant, or the original image URL if the variant is missing
+     */
+    public String urlFor(ImageVariant variant) {
+        String url = variantURLs != null ? variantURLs.get(variant.getKey()) : null;
+        return url != null ? url : imageURL;
+    }
 }
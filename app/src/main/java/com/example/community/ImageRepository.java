@@ -9,11 +9,16 @@ import com.google.firebase.firestore.CollectionReference;
 import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.storage.FirebaseStorage;
+import com.google.firebase.storage.StorageException;
+import com.google.firebase.storage.StorageMetadata;
 import com.google.firebase.storage.StorageReference;
 import com.google.firebase.storage.UploadTask;
 
+import java.io.File;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -61,6 +66,161 @@ public class ImageRepository {
         });
     }
 
+    /**
+     * Uploads an image together with its resized WebP variants.
+     * The original is stored at {@code storagePath} and each {@link ImageVariant} next to it.
+     * All files are uploaded in parallel; if any upload or the Firestore write fails,
+     * every uploaded file is deleted again.
+     *
+     * @param data        Image bytes to upload
+     * @param storagePath Path of the original in Firebase Storage
+     * @param uploadedBy  User ID who uploaded the image
+     * @return Task that resolves to Image object with the original and variant URLs
+     */
+    public Task<Image> uploadWithVariants(byte[] data, String storagePath, String uploadedBy) {
+        return Tasks.call(ImageVariants.ENCODE_EXECUTOR, () -> ImageVariants.encode(data))
+                .onSuccessTask(variants -> {
+                    List<Task<String>> uploads = new ArrayList<>();
+                    uploads.add(uploadToStorage(data, storagePath));
+                    for (ImageVariant variant : ImageVariant.values()) {
+                        uploads.add(uploadToStorage(variants.get(variant),
+                                variant.storagePathFor(storagePath), webpMetadata()));
+                    }
+                    return saveWithVariants(uploads, storagePath, uploadedBy);
+                });
+    }
+
+    /**
+     * Listener for the progress of a resumable upload.
+     */
+    public interface SessionListener {
+        /**
+         * Called as bytes are sent.
+         *
+         * @param sessionUri       URI of the upload session, to resume it later
+         * @param bytesTransferred bytes the server has received so far
+         */
+        void onProgress(Uri sessionUri, long bytesTransferred);
+    }
+
+    /**
+     * Uploads a file as a resumable session. If {@code sessionUri} is given, the earlier
+     * session is continued from the bytes the server already has; if that session has
+     * expired, the file is uploaded again from the start.
+     *
+     * @param file        The file to upload
+     * @param storagePath The storage path
+     * @param contentType MIME type of the file
+     * @param sessionUri  Session of an earlier attempt, or null to start a new one
+     * @param listener    Listener told about the session and progress, or null
+     * @return Task that resolves to download URL
+     */
+    public Task<String> uploadResumable(File file, String storagePath, String contentType,
+                                        Uri sessionUri, SessionListener listener) {
+        StorageReference imageRef = storageRef.child(storagePath);
+        StorageMetadata metadata = new StorageMetadata.Builder().setContentType(contentType).build();
+        UploadTask uploadTask = sessionUri != null
+                ? imageRef.putFile(Uri.fromFile(file), metadata, sessionUri)
+                : imageRef.putFile(Uri.fromFile(file), metadata);
+        if (listener != null) {
+            uploadTask.addOnProgressListener(snapshot -> {
+                if (snapshot.getUploadSessionUri() != null) {
+                    listener.onProgress(snapshot.getUploadSessionUri(), snapshot.getBytesTransferred());
+                }
+            });
+        }
+
+        return uploadTask.continueWithTask(task -> {
+            if (task.isSuccessful()) {
+                return getDownloadURL(storagePath);
+            }
+            if (sessionUri != null && isSessionRejected(task.getException())) {
+                // the session has expired or is unknown; start over with a new one
+                return uploadResumable(file, storagePath, contentType, null, listener);
+            }
+            return Tasks.forException(task.getException());
+        });
+    }
+
+    /**
+     * Checks whether Storage refused an upload session itself, as opposed to the
+     * connection failing. Client errors mean the session cannot be resumed.
+     */
+    private static boolean isSessionRejected(Exception e) {
+        if (!(e instanceof StorageException)) {
+            return false;
+        }
+        int httpCode = ((StorageException) e).getHttpResultCode();
+        return httpCode >= 400 && httpCode < 500;
+    }
+
+    /**
+     * Writes the Image document of files that are already uploaded.
+     * The document ID is the image ID, so saving the same image again is harmless.
+     *
+     * @param image Image with its ID, storage path and URLs set
+     * @return Task that resolves to the saved Image object
+     */
+    public Task<Image> save(Image image) {
+        return firestoreRef.document(image.getImageID()).set(image).continueWith(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            return image;
+        });
+    }
+
+    /**
+     * Waits for the uploads of an original and its variants, then writes the Image document.
+     * If any upload or the Firestore write fails, every file is deleted from Storage.
+     *
+     * @param uploads     Upload of the original followed by one per {@link ImageVariant}, in order
+     * @param storagePath Path of the original in Firebase Storage
+     * @param uploadedBy  User ID who uploaded the image
+     * @return Task that resolves to the saved Image object
+     */
+    private Task<Image> saveWithVariants(List<Task<String>> uploads, String storagePath,
+                                         String uploadedBy) {
+        String imageID = UUID.randomUUID().toString();
+        List<String> paths = new ArrayList<>();
+        paths.add(storagePath);
+        for (ImageVariant variant : ImageVariant.values()) {
+            paths.add(variant.storagePathFor(storagePath));
+        }
+
+        return Tasks.whenAllComplete(uploads).continueWithTask(done -> {
+            for (Task<String> upload : uploads) {
+                if (!upload.isSuccessful()) {
+                    deleteFromStorage(paths);
+                    return Tasks.forException(upload.getException());
+                }
+            }
+
+            Map<String, String> variantURLs = new HashMap<>();
+            ImageVariant[] variants = ImageVariant.values();
+            for (int i = 0; i < variants.length; i++) {
+                variantURLs.put(variants[i].getKey(), uploads.get(i + 1).getResult());
+            }
+
+            Image image = new Image();
+            image.setImageID(imageID);
+            image.setStoragePath(storagePath);
+            image.setImageURL(uploads.get(0).getResult());
+            image.setVariantURLs(variantURLs);
+            image.setUploadedBy(uploadedBy);
+            image.setUploadedAt(Timestamp.now());
+
+            return firestoreRef.document(imageID).set(image).continueWith(task -> {
+                if (!task.isSuccessful()) {
+                    // Rollback: delete every file from Storage if Firestore fails
+                    deleteFromStorage(paths);
+                    throw task.getException();
+                }
+                return image;
+            });
+        });
+    }
+
     /**
      * Deletes an image from both Firestore and Storage
      *
@@ -78,7 +238,18 @@ public class ImageRepository {
                 return Tasks.forResult(null);
             }
 
-            return deleteFromStorage(image.getStoragePath()).continueWithTask(task -> {
+            List<String> paths = new ArrayList<>();
+            paths.add(image.getStoragePath());
+            if (image.getVariantURLs() != null) {
+                for (String key : image.getVariantURLs().keySet()) {
+                    ImageVariant variant = ImageVariant.fromKey(key);
+                    if (variant != null) {
+                        paths.add(variant.storagePathFor(image.getStoragePath()));
+                    }
+                }
+            }
+
+            return deleteFromStorage(paths).continueWithTask(task -> {
                 return firestoreRef.document(imageID).delete();
             });
         });
@@ -130,8 +301,22 @@ public class ImageRepository {
      * @return Task that resolves to download URL
      */
     private Task<String> uploadToStorage(byte[] data, String storagePath) {
+        return uploadToStorage(data, storagePath, null);
+    }
+
+    /**
+     * Low-level method to upload bytes to Firebase Storage with metadata
+     *
+     * @param data        The image bytes
+     * @param storagePath The storage path
+     * @param metadata    Metadata such as the content type, or null for none
+     * @return Task that resolves to download URL
+     */
+    private Task<String> uploadToStorage(byte[] data, String storagePath, StorageMetadata metadata) {
         StorageReference imageRef = storageRef.child(storagePath);
-        UploadTask uploadTask = imageRef.putBytes(data);
+        UploadTask uploadTask = metadata != null
+                ? imageRef.putBytes(data, metadata)
+                : imageRef.putBytes(data);
 
         return uploadTask.continueWithTask(task -> {
             if (!task.isSuccessful()) {
@@ -147,6 +332,10 @@ public class ImageRepository {
         });
     }
 
+    private static StorageMetadata webpMetadata() {
+        return new StorageMetadata.Builder().setContentType("image/webp").build();
+    }
+
     /**
      * Low-level method to delete from Firebase Storage
      *
@@ -169,6 +358,20 @@ public class ImageRepository {
         });
     }
 
+    /**
+     * Deletes several files from Firebase Storage
+     *
+     * @param storagePaths The storage paths
+     * @return Task that completes when every deletion is done
+     */
+    private Task<Void> deleteFromStorage(List<String> storagePaths) {
+        List<Task<Void>> deletes = new ArrayList<>();
+        for (String path : storagePaths) {
+            deletes.add(deleteFromStorage(path));
+        }
+        return Tasks.whenAll(deletes);
+    }
+
     /**
      * Helper method for UI to get poster URL from Event
      *
@@ -1,9 +1,16 @@
 package com.example.community;
 
+import android.content.ContentResolver;
+import android.content.Context;
+import android.net.Uri;
+
 import com.google.android.gms.tasks.Task;
 import com.google.android.gms.tasks.Tasks;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 /**
  * Service layer for image operations.
@@ -45,6 +52,38 @@ public class ImageService {
         }
     }
 
+    /**
+     * Uploads an event poster picked on the device and updates the Event document.
+     * The image is streamed from its URI, downsampled and re-encoded within a byte budget
+     * on a background thread, and handed to the {@link UploadQueue}, which uploads it as
+     * resumable sessions and finishes it after a restart if the app is killed.
+     * US 02.04.01
+     *
+     * @param eventID         The event ID
+     * @param context         Context used to read the image and reach the upload queue
+     * @param imageUri        Content URI of the picked image
+     * @param uploadedBy      User ID who is uploading the poster
+     * @param deleteOldPoster Whether to delete the current poster once the new one is set
+     * @return Task that resolves to Image object with storagePath and download URL
+     */
+    public Task<Image> uploadEventPoster(String eventID, Context context, Uri imageUri,
+                                         String uploadedBy, boolean deleteOldPoster) {
+        if (imageUri == null) {
+            throw new IllegalArgumentException("Image URI cannot be null");
+        }
+        UploadQueue queue = UploadQueue.getInstance(context);
+        ContentResolver resolver = context.getApplicationContext().getContentResolver();
+        String uploadID = UUID.randomUUID().toString();
+        // each poster gets its own path, so the old one can be deleted after the new one is set
+        String storagePath = "images/events/" + eventID + "/poster_" + uploadID + ".jpg";
+
+        return Tasks.call(ImageVariants.ENCODE_EXECUTOR,
+                        () -> ImageVariants.prepare(resolver, imageUri, queue.getStagingDir()))
+                .onSuccessTask(prepared -> queue.enqueue(PendingUpload.of(uploadID,
+                        PendingUpload.Kind.POSTER, eventID, uploadedBy, deleteOldPoster,
+                        prepared, storagePath)));
+    }
+
 //    old version below
 //    /**
 //     * Uploads event poster and updates the Event document.
@@ -81,27 +120,50 @@ public class ImageService {
 //    }
 
     private Task<Image> uploadNewPoster(String eventID, byte[] imageData, String uploadedBy) {
+        // Repository does the heavy lifting (Storage + Firestore), including the resized variants
+        return attachPoster(eventID,
+                imageRepository.uploadWithVariants(imageData, posterPath(eventID), uploadedBy));
+    }
 
+    private static String posterPath(String eventID) {
         // Construct storage path (Service knows business rules)
-        String storagePath = "images/events/" + eventID + "/poster.jpg";
+        return "images/events/" + eventID + "/poster.jpg";
+    }
 
-        // Repository does the heavy lifting (Storage + Firestore)
-        return imageRepository.upload(imageData, storagePath, uploadedBy)
+    private Task<Image> attachPoster(String eventID, Task<Image> uploadTask) {
+        return uploadTask
                 .onSuccessTask(image -> {
-                    // Update Event document with poster URL and imageID
-                    return eventRepository.getByID(eventID)
-                            .onSuccessTask(event -> {
-                                if (event == null) {
-                                    throw new IllegalArgumentException("Event not found");
-                                }
-                                event.setPosterImageURL(image.getImageURL());
-                                event.setPosterImageID(image.getImageID());
-                                return eventRepository.update(event).continueWith(t -> image);
-                            });
+                    // Update only the poster URLs and imageID of the Event document
+                    return eventRepository.setPoster(eventID, image.getImageID(), image.getImageURL(),
+                                    image.getVariantURLs())
+                            .onSuccessTask(oldPosterID -> Tasks.forResult(image));
                 });
 
     }
 
+    /**
+     * Makes an uploaded image the poster of an event, writing only the poster fields.
+     * The previous poster is deleted afterwards if asked, unless it is the same image,
+     * so running this again for the same image is harmless.
+     *
+     * @param eventID         The event ID
+     * @param image           The uploaded poster
+     * @param deleteOldPoster Whether to delete the previous poster
+     * @return Task that completes when the event is updated and the old poster deleted
+     */
+    Task<Void> replacePoster(String eventID, Image image, boolean deleteOldPoster) {
+        // patch only the poster fields; this may run long after the event was last read
+        return eventRepository.setPoster(eventID, image.getImageID(), image.getImageURL(),
+                        image.getVariantURLs())
+                .onSuccessTask(oldPosterID -> {
+                    if (deleteOldPoster && oldPosterID != null
+                            && !oldPosterID.equals(image.getImageID())) {
+                        return imageRepository.delete(oldPosterID);
+                    }
+                    return Tasks.forResult(null);
+                });
+    }
+
     public Task<String> getEventPosterURL(String eventID) {
         return eventRepository.getByID(eventID)
                 .continueWith(eventTask -> {
@@ -134,10 +196,13 @@ public class ImageService {
                             ? imageRepository.delete(posterImageID)
                             : Tasks.forResult(null);
 
-                    event.setPosterImageID(null);
-                    event.setPosterImageURL(null);
+                    // clear only the poster fields, leaving the rest of the event untouched
+                    Map<String, Object> noPoster = new HashMap<>();
+                    noPoster.put("posterImageID", null);
+                    noPoster.put("posterImageURL", null);
+                    noPoster.put("posterVariantURLs", new HashMap<>());
 
-                    return deleteImgTask.continueWithTask(t -> eventRepository.update(event));
+                    return deleteImgTask.continueWithTask(t -> eventRepository.update(eventID, noPoster));
                 });
     }
 
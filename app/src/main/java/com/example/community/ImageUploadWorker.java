@@ -0,0 +1,46 @@
+package com.example.community;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.google.android.gms.tasks.Tasks;
+
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Background worker that drains the {@link UploadQueue}.
+ * Uploads that fail are left in the queue and the worker asks to be retried with backoff;
+ * WorkManager also reruns it after the process is killed.
+ */
+public class ImageUploadWorker extends Worker {
+
+    private static final String TAG = "ImageUploadWorker";
+
+    public ImageUploadWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    /**
+     * Runs every pending upload and waits for them on the worker thread.
+     *
+     * @return success once the queue is empty, or retry if an upload failed
+     */
+    @NonNull
+    @Override
+    public Result doWork() {
+        try {
+            Tasks.await(UploadQueue.getInstance(getApplicationContext()).drain());
+            return Result.success();
+        } catch (ExecutionException e) {
+            Log.w(TAG, "Uploads left unfinished, retrying later", e);
+            return Result.retry();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Result.retry();
+        }
+    }
+}
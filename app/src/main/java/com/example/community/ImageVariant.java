@@ -0,0 +1,122 @@
+package com.example.community;
+
+/**
+ * Enum representing the resized copies stored next to an uploaded image.
+ * Each variant is bounded by a maximum width and height, and lists load the smallest one
+ * that still covers the view they draw into.
+ */
+public enum ImageVariant {
+    THUMBNAIL(256), // list rows and grid cells
+    MEDIUM(720),    // full-width views on a phone
+    FULL(1600);     // zoomed or tablet views
+
+    private final int maxDimension;
+
+    ImageVariant(int maxDimension) {
+        this.maxDimension = maxDimension;
+    }
+
+    /**
+     * Gets the largest width or height of the variant, in pixels.
+     *
+     * @return maximum dimension in pixels
+     */
+    public int getMaxDimension() {
+        return maxDimension;
+    }
+
+    /**
+     * Gets the key the variant is stored under in a document's URL map.
+     *
+     * @return lowercase name of the variant
+     */
+    public String getKey() {
+        return name().toLowerCase();
+    }
+
+    /**
+     * Builds the storage path of this variant from the path of the original image.
+     * For example "images/events/1/poster.jpg" becomes "images/events/1/poster_thumbnail.webp".
+     *
+     * @param originalPath storage path of the original image
+     * @return storage path of the variant
+     */
+    public String storagePathFor(String originalPath) {
+        int slash = originalPath.lastIndexOf('/');
+        int dot = originalPath.lastIndexOf('.');
+        String base = dot > slash ? originalPath.substring(0, dot) : originalPath;
+        return base + "_" + getKey() + ".webp";
+    }
+
+    /**
+     * Finds the variant stored under a key.
+     *
+     * @param key key of the variant
+     * @return matching variant, or null if the key is unknown
+     */
+    public static ImageVariant fromKey(String key) {
+        for (ImageVariant variant : values()) {
+            if (variant.getKey().equals(key)) {
+                return variant;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Picks the smallest variant that covers a view of the given size.
+     *
+     * @param sizePx larger of the view's width and height, in pixels; 0 or less if unknown
+     * @return smallest variant at least as large as the view, or FULL if none is
+     */
+    public static ImageVariant forSize(int sizePx) {
+        if (sizePx <= 0) {
+            return FULL;
+        }
+        for (ImageVariant variant : values()) {
+            if (variant.maxDimension >= sizePx) {
+                return variant;
+            }
+        }
+        return FULL;
+    }
+
+    /**
+     * Computes the power-of-two subsample to decode an image with, so the decoded bitmap
+     * is as small as possible while still at least {@code maxDimension} on its longest side.
+     *
+     * @param width        width of the source image
+     * @param height       height of the source image
+     * @param maxDimension largest dimension the image will be scaled to
+     * @return sample size of 1 or more
+     */
+    public static int sampleSize(int width, int height, int maxDimension) {
+        int longest = Math.max(width, height);
+        int sample = 1;
+        while (longest / (sample * 2) >= maxDimension) {
+            sample *= 2;
+        }
+        return sample;
+    }
+
+    /**
+     * Computes the size of an image scaled to fit within a bound, keeping its aspect ratio.
+     * Images already within the bound keep their size.
+     *
+     * @param width        width of the source image
+     * @param height       height of the source image
+     * @param maxDimension largest width or height allowed
+     * @return scaled width and height, each at least 1
+     */
+    public static int[] scaledSize(int width, int height, int maxDimension) {
+        int longest = Math.max(width, height);
+        if (longest <= maxDimension) {
+            return new int[]{width, height};
+        }
+        double scale = (double) maxDimension / longest;
+        return new int[]{
+                Math.max(1, (int) Math.round(width * scale)),
+                Math.max(1, (int) Math.round(height * scale))
+        };
+    }
+}
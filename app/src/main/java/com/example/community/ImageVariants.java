@@ -0,0 +1,311 @@
+package com.example.community;
+
+import android.content.ContentResolver;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Matrix;
+import android.media.ExifInterface;
+import android.net.Uri;
+import android.os.Build;
+import android.view.View;
+import android.view.ViewGroup;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Android helpers for producing and choosing {@link ImageVariant}s, and for preparing
+ * picked images for upload.
+ */
+public final class ImageVariants {
+
+    /** Decodes and re-encodes images off the main thread, one at a time to bound memory */
+    static final Executor ENCODE_EXECUTOR = Executors.newSingleThreadExecutor();
+
+    /** WebP quality used for every variant */
+    private static final int WEBP_QUALITY = 80;
+
+    /** Largest width or height of the re-encoded original */
+    static final int ORIGINAL_MAX_DIMENSION = 2048;
+
+    /** Largest size of the re-encoded original, in bytes */
+    static final long ORIGINAL_MAX_BYTES = 1_000_000;
+
+    private static final int MIN_JPEG_QUALITY = 50;
+    private static final int MAX_JPEG_QUALITY = 90;
+
+    private ImageVariants() { }
+
+    /**
+     * Encodes every variant of an image as WebP.
+     * The image is decoded once at the size of the largest variant, and each smaller
+     * variant is scaled down from that bitmap. Should be called off the main thread.
+     *
+     * @param data encoded bytes of the original image
+     * @return WebP bytes of each variant
+     * @throws IllegalArgumentException if the bytes are not a decodable image
+     */
+    public static Map<ImageVariant, byte[]> encode(byte[] data) {
+        BitmapFactory.Options bounds = new BitmapFactory.Options();
+        bounds.inJustDecodeBounds = true;
+        BitmapFactory.decodeByteArray(data, 0, data.length, bounds);
+        if (bounds.outWidth <= 0 || bounds.outHeight <= 0) {
+            throw new IllegalArgumentException("Image data could not be decoded");
+        }
+
+        Bitmap source = BitmapFactory.decodeByteArray(data, 0, data.length, boundedOptions(
+                bounds.outWidth, bounds.outHeight, ImageVariant.FULL.getMaxDimension()));
+        if (source == null) {
+            throw new IllegalArgumentException("Image data could not be decoded");
+        }
+
+        Map<ImageVariant, byte[]> variants = new EnumMap<>(ImageVariant.class);
+        try {
+            for (ImageVariant variant : ImageVariant.values()) {
+                int[] size = ImageVariant.scaledSize(
+                        source.getWidth(), source.getHeight(), variant.getMaxDimension());
+                Bitmap scaled = Bitmap.createScaledBitmap(source, size[0], size[1], true);
+                variants.put(variant, compress(scaled));
+                if (scaled != source) {
+                    scaled.recycle();
+                }
+            }
+        } finally {
+            source.recycle();
+        }
+        return variants;
+    }
+
+    /**
+     * Prepares a picked image for upload without reading it fully into memory.
+     * The image is streamed from the resolver and decoded straight to at most
+     * {@link #ORIGINAL_MAX_DIMENSION} pixels, turned upright from its EXIF orientation,
+     * and written to files: the original as JPEG within {@link #ORIGINAL_MAX_BYTES},
+     * and each variant as WebP. Peak memory is bounded by one decoded bitmap of the
+     * largest allowed size, whatever the size of the source. Should be called off the
+     * main thread.
+     *
+     * @param resolver resolver to open the image with
+     * @param uri      content URI of the image
+     * @param dir      directory to write the files to, usually the cache directory
+     * @return the files to upload
+     * @throws IOException if the image cannot be read or the files cannot be written
+     * @throws IllegalArgumentException if the image cannot be decoded
+     */
+    public static Prepared prepare(ContentResolver resolver, Uri uri, File dir) throws IOException {
+        BitmapFactory.Options bounds = new BitmapFactory.Options();
+        bounds.inJustDecodeBounds = true;
+        try (InputStream in = open(resolver, uri)) {
+            BitmapFactory.decodeStream(in, null, bounds);
+        }
+        if (bounds.outWidth <= 0 || bounds.outHeight <= 0) {
+            throw new IllegalArgumentException("Image data could not be decoded");
+        }
+
+        Bitmap source;
+        try (InputStream in = open(resolver, uri)) {
+            source = BitmapFactory.decodeStream(in, null,
+                    boundedOptions(bounds.outWidth, bounds.outHeight, ORIGINAL_MAX_DIMENSION));
+        }
+        if (source == null) {
+            throw new IllegalArgumentException("Image data could not be decoded");
+        }
+        try (InputStream in = open(resolver, uri)) {
+            source = upright(source, new ExifInterface(in).getAttributeInt(
+                    ExifInterface.TAG_ORIENTATION, ExifInterface.ORIENTATION_NORMAL));
+        } catch (IOException e) {
+            // no readable EXIF data, keep the image as decoded
+        }
+
+        Prepared prepared = new Prepared();
+        try {
+            Bitmap original = source;
+            int quality = CompressionBudget.bestQuality(
+                    q -> encodedSize(original, Bitmap.CompressFormat.JPEG, q),
+                    ORIGINAL_MAX_BYTES, MIN_JPEG_QUALITY, MAX_JPEG_QUALITY);
+            prepared.original = File.createTempFile("upload", ".jpg", dir);
+            writeTo(source, Bitmap.CompressFormat.JPEG, quality, prepared.original);
+
+            for (ImageVariant variant : ImageVariant.values()) {
+                int[] size = ImageVariant.scaledSize(
+                        source.getWidth(), source.getHeight(), variant.getMaxDimension());
+                Bitmap scaled = Bitmap.createScaledBitmap(source, size[0], size[1], true);
+                File file = File.createTempFile("upload_" + variant.getKey(), ".webp", dir);
+                prepared.variants.put(variant, file);
+                writeTo(scaled, webpFormat(), WEBP_QUALITY, file);
+                if (scaled != source) {
+                    scaled.recycle();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            prepared.delete();
+            throw e;
+        } finally {
+            source.recycle();
+        }
+        return prepared;
+    }
+
+    /**
+     * Picks the smallest variant that fills a view without upscaling.
+     * Uses the laid out size of the view, then its layout size, then the screen width.
+     *
+     * @param view view the image will be drawn into
+     * @return variant to load into the view
+     */
+    public static ImageVariant forView(View view) {
+        int size = Math.max(view.getWidth(), view.getHeight());
+        if (size <= 0) {
+            ViewGroup.LayoutParams params = view.getLayoutParams();
+            if (params != null) {
+                size = Math.max(params.width, params.height);
+            }
+        }
+        if (size <= 0) {
+            size = view.getResources().getDisplayMetrics().widthPixels;
+        }
+        return ImageVariant.forSize(size);
+    }
+
+    private static byte[] compress(Bitmap bitmap) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        bitmap.compress(webpFormat(), WEBP_QUALITY, out);
+        return out.toByteArray();
+    }
+
+    @SuppressWarnings("deprecation")
+    private static Bitmap.CompressFormat webpFormat() {
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.R
+                ? Bitmap.CompressFormat.WEBP_LOSSY
+                : Bitmap.CompressFormat.WEBP;
+    }
+
+    private static InputStream open(ContentResolver resolver, Uri uri) throws IOException {
+        InputStream in = resolver.openInputStream(uri);
+        if (in == null) {
+            throw new IOException("Could not open " + uri);
+        }
+        return in;
+    }
+
+    /**
+     * Builds decode options that subsample by a power of two and then let the decoder
+     * scale the rest of the way, so the bitmap is allocated once at its final size.
+     */
+    private static BitmapFactory.Options boundedOptions(int width, int height, int maxDimension) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inSampleSize = ImageVariant.sampleSize(width, height, maxDimension);
+        int sampledLongest = Math.max(width, height) / options.inSampleSize;
+        int[] target = ImageVariant.scaledSize(width, height, maxDimension);
+        int targetLongest = Math.max(target[0], target[1]);
+        if (sampledLongest > targetLongest) {
+            options.inScaled = true;
+            options.inDensity = sampledLongest;
+            options.inTargetDensity = targetLongest;
+        }
+        return options;
+    }
+
+    private static Bitmap upright(Bitmap bitmap, int orientation) {
+        Matrix matrix = new Matrix();
+        switch (orientation) {
+            case ExifInterface.ORIENTATION_ROTATE_90:
+                matrix.postRotate(90);
+                break;
+            case ExifInterface.ORIENTATION_ROTATE_180:
+                matrix.postRotate(180);
+                break;
+            case ExifInterface.ORIENTATION_ROTATE_270:
+                matrix.postRotate(270);
+                break;
+            default:
+                return bitmap;
+        }
+        Bitmap rotated = Bitmap.createBitmap(
+                bitmap, 0, 0, bitmap.getWidth(), bitmap.getHeight(), matrix, true);
+        if (rotated != bitmap) {
+            bitmap.recycle();
+        }
+        return rotated;
+    }
+
+    private static long encodedSize(Bitmap bitmap, Bitmap.CompressFormat format, int quality) {
+        CountingOutputStream out = new CountingOutputStream();
+        bitmap.compress(format, quality, out);
+        return out.count;
+    }
+
+    private static void writeTo(Bitmap bitmap, Bitmap.CompressFormat format, int quality,
+                                File file) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+            if (!bitmap.compress(format, quality, out)) {
+                throw new IOException("Could not encode " + file.getName());
+            }
+        }
+    }
+
+    /**
+     * Files of an image prepared for upload. Delete them once the upload is done.
+     */
+    public static final class Prepared {
+        private File original;
+        private final Map<ImageVariant, File> variants = new EnumMap<>(ImageVariant.class);
+
+        private Prepared() { }
+
+        /**
+         * Gets the re-encoded original.
+         *
+         * @return JPEG file of the original
+         */
+        public File getOriginal() {
+            return original;
+        }
+
+        /**
+         * Gets the file of a variant.
+         *
+         * @param variant variant wanted
+         * @return WebP file of the variant
+         */
+        public File getVariant(ImageVariant variant) {
+            return variants.get(variant);
+        }
+
+        /**
+         * Deletes every file of the image.
+         */
+        public void delete() {
+            if (original != null) {
+                original.delete();
+            }
+            for (File file : variants.values()) {
+                file.delete();
+            }
+        }
+    }
+
+    /** Output stream that only counts bytes, used to measure encoded sizes */
+    private static class CountingOutputStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
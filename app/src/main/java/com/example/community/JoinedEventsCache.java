@@ -0,0 +1,113 @@
+package com.example.community;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-session cache of the events each user has a waitlist entry for.
+ * Filled from one query per user and kept up to date when the user joins or leaves a
+ * waitlist from this device, so feeds can exclude joined events without a read per event.
+ * Shared by every service in the process.
+ */
+public class JoinedEventsCache {
+
+    private static final JoinedEventsCache INSTANCE = new JoinedEventsCache();
+
+    private final Map<String, Set<String>> joinedByUser = new HashMap<>();
+    private long generation;
+
+    /**
+     * Returns the cache shared by the whole app.
+     *
+     * @return the shared cache
+     */
+    public static JoinedEventsCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the cached event IDs of a user.
+     *
+     * @param userID ID of the user
+     * @return copy of the joined event IDs, or null if not cached
+     */
+    public synchronized Set<String> get(String userID) {
+        Set<String> joined = joinedByUser.get(userID);
+        return joined == null ? null : new HashSet<>(joined);
+    }
+
+    /**
+     * Returns a stamp to pass to {@link #put} once a load started now finishes.
+     *
+     * @return the current generation of the cache
+     */
+    public synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * Caches the event IDs of a user loaded from the database. The result is dropped if
+     * the user joined or left a waitlist while it was loading, since it may be out of date.
+     *
+     * @param userID     ID of the user
+     * @param eventIDs   IDs of the events the user has an entry for
+     * @param loadedFrom generation read before the load started
+     * @return true if the IDs were cached
+     */
+    public synchronized boolean put(String userID, Collection<String> eventIDs, long loadedFrom) {
+        if (loadedFrom != generation) {
+            return false;
+        }
+        joinedByUser.put(userID, new HashSet<>(eventIDs));
+        return true;
+    }
+
+    /**
+     * Records that a user joined an event's waitlist.
+     *
+     * @param userID  ID of the user
+     * @param eventID ID of the event
+     */
+    public synchronized void markJoined(String userID, String eventID) {
+        generation++;
+        Set<String> joined = joinedByUser.get(userID);
+        if (joined != null) {
+            joined.add(eventID);
+        }
+    }
+
+    /**
+     * Records that a user left an event's waitlist.
+     *
+     * @param userID  ID of the user
+     * @param eventID ID of the event
+     */
+    public synchronized void markLeft(String userID, String eventID) {
+        generation++;
+        Set<String> joined = joinedByUser.get(userID);
+        if (joined != null) {
+            joined.remove(eventID);
+        }
+    }
+
+    /**
+     * Drops the cached event IDs of a user, so the next lookup reloads them.
+     *
+     * @param userID ID of the user
+     */
+    public synchronized void invalidate(String userID) {
+        generation++;
+        joinedByUser.remove(userID);
+    }
+
+    /**
+     * Drops every cached user.
+     */
+    public synchronized void clear() {
+        generation++;
+        joinedByUser.clear();
+    }
+}
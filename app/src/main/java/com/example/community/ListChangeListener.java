@@ -0,0 +1,41 @@
+package com.example.community;
+
+/**
+ * Receives the changes to a live list one at a time. Indexes refer to the list as it
+ * is after all earlier changes have been applied, so the changes can be replayed on
+ * a copy of the list, and on a RecyclerView adapter, in the order they arrive.
+ *
+ * @param <T> type of the items
+ */
+public interface ListChangeListener<T> {
+
+    /**
+     * Called when an item is inserted.
+     *
+     * @param item  the new item
+     * @param index position it was inserted at
+     */
+    void onAdded(T item, int index);
+
+    /**
+     * Called when an item changes, moves, or both.
+     *
+     * @param item     the new version of the item
+     * @param oldIndex position it was removed from
+     * @param newIndex position it was inserted at once removed
+     */
+    void onModified(T item, int oldIndex, int newIndex);
+
+    /**
+     * Called when an item is removed.
+     *
+     * @param item  the removed item
+     * @param index position it was removed from
+     */
+    void onRemoved(T item, int index);
+
+    /**
+     * Called after all changes from one database snapshot have been delivered.
+     */
+    default void onChangesApplied() { }
+}
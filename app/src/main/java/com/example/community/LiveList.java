@@ -0,0 +1,199 @@
+package com.example.community;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Ordered list of identified items that reports every change to a {@link ListChangeListener}.
+ * Items hidden by a filter are kept in the list but never reported, and reported indexes
+ * count only visible items.
+ *
+ * @param <T> type of the items
+ */
+public class LiveList<T> {
+
+    private final List<String> ids = new ArrayList<>();
+    private final List<T> items = new ArrayList<>();
+    // compared to tell a changed item from one that only moved
+    private final List<Object> contents = new ArrayList<>();
+    private final List<Boolean> visible = new ArrayList<>();
+    private final List<T> visibleItems = new ArrayList<>();
+
+    private final Predicate<T> filter;
+    private final ListChangeListener<T> listener;
+
+    /**
+     * Creates a list that reports every item.
+     *
+     * @param listener listener told about every change
+     */
+    public LiveList(ListChangeListener<T> listener) {
+        this(item -> true, listener);
+    }
+
+    /**
+     * Creates a list that only reports items accepted by a filter.
+     *
+     * @param filter   returns true for items to show
+     * @param listener listener told about every change to the shown items
+     */
+    public LiveList(Predicate<T> filter, ListChangeListener<T> listener) {
+        this.filter = filter;
+        this.listener = listener;
+    }
+
+    /**
+     * Inserts an item.
+     *
+     * @param index   position in the full list
+     * @param id      ID of the item
+     * @param item    the item
+     * @param content value compared on later updates to tell whether the item changed
+     */
+    public void add(int index, String id, T item, Object content) {
+        boolean shown = filter.test(item);
+        int visibleIndex = visibleIndexOf(index);
+        ids.add(index, id);
+        items.add(index, item);
+        contents.add(index, content);
+        visible.add(index, shown);
+        if (shown) {
+            visibleItems.add(visibleIndex, item);
+            listener.onAdded(item, visibleIndex);
+        }
+    }
+
+    /**
+     * Replaces an item with a new version, moving it if its position changed.
+     *
+     * @param oldIndex position in the full list before the change
+     * @param newIndex position in the full list after the change
+     * @param item     the new version of the item
+     * @param content  value compared on later updates to tell whether the item changed
+     */
+    public void modify(int oldIndex, int newIndex, T item, Object content) {
+        boolean wasShown = visible.get(oldIndex);
+        int oldVisibleIndex = visibleIndexOf(oldIndex);
+        String id = ids.remove(oldIndex);
+        T oldItem = items.remove(oldIndex);
+        contents.remove(oldIndex);
+        visible.remove(oldIndex);
+        if (wasShown) {
+            visibleItems.remove(oldVisibleIndex);
+        }
+
+        boolean shown = filter.test(item);
+        int newVisibleIndex = visibleIndexOf(newIndex);
+        ids.add(newIndex, id);
+        items.add(newIndex, item);
+        contents.add(newIndex, content);
+        visible.add(newIndex, shown);
+        if (shown) {
+            visibleItems.add(newVisibleIndex, item);
+        }
+
+        if (wasShown && shown) {
+            listener.onModified(item, oldVisibleIndex, newVisibleIndex);
+        } else if (wasShown) {
+            listener.onRemoved(oldItem, oldVisibleIndex);
+        } else if (shown) {
+            listener.onAdded(item, newVisibleIndex);
+        }
+    }
+
+    /**
+     * Removes an item.
+     *
+     * @param index position in the full list
+     */
+    public void remove(int index) {
+        boolean wasShown = visible.get(index);
+        int visibleIndex = visibleIndexOf(index);
+        ids.remove(index);
+        T item = items.remove(index);
+        contents.remove(index);
+        visible.remove(index);
+        if (wasShown) {
+            visibleItems.remove(visibleIndex);
+            listener.onRemoved(item, visibleIndex);
+        }
+    }
+
+    /**
+     * Brings the list to a new state, reporting only the items that were removed,
+     * added, changed or moved. Used to catch up after changes were missed.
+     *
+     * @param newIDs      IDs of the items in their new order, without repeats
+     * @param newItems    the items in their new order
+     * @param newContents values compared to tell whether each item changed
+     */
+    public void replaceAll(List<String> newIDs, List<T> newItems, List<Object> newContents) {
+        Set<String> kept = new HashSet<>(newIDs);
+        for (int i = ids.size() - 1; i >= 0; i--) {
+            if (!kept.contains(ids.get(i))) {
+                remove(i);
+            }
+        }
+
+        // every remaining item is in the new list, so items before j are already in place
+        for (int j = 0; j < newIDs.size(); j++) {
+            String id = newIDs.get(j);
+            int current = ids.indexOf(id);
+            if (current < 0) {
+                add(j, id, newItems.get(j), newContents.get(j));
+            } else if (current != j || !Objects.equals(contents.get(current), newContents.get(j))) {
+                modify(current, j, newItems.get(j), newContents.get(j));
+            } else {
+                // unchanged, but keep the newest copy
+                items.set(j, newItems.get(j));
+                if (visible.get(j)) {
+                    visibleItems.set(visibleIndexOf(j), newItems.get(j));
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes every item without reporting it.
+     */
+    public void clear() {
+        ids.clear();
+        items.clear();
+        contents.clear();
+        visible.clear();
+        visibleItems.clear();
+    }
+
+    /**
+     * Returns the items shown, in order.
+     *
+     * @return read-only view of the shown items
+     */
+    public List<T> getItems() {
+        return Collections.unmodifiableList(visibleItems);
+    }
+
+    /**
+     * Returns the number of items in the full list, including hidden ones.
+     *
+     * @return number of items
+     */
+    public int size() {
+        return ids.size();
+    }
+
+    private int visibleIndexOf(int index) {
+        int count = 0;
+        for (int i = 0; i < index; i++) {
+            if (visible.get(i)) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.community;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleOwner;
+
+import com.google.android.gms.tasks.OnFailureListener;
+import com.google.firebase.firestore.DocumentChange;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Query kept up to date with a snapshot listener, delivering changes one document at a time
+ * instead of whole result sets.
+ *
+ * <p>The listener is registered while the observing lifecycle is started and removed when it
+ * stops, so a screen in the back stack holds no connection open. The first snapshot after
+ * each registration is compared against the items already shown, so only what changed in the
+ * meantime is reported; later snapshots report their document changes directly.
+ *
+ * @param <T> type the documents are converted to
+ */
+public class LiveQuery<T> implements DefaultLifecycleObserver {
+
+    private static final String TAG = "LiveQuery";
+
+    private final Class<T> type;
+    private final Predicate<T> filter;
+    private Query query;
+
+    private LiveList<T> list;
+    private ListChangeListener<T> listener;
+    private OnFailureListener onError;
+    private LifecycleOwner owner;
+    private ListenerRegistration registration;
+    private boolean resync;
+
+    /**
+     * Creates a live query that shows every matching document.
+     *
+     * @param query query to listen to
+     * @param type  class the documents are converted to
+     */
+    public LiveQuery(Query query, Class<T> type) {
+        this(query, type, item -> true);
+    }
+
+    /**
+     * Creates a live query that only shows the documents accepted by a filter.
+     * Documents that stop matching the filter are reported as removed.
+     *
+     * @param query  query to listen to
+     * @param type   class the documents are converted to
+     * @param filter returns true for items to show
+     */
+    public LiveQuery(Query query, Class<T> type, Predicate<T> filter) {
+        this.query = query;
+        this.type = type;
+        this.filter = filter;
+    }
+
+    /**
+     * Starts delivering changes to a listener for as long as a lifecycle lasts.
+     * Call once, usually with a fragment's view lifecycle owner.
+     *
+     * @param owner    lifecycle controlling when the query listens
+     * @param listener listener told about every change
+     * @param onError  called when the query fails, or null to only log the failure
+     */
+    public void observe(@NonNull LifecycleOwner owner, ListChangeListener<T> listener,
+                        OnFailureListener onError) {
+        this.owner = owner;
+        this.listener = listener;
+        this.list = new LiveList<>(filter, listener);
+        this.onError = onError;
+        owner.getLifecycle().addObserver(this);
+    }
+
+    /**
+     * Switches to a different query, such as the same query with a higher limit.
+     * Items shown for the old query stay until the new one has answered, and then only
+     * the differences are reported.
+     *
+     * @param newQuery query to listen to from now on
+     */
+    public void setQuery(Query newQuery) {
+        query = newQuery;
+        if (owner != null && owner.getLifecycle().getCurrentState().isAtLeast(Lifecycle.State.STARTED)) {
+            stopListening();
+            startListening();
+        }
+    }
+
+    /**
+     * Changes the number of documents listened to, keeping the rest of the query.
+     *
+     * @param limit new maximum number of documents
+     */
+    public void setLimit(int limit) {
+        setQuery(query.limit(limit));
+    }
+
+    /**
+     * Returns the number of documents matched by the last snapshot, including hidden ones.
+     *
+     * @return number of matched documents
+     */
+    public int size() {
+        return list != null ? list.size() : 0;
+    }
+
+    /**
+     * Returns the items currently shown.
+     *
+     * @return read-only view of the items, in query order
+     */
+    public List<T> getItems() {
+        return list != null ? list.getItems() : new ArrayList<>();
+    }
+
+    @Override
+    public void onStart(@NonNull LifecycleOwner owner) {
+        startListening();
+    }
+
+    @Override
+    public void onStop(@NonNull LifecycleOwner owner) {
+        stopListening();
+    }
+
+    @Override
+    public void onDestroy(@NonNull LifecycleOwner owner) {
+        owner.getLifecycle().removeObserver(this);
+        this.owner = null;
+    }
+
+    private void startListening() {
+        resync = true;
+        registration = query.addSnapshotListener((snapshot, e) -> {
+            if (e != null) {
+                Log.e(TAG, "live query failed", e);
+                if (onError != null) {
+                    onError.onFailure(e);
+                }
+                return;
+            }
+            if (snapshot != null) {
+                apply(snapshot);
+            }
+        });
+    }
+
+    private void stopListening() {
+        if (registration != null) {
+            registration.remove();
+            registration = null;
+        }
+    }
+
+    private void apply(QuerySnapshot snapshot) {
+        if (resync) {
+            resync = false;
+            List<String> ids = new ArrayList<>();
+            List<T> items = new ArrayList<>();
+            List<Object> contents = new ArrayList<>();
+            for (DocumentSnapshot doc : snapshot.getDocuments()) {
+                ids.add(doc.getId());
+                items.add(doc.toObject(type));
+                contents.add(doc.getData());
+            }
+            list.replaceAll(ids, items, contents);
+        } else {
+            for (DocumentChange change : snapshot.getDocumentChanges()) {
+                DocumentSnapshot doc = change.getDocument();
+                switch (change.getType()) {
+                    case ADDED:
+                        list.add(change.getNewIndex(), doc.getId(), doc.toObject(type), doc.getData());
+                        break;
+                    case MODIFIED:
+                        list.modify(change.getOldIndex(), change.getNewIndex(),
+                                doc.toObject(type), doc.getData());
+                        break;
+                    case REMOVED:
+                        list.remove(change.getOldIndex());
+                        break;
+                }
+            }
+        }
+        listener.onChangesApplied();
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.community;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+
+/**
+ * Helpers for splitting lottery entrants into winners and losers.
+ */
+public final class LotteryDraw {
+
+    private LotteryDraw() { }
+
+    /**
+     * Creates the sampler used for a draw.
+     * Every draw gets its own generator seeded from the persisted seed, so draws on
+     * different events share no state and any draw can be replayed from its seed.
+     *
+     * @param sampleSize number of winners to draw
+     * @param seed       seed of the draw
+     * @param <T>        type of the entries
+     * @return a new sampler for the draw
+     */
+    public static <T> ReservoirSampler<T> newSampler(int sampleSize, long seed) {
+        return new ReservoirSampler<>(sampleSize, new SplittableRandom(seed));
+    }
+
+    /**
+     * Reproduces a past draw offline.
+     * Gives the same winners as the original draw when the entrants are passed in
+     * the order they were streamed, as saved with the draw's record.
+     *
+     * @param entrants   entrants that were WAITING at the time of the draw, in draw order
+     * @param sampleSize number of winners that were drawn
+     * @param seed       seed recorded for the draw
+     * @param <T>        type of the entries
+     * @return the winners of the draw
+     */
+    public static <T> List<T> replay(List<T> entrants, int sampleSize, long seed) {
+        ReservoirSampler<T> sampler = newSampler(sampleSize, seed);
+        sampler.offerAll(entrants);
+        return sampler.getSample();
+    }
+
+    /**
+     * Collects the IDs of the given entries into a hash set.
+     *
+     * @param entries entries to collect IDs from
+     * @param idOf    function returning the ID of an entry
+     * @param <T>     type of the entries
+     * @return set of entry IDs
+     */
+    public static <T> Set<String> idsOf(List<T> entries, Function<T, String> idOf) {
+        Set<String> ids = new HashSet<>(entries.size() * 2);
+        for (T entry : entries) {
+            ids.add(idOf.apply(entry));
+        }
+        return ids;
+    }
+
+    /**
+     * Returns the entries whose IDs are not in the given set, in their original order.
+     * Runs in a single pass, independent of the size of the excluded set.
+     *
+     * @param entries     entries to filter
+     * @param excludedIDs IDs to leave out
+     * @param idOf        function returning the ID of an entry
+     * @param <T>         type of the entries
+     * @return entries not in the excluded set
+     */
+    public static <T> List<T> excluding(List<T> entries, Set<String> excludedIDs, Function<T, String> idOf) {
+        List<T> remaining = new ArrayList<>(entries.size());
+        for (T entry : entries) {
+            if (!excludedIDs.contains(idOf.apply(entry))) {
+                remaining.add(entry);
+            }
+        }
+        return remaining;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.community;
+
+import com.google.firebase.Timestamp;
+
+/**
+ * Audit record of a single lottery draw, stored on the event.
+ * The IDs of the entrants that were waiting, in the order they were drawn from, are
+ * stored next to the event under the draw ID, so together with the seed the draw can be
+ * reproduced with {@link LotteryDraw#replay}.
+ */
+public class LotteryDrawRecord {
+    private String drawID;
+    private int entrantChunkCount;
+    private long seed;
+    private int sampleSize;
+    private long entrantCount;
+    private Timestamp drawnAt;
+
+    /**
+     * Default constructor required for Firebase.
+     */
+    public LotteryDrawRecord() {}
+
+    /**
+     * Creates a record of a draw.
+     *
+     * @param drawID            ID the draw's entrant list is stored under
+     * @param entrantChunkCount number of documents the entrant list is split over
+     * @param seed              seed the draw's generator was created with
+     * @param sampleSize        number of winners requested
+     * @param entrantCount      number of entrants that were waiting
+     * @param drawnAt           time of the draw
+     */
+    public LotteryDrawRecord(String drawID, int entrantChunkCount, long seed, int sampleSize,
+                             long entrantCount, Timestamp drawnAt) {
+        this.drawID = drawID;
+        this.entrantChunkCount = entrantChunkCount;
+        this.seed = seed;
+        this.sampleSize = sampleSize;
+        this.entrantCount = entrantCount;
+        this.drawnAt = drawnAt;
+    }
+
+    public String getDrawID() {
+        return drawID;
+    }
+
+    public void setDrawID(String drawID) {
+        this.drawID = drawID;
+    }
+
+    public int getEntrantChunkCount() {
+        return entrantChunkCount;
+    }
+
+    public void setEntrantChunkCount(int entrantChunkCount) {
+        this.entrantChunkCount = entrantChunkCount;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public int getSampleSize() {
+        return sampleSize;
+    }
+
+    public void setSampleSize(int sampleSize) {
+        this.sampleSize = sampleSize;
+    }
+
+    public long getEntrantCount() {
+        return entrantCount;
+    }
+
+    public void setEntrantCount(long entrantCount) {
+        this.entrantCount = entrantCount;
+    }
+
+    public Timestamp getDrawnAt() {
+        return drawnAt;
+    }
+
+    public void setDrawnAt(Timestamp drawnAt) {
+        this.drawnAt = drawnAt;
+    }
+}
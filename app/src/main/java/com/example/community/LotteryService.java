@@ -2,10 +2,17 @@ package com.example.community;
 
 import com.google.android.gms.tasks.Task;
 import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentSnapshot;
 
+import java.security.SecureRandom;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
 
 /**
  * Service class responsible for managing lotteries for events.
@@ -14,6 +21,7 @@ import java.util.Random;
  */
 public class LotteryService {
     private final String TAG = "LotteryService";
+    private static final int PAGE_SIZE = 1000;
 
     private WaitlistRepository waitlistRepository;
     private EventRepository eventRepository;
@@ -21,14 +29,27 @@ public class LotteryService {
     private NotificationService notificationService;
     private WaitingListEntryService waitingListEntryService;
 
+    private final LongSupplier seedSource;
+
     /**
      * Constructs a new LotteryService and initializes required repositories and services.
+     * Draw seeds come from a {@link SecureRandom}.
      */
     public LotteryService() {
+        this(new SecureRandom()::nextLong);
+    }
+
+    /**
+     * Constructs a new LotteryService that takes draw seeds from the given source.
+     *
+     * @param seedSource source of the seed for each draw
+     */
+    public LotteryService(LongSupplier seedSource) {
         this.waitlistRepository = new WaitlistRepository();
         this.eventRepository = new EventRepository();
         this.notificationService = new NotificationService();
         this.waitingListEntryService = new WaitingListEntryService();
+        this.seedSource = seedSource;
     }
 
     /**
@@ -41,6 +62,20 @@ public class LotteryService {
      * @return A Task representing the asynchronous completion of the lottery process
      */
     public Task<Void> runLottery(String organizerID, String eventID, int sampleSize) {
+        return runLottery(organizerID, eventID, sampleSize, null);
+    }
+
+    /**
+     * Runs a lottery for a specific event, reporting notification progress.
+     *
+     * @param organizerID      The user ID of the organizer running the lottery
+     * @param eventID          The ID of the event
+     * @param sampleSize       The number of winners to select
+     * @param progressListener Listener notified as result notifications are written, or null
+     * @return A Task representing the asynchronous completion of the lottery process
+     */
+    public Task<Void> runLottery(String organizerID, String eventID, int sampleSize,
+                                 ProgressListener progressListener) {
         return eventRepository.getByID(eventID)
                 .continueWithTask(eventTask -> {
                     Event event = eventTask.getResult();
@@ -69,68 +104,110 @@ public class LotteryService {
                         return Tasks.forException(new IllegalArgumentException("Sample size must be less than or equal to available slots"));
                     }
 
-                    return waitlistRepository.listByEventAndStatus(eventID, EntryStatus.WAITING)
-                            .continueWithTask(entriesTask -> {
-                                if (!entriesTask.isSuccessful()) {
-                                    throw entriesTask.getException();
-                                }
-                                List<WaitingListEntry> waitingEntries = entriesTask.getResult();
-                                if (waitingEntries == null || waitingEntries.isEmpty()) {
-                                    return Tasks.forException(new IllegalArgumentException("No users on waitlist"));
-                                }
-
-                                int slotsToFill = Math.min(sampleSize, waitingEntries.size());
-                                List<WaitingListEntry> lotteryWinners = selectLotteryWinners(waitingEntries, slotsToFill);
-                                List<WaitingListEntry> lotteryLosers = getLotteryLosers(waitingEntries, lotteryWinners);
-
-                                return markAsInvited(organizerID, eventID, lotteryWinners)
-                                        .continueWithTask(inviteTask -> {
-                                            if (!inviteTask.isSuccessful()) {
-                                                throw inviteTask.getException();
-                                            }
-                                            return sendNotifications(lotteryWinners, lotteryLosers, eventID);
-                                        });
-                            });
+                    // first pass: sample winners from the stream of WAITING entries, saving each
+                    // page as one chunk of the entrant list so the draw can be audited
+                    long seed = seedSource.getAsLong();
+                    ReservoirSampler<WaitingListEntry> sampler = LotteryDraw.newSampler(sampleSize, seed);
+                    String drawID = UUID.randomUUID().toString();
+                    AtomicInteger chunkCount = new AtomicInteger();
+                    return forEachWaitingPage(eventID, null, page -> {
+                        if (page.isEmpty()) {
+                            return Tasks.forResult(null);
+                        }
+                        sampler.offerAll(page);
+                        List<String> entrantIDs = new ArrayList<>();
+                        for (WaitingListEntry entry : page) {
+                            entrantIDs.add(entry.getUserID());
+                        }
+                        return eventRepository.saveDrawEntrantChunk(eventID, drawID,
+                                        chunkCount.get(), entrantIDs)
+                                .addOnSuccessListener(v -> chunkCount.incrementAndGet());
+                    }).continueWithTask(sampleTask -> {
+                        if (sampleTask.isSuccessful() && sampler.getSeen() == 0) {
+                            return Tasks.<LotteryDrawRecord>forException(
+                                    new IllegalArgumentException("No users on waitlist"));
+                        }
+
+                        // record the seed before anything changes; drop the saved chunks if it fails
+                        LotteryDrawRecord record = new LotteryDrawRecord(drawID, chunkCount.get(), seed,
+                                sampleSize, sampler.getSeen(), Timestamp.now());
+                        Task<Void> recordTask = sampleTask.isSuccessful()
+                                ? eventRepository.addLotteryDraw(eventID, record)
+                                : sampleTask;
+                        return recordTask.continueWithTask(saved -> {
+                            if (saved.isSuccessful()) {
+                                return Tasks.forResult(record);
+                            }
+                            Exception failure = saved.getException();
+                            return eventRepository.deleteDrawEntrants(eventID, Collections.singletonList(record))
+                                    .continueWithTask(cleanup -> Tasks.<LotteryDrawRecord>forException(failure));
+                        });
+                    }).continueWithTask(recordTask -> {
+                        if (!recordTask.isSuccessful()) {
+                            throw recordTask.getException();
+                        }
+                        LotteryDrawRecord record = recordTask.getResult();
+                        List<WaitingListEntry> lotteryWinners = sampler.getSample();
+                        return markAsInvited(organizerID, eventID, lotteryWinners)
+                                .continueWithTask(inviteTask -> {
+                                    if (!inviteTask.isSuccessful()) {
+                                        throw inviteTask.getException();
+                                    }
+                                    return sendNotifications(lotteryWinners, eventID, record, progressListener);
+                                });
+                    });
                 });
     }
 
     /**
-     * Randomly selects winners from the provided list of entries.
+     * Reproduces a past draw of an event from its stored entrant list and seed.
      *
-     * @param entriesList The list of entries to select from
-     * @param slotsToFill The number of winners to select
-     * @param <T>         The type of entries
-     * @return A list containing the selected winners
+     * @param eventID The ID of the event
+     * @param record  The record of the draw
+     * @return A Task containing the user IDs of the draw's winners
      */
-    private <T> List<T> selectLotteryWinners(List<T> entriesList, int slotsToFill) {
-        if (slotsToFill >= entriesList.size()) {
-            return new ArrayList<>(entriesList);
-        }
-
-        List<T> copy = new ArrayList<>(entriesList);
-        Random random = new Random();
-
-        for (int i = 0; i < slotsToFill; i++) {
-            int randomIndex = i + random.nextInt(copy.size() - i);
-            T temp = copy.get(i);
-            copy.set(i, copy.get(randomIndex));
-            copy.set(randomIndex, temp);
-        }
+    public Task<List<String>> replayDraw(String eventID, LotteryDrawRecord record) {
+        return eventRepository.getDrawEntrants(eventID, record).continueWith(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            return LotteryDraw.replay(task.getResult(), record.getSampleSize(), record.getSeed());
+        });
+    }
 
-        return copy.subList(0, slotsToFill);
+    /**
+     * Handles one page of waitlist entries while streaming through a waitlist.
+     */
+    private interface PageHandler {
+        Task<Void> handle(List<WaitingListEntry> entries);
     }
 
     /**
-     * Returns a list of waitlist entries that were not selected as winners.
+     * Streams the WAITING entries of an event page by page, handing each page to
+     * the handler before fetching the next one. At most one page is held in memory.
      *
-     * @param waitingEntries The full list of waiting entries
-     * @param lotteryWinners The selected winners
-     * @return A list of losers
+     * @param eventID    The ID of the event
+     * @param startAfter The last snapshot of the previous page, or null to start at the beginning
+     * @param handler    The handler to run for each page
+     * @return A Task that completes after the last page has been handled
      */
-    private List<WaitingListEntry> getLotteryLosers(List<WaitingListEntry> waitingEntries, List<WaitingListEntry> lotteryWinners) {
-        List<WaitingListEntry> losers = new ArrayList<>(waitingEntries);
-        losers.removeAll(lotteryWinners);
-        return losers;
+    private Task<Void> forEachWaitingPage(String eventID, DocumentSnapshot startAfter, PageHandler handler) {
+        return waitlistRepository.pageByEventAndStatus(eventID, EntryStatus.WAITING, PAGE_SIZE, startAfter)
+                .continueWithTask(pageTask -> {
+                    if (!pageTask.isSuccessful()) {
+                        throw pageTask.getException();
+                    }
+                    Page<WaitingListEntry> page = pageTask.getResult();
+                    return handler.handle(page.getItems()).continueWithTask(handleTask -> {
+                        if (!handleTask.isSuccessful()) {
+                            throw handleTask.getException();
+                        }
+                        if (!page.hasMore()) {
+                            return Tasks.forResult(null);
+                        }
+                        return forEachWaitingPage(eventID, page.getLastSnapshot(), handler);
+                    });
+                });
     }
 
     /**
@@ -150,19 +227,84 @@ public class LotteryService {
     }
 
     /**
-     * Sends notifications to both winners and losers of the lottery.
+     * Sends notifications to the winners, then reads the draw's saved entrant list chunk
+     * by chunk and notifies everyone else in it as losers. Users who joined after the
+     * draw are not in the list and are left alone.
+     * Progress is reported as a single count over all entrants in the draw.
      *
-     * @param lotteryWinners The list of winners
-     * @param lotteryLosers  The list of losers
-     * @param eventID        The ID of the event
+     * @param lotteryWinners   The list of winners
+     * @param eventID          The ID of the event
+     * @param record           The record of the draw
+     * @param progressListener Listener notified as notifications are written, or null
      * @return A Task representing the asynchronous completion of notifications
      */
     private Task<Void> sendNotifications(List<WaitingListEntry> lotteryWinners,
-                                         List<WaitingListEntry> lotteryLosers,
-                                         String eventID) {
-        List<Task<Void>> notificationTasks = new ArrayList<>();
-        notificationTasks.add(notificationService.notifyWinners(eventID, lotteryWinners));
-        notificationTasks.add(notificationService.notifyLosers(eventID, lotteryLosers));
-        return Tasks.whenAll(notificationTasks);
+                                         String eventID,
+                                         LotteryDrawRecord record,
+                                         ProgressListener progressListener) {
+        Set<String> winnerIDs = LotteryDraw.idsOf(lotteryWinners, WaitingListEntry::getUserID);
+        int total = (int) record.getEntrantCount();
+        AtomicInteger notified = new AtomicInteger();
+
+        return notificationService.notifyWinners(eventID, lotteryWinners, progress(notified, total, progressListener))
+                .continueWithTask(winnerTask -> {
+                    if (!winnerTask.isSuccessful()) {
+                        throw winnerTask.getException();
+                    }
+                    notified.addAndGet(lotteryWinners.size());
+
+                    // second pass: every other entrant of this draw lost
+                    return notifyLosers(eventID, record, 0, winnerIDs, notified, total, progressListener);
+                });
+    }
+
+    /**
+     * Notifies the entrants of one saved chunk of a draw who are not winners, then moves
+     * on to the next chunk. At most one chunk is held in memory.
+     *
+     * @param eventID          The ID of the event
+     * @param record           The record of the draw
+     * @param index            The chunk to notify
+     * @param winnerIDs        The user IDs of the winners
+     * @param notified         The number of notifications sent so far
+     * @param total            The number of entrants in the draw
+     * @param progressListener Listener notified as notifications are written, or null
+     * @return A Task that completes after the last chunk has been notified
+     */
+    private Task<Void> notifyLosers(String eventID, LotteryDrawRecord record, int index,
+                                    Set<String> winnerIDs, AtomicInteger notified, int total,
+                                    ProgressListener progressListener) {
+        if (index >= record.getEntrantChunkCount()) {
+            return Tasks.forResult(null);
+        }
+        return eventRepository.getDrawEntrantChunk(eventID, record.getDrawID(), index)
+                .onSuccessTask(chunk -> {
+                    List<String> loserIDs = LotteryDraw.excluding(chunk, winnerIDs, userID -> userID);
+                    if (loserIDs.isEmpty()) {
+                        return Tasks.<Void>forResult(null);
+                    }
+                    return notificationService.notifyLosersByID(eventID, loserIDs,
+                                    progress(notified, total, progressListener))
+                            .addOnSuccessListener(v -> notified.addAndGet(loserIDs.size()));
+                })
+                .onSuccessTask(v -> notifyLosers(eventID, record, index + 1, winnerIDs, notified,
+                        total, progressListener));
+    }
+
+    /**
+     * Wraps a progress listener so counts from one notification batch are offset
+     * by the notifications already sent in earlier batches.
+     *
+     * @param notified         The number of notifications sent before this batch
+     * @param total            The number of entrants in the draw
+     * @param progressListener The listener to forward to, or null
+     * @return The offset listener, or null if no listener was given
+     */
+    private ProgressListener progress(AtomicInteger notified, int total,
+                                      ProgressListener progressListener) {
+        if (progressListener == null) {
+            return null;
+        }
+        return (written, count) -> progressListener.onProgress(notified.get() + written, total);
     }
 }
@@ -55,7 +55,11 @@ public class MainActivity extends AppCompatActivity {
      */
     @Override
     protected void onCreate(Bundle savedInstanceState) {
+        // before fragments are restored, since they create repositories
+        FirestoreConfig.configure();
         super.onCreate(savedInstanceState);
+        // finish image uploads cut short by a previous process
+        UploadQueue.getInstance(this).resumePending();
         //WindowCompat.setDecorFitsSystemWindows(getWindow(), true);
         setContentView(R.layout.activity_main);
         ViewCompat.setOnApplyWindowInsetsListener(findViewById(android.R.id.content), (view, insets) -> {
@@ -5,12 +5,16 @@ import com.google.android.gms.tasks.Tasks;
 import com.google.firebase.Timestamp;
 import com.google.firebase.firestore.CollectionReference;
 import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.WriteBatch;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Repository for managing notification data in Firestore.
@@ -20,6 +24,13 @@ public class NotificationRepository {
 
     private final String TAG = "NotificationRepository";
 
+    /** Maximum number of writes Firestore accepts in one batch. */
+    private static final int MAX_BATCH_SIZE = 500;
+    /** Maximum number of batch commits in flight at once. */
+    private static final int MAX_IN_FLIGHT_BATCHES = 4;
+    /** Number of times a failed batch is retried before giving up. */
+    private static final int MAX_BATCH_RETRIES = 2;
+
     private final FirebaseFirestore db;
     private final CollectionReference notificationsRef;
 
@@ -52,83 +63,156 @@ public class NotificationRepository {
      * @return task that completes when all notifications are created
      */
     public Task<Void> createMany(String eventID, List<String> recipientIDs, NotificationType type, String title, String message) {
-        List<Task<Void>> writes = new ArrayList<>();
+        return createMany(eventID, recipientIDs, type, title, message, null);
+    }
+
+    /**
+     * Creates multiple notifications for a list of recipients.
+     * Notifications are written in batches of up to {@value #MAX_BATCH_SIZE}, with at most
+     * {@value #MAX_IN_FLIGHT_BATCHES} batches committing at once. A failed batch is retried on
+     * its own; batches that already committed are not written again.
+     *
+     * @param eventID ID of the related event
+     * @param recipientIDs list of user IDs to notify
+     * @param type type of notification
+     * @param message notification message
+     * @param progressListener listener notified after each committed batch, or null
+     * @return task that completes when all notifications are created, failing if any
+     *         batch still failed after retrying
+     */
+    public Task<Void> createMany(String eventID, List<String> recipientIDs, NotificationType type,
+                                 String title, String message, ProgressListener progressListener) {
+        long issueDate = System.currentTimeMillis();
+        List<List<Notification>> chunks = new ArrayList<>();
+        List<Notification> chunk = new ArrayList<>();
 
         for (String recipientID : recipientIDs) {
             Notification n = new Notification();
-            n.setNotificationID(java.util.UUID.randomUUID().toString());
+            n.setNotificationID(UUID.randomUUID().toString());
             n.setRecipientID(recipientID);
             n.setEventID(eventID);
             n.setType(type);
             n.setTitle(title);
             n.setMessage(message);
-            n.setIssueDate(System.currentTimeMillis());
+            n.setIssueDate(issueDate);
 
-            writes.add(create(n));
+            chunk.add(n);
+            if (chunk.size() == MAX_BATCH_SIZE) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
         }
 
-        return com.google.android.gms.tasks.Tasks.whenAll(writes);
+        int total = recipientIDs.size();
+        AtomicInteger written = new AtomicInteger();
+        return BoundedTasks.forEachBounded(chunks, MAX_IN_FLIGHT_BATCHES, batch ->
+                commitChunk(batch, MAX_BATCH_RETRIES).addOnSuccessListener(v -> {
+                    int done = written.addAndGet(batch.size());
+                    if (progressListener != null) {
+                        progressListener.onProgress(done, total);
+                    }
+                }));
     }
 
     /**
-     * Lists notifications for a specific user with pagination.
-     *
-     * @param recipientID ID of the user
-     * @param limit maximum number to return
-     * @param startAfterID ID to start pagination after
-     * @return task containing list of notifications
+     * Writes one chunk of notifications as a single batch, retrying on failure.
+     * Notification IDs are fixed before the first attempt, so retries are idempotent.
      */
-    public Task<List<Notification>> listNotificationsByRecipient(String recipientID, int limit, String startAfterID) {
-        Query query = notificationsRef.whereEqualTo("recipientID", recipientID).orderBy("issueDate").limit(limit);
-
-        if (startAfterID != null) {
-            query = query.startAfter(startAfterID);
+    private Task<Void> commitChunk(List<Notification> chunk, int retriesLeft) {
+        WriteBatch batch = db.batch();
+        for (Notification n : chunk) {
+            batch.set(notificationsRef.document(n.getNotificationID()), n);
         }
-
-        return query.get().continueWith(task -> {
-            if (!task.isSuccessful()) {
-                throw task.getException();
-            }
-
-            List<Notification> notifications = new ArrayList<>();
-            for (DocumentSnapshot doc : task.getResult()) {
-                Notification n = doc.toObject(Notification.class);
-                if (n != null) {
-                    notifications.add(n);
-                }
+        return batch.commit().continueWithTask(task -> {
+            if (!task.isSuccessful() && retriesLeft > 0) {
+                return commitChunk(chunk, retriesLeft - 1);
             }
-            return notifications;
+            return task;
         });
     }
 
     /**
-     * Lists notifications for a specific event with pagination.
+     * Lists notifications for a specific user, oldest first, one page at a time.
+     *
+     * @param recipientID ID of the user
+     * @param limit maximum number to return
+     * @param startAfter last snapshot of the previous page, or null for the first page
+     * @return task containing the page of notifications
+     */
+    public Task<Page<Notification>> listNotificationsByRecipient(String recipientID, int limit,
+                                                                 DocumentSnapshot startAfter) {
+        return getPage(notificationsRef.whereEqualTo("recipientID", recipientID), limit, startAfter);
+    }
+
+    /**
+     * Lists notifications for a specific event, oldest first, one page at a time.
      *
      * @param eventID ID of the event
      * @param limit maximum number to return
-     * @param startAfterID ID to start pagination after
-     * @return task containing list of notifications
+     * @param startAfter last snapshot of the previous page, or null for the first page
+     * @return task containing the page of notifications
      */
-    public Task<List<Notification>> listNotificationsByEvent(String eventID, int limit, String startAfterID) {
-        Query query = notificationsRef.whereEqualTo("eventID", eventID).orderBy("issueDate").limit(limit);
+    public Task<Page<Notification>> listNotificationsByEvent(String eventID, int limit,
+                                                             DocumentSnapshot startAfter) {
+        return getPage(notificationsRef.whereEqualTo("eventID", eventID), limit, startAfter);
+    }
 
-        if (startAfterID != null) {
-            query = query.startAfter(startAfterID);
+    /**
+     * Creates a live query over the newest notifications for a user, newest first.
+     * Dismissed notifications count towards the limit but are not shown.
+     * Raise the limit with {@link LiveQuery#setLimit(int)} to show older ones.
+     *
+     * @param recipientID ID of the user
+     * @param limit maximum number of notifications to listen to
+     * @return live query that starts listening once observed
+     */
+    public LiveQuery<Notification> watchNotificationsByRecipient(String recipientID, int limit) {
+        return new LiveQuery<>(newestFirst(notificationsRef.whereEqualTo("recipientID", recipientID))
+                .limit(limit), Notification.class, n -> !n.isDismissed());
+    }
+
+    /**
+     * Creates a live query over the newest notifications of every user, newest first.
+     * Raise the limit with {@link LiveQuery#setLimit(int)} to show older ones.
+     *
+     * @param limit maximum number of notifications to listen to
+     * @return live query that starts listening once observed
+     */
+    public LiveQuery<Notification> watchAllNotifications(int limit) {
+        return new LiveQuery<>(newestFirst(notificationsRef).limit(limit), Notification.class);
+    }
+
+    /**
+     * Orders notifications newest first, breaking ties between a batch by ID.
+     */
+    private Query newestFirst(Query query) {
+        return query.orderBy("issueDate", Query.Direction.DESCENDING)
+                .orderBy(FieldPath.documentId(), Query.Direction.DESCENDING);
+    }
+
+    /**
+     * Runs a notification query for one page ordered by issue date.
+     * Notifications sent in the same batch share an issue date, so the ID breaks ties.
+     *
+     * @param query query to page through
+     * @param limit maximum number of notifications on the page
+     * @param startAfter last snapshot of the previous page, or null for the first page
+     * @return task containing the page of notifications
+     */
+    private Task<Page<Notification>> getPage(Query query, int limit, DocumentSnapshot startAfter) {
+        query = query.orderBy("issueDate").orderBy(FieldPath.documentId()).limit(limit);
+        if (startAfter != null) {
+            query = query.startAfter(startAfter);
         }
 
         return query.get().continueWith(task -> {
             if (!task.isSuccessful()) {
                 throw task.getException();
             }
-
-            List<Notification> notifications = new ArrayList<>();
-            for (DocumentSnapshot doc : task.getResult()) {
-                Notification n = doc.toObject(Notification.class);
-                if (n != null) {
-                    notifications.add(n);
-                }
-            }
-            return notifications;
+            return Page.of(task.getResult(), Notification.class, limit);
         });
     }
 
@@ -144,34 +228,56 @@ public class NotificationRepository {
 
     /**
      * Deletes all notifications for a specific event.
+     * Notifications are deleted in batches of up to {@value #MAX_BATCH_SIZE}.
      *
      * @param eventID ID of the event
      * @return task that completes when all notifications are deleted
      */
     public Task<Void> deleteAllForEvent(String eventID) {
-        return notificationsRef.whereEqualTo("eventID", eventID).get().continueWithTask(task -> {
-            List<Task<Void>> deleteTasks = new ArrayList<>();
-            for (DocumentSnapshot doc : task.getResult()) {
-                deleteTasks.add(doc.getReference().delete());
+        return deleteMatching(notificationsRef.whereEqualTo("eventID", eventID));
+    }
+
+    /**
+     * Deletes every notification matched by a query, one batch at a time.
+     * Each round re-runs the query, so an interrupted delete can simply be started again.
+     *
+     * @param query query matching the notifications to delete
+     * @return task that completes when no matching notifications are left
+     */
+    private Task<Void> deleteMatching(Query query) {
+        return query.limit(MAX_BATCH_SIZE).get().continueWithTask(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
             }
-            return Tasks.whenAll(deleteTasks);
+            List<DocumentSnapshot> docs = task.getResult().getDocuments();
+            if (docs.isEmpty()) {
+                return Tasks.forResult(null);
+            }
+            WriteBatch batch = db.batch();
+            for (DocumentSnapshot doc : docs) {
+                batch.delete(doc.getReference());
+            }
+            return batch.commit().continueWithTask(commitTask -> {
+                if (!commitTask.isSuccessful()) {
+                    throw commitTask.getException();
+                }
+                if (docs.size() < MAX_BATCH_SIZE) {
+                    return Tasks.forResult(null);
+                }
+                return deleteMatching(query);
+            });
         });
     }
 
     /**
      * Deletes all notifications for a specific user.
+     * Notifications are deleted in batches of up to {@value #MAX_BATCH_SIZE}.
      *
      * @param userID ID of the user
      * @return task that completes when all notifications are deleted
      */
     public Task<Void> deleteAllForUser(String userID) {
-        return notificationsRef.whereEqualTo("recipientID", userID).get().continueWithTask(task -> {
-            List<Task<Void>> deleteTasks = new ArrayList<>();
-            for (DocumentSnapshot doc : task.getResult()) {
-                deleteTasks.add(doc.getReference().delete());
-            }
-            return Tasks.whenAll(deleteTasks);
-        });
+        return deleteMatching(notificationsRef.whereEqualTo("recipientID", userID));
     }
 
     /**
@@ -205,4 +311,16 @@ public class NotificationRepository {
     public Task<Void> update(Notification notification) {
         return notificationsRef.document(notification.getNotificationID()).set(notification);
     }
+
+    /**
+     * Updates only the given fields of a notification, leaving every other field untouched.
+     * Fails with NOT_FOUND if the notification does not exist.
+     *
+     * @param notificationID ID of the notification
+     * @param fields field names mapped to their new values
+     * @return task that completes when update finishes
+     */
+    public Task<Void> update(String notificationID, Map<String, Object> fields) {
+        return notificationsRef.document(notificationID).update(fields);
+    }
 }
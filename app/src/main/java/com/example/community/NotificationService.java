@@ -1,10 +1,14 @@
 package com.example.community;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import com.google.android.gms.tasks.Task;
 import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestoreException;
 
 /**
  * Service layer for notification operations.
@@ -33,6 +37,19 @@ public class NotificationService {
      * @return task that completes when notifications are sent
      */
     public Task<Void> notifyWinners(String eventID, List<WaitingListEntry> lotteryWinners) {
+        return notifyWinners(eventID, lotteryWinners, null);
+    }
+
+    /**
+     * Sends notifications to users who were selected for an event, reporting progress.
+     *
+     * @param eventID ID of the event
+     * @param lotteryWinners entries of the selected users
+     * @param progressListener listener notified as notifications are written, or null
+     * @return task that completes when notifications are sent
+     */
+    public Task<Void> notifyWinners(String eventID, List<WaitingListEntry> lotteryWinners,
+                                    ProgressListener progressListener) {
         return eventRepository.getByID(eventID)
                 .continueWithTask(eventTask -> {
                     if (! eventTask.isSuccessful()) {
@@ -53,7 +70,8 @@ public class NotificationService {
                             recipientIDs,
                             NotificationType.WIN,
                             title,
-                            message
+                            message,
+                            progressListener
                     );
 
                 });
@@ -68,6 +86,36 @@ public class NotificationService {
      * @return task that completes when notifications are sent
      */
     public Task<Void> notifyLosers(String eventID, List<WaitingListEntry> lotteryLosers) {
+        return notifyLosers(eventID, lotteryLosers, null);
+    }
+
+    /**
+     * Sends notifications to users who were not selected for an event, reporting progress.
+     *
+     * @param eventID ID of the event
+     * @param lotteryLosers entries of the users who were not selected
+     * @param progressListener listener notified as notifications are written, or null
+     * @return task that completes when notifications are sent
+     */
+    public Task<Void> notifyLosers(String eventID, List<WaitingListEntry> lotteryLosers,
+                                   ProgressListener progressListener) {
+        List<String> recipientIDS = new ArrayList<>();
+        for (WaitingListEntry e : lotteryLosers) {
+            recipientIDS. add(e.getUserID());
+        }
+        return notifyLosersByID(eventID, recipientIDS, progressListener);
+    }
+
+    /**
+     * Sends notifications to the given users telling them they were not selected for an event.
+     *
+     * @param eventID ID of the event
+     * @param loserIDs IDs of the users who were not selected
+     * @param progressListener listener notified as notifications are written, or null
+     * @return task that completes when notifications are sent
+     */
+    public Task<Void> notifyLosersByID(String eventID, List<String> loserIDs,
+                                       ProgressListener progressListener) {
         return eventRepository.getByID(eventID)
                 . continueWithTask(eventTask -> {
                     if (!eventTask.isSuccessful()) {
@@ -79,17 +127,13 @@ public class NotificationService {
                     String title = eventName + ": Lottery Results";
                     String message = "The lottery was ran but you were not selected at this time. ";
 
-                    List<String> recipientIDS = new ArrayList<>();
-                    for (WaitingListEntry e : lotteryLosers) {
-                        recipientIDS. add(e.getUserID());
-                    }
-
                     return notificationRepository.createMany(
                             eventID,
-                            recipientIDS,
+                            loserIDs,
                             NotificationType.LOSE,
                             title,
-                            message
+                            message,
+                            progressListener
                     );
                 });
     }
@@ -188,17 +232,38 @@ public class NotificationService {
     }
 
     /**
-     * Lists all notifications for a user with pagination.
+     * Lists notifications for a user, one page at a time.
      * US 01.04.01, US 01.04.02, US 01.04.03
      *
      * @param userID ID of the user
      * @param limit maximum number to return
-     * @param startAfterID ID to start pagination after
-     * @return task containing list of notifications
+     * @param startAfter last snapshot of the previous page, or null for the first page
+     * @return task containing the page of notifications
      */
-    public Task<java.util.List<Notification>> listUserNotification(String userID, int limit,
-                                                                   String startAfterID) {
-        return notificationRepository.listNotificationsByRecipient(userID, limit, startAfterID);
+    public Task<Page<Notification>> listUserNotification(String userID, int limit,
+                                                         DocumentSnapshot startAfter) {
+        return notificationRepository.listNotificationsByRecipient(userID, limit, startAfter);
+    }
+
+    /**
+     * Creates a live query over a user's newest notifications that are not dismissed.
+     *
+     * @param userID ID of the user
+     * @param limit maximum number of notifications to listen to
+     * @return live query that starts listening once observed
+     */
+    public LiveQuery<Notification> watchUserNotifications(String userID, int limit) {
+        return notificationRepository.watchNotificationsByRecipient(userID, limit);
+    }
+
+    /**
+     * Creates a live query over the newest notifications of every user, newest first.
+     *
+     * @param limit maximum number of notifications to listen to
+     * @return live query that starts listening once observed
+     */
+    public LiveQuery<Notification> watchAllNotifications(int limit) {
+        return notificationRepository.watchAllNotifications(limit);
     }
 
     /**
@@ -208,7 +273,8 @@ public class NotificationService {
      * @return task containing list of notifications for the event
      */
     public Task<List<Notification>> getNotificationLogs(String eventID) {
-        return notificationRepository.listNotificationsByEvent(eventID, 1000, null);
+        return notificationRepository.listNotificationsByEvent(eventID, 1000, null)
+                .onSuccessTask(page -> Tasks.forResult(page.getItems()));
         // I capped it at 1000
     }
     // Handle entrant accepting or declining an invitation
@@ -219,25 +285,14 @@ public class NotificationService {
      * If declined -> mark entry DECLINED and draw a replacement from WAITING.
      */
     public Task<Void> respondToInvitation(String eventID, String userID, boolean accepted) {
-        return waitlistRepository.getByID(eventID, userID)
-                .onSuccessTask(entry -> {
-                    if (entry == null) {
-                        return Tasks.forException(
-                                new IllegalStateException("Waitlist entry not found for event=" +
-                                        eventID + " user=" + userID));
-                    }
-
-                    if (accepted) {
-                        // User keeps the spot
-                        entry.markAsAccepted();
-                        return waitlistRepository.update(entry);
-                    } else {
-                        // User gives up the spot -> mark declined and redraw
-                        entry.markAsDeclined();
-                        return waitlistRepository.update(entry)
-                                .onSuccessTask(v -> selectReplacementFromWaitlist(eventID));
-                    }
-                });
+        if (accepted) {
+            // User keeps the spot, if the event still has room
+            return waitlistRepository.acceptInvite(eventID, userID);
+        }
+        // User gives up the spot -> mark declined and redraw
+        return waitlistRepository.updateStatus(eventID, userID, EntryStatus.INVITED, EntryStatus.DECLINED,
+                        Collections.singletonMap("declinedAt", Timestamp.now()))
+                .onSuccessTask(v -> selectReplacementFromWaitlist(eventID));
     }
 
     /**
@@ -246,38 +301,50 @@ public class NotificationService {
      */
     private Task<Void> selectReplacementFromWaitlist(String eventID) {
         return waitlistRepository.listByEventAndStatus(eventID, EntryStatus.WAITING)
-                .onSuccessTask(entries -> {
-                    if (entries == null || entries.isEmpty()) {
-                        // No one left to draw
-                        return Tasks.forResult(null);
-                    }
-
-                    // Simple strategy: pick the first WAITING entry
-                    // (you can randomize later if you want)
-                    WaitingListEntry replacement = entries.get(0);
+                .onSuccessTask(entries -> inviteFirstWaiting(eventID, entries, 0));
+    }
 
-                    // Mark them as INVITED
+    /**
+     * Invites the first entry of the list that is still WAITING and sends it a WIN
+     * notification. Entries whose status changed since the list was read are skipped.
+     */
+    private Task<Void> inviteFirstWaiting(String eventID, List<WaitingListEntry> entries, int index) {
+        if (entries == null || index >= entries.size()) {
+            // No one left to draw
+            return Tasks.forResult(null);
+        }
+        WaitingListEntry replacement = entries.get(index);
+        return waitlistRepository.updateStatus(eventID, replacement.getUserID(), EntryStatus.WAITING,
+                        EntryStatus.INVITED, Collections.singletonMap("invitedAt", Timestamp.now()))
+                .continueWithTask(task -> {
+                    if (task.getException() instanceof IllegalStateException
+                            || task.getException() instanceof IllegalArgumentException) {
+                        return inviteFirstWaiting(eventID, entries, index + 1);
+                    }
+                    if (!task.isSuccessful()) {
+                        throw task.getException();
+                    }
                     replacement.markAsInvited();
-
-                    List<WaitingListEntry> winners = new ArrayList<>();
-                    winners.add(replacement);
-
-                    // First update Firestore with new status
-                    return waitlistRepository.update(replacement)
-                            // Then send them a WIN notification using your existing method
-                            .onSuccessTask(v -> notifyWinners(eventID, winners));
+                    return notifyWinners(eventID, Collections.singletonList(replacement));
                 });
     }
 
+    /**
+     * Marks a notification as dismissed, writing only its dismissed flag.
+     *
+     * @param notificationID ID of the notification
+     * @return task that completes when the notification is updated
+     */
     public Task<Void> dismissNotification(String notificationID) {
-        return notificationRepository.getByID(notificationID)
-                .onSuccessTask(notification -> {
-                    if (notification == null) {
+        return notificationRepository.update(notificationID, Collections.singletonMap("dismissed", true))
+                .continueWithTask(task -> {
+                    Exception e = task.getException();
+                    if (e instanceof FirebaseFirestoreException
+                            && ((FirebaseFirestoreException) e).getCode() == FirebaseFirestoreException.Code.NOT_FOUND) {
                         return Tasks.forException(
                                 new IllegalStateException("Notification not found: " + notificationID));
                     }
-                    notification.markAsDismissed(); // ADDED: Mark as dismissed
-                    return notificationRepository.update(notification); // ADDED: Update in backend
+                    return task;
                 });
     }
 
@@ -0,0 +1,73 @@
+package com.example.community;
+
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of query results.
+ * Holds the last document snapshot of the page so the next page can be
+ * fetched with {@code startAfter}.
+ *
+ * @param <T> type of the items on the page
+ */
+public class Page<T> {
+    private final List<T> items;
+    private final DocumentSnapshot lastSnapshot;
+    private final boolean hasMore;
+
+    /**
+     * Creates a new page.
+     *
+     * @param items        items on this page
+     * @param lastSnapshot snapshot of the last document on this page, or null if empty
+     * @param hasMore      whether another page may follow
+     */
+    public Page(List<T> items, DocumentSnapshot lastSnapshot, boolean hasMore) {
+        this.items = items;
+        this.lastSnapshot = lastSnapshot;
+        this.hasMore = hasMore;
+    }
+
+    /**
+     * Builds a page from the result of a query limited to {@code limit} documents.
+     * Documents that cannot be converted are skipped but still advance the cursor.
+     *
+     * @param snapshot result of the query
+     * @param type     class to convert each document to
+     * @param limit    limit the query was run with
+     * @param <T>      type of the items on the page
+     * @return the page of converted documents
+     */
+    public static <T> Page<T> of(QuerySnapshot snapshot, Class<T> type, int limit) {
+        List<DocumentSnapshot> docs = snapshot.getDocuments();
+        List<T> items = new ArrayList<>(docs.size());
+        for (DocumentSnapshot doc : docs) {
+            T item = doc.toObject(type);
+            if (item != null) {
+                items.add(item);
+            }
+        }
+        DocumentSnapshot last = docs.isEmpty() ? null : docs.get(docs.size() - 1);
+        return new Page<>(items, last, docs.size() == limit);
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Returns the cursor to pass when fetching the next page.
+     *
+     * @return snapshot of the last document, or null if the page is empty
+     */
+    public DocumentSnapshot getLastSnapshot() {
+        return lastSnapshot;
+    }
+
+    public boolean hasMore() {
+        return hasMore;
+    }
+}
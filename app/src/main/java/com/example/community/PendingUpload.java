@@ -0,0 +1,265 @@
+package com.example.community;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An image upload that has been handed to the {@link UploadQueue} and not finished yet.
+ * Holds everything needed to resume it in a later process: the local files, where each
+ * goes in Storage, the resumable session of each file, and what to do once all are up.
+ */
+public class PendingUpload {
+
+    /**
+     * What the image is attached to once uploaded.
+     */
+    public enum Kind {
+        POSTER // becomes the event's poster
+    }
+
+    /** Role of the original file among the parts */
+    static final String ORIGINAL = "original";
+
+    private final String uploadID;
+    private final Kind kind;
+    private final String eventID;
+    private final String uploadedBy;
+    private final boolean replaceOld;
+    private final List<Part> parts = new ArrayList<>();
+
+    /**
+     * Creates a pending upload. The upload ID is also used as the ID of the Image document,
+     * so finishing an upload twice writes the same document.
+     *
+     * @param uploadID   unique ID of the upload
+     * @param kind       what the image is attached to
+     * @param eventID    ID of the event the image belongs to
+     * @param uploadedBy ID of the uploading user
+     * @param replaceOld whether a poster upload deletes the event's previous poster
+     */
+    public PendingUpload(String uploadID, Kind kind, String eventID, String uploadedBy,
+                         boolean replaceOld) {
+        this.uploadID = uploadID;
+        this.kind = kind;
+        this.eventID = eventID;
+        this.uploadedBy = uploadedBy;
+        this.replaceOld = replaceOld;
+    }
+
+    /**
+     * Builds a pending upload from an image prepared by {@link ImageVariants#prepare}.
+     *
+     * @param uploadID    unique ID of the upload
+     * @param kind        what the image is attached to
+     * @param eventID     ID of the event the image belongs to
+     * @param uploadedBy  ID of the uploading user
+     * @param replaceOld  whether a poster upload deletes the event's previous poster
+     * @param prepared    files of the image and its variants
+     * @param storagePath path of the original in Firebase Storage
+     * @return the pending upload with one part per file
+     */
+    public static PendingUpload of(String uploadID, Kind kind, String eventID, String uploadedBy,
+                                   boolean replaceOld, ImageVariants.Prepared prepared,
+                                   String storagePath) {
+        PendingUpload upload = new PendingUpload(uploadID, kind, eventID, uploadedBy, replaceOld);
+        upload.parts.add(new Part(ORIGINAL, prepared.getOriginal().getPath(),
+                storagePath, "image/jpeg"));
+        for (ImageVariant variant : ImageVariant.values()) {
+            upload.parts.add(new Part(variant.getKey(), prepared.getVariant(variant).getPath(),
+                    variant.storagePathFor(storagePath), "image/webp"));
+        }
+        return upload;
+    }
+
+    public String getUploadID() {
+        return uploadID;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public String getEventID() {
+        return eventID;
+    }
+
+    public String getUploadedBy() {
+        return uploadedBy;
+    }
+
+    public boolean isReplaceOld() {
+        return replaceOld;
+    }
+
+    public List<Part> getParts() {
+        return parts;
+    }
+
+    /**
+     * Gets the part holding the original image.
+     *
+     * @return the original part
+     */
+    public Part getOriginal() {
+        return getPart(ORIGINAL);
+    }
+
+    /**
+     * Gets a part by its role.
+     *
+     * @param role {@link #ORIGINAL} or the key of an {@link ImageVariant}
+     * @return the part, or null if there is none
+     */
+    public Part getPart(String role) {
+        for (Part part : parts) {
+            if (part.role.equals(role)) {
+                return part;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Deletes the local files of every part.
+     */
+    public void deleteFiles() {
+        for (Part part : parts) {
+            new File(part.localPath).delete();
+        }
+    }
+
+    /**
+     * Serializes the upload for the {@link UploadJournal}.
+     *
+     * @return JSON text of the upload
+     * @throws JSONException if the upload cannot be serialized
+     */
+    public String toJson() throws JSONException {
+        JSONArray partsJson = new JSONArray();
+        for (Part part : parts) {
+            partsJson.put(new JSONObject()
+                    .put("role", part.role)
+                    .put("localPath", part.localPath)
+                    .put("storagePath", part.storagePath)
+                    .put("contentType", part.contentType)
+                    .put("sessionUri", part.sessionUri)
+                    .put("bytesTransferred", part.bytesTransferred)
+                    .put("downloadURL", part.downloadURL));
+        }
+        return new JSONObject()
+                .put("uploadID", uploadID)
+                .put("kind", kind.name())
+                .put("eventID", eventID)
+                .put("uploadedBy", uploadedBy)
+                .put("replaceOld", replaceOld)
+                .put("parts", partsJson)
+                .toString();
+    }
+
+    /**
+     * Reads an upload written by {@link #toJson()}.
+     *
+     * @param json JSON text of the upload
+     * @return the upload
+     * @throws JSONException if the text is not a valid upload
+     */
+    public static PendingUpload fromJson(String json) throws JSONException {
+        JSONObject object = new JSONObject(json);
+        PendingUpload upload = new PendingUpload(
+                object.getString("uploadID"),
+                Kind.valueOf(object.getString("kind")),
+                optString(object, "eventID"),
+                optString(object, "uploadedBy"),
+                object.optBoolean("replaceOld"));
+        JSONArray partsJson = object.getJSONArray("parts");
+        for (int i = 0; i < partsJson.length(); i++) {
+            JSONObject partJson = partsJson.getJSONObject(i);
+            Part part = new Part(partJson.getString("role"), partJson.getString("localPath"),
+                    partJson.getString("storagePath"), partJson.getString("contentType"));
+            part.sessionUri = optString(partJson, "sessionUri");
+            part.bytesTransferred = partJson.optLong("bytesTransferred");
+            part.downloadURL = optString(partJson, "downloadURL");
+            upload.parts.add(part);
+        }
+        return upload;
+    }
+
+    private static String optString(JSONObject object, String name) {
+        return object.isNull(name) ? null : object.optString(name);
+    }
+
+    /**
+     * One file of the upload: the original or one variant.
+     */
+    public static class Part {
+        private final String role;
+        private final String localPath;
+        private final String storagePath;
+        private final String contentType;
+        private String sessionUri;
+        private long bytesTransferred;
+        private String downloadURL;
+
+        Part(String role, String localPath, String storagePath, String contentType) {
+            this.role = role;
+            this.localPath = localPath;
+            this.storagePath = storagePath;
+            this.contentType = contentType;
+        }
+
+        public String getRole() {
+            return role;
+        }
+
+        public File getLocalFile() {
+            return new File(localPath);
+        }
+
+        public String getStoragePath() {
+            return storagePath;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        /**
+         * Gets the resumable session of the file, once Storage has opened one.
+         *
+         * @return session URI, or null if the upload has not started
+         */
+        public String getSessionUri() {
+            return sessionUri;
+        }
+
+        public void setSessionUri(String sessionUri) {
+            this.sessionUri = sessionUri;
+        }
+
+        public long getBytesTransferred() {
+            return bytesTransferred;
+        }
+
+        public void setBytesTransferred(long bytesTransferred) {
+            this.bytesTransferred = bytesTransferred;
+        }
+
+        /**
+         * Gets the download URL of the file, set once it is fully uploaded.
+         *
+         * @return download URL, or null if the file is not uploaded yet
+         */
+        public String getDownloadURL() {
+            return downloadURL;
+        }
+
+        public void setDownloadURL(String downloadURL) {
+            this.downloadURL = downloadURL;
+        }
+    }
+}
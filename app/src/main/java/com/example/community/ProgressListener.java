@@ -0,0 +1,14 @@
+package com.example.community;
+
+/**
+ * Listener for progress of a long-running, multi-step write.
+ */
+public interface ProgressListener {
+    /**
+     * Called after each step of the operation completes.
+     *
+     * @param done  number of items processed so far
+     * @param total total number of items to process
+     */
+    void onProgress(int done, int total);
+}
@@ -0,0 +1,144 @@
+package com.example.community;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.util.Log;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Memory and disk cache of event QR codes rendered on the device.
+ *
+ * <p>QR codes only depend on the event ID, so they are rendered locally with
+ * {@link QRRenderer} instead of being downloaded from Storage. Rendered codes are kept in
+ * memory and as PNG files in the cache directory, both evicting the least recently used
+ * code. Loads of the same event share one task.
+ */
+public class QRCodeCache {
+
+    private static final String TAG = "QRCodeCache";
+    /** Bumped whenever rendering changes, so stale files are never read */
+    private static final String FILE_PREFIX = "qr-v1-";
+    private static final int MAX_MEMORY_ENTRIES = 8;
+    private static final int MAX_DISK_ENTRIES = 64;
+
+    private static QRCodeCache instance;
+
+    private final File dir;
+    private final TaskCache<Bitmap> memory = new TaskCache<>(MAX_MEMORY_ENTRIES, Long.MAX_VALUE);
+    private final Executor executor = Executors.newSingleThreadExecutor();
+
+    private QRCodeCache(Context context) {
+        this.dir = new File(context.getApplicationContext().getCacheDir(), "qr");
+    }
+
+    /**
+     * Gets the cache of the app.
+     *
+     * @param context any context of the app
+     * @return the shared cache
+     */
+    public static synchronized QRCodeCache getInstance(Context context) {
+        if (instance == null) {
+            instance = new QRCodeCache(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Gets the QR code of an event, from memory, then disk, then by rendering it.
+     *
+     * @param eventID The event ID
+     * @return Task that resolves to the QR code bitmap
+     */
+    public Task<Bitmap> get(String eventID) {
+        return memory.get(eventID, () -> Tasks.call(executor, () -> load(eventID)));
+    }
+
+    private Bitmap load(String eventID) throws Exception {
+        File file = new File(dir, FILE_PREFIX + safeName(eventID) + ".png");
+        if (file.exists()) {
+            BitmapFactory.Options options = new BitmapFactory.Options();
+            options.inPreferredConfig = Bitmap.Config.RGB_565;
+            Bitmap cached = BitmapFactory.decodeFile(file.getPath(), options);
+            if (cached != null) {
+                file.setLastModified(System.currentTimeMillis());
+                return cached;
+            }
+        }
+
+        Bitmap bitmap = render(eventID, QRRenderer.DEFAULT_SIZE);
+        try {
+            write(bitmap, file);
+            trim();
+        } catch (IOException e) {
+            // the code is still shown, it is just rendered again next time
+            Log.w(TAG, "Could not cache QR code for " + eventID, e);
+        }
+        return bitmap;
+    }
+
+    /**
+     * Renders a QR code into a bitmap in one call, with whole pixels per module.
+     *
+     * @param content    text to encode
+     * @param targetSize largest width of the code, in pixels
+     * @return the rendered code
+     * @throws WriterException if the content cannot be encoded
+     */
+    static Bitmap render(String content, int targetSize) throws WriterException {
+        BitMatrix modules = QRRenderer.encode(content);
+        int scale = QRRenderer.scaleFor(modules.getWidth(), targetSize);
+        int size = modules.getWidth() * scale;
+        int[] pixels = QRRenderer.render(modules, scale, QRRenderer.DARK, QRRenderer.LIGHT);
+
+        Bitmap bitmap = Bitmap.createBitmap(size, size, Bitmap.Config.RGB_565);
+        bitmap.setPixels(pixels, 0, size, 0, 0, size, size);
+        return bitmap;
+    }
+
+    private void write(Bitmap bitmap, File file) throws IOException {
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Could not create " + dir);
+        }
+        // write next to the target and rename, so a half-written file is never read
+        File temp = new File(dir, file.getName() + ".tmp");
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(temp))) {
+            bitmap.compress(Bitmap.CompressFormat.PNG, 100, out);
+        }
+        if (!temp.renameTo(file)) {
+            temp.delete();
+            throw new IOException("Could not write " + file);
+        }
+    }
+
+    /** Deletes the least recently used files beyond {@value #MAX_DISK_ENTRIES}. */
+    private void trim() {
+        File[] files = dir.listFiles((d, name) -> name.endsWith(".png"));
+        if (files == null || files.length <= MAX_DISK_ENTRIES) {
+            return;
+        }
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        for (int i = 0; i < files.length - MAX_DISK_ENTRIES; i++) {
+            files[i].delete();
+        }
+    }
+
+    private static String safeName(String eventID) {
+        return eventID.replaceAll("[^A-Za-z0-9_-]", "_");
+    }
+}
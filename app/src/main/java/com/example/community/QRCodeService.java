@@ -1,14 +1,11 @@
 package com.example.community;
 
+import android.content.Context;
 import android.graphics.Bitmap;
-import android.graphics.Color;
 
 import com.google.android.gms.tasks.Task;
 import com.google.android.gms.tasks.Tasks;
-import com.google.zxing.BarcodeFormat;
 import com.google.zxing.WriterException;
-import com.google.zxing.common.BitMatrix;
-import com.google.zxing.qrcode.QRCodeWriter;
 
 import java.io.ByteArrayOutputStream;
 
@@ -87,6 +84,19 @@ public class QRCodeService {
                 });
     }
 
+    /**
+     * Gets the QR code of an event for display, rendered on the device.
+     * The code only depends on the event ID, so no Storage download is needed; rendered
+     * codes are cached in memory and on disk.
+     *
+     * @param context Context used to reach the cache directory
+     * @param eventID The event ID
+     * @return Task that resolves to the QR code bitmap
+     */
+    public Task<Bitmap> getQRCodeBitmap(Context context, String eventID) {
+        return QRCodeCache.getInstance(context).get(eventID);
+    }
+
     /**
      * Generates QR code image bytes for an event
      *
@@ -95,18 +105,7 @@ public class QRCodeService {
      * @throws WriterException if QR code generation fails
      */
     private byte[] generateQRCodeBytes(String eventID) throws WriterException {
-        String qrContent = eventID;
-        int size = 512; // pixels
-
-        QRCodeWriter qrCodeWriter = new QRCodeWriter();
-        BitMatrix bitMatrix = qrCodeWriter.encode(qrContent, BarcodeFormat.QR_CODE, size, size);
-
-        Bitmap bitmap = Bitmap.createBitmap(size, size, Bitmap.Config.RGB_565);
-        for (int x = 0; x < size; x++) {
-            for (int y = 0; y < size; y++) {
-                bitmap.setPixel(x, y, bitMatrix.get(x, y) ? Color.BLACK : Color.WHITE);
-            }
-        }
+        Bitmap bitmap = QRCodeCache.render(eventID, QRRenderer.DEFAULT_SIZE);
 
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
         bitmap.compress(Bitmap.CompressFormat.PNG, 100, outputStream);
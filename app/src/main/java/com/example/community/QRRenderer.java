@@ -0,0 +1,90 @@
+package com.example.community;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Renders event QR codes into pixel buffers.
+ *
+ * <p>The code is encoded at one pixel per module and each module is then drawn as a
+ * square of whole pixels, one row at a time, into a single {@code int[]} that is handed
+ * to the bitmap in one call. Encoding uses fixed hints, so the same content always gives
+ * the same pixels and a rendered code can be cached by its content.
+ */
+public final class QRRenderer {
+
+    /** Size the codes are drawn at when no size is asked for, in pixels */
+    public static final int DEFAULT_SIZE = 512;
+    /** Colour of dark modules, as ARGB */
+    public static final int DARK = 0xFF000000;
+    /** Colour of light modules and the quiet zone, as ARGB */
+    public static final int LIGHT = 0xFFFFFFFF;
+
+    /** Width of the quiet zone around the code, in modules */
+    private static final int QUIET_ZONE = 4;
+
+    private QRRenderer() { }
+
+    /**
+     * Encodes content as a QR code with one entry per module, quiet zone included.
+     *
+     * @param content text to encode
+     * @return the modules of the code
+     * @throws WriterException if the content cannot be encoded
+     */
+    public static BitMatrix encode(String content) throws WriterException {
+        Map<EncodeHintType, Object> hints = new EnumMap<>(EncodeHintType.class);
+        hints.put(EncodeHintType.CHARACTER_SET, "UTF-8");
+        hints.put(EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.L);
+        hints.put(EncodeHintType.MARGIN, QUIET_ZONE);
+        // a size of 0 gives the smallest matrix, one entry per module
+        return new QRCodeWriter().encode(content, BarcodeFormat.QR_CODE, 0, 0, hints);
+    }
+
+    /**
+     * Gets the largest whole number of pixels per module that fits a target size.
+     *
+     * @param modules   width of the code in modules, quiet zone included
+     * @param targetSize largest width of the drawn code, in pixels
+     * @return pixels per module, at least 1
+     */
+    public static int scaleFor(int modules, int targetSize) {
+        return Math.max(1, targetSize / modules);
+    }
+
+    /**
+     * Draws a code into a pixel buffer, row by row. Each row of modules is drawn once
+     * and copied down for the remaining pixel rows of the module.
+     *
+     * @param modules the code, one entry per module
+     * @param scale   pixels per module
+     * @param dark    colour of dark modules, as ARGB
+     * @param light   colour of light modules, as ARGB
+     * @return pixels of the square image, row by row, {@code modules.getWidth() * scale} wide
+     */
+    public static int[] render(BitMatrix modules, int scale, int dark, int light) {
+        int moduleCount = modules.getWidth();
+        int size = moduleCount * scale;
+        int[] pixels = new int[size * size];
+
+        for (int my = 0; my < modules.getHeight(); my++) {
+            int rowStart = my * scale * size;
+            for (int mx = 0; mx < moduleCount; mx++) {
+                int from = rowStart + mx * scale;
+                Arrays.fill(pixels, from, from + scale, modules.get(mx, my) ? dark : light);
+            }
+            for (int line = 1; line < scale; line++) {
+                System.arraycopy(pixels, rowStart, pixels, rowStart + line * size, size);
+            }
+        }
+        return pixels;
+    }
+}
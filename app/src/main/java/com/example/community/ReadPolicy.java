@@ -0,0 +1,17 @@
+package com.example.community;
+
+/**
+ * Enum representing where a repository read takes its data from.
+ * DEFAULT asks the server and falls back to the local cache when offline.
+ * CACHE_FIRST answers from the local cache and only asks the server on a miss; queries
+ * are read like DEFAULT, since a cached query result may be missing documents.
+ * SERVER_ONLY always asks the server and fails when offline.
+ * STALE_WHILE_REVALIDATE answers from the local cache like CACHE_FIRST, then
+ * fetches from the server in the background and reports the fresh result.
+ */
+public enum ReadPolicy {
+    DEFAULT,
+    CACHE_FIRST,
+    SERVER_ONLY,
+    STALE_WHILE_REVALIDATE
+}
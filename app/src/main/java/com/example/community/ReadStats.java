@@ -0,0 +1,86 @@
+package com.example.community;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters for repository reads, used to see how often screens are served from
+ * the local Firestore cache. Shared by every repository in the process.
+ */
+public class ReadStats {
+
+    private static final ReadStats INSTANCE = new ReadStats();
+
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+    private final AtomicLong serverReads = new AtomicLong();
+
+    /**
+     * Returns the counters shared by the whole app.
+     *
+     * @return the shared counters
+     */
+    public static ReadStats getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Records a read answered from the local cache.
+     */
+    public void recordCacheHit() {
+        cacheHits.incrementAndGet();
+    }
+
+    /**
+     * Records a cache lookup that found nothing usable.
+     */
+    public void recordCacheMiss() {
+        cacheMisses.incrementAndGet();
+    }
+
+    /**
+     * Records a read answered by the server.
+     */
+    public void recordServerRead() {
+        serverReads.incrementAndGet();
+    }
+
+    public long getCacheHits() {
+        return cacheHits.get();
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses.get();
+    }
+
+    public long getServerReads() {
+        return serverReads.get();
+    }
+
+    /**
+     * Returns the share of reads answered from the local cache. Background refreshes
+     * count as server reads, so a screen served stale and then refreshed counts twice.
+     *
+     * @return cache hits over all answered reads, or 0 if nothing was read yet
+     */
+    public double getHitRatio() {
+        long hits = cacheHits.get();
+        long total = hits + serverReads.get();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * Resets every counter to zero.
+     */
+    public void reset() {
+        cacheHits.set(0);
+        cacheMisses.set(0);
+        serverReads.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "hits=%d misses=%d server=%d hitRatio=%.2f",
+                getCacheHits(), getCacheMisses(), getServerReads(), getHitRatio());
+    }
+}
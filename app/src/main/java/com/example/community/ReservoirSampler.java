@@ -0,0 +1,82 @@
+package com.example.community;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Draws a uniform random sample of fixed size from a stream of unknown length.
+ * Only the sample is kept in memory, so the stream can be far larger than the heap.
+ *
+ * @param <T> type of the sampled items
+ */
+public class ReservoirSampler<T> {
+    private final int sampleSize;
+    private final SplittableRandom random;
+    private final List<T> reservoir;
+    private long seen;
+
+    /**
+     * Creates a new sampler.
+     *
+     * @param sampleSize number of items to keep
+     * @param random     random source used to pick items; not shared with other samplers,
+     *                   so samplers can run on different threads without contention
+     * @throws IllegalArgumentException if sample size is negative
+     */
+    public ReservoirSampler(int sampleSize, SplittableRandom random) {
+        if (sampleSize < 0) {
+            throw new IllegalArgumentException("Sample size must not be negative");
+        }
+        this.sampleSize = sampleSize;
+        this.random = random;
+        this.reservoir = new ArrayList<>(sampleSize);
+    }
+
+    /**
+     * Offers the next item of the stream to the sample.
+     *
+     * @param item item to offer
+     */
+    public void offer(T item) {
+        seen++;
+        if (reservoir.size() < sampleSize) {
+            reservoir.add(item);
+            return;
+        }
+        long slot = random.nextLong(seen);
+        if (slot < sampleSize) {
+            reservoir.set((int) slot, item);
+        }
+    }
+
+    /**
+     * Offers every item of a list to the sample.
+     *
+     * @param items items to offer
+     */
+    public void offerAll(List<T> items) {
+        for (T item : items) {
+            offer(item);
+        }
+    }
+
+    /**
+     * Returns the current sample.
+     * Contains all offered items if fewer than the sample size were offered.
+     *
+     * @return the sampled items
+     */
+    public List<T> getSample() {
+        return reservoir;
+    }
+
+    /**
+     * Returns how many items have been offered.
+     *
+     * @return number of offered items
+     */
+    public long getSeen() {
+        return seen;
+    }
+}
@@ -100,7 +100,7 @@ public class AdminEventFragment extends Fragment implements EventArrayAdapter.On
 
         adminEventView.setLayoutManager(new LinearLayoutManager(getContext()));
 
-        eventArrayAdapter = new EventArrayAdapter(eventsArrayList);
+        eventArrayAdapter = new EventArrayAdapter();
 
         eventArrayAdapter.setOnEventClickListener(this);
 
@@ -125,7 +125,7 @@ public class AdminEventFragment extends Fragment implements EventArrayAdapter.On
                     .addOnSuccessListener(events -> {
                         eventsArrayList.clear();
                         eventsArrayList.addAll(events);
-                        eventArrayAdapter.notifyDataSetChanged();
+                        eventArrayAdapter.submitList(new ArrayList<>(eventsArrayList));
                     })
                     .addOnFailureListener(e -> {
                         Log.e(TAG, "Error loading events", e);
@@ -199,8 +199,7 @@ public class AdminEventFragment extends Fragment implements EventArrayAdapter.On
                         int position = eventsArrayList.indexOf(event);
                         if (position != -1) {
                             eventsArrayList.remove(position);
-                            eventArrayAdapter.notifyItemRemoved(position);
-                            eventArrayAdapter.notifyItemRangeChanged(position, eventsArrayList.size() - position);
+                            eventArrayAdapter.submitList(new ArrayList<>(eventsArrayList));
                         }
                         Toast.makeText(getContext(), "Event deleted", Toast.LENGTH_SHORT).show();
                     } else {
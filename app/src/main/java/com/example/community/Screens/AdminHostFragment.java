@@ -112,7 +112,7 @@ public class AdminHostFragment extends Fragment implements com.example.community
 
         recyclerView = view.findViewById(R.id.adminHostView);
         recyclerView.setLayoutManager(new LinearLayoutManager(getContext()));
-        adapter = new com.example.community.ArrayAdapters.AdminHostAdapter(getContext(), userList, this);
+        adapter = new com.example.community.ArrayAdapters.AdminHostAdapter(getContext(), this);
         recyclerView.setAdapter(adapter);
 
         getParentFragmentManager().setFragmentResultListener(
@@ -158,8 +158,7 @@ public class AdminHostFragment extends Fragment implements com.example.community
 
                 if (position < userList.size()) {
                     userList.remove(position);
-                    adapter.notifyItemRemoved(position);
-                    adapter.notifyItemRangeChanged(position, userList.size());
+                    adapter.submitList(new ArrayList<>(userList));
                 }
                 Toast.makeText(getContext(), "User deleted.", Toast.LENGTH_SHORT).show();
             } else {
@@ -195,7 +194,7 @@ public class AdminHostFragment extends Fragment implements com.example.community
 
                     }
                 }
-                adapter.notifyDataSetChanged(); // Refresh the list in the UI
+                adapter.submitList(new ArrayList<>(userList)); // Refresh the list in the UI
                 Log.d(TAG, "Successfully loaded " + userList.size() + " users.");
             } else {
                 Log.e(TAG, "Failed to load users", task.getException());
@@ -109,7 +109,7 @@ public class AdminImageFragment extends Fragment {
 
         adminImageView.setLayoutManager(new LinearLayoutManager(getContext()));
 
-        imageArrayAdapter = new ImageArrayAdapter(imagesArrayList, new ImageArrayAdapter.OnImageDeleteListener() {
+        imageArrayAdapter = new ImageArrayAdapter(new ImageArrayAdapter.OnImageDeleteListener() {
             @Override
             public void onDeleteClick(Image image, int position) {
                 onDeleteClicked(image, position);
@@ -151,6 +151,7 @@ public class AdminImageFragment extends Fragment {
                                 Image img = new Image();
                                 img.setImageID(event.getPosterImageID());
                                 img.setImageURL(event.getPosterImageURL());
+                                img.setVariantURLs(event.getPosterVariantURLs());
 
                                 if (event.getOrganizerID() != null) {
                                     img.setUploadedBy(event.getOrganizerID());
@@ -165,7 +166,7 @@ public class AdminImageFragment extends Fragment {
                         }
                     }
 
-                    imageArrayAdapter.notifyDataSetChanged();
+                    imageArrayAdapter.submitList(new ArrayList<>(imagesArrayList));
 
                     if (imagesArrayList.isEmpty()) {
                         if (getContext() != null) {
@@ -223,8 +224,7 @@ public class AdminImageFragment extends Fragment {
                                             .addOnSuccessListener(aVoid -> {
                                                 if (position >= 0 && position < imagesArrayList.size()) {
                                                     imagesArrayList.remove(position);
-                                                    imageArrayAdapter.notifyItemRemoved(position);
-                                                    imageArrayAdapter.notifyItemRangeChanged(position, imagesArrayList.size() - position);
+                                                    imageArrayAdapter.submitList(new ArrayList<>(imagesArrayList));
                                                 }
                                                 Toast.makeText(getContext(), "Image deleted", Toast.LENGTH_SHORT).show();
                                             })
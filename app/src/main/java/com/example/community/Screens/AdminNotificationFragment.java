@@ -16,17 +16,18 @@ import androidx.navigation.fragment.NavHostFragment;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.example.community.ArrayAdapters.AdapterListUpdater;
 import com.example.community.ArrayAdapters.NotificationArrayAdapter;
+import com.example.community.LiveQuery;
 import com.example.community.Notification;
+import com.example.community.NotificationService;
 import com.example.community.R;
 import com.google.android.gms.tasks.Task;
 import com.google.android.gms.tasks.Tasks;
 import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.QueryDocumentSnapshot;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -40,7 +41,8 @@ import java.util.Set;
  *     message.
  * </p>
  * <p>
- *     Fragment loads all notifications from the database and displays them in a RecyclerView.
+ *     Fragment listens to the newest notifications in the database and displays them in a
+ *     RecyclerView, updating only the rows that change. Older ones are loaded on scroll.
  * </p>
  *
  * @see NotificationArrayAdapter
@@ -49,6 +51,9 @@ import java.util.Set;
 
 public class AdminNotificationFragment extends Fragment {
 
+    private static final int PAGE_SIZE = 50;
+    private static final int PREFETCH_DISTANCE = 10;
+
     /**
      * RecyclerView for displaying the list of notifications
      */
@@ -79,6 +84,22 @@ public class AdminNotificationFragment extends Fragment {
      */
     private final Map<String, String> eventTitleMap = new HashMap<>();
 
+    /**
+     * IDs of events whose titles have already been requested
+     */
+    private final Set<String> requestedEventIds = new HashSet<>();
+
+    /**
+     * Service for listening to notifications
+     */
+    private NotificationService notificationService;
+
+    /**
+     * Live query over the newest notifications, and how many of them it listens to
+     */
+    private LiveQuery<Notification> liveNotifications;
+    private int notificationLimit = PAGE_SIZE;
+
     /**
      * Inflates the layout for this fragment
      *
@@ -119,11 +140,15 @@ public class AdminNotificationFragment extends Fragment {
         }
 
         db = FirebaseFirestore.getInstance();
+        notificationService = new NotificationService();
         notificationList = new ArrayList<>();
 
-        recyclerView.setLayoutManager(new LinearLayoutManager(getContext()));
+        LinearLayoutManager layoutManager = new LinearLayoutManager(getContext());
+        recyclerView.setLayoutManager(layoutManager);
+        recyclerView.addOnScrollListener(
+                new InfiniteScrollListener(layoutManager, PREFETCH_DISTANCE, this::loadNextPage));
 
-        adapter = new NotificationArrayAdapter(notificationList, eventTitleMap);
+        adapter = new NotificationArrayAdapter(eventTitleMap);
         recyclerView.setAdapter(adapter);
 
         loadNotifications();
@@ -134,54 +159,30 @@ public class AdminNotificationFragment extends Fragment {
     }
 
     /**
-     * Loads all notifications from the database and displays them in the RecyclerView
+     * Listens to the newest notifications while the screen is visible and displays them in the
+     * RecyclerView, newest first. Older ones are listened to as the admin scrolls down.
      * <p>
      *     How it works:
      *     <ul>
-     *         <li>Queries the "notifications" collection in Firestore</li>
-     *         <li>Clears the notification list and event ID set</li>
-     *         <li>Iterates through the query results</li>
-     *         <li>Adds each notification to the list</li>
-     *         <li>Adds unique event IDs to the set</li>
-     *         <li>Sorts the notifications by issue date</li>
-     *         <li>Updates the adapter</li>
+     *         <li>Listens to the newest page of the "notifications" collection ordered by issue date</li>
+     *         <li>Inserts, updates or removes only the rows that changed</li>
+     *         <li>Fetches the titles of events not seen before</li>
      *     </ul>
      * </p>
      *
-     * Logs errors if notification loading or document conversion fails.
+     * Logs errors if notification loading fails.
      */
     private void loadNotifications() {
-        db.collection("notifications")
-                .get()
-                .addOnSuccessListener(queryDocumentSnapshots -> {
-                    if (getContext() == null) return;
-
-                    notificationList.clear();
-                    Set<String> uniqueEventIds = new HashSet<>();
-
-                    for (QueryDocumentSnapshot document : queryDocumentSnapshots) {
-                        try {
-                            Notification notification = document.toObject(Notification.class);
-                            notificationList.add(notification);
-
-                            if (notification.getEventID() != null && !notification.getEventID().isEmpty()) {
-                                uniqueEventIds.add(notification.getEventID());
-                            }
-                        } catch (Exception e) {
-                            Log.e("AdminNotification", "Error converting document", e);
-                        }
+        liveNotifications = notificationService.watchAllNotifications(notificationLimit);
+        liveNotifications.observe(getViewLifecycleOwner(),
+                new AdapterListUpdater<Notification>(notificationList, adapter) {
+                    @Override
+                    public void onChangesApplied() {
+                        super.onChangesApplied();
+                        fetchMissingEventTitles();
                     }
-
-                    if (notificationList.isEmpty()) {
-                        adapter.notifyDataSetChanged();
-                        Toast.makeText(getContext(), "No notifications found.", Toast.LENGTH_SHORT).show();
-                        return;
-                    }
-
-                    fetchEventTitlesAndSort(uniqueEventIds);
-                })
-                .addOnFailureListener(e -> {
-                    Log.e("AdminNotification", "Error loading notifications", e);
+                },
+                e -> {
                     if (getContext() != null) {
                         Toast.makeText(getContext(), "Failed to load notifications", Toast.LENGTH_SHORT).show();
                     }
@@ -189,75 +190,59 @@ public class AdminNotificationFragment extends Fragment {
     }
 
     /**
-     * Fetches event titels for all event IDs and sorts notifications
-     * <p>
-     *     How it works:
-     *     <ul>
-     *         <li>Creates a list of tasks to fetch event details</li>
-     *         <li>Queries the "events" collection for each event ID</li>
-     *         <li>Clears the event title map</li>
-     *         <li>Iterates through the query results</li>
-     *         <li>Adds each event title to the map</li>
-     *         <li>Sorts the notifications by issue date</li>
-     *         <li>Updates the adapter</li>
-     *     </ul>
-     * </p>
-     *
-     *
-     *
-     * @param eventIds set of event IDs to fetch titles for
+     * Raises the number of notifications listened to by one page. Does nothing when the
+     * last snapshot did not fill the current limit.
      */
-    private void fetchEventTitlesAndSort(Set<String> eventIds) {
+    private void loadNextPage() {
+        if (liveNotifications == null || liveNotifications.size() < notificationLimit) {
+            return;
+        }
+        notificationLimit += PAGE_SIZE;
+        liveNotifications.setLimit(notificationLimit);
+    }
+
+    /**
+     * Fetches titles for events whose notifications are shown but whose title has not been
+     * requested yet, then redraws the rows of those events.
+     */
+    private void fetchMissingEventTitles() {
         List<Task<DocumentSnapshot>> tasks = new ArrayList<>();
 
-        for (String eid : eventIds) {
-            tasks.add(db.collection("events").document(eid).get());
+        for (Notification n : notificationList) {
+            String eid = n.getEventID();
+            if (eid != null && !eid.isEmpty() && requestedEventIds.add(eid)) {
+                tasks.add(db.collection("events").document(eid).get());
+            }
+        }
+        if (tasks.isEmpty()) {
+            return;
         }
 
         Tasks.whenAllSuccess(tasks).addOnSuccessListener(objects -> {
             if (getContext() == null) return;
 
-            eventTitleMap.clear();
-
             for (Object obj : objects) {
                 DocumentSnapshot snapshot = (DocumentSnapshot) obj;
                 if (snapshot.exists()) {
                     String title = snapshot.getString("title");
                     eventTitleMap.put(snapshot.getId(), title != null ? title : "Unknown Event");
+                    notifyEventRows(snapshot.getId());
                 }
             }
-
-            sortNotifications();
-
-            adapter.notifyDataSetChanged();
-
-        }).addOnFailureListener(e -> {
-            Log.e("AdminNotification", "Error fetching event details", e);
-            sortNotifications();
-            adapter.notifyDataSetChanged();
-        });
+        }).addOnFailureListener(e -> Log.e("AdminNotification", "Error fetching event details", e));
     }
 
     /**
-     * Sorts notifications by issue date (newest first), then by event title, then by event ID.
+     * Redraws the rows of notifications about an event.
+     *
+     * @param eventId ID of the event
      */
-    private void sortNotifications() {
-        Collections.sort(notificationList, (n1, n2) -> {
-            long d1 = n1.getIssueDate();
-            long d2 = n2.getIssueDate();
-            int dateComp = Long.compare(d2, d1);
-            if (dateComp != 0) return dateComp;
-
-            String id1 = n1.getEventID() != null ? n1.getEventID() : "";
-            String id2 = n2.getEventID() != null ? n2.getEventID() : "";
-
-            String title1 = eventTitleMap.getOrDefault(id1, "General Notifications");
-            String title2 = eventTitleMap.getOrDefault(id2, "General Notifications");
-
-            int titleComp = title1.compareToIgnoreCase(title2);
-            if (titleComp != 0) return titleComp;
-
-            return id1.compareTo(id2);
-        });
+    private void notifyEventRows(String eventId) {
+        List<Notification> shown = adapter.getCurrentList();
+        for (int i = 0; i < shown.size(); i++) {
+            if (eventId.equals(shown.get(i).getEventID())) {
+                adapter.notifyItemChanged(i);
+            }
+        }
     }
 }
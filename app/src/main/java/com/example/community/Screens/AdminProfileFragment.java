@@ -116,7 +116,7 @@ public class AdminProfileFragment extends Fragment implements com.example.commun
 
         recyclerView = view.findViewById(R.id.adminHostView);
         recyclerView.setLayoutManager(new LinearLayoutManager(getContext()));
-        adapter = new com.example.community.ArrayAdapters.AdminHostAdapter(getContext(), userList, this);
+        adapter = new com.example.community.ArrayAdapters.AdminHostAdapter(getContext(), this);
         recyclerView.setAdapter(adapter);
 
         getParentFragmentManager().setFragmentResultListener(
@@ -161,8 +161,7 @@ public class AdminProfileFragment extends Fragment implements com.example.commun
 
                 if (position < userList.size()) {
                     userList.remove(position);
-                    adapter.notifyItemRemoved(position);
-                    adapter.notifyItemRangeChanged(position, userList.size());
+                    adapter.submitList(new ArrayList<>(userList));
                 }
                 Toast.makeText(getContext(), "User deleted.", Toast.LENGTH_SHORT).show();
             } else {
@@ -198,7 +197,7 @@ public class AdminProfileFragment extends Fragment implements com.example.commun
 
                     }
                 }
-                adapter.notifyDataSetChanged();
+                adapter.submitList(new ArrayList<>(userList));
                 Log.d(TAG, "Successfully loaded " + userList.size() + " users.");
             } else {
                 Log.e(TAG, "Failed to load users", task.getException());
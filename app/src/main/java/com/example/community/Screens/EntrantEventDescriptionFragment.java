@@ -23,14 +23,16 @@ import androidx.navigation.fragment.NavHostFragment;
 import com.example.community.Event;
 import com.example.community.EventService;
 import com.example.community.R;
+import com.example.community.ReadPolicy;
 import com.example.community.User;
 import com.example.community.UserService;
-import com.example.community.WaitingListEntry;
 import com.example.community.WaitingListEntryService;
 import com.google.android.gms.location.FusedLocationProviderClient;
 import com.google.android.gms.location.LocationRequest;
 import com.google.android.gms.location.LocationServices;
 import com.google.android.gms.location.Priority;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
 import com.google.firebase.firestore.GeoPoint;
 
 /**
@@ -50,6 +52,7 @@ public class EntrantEventDescriptionFragment extends Fragment {
     private UserService userService;
     private EventService eventService;
     private String currentEntrantId;
+    private Task<String> entrantIdTask;
     private FusedLocationProviderClient fusedLocationClient;
 
     private TextView eventTitle, eventDescription, eventLocation, eventDates
@@ -97,7 +100,7 @@ public class EntrantEventDescriptionFragment extends Fragment {
 
         // Get current entrant ID from device token
         String deviceToken = userService.getDeviceToken();
-        userService.getUserIDByDeviceToken(deviceToken)
+        entrantIdTask = userService.getUserIDByDeviceToken(deviceToken)
                 .addOnSuccessListener(userId -> currentEntrantId = userId);
 
         fusedLocationClient = LocationServices.getFusedLocationProviderClient(requireContext());
@@ -125,23 +128,40 @@ public class EntrantEventDescriptionFragment extends Fragment {
         });
     }
 
+    /**
+     * Loads the screen with three reads issued together: the event, the waitlist counter and
+     * the current user's own waitlist entry. Each part of the screen is filled in as soon as
+     * its reads arrive. The event and the waitlist counter show their cached copies straight
+     * away when there are some and are updated once the server copies arrive.
+     */
     private void loadEventDetails() {
         String eventId = getArguments().getString(ARG_EVENT_ID);
-        eventService.getEvent(eventId)
+        Task<Event> eventTask = eventService.getEvent(eventId, ReadPolicy.STALE_WHILE_REVALIDATE, freshEvent -> {
+                    if (freshEvent != null && isAdded()) {
+                        showEventDetails(freshEvent);
+                    }
+                });
+        Task<Long> sizeTask = waitingListEntryService.getWaitlistSize(eventId,
+                ReadPolicy.STALE_WHILE_REVALIDATE, freshSize -> {
+                    if (currentEvent != null && isAdded()) {
+                        showWaitlistSize(freshSize);
+                    }
+                });
+        Task<Boolean> waitingTask = entrantIdTask.onSuccessTask(
+                userId -> waitingListEntryService.isWaiting(userId, eventId));
+
+        eventTask
                 .addOnSuccessListener(event -> {
-                    currentEvent = event;
-                    eventTitle.setText(event.getTitle());
-                    eventDescription.setText(event.getDescription());
-                    eventLocation.setText("Event Location: " + event.getLocation());
-                    eventDates.setText(String.format("Event Dates: %s - %s",
-                            event.getEventStartDate(), event.getEventEndDate()));
-                    registrationDates.setText(String.format("Registration Period: %s - %s",
-                            event.getRegistrationStart(), event.getRegistrationEnd()));
-                    capacity.setText(String.format("Capacity: %d/%d",
-                            event.getCurrentCapacity(), event.getMaxCapacity()));
-                    checkWaitlistStatus();
-                    loadOrganizerDetails(event.getOrganizerID());
+                    if (!isAdded()) {
+                        return;
+                    }
                     hideLoadingScreen();
+                    if (event == null) {
+                        Toast.makeText(getContext(), "Event not found", Toast.LENGTH_SHORT).show();
+                        return;
+                    }
+                    showEventDetails(event);
+                    loadOrganizerDetails(event.getOrganizerID());
                 })
                 .addOnFailureListener(e -> {
                     Log.e(TAG, "Failed to load event details", e);
@@ -149,10 +169,45 @@ public class EntrantEventDescriptionFragment extends Fragment {
                             .show();
                     hideLoadingScreen();
                 });
+
+        // the counter needs the event's capacity to be shown
+        Tasks.whenAllSuccess(eventTask, sizeTask)
+                .addOnSuccessListener(results -> {
+                    if (currentEvent != null && isAdded()) {
+                        showWaitlistSize((Long) results.get(1));
+                    }
+                })
+                .addOnFailureListener(e -> Log.e(TAG, "Failed to load waitlist size", e));
+
+        waitingTask
+                .addOnSuccessListener(waiting -> {
+                    if (isAdded()) {
+                        updateWaitlistButton(waiting);
+                    }
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Failed to check waitlist status", e);
+                    Toast.makeText(getContext(), "Failed to check waitlist status", Toast.LENGTH_SHORT)
+                            .show();
+                });
+    }
+
+    private void showEventDetails(Event event) {
+        currentEvent = event;
+        eventTitle.setText(event.getTitle());
+        eventDescription.setText(event.getDescription());
+        eventLocation.setText("Event Location: " + event.getLocation());
+        eventDates.setText(String.format("Event Dates: %s - %s",
+                event.getEventStartDate(), event.getEventEndDate()));
+        registrationDates.setText(String.format("Registration Period: %s - %s",
+                event.getRegistrationStart(), event.getRegistrationEnd()));
+        capacity.setText(String.format("Capacity: %d/%d",
+                event.getCurrentCapacity(), event.getMaxCapacity()));
     }
 
     private void loadOrganizerDetails(String organizerID) {
-        userService.getByUserID(organizerID)
+        // organizer contact details rarely change, so a cached copy is good enough
+        userService.getByUserID(organizerID, ReadPolicy.CACHE_FIRST, null)
                 .addOnSuccessListener(organizer -> {
                     if (organizer != null) {
                         organizerUsername.setText("Organizer Username: " + organizer.getUsername());
@@ -172,41 +227,17 @@ public class EntrantEventDescriptionFragment extends Fragment {
     }
 
     /**
-     * Checks the waitlist status for the current user and event,
-     * updates the waitlist capacity UI and waitlist button state.
+     * Shows the number of users waiting against the event's waitlist capacity.
+     *
+     * @param size number of WAITING entries, read from the event's counter
      */
-    private void checkWaitlistStatus() {
-        waitingListEntryService.getWaitlistSize(currentEvent.getEventID())
-                .continueWithTask(task -> {
-                    if (!task.isSuccessful()) {
-                        throw task.getException();
-                    }
-                    Long size = task.getResult();
-                    currentEvent.setCurrentWaitingListSize(size.intValue());
-                    Integer maxWaitListSize = currentEvent.getWaitlistCapacity();
-                    String waitlistSizeText = (maxWaitListSize == null)
-                            ? String.format("Waitlist capacity: %d/no limit", size)
-                            : String.format("Waitlist capacity: %d/%d", size, maxWaitListSize);
-                    waitlistCapacity.setText(waitlistSizeText);
-
-                    return waitingListEntryService.getWaitlistEntries(currentEvent.getEventID());
-                })
-                .addOnSuccessListener(entries -> {
-                    boolean alreadyJoined = false;
-                    for (WaitingListEntry entry : entries) {
-                        if (entry.getUserID().equals(currentEntrantId)) {
-                            alreadyJoined = true;
-                            break;
-                        }
-                    }
-                    updateWaitlistButton(alreadyJoined);
-                })
-                .addOnFailureListener(e -> {
-                    Log.e(TAG, "Failed to check waitlist status", e);
-                    Toast.makeText(getContext(), "Failed to check waitlist status", Toast.LENGTH_SHORT)
-                            .show();
-        });
-
+    private void showWaitlistSize(long size) {
+        currentEvent.setCurrentWaitingListSize((int) size);
+        Integer maxWaitListSize = currentEvent.getWaitlistCapacity();
+        String waitlistSizeText = (maxWaitListSize == null)
+                ? String.format("Waitlist capacity: %d/no limit", size)
+                : String.format("Waitlist capacity: %d/%d", size, maxWaitListSize);
+        waitlistCapacity.setText(waitlistSizeText);
     }
 
     /**
@@ -353,6 +384,9 @@ public class EntrantEventDescriptionFragment extends Fragment {
                     if (e.getMessage() != null && e.getMessage().contains("Waitlist is full")) {
                         errorMessage = "Waitlist is full";
                     }
+                    if (e.getMessage() != null && e.getMessage().contains("Registration is closed")) {
+                        errorMessage = "Registration is closed";
+                    }
                     if (e.getMessage() != null && e.getMessage().contains("Already on waitlist")) {
                         errorMessage = "User is already on waitlist";
                     }
@@ -383,6 +417,9 @@ public class EntrantEventDescriptionFragment extends Fragment {
                     if (e.getMessage() != null && e.getMessage().contains("Waitlist is full")) {
                         errorMessage = "Waitlist is full";
                     }
+                    if (e.getMessage() != null && e.getMessage().contains("Registration is closed")) {
+                        errorMessage = "Registration is closed";
+                    }
                     Toast.makeText(getActivity(), errorMessage, Toast.LENGTH_SHORT).show();
                     reloadFragment();
                     hideLoadingScreen();
@@ -18,8 +18,10 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.example.community.ArrayAdapters.EventArrayAdapter;
 import com.example.community.DateValidation;
 import com.example.community.Event;
+import com.example.community.EventSearchIndex;
 import com.example.community.EventService;
 import com.example.community.R;
+import com.google.firebase.firestore.DocumentSnapshot;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
@@ -32,6 +34,9 @@ import java.util.ArrayList;
  */
 public class EntrantHomeFragment extends Fragment {
 
+    private static final int PAGE_SIZE = 20;
+    private static final int PREFETCH_DISTANCE = 5;
+
     private ImageButton entrantNotificationsButton, entrantQRScannerButton;
     private Button entrantFilterButton, eventHistoryButton, myProfileButton, guideButton;
     private RecyclerView entrantEventList;
@@ -42,10 +47,21 @@ public class EntrantHomeFragment extends Fragment {
 
     private EventArrayAdapter eventArrayAdapter;
     private EventService eventService;
+    private EventSearchIndex searchIndex;   // full-text index over allEventsArrayList
 
     // Current filters
     private String currentFilterKeyword = "";
-    private String currentFilterTime = "";
+    private String currentFilterFromDate = "";
+    private String currentFilterToDate = "";
+
+    // Paging state
+    private String fromDate;
+    private String toDate;
+    private DocumentSnapshot lastEventSnapshot;
+    private boolean hasMoreEvents = true;
+    private boolean loadingEvents = false;
+    // bumped on every reload so pages requested before it are dropped
+    private int loadGeneration = 0;
 
     /**
      * Inflates the fragment's layout.
@@ -87,10 +103,14 @@ public class EntrantHomeFragment extends Fragment {
         eventService = new EventService();
         eventsArrayList = new ArrayList<>();
         allEventsArrayList = new ArrayList<>();
+        searchIndex = new EventSearchIndex();
 
         // Setup RecyclerView with adapter
-        entrantEventList.setLayoutManager(new LinearLayoutManager(getContext()));
-        eventArrayAdapter = new EventArrayAdapter(eventsArrayList);
+        LinearLayoutManager layoutManager = new LinearLayoutManager(getContext());
+        entrantEventList.setLayoutManager(layoutManager);
+        entrantEventList.addOnScrollListener(
+                new InfiniteScrollListener(layoutManager, PREFETCH_DISTANCE, this::loadNextPage));
+        eventArrayAdapter = new EventArrayAdapter();
         eventArrayAdapter.setOnEventClickListener(event -> {
             Bundle args = new Bundle();
             args.putString("event_id", event.getEventID());
@@ -106,41 +126,80 @@ public class EntrantHomeFragment extends Fragment {
     }
 
     /**
-     * Loads upcoming events for the next year and updates the RecyclerView.
-     * Uses {@link EventService} to retrieve events within a valid date range.
+     * Starts loading upcoming events for the next year into the RecyclerView.
+     * Only the first page is fetched here; later pages are fetched by {@link #loadNextPage()}
+     * as the user scrolls.
      */
     private void loadEvents() {
-        String fromDate = DateValidation.getCurrentDate();
+        fromDate = DateValidation.getCurrentDate();
         LocalDate futureDate = LocalDate.now().plusYears(1);
-        String toDate = futureDate.format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
+        toDate = futureDate.format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
 
         if (DateValidation.dateRangeValid(fromDate, toDate)) {
             Log.d("EntrantHomeFragment", "Loading events from " + fromDate + " to " + toDate);
-            eventService.listUpcoming(fromDate, toDate, null)
-                    .addOnSuccessListener(events -> {
-                        Log.d("EntrantHomeFragment", "Loaded " + events.size() + " events");
-
-                        // Save all events to master list
-                        allEventsArrayList.clear();
-                        allEventsArrayList.addAll(events);
-
-                        // If no active filter → show everything
-                        if (currentFilterKeyword.isEmpty() && currentFilterTime.isEmpty()) {
-                            eventsArrayList.clear();
-                            eventsArrayList.addAll(allEventsArrayList);
-                            eventArrayAdapter.notifyDataSetChanged();
-                        } else {
-                            // Re-apply the current filter on the fresh data
-                            applyFilters(currentFilterKeyword, currentFilterTime);
-                        }
-                    })
-                    .addOnFailureListener(e -> {
-                        Log.e("EntrantHomeFragment", "Failed to load events", e);
-                        Toast.makeText(getContext(), "Failed to load events", Toast.LENGTH_SHORT).show();
-                    });
+            allEventsArrayList.clear();
+            searchIndex.clear();
+            lastEventSnapshot = null;
+            hasMoreEvents = true;
+            loadGeneration++;
+            loadingEvents = false;
+            loadNextPage();
         }
     }
 
+    /**
+     * Fetches the next page of upcoming events and appends it to the master list.
+     * Does nothing while a page is already loading or after the last page.
+     * A page that arrives after {@link #loadEvents()} started over is dropped.
+     */
+    private void loadNextPage() {
+        if (loadingEvents || !hasMoreEvents) {
+            return;
+        }
+        loadingEvents = true;
+        int generation = loadGeneration;
+
+        eventService.listUpcomingPage(fromDate, toDate, null, PAGE_SIZE, lastEventSnapshot)
+                .addOnSuccessListener(page -> {
+                    if (generation != loadGeneration) {
+                        // the list was reloaded while this page was in flight
+                        return;
+                    }
+                    loadingEvents = false;
+                    Log.d("EntrantHomeFragment", "Loaded " + page.getItems().size() + " events");
+
+                    // Save all events to master list
+                    allEventsArrayList.addAll(page.getItems());
+                    searchIndex.addAll(page.getItems());
+                    if (page.getLastSnapshot() != null) {
+                        lastEventSnapshot = page.getLastSnapshot();
+                    }
+                    hasMoreEvents = page.hasMore();
+
+                    // If no active filter → show everything
+                    if (!hasActiveFilter()) {
+                        eventsArrayList.clear();
+                        eventsArrayList.addAll(allEventsArrayList);
+                        eventArrayAdapter.submitList(new ArrayList<>(eventsArrayList));
+                    } else {
+                        // Re-apply the current filter on the fresh data
+                        filterEvents();
+                        // too few matches to scroll, so keep fetching
+                        if (eventsArrayList.size() < PAGE_SIZE) {
+                            loadNextPage();
+                        }
+                    }
+                })
+                .addOnFailureListener(e -> {
+                    if (generation != loadGeneration) {
+                        return;
+                    }
+                    loadingEvents = false;
+                    Log.e("EntrantHomeFragment", "Failed to load events", e);
+                    Toast.makeText(getContext(), "Failed to load events", Toast.LENGTH_SHORT).show();
+                });
+    }
+
     /**
      * Sets up navigation click listeners for buttons on the entrant home screen.
      * Handles navigation to notifications, user profile, event history, filters, guide, and QR scanner.
@@ -193,80 +252,69 @@ public class EntrantHomeFragment extends Fragment {
                     if (value instanceof Bundle) {
                         Bundle filters = (Bundle) value;
                         String keyword = filters.getString("keyword", "");
-                        String time = filters.getString("time", "");
+                        String fromDate = filters.getString("fromDate", "");
+                        String toDate = filters.getString("toDate", "");
 
-                        Log.d("EntrantHomeFragment", "Received filters: keyword=" + keyword + ", time=" + time);
-                        applyFilters(keyword, time);
+                        Log.d("EntrantHomeFragment", "Received filters: keyword=" + keyword
+                                + ", from=" + fromDate + ", to=" + toDate);
+                        applyFilters(keyword, fromDate, toDate);
                     } else {
                         Log.w("EntrantHomeFragment", "Filter value is not a Bundle");
                     }
                 });
     }
 
-    private void applyFilters(String keyword, String time) {
-        // Remember current filters so loadEvents() can re-apply them after async fetch
+    private void applyFilters(String keyword, String fromDate, String toDate) {
+        // Remember current filters so loadNextPage() can re-apply them after async fetch
         currentFilterKeyword = (keyword == null) ? "" : keyword;
-        currentFilterTime = (time == null) ? "" : time;
+        currentFilterFromDate = (fromDate == null) ? "" : fromDate;
+        currentFilterToDate = (toDate == null) ? "" : toDate;
 
         if (allEventsArrayList == null || allEventsArrayList.isEmpty()) {
             Log.d("EntrantHomeFragment", "applyFilters: events not loaded yet, will apply after loadEvents");
-            return; // loadEvents() will call applyFilters again once data arrives
+            return; // loadNextPage() will filter the data once it arrives
         }
 
-        String keywordLower = currentFilterKeyword.toLowerCase();
-        String timeLower = currentFilterTime.toLowerCase();
-
-        // If both empty → show all events again
-        if (keywordLower.isEmpty() && timeLower.isEmpty()) {
+        // If all empty → show all events again
+        if (!hasActiveFilter()) {
             eventsArrayList.clear();
             eventsArrayList.addAll(allEventsArrayList);
-            eventArrayAdapter.notifyDataSetChanged();
+            eventArrayAdapter.submitList(new ArrayList<>(eventsArrayList));
             Toast.makeText(getContext(),
                     "Cleared filter. Showing all events (" + eventsArrayList.size() + ")",
                     Toast.LENGTH_SHORT).show();
             return;
         }
 
-        eventsArrayList.clear();
-
-        for (Event e : allEventsArrayList) {
-            if (e == null) continue;
-
-            boolean matchesKeyword = true;
-            boolean matchesTime = true;
-
-            if (!keywordLower.isEmpty()) {
-                String title = safeLower(e.getTitle());
-                String description = safeLower(e.getDescription());
-                String location = safeLower(e.getLocation());
-
-                matchesKeyword =
-                        title.contains(keywordLower)
-                                || description.contains(keywordLower)
-                                || location.contains(keywordLower);
-            }
-
-            if (!timeLower.isEmpty()) {
-                String start = safeLower(e.getEventStartDate());
-                String end = safeLower(e.getEventEndDate());
-
-                matchesTime = start.contains(timeLower) || end.contains(timeLower);
-            }
-
-            if (matchesKeyword && matchesTime) {
-                eventsArrayList.add(e);
-            }
-        }
-
-        Log.d("EntrantHomeFragment", "Filtered events count = " + eventsArrayList.size());
-        eventArrayAdapter.notifyDataSetChanged();
+        filterEvents();
 
         Toast.makeText(getContext(),
                 "Applied filter. Showing " + eventsArrayList.size() + " events.",
                 Toast.LENGTH_SHORT).show();
+
+        // the loaded pages may not hold enough matches to scroll
+        if (eventsArrayList.size() < PAGE_SIZE) {
+            loadNextPage();
+        }
     }
 
-    private String safeLower(String s) {
-        return (s == null) ? "" : s.toLowerCase();
+    private boolean hasActiveFilter() {
+        return !currentFilterKeyword.isEmpty()
+                || !currentFilterFromDate.isEmpty()
+                || !currentFilterToDate.isEmpty();
+    }
+
+    /**
+     * Fills the displayed list with the loaded events that match the current filters.
+     * Keywords are looked up in {@link EventSearchIndex}, best match first, and the date
+     * range is checked against the event dates the index parsed when the events loaded.
+     */
+    private void filterEvents() {
+        eventsArrayList.clear();
+        eventsArrayList.addAll(searchIndex.search(currentFilterKeyword,
+                currentFilterFromDate, currentFilterToDate));
+
+        Log.d("EntrantHomeFragment", "Filtered events count = " + eventsArrayList.size());
+        eventArrayAdapter.submitList(new ArrayList<>(eventsArrayList));
     }
 }
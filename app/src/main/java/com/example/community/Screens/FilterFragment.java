@@ -1,27 +1,34 @@
 package com.example.community.Screens;
 
+import android.app.DatePickerDialog;
 import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.Button;
 import android.widget.EditText;
+import android.widget.Toast;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
 import androidx.navigation.fragment.NavHostFragment;
 
+import com.example.community.DateValidation;
 import com.example.community.R;
 
+import java.time.LocalDate;
+
 /**
- * Fragment for filtering events based on a keyword or time availability.
+ * Fragment for filtering events based on a keyword or the dates the user is available.
  * Allows the user to enter search criteria and apply the filter.
+ * Dates are picked from a calendar, so the event list always receives yyyy-MM-dd strings.
  */
 public class FilterFragment extends Fragment {
 
     private EditText inputKeyword;
-    private EditText inputTime;
+    private EditText inputFromDate;
+    private EditText inputToDate;
     private Button buttonBack;
     private Button buttonApplyFilter;
 
@@ -54,10 +61,14 @@ public class FilterFragment extends Fragment {
         super.onViewCreated(view, savedInstanceState);
 
         inputKeyword = view.findViewById(R.id.inputKeyword);
-        inputTime = view.findViewById(R.id.inputTimeAvailable);
+        inputFromDate = view.findViewById(R.id.inputFromDate);
+        inputToDate = view.findViewById(R.id.inputToDate);
         buttonBack = view.findViewById(R.id.buttonBack);
         buttonApplyFilter = view.findViewById(R.id.buttonApplyFilter);
 
+        setupDateInput(inputFromDate);
+        setupDateInput(inputToDate);
+
         // Back button returns to previous screen
         buttonBack.setOnClickListener(v ->
                 NavHostFragment.findNavController(FilterFragment.this).popBackStack()
@@ -65,14 +76,23 @@ public class FilterFragment extends Fragment {
         // Apply button triggers search with entered criteria
         buttonApplyFilter.setOnClickListener(v -> {
             String keyword = inputKeyword.getText().toString().trim();
-            String time = inputTime.getText().toString().trim();
+            String fromDate = inputFromDate.getText().toString();
+            String toDate = inputToDate.getText().toString();
+
+            if (!fromDate.isEmpty() && !toDate.isEmpty()
+                    && !DateValidation.dateRangeValid(fromDate, toDate)) {
+                Toast.makeText(getContext(), "From date must be on or before To date",
+                        Toast.LENGTH_SHORT).show();
+                return;
+            }
 
-            // ⬇️ IMPORTANT: we allow both to be empty!
-            // Empty keyword + empty time means "clear filter / show all events"
+            // ⬇️ IMPORTANT: we allow all to be empty!
+            // Empty keyword + no dates means "clear filter / show all events"
 
             Bundle filters = new Bundle();
             filters.putString("keyword", keyword);
-            filters.putString("time", time);
+            filters.putString("fromDate", fromDate);
+            filters.putString("toDate", toDate);
 
             var navController = NavHostFragment.findNavController(FilterFragment.this);
             if (navController.getPreviousBackStackEntry() != null) {
@@ -84,4 +104,32 @@ public class FilterFragment extends Fragment {
             navController.popBackStack();
         });
     }
+
+    /**
+     * Makes a date field open a date picker when tapped and clear itself when long-pressed.
+     *
+     * @param editText the date field to set up
+     */
+    private void setupDateInput(final EditText editText) {
+        editText.setOnClickListener(v -> {
+            LocalDate initialDate = LocalDate.now();
+            String current = editText.getText().toString();
+            if (DateValidation.isValidDateFormat(current)) {
+                initialDate = LocalDate.parse(current, DateValidation.DATE_FORMAT);
+            }
+
+            new DatePickerDialog(
+                    requireContext(),
+                    (picker, year, month, dayOfMonth) -> editText.setText(
+                            LocalDate.of(year, month + 1, dayOfMonth).format(DateValidation.DATE_FORMAT)),
+                    initialDate.getYear(),
+                    initialDate.getMonthValue() - 1,
+                    initialDate.getDayOfMonth()
+            ).show();
+        });
+        editText.setOnLongClickListener(v -> {
+            editText.setText("");
+            return true;
+        });
+    }
 }
@@ -0,0 +1,49 @@
+package com.example.community.Screens;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Scroll listener that asks for the next page of a list shortly before the user
+ * reaches its end, so the page is usually loaded by the time it is needed.
+ * The callback may fire several times per page; callers ignore it while a load is running.
+ */
+public class InfiniteScrollListener extends RecyclerView.OnScrollListener {
+
+    /**
+     * Callback that loads the next page of the list.
+     */
+    public interface LoadMoreListener {
+        void onLoadMore();
+    }
+
+    private final LinearLayoutManager layoutManager;
+    private final int prefetchDistance;
+    private final LoadMoreListener loadMoreListener;
+
+    /**
+     * Creates a new InfiniteScrollListener.
+     *
+     * @param layoutManager    layout manager of the RecyclerView being scrolled
+     * @param prefetchDistance number of items from the end at which to load the next page
+     * @param loadMoreListener callback that loads the next page
+     */
+    public InfiniteScrollListener(LinearLayoutManager layoutManager, int prefetchDistance,
+                                  LoadMoreListener loadMoreListener) {
+        this.layoutManager = layoutManager;
+        this.prefetchDistance = prefetchDistance;
+        this.loadMoreListener = loadMoreListener;
+    }
+
+    @Override
+    public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+        if (dy <= 0) {
+            return;
+        }
+        int lastVisible = layoutManager.findLastVisibleItemPosition();
+        if (lastVisible >= layoutManager.getItemCount() - 1 - prefetchDistance) {
+            loadMoreListener.onLoadMore();
+        }
+    }
+}
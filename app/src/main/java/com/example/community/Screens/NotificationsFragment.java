@@ -16,7 +16,9 @@ import androidx.navigation.fragment.NavHostFragment;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.example.community.ArrayAdapters.AdapterListUpdater;
 import com.example.community.ArrayAdapters.NotificationAdapter;
+import com.example.community.LiveQuery;
 import com.example.community.Notification;
 import com.example.community.NotificationService;
 import com.example.community.R;
@@ -30,6 +32,9 @@ import java.util.ArrayList;
  */
 public class NotificationsFragment extends Fragment {
 
+    private static final int PAGE_SIZE = 20;
+    private static final int PREFETCH_DISTANCE = 5;
+
     ImageButton notificationSettingsButton;
     Button backButton;
     RecyclerView notificationList;
@@ -43,6 +48,10 @@ public class NotificationsFragment extends Fragment {
     // store the current userId here once we resolve it
     private String currentUserId;
 
+    // Live notifications, growing by a page as the user scrolls
+    private LiveQuery<Notification> liveNotifications;
+    private int notificationLimit = PAGE_SIZE;
+
     /**
      * Inflates the notifications layout.
      *
@@ -81,7 +90,6 @@ public class NotificationsFragment extends Fragment {
 
         // Initialize RecyclerView adapter
         notificationAdapter = new NotificationAdapter(
-                notifications,
                 new NotificationAdapter.NotificationActionListener() {
                     @Override
                     public void onAccept(Notification notification) {
@@ -156,7 +164,10 @@ public class NotificationsFragment extends Fragment {
                     }
                 });
 
-        notificationList.setLayoutManager(new LinearLayoutManager(getContext()));
+        LinearLayoutManager layoutManager = new LinearLayoutManager(getContext());
+        notificationList.setLayoutManager(layoutManager);
+        notificationList.addOnScrollListener(
+                new InfiniteScrollListener(layoutManager, PREFETCH_DISTANCE, this::loadNextPage));
         notificationList.setAdapter(notificationAdapter);
 
         // Load notifications
@@ -175,7 +186,8 @@ public class NotificationsFragment extends Fragment {
 
     /**
      * Loads the list of notifications for the current user based on device token.
-     * Updates the RecyclerView adapter with the fetched notifications.
+     * Resolves the user, then listens to their newest notifications while the screen is
+     * visible; older ones are added as the user scrolls.
      */
     private void loadNotificationsForCurrentUser() {
         String deviceToken = userService.getDeviceToken();
@@ -191,25 +203,25 @@ public class NotificationsFragment extends Fragment {
 
                     // Save for accept/decline actions
                     currentUserId = userId;
+                    if (getView() == null) {
+                        return;
+                    }
 
-                    notificationService.listUserNotification(userId, 50, null)
-                            .addOnSuccessListener(fetchedNotifications -> {
-                                notifications.clear();
-                                for (Notification n : fetchedNotifications) {
-                                    if (!n.isDismissed()) {
-                                    notifications.add(n);
+                    liveNotifications = notificationService.watchUserNotifications(userId, notificationLimit);
+                    liveNotifications.observe(getViewLifecycleOwner(),
+                            new AdapterListUpdater<Notification>(notifications, notificationAdapter) {
+                                @Override
+                                public void onChangesApplied() {
+                                    super.onChangesApplied();
+                                    // mostly dismissed notifications may leave too few rows to scroll
+                                    if (notifications.size() < PREFETCH_DISTANCE) {
+                                        loadNextPage();
                                     }
                                 }
-                                notificationAdapter.notifyDataSetChanged();
-
-                            })
-                            .addOnFailureListener(e -> {
-                                e.printStackTrace();
-                                Toast.makeText(getContext(),
-                                        "Failed to load notifications: " + e.getMessage(),
-                                        Toast.LENGTH_SHORT).show();
-                            });
-
+                            },
+                            e -> Toast.makeText(getContext(),
+                                    "Failed to load notifications: " + e.getMessage(),
+                                    Toast.LENGTH_SHORT).show());
                 })
                 .addOnFailureListener(e -> {
                     e.printStackTrace();
@@ -219,11 +231,21 @@ public class NotificationsFragment extends Fragment {
                 });
     }
 
+    /**
+     * Raises the number of notifications listened to by one page. Does nothing until the
+     * user is loaded, or when the last snapshot did not fill the current limit.
+     */
+    private void loadNextPage() {
+        if (liveNotifications == null || liveNotifications.size() < notificationLimit) {
+            return;
+        }
+        notificationLimit += PAGE_SIZE;
+        liveNotifications.setLimit(notificationLimit);
+    }
+
     private void dismissNotification(Notification notification) {
+        // the live query drops the row once the dismissal is written
         notificationService.dismissNotification(notification.getNotificationID())
-                .addOnSuccessListener(v -> {
-                    notificationAdapter.removeNotification(notification);
-                })
                 .addOnFailureListener(e -> {
                     Log.e("NotificationsFragment", "Failed to dismiss notification", e);
                     Toast.makeText(getContext(), "Failed to dismiss notification", Toast.LENGTH_SHORT).show();
@@ -215,7 +215,9 @@ public class LotteryConfirmationDialogFragment extends DialogFragment {
                                 showLoading();
                                 Toast.makeText(getContext(), "Running lottery...", Toast.LENGTH_SHORT).show();
 
-                                lotteryService.runLottery(organizerID, eventID, sampleSize)
+                                lotteryService.runLottery(organizerID, eventID, sampleSize,
+                                                (written, total) -> lotteryMessageTextView.setText(
+                                                        String.format("Notifying entrants... %d/%d", written, total)))
                                         .addOnSuccessListener(aVoid -> {
                                             hideLoading();
                                             Toast.makeText(getContext(), "Lottery finished successfully!", Toast.LENGTH_SHORT).show();
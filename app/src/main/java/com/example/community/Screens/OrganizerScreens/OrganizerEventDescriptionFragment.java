@@ -18,7 +18,10 @@ import androidx.navigation.fragment.NavHostFragment;
 
 import com.example.community.Event;
 import com.example.community.EventService;
+import com.example.community.ImageVariants;
+import com.example.community.QRCodeService;
 import com.example.community.R;
+import com.example.community.ReadPolicy;
 import com.example.community.UserService;
 import com.example.community.WaitingListEntryService;
 import com.squareup.picasso.Picasso;
@@ -70,10 +73,13 @@ public class OrganizerEventDescriptionFragment extends Fragment {
     /** Service for managing event operations */
     private EventService eventService;
 
+    /** Service for rendering the event QR code */
+    private QRCodeService qrCodeService;
+
     /**
      * UI elements
      */
-    private ImageView posterImageView;
+    private ImageView posterImageView, qrCodeImageView;
     private TextView eventTitle, eventDescription, eventLocation, eventDates
             , registrationDates, capacity, organizerUsername, organizerEmail, organizerPhone
             , waitlistCount, attendeeCount, invitedCount;
@@ -115,8 +121,10 @@ public class OrganizerEventDescriptionFragment extends Fragment {
         waitingListEntryService = new WaitingListEntryService();
         userService = new UserService();
         eventService = new EventService();
+        qrCodeService = new QRCodeService();
 
         posterImageView = view.findViewById(R.id.posterImageView);
+        qrCodeImageView = view.findViewById(R.id.qrCodeImageView);
         eventTitle = view.findViewById(R.id.eventTitle);
         eventDescription = view.findViewById(R.id.eventDescription);
         eventLocation = view.findViewById(R.id.eventLocation);
@@ -203,6 +211,7 @@ public class OrganizerEventDescriptionFragment extends Fragment {
                             event.getCurrentCapacity(), event.getMaxCapacity()));
 
                     loadPosterImage();
+                    loadQRCode();
                     loadWaitlistCount();
                     loadOrganizerDetails(event.getOrganizerID());
                 })
@@ -215,6 +224,7 @@ public class OrganizerEventDescriptionFragment extends Fragment {
 
     /**
      * Loads and displays the event's poster image using Picasso.
+     * Loads the smallest poster variant that fills the view, or the original for older posters.
      * If the event has no poster image, the image view is hidden.
      */
     private void loadPosterImage() {
@@ -223,7 +233,7 @@ public class OrganizerEventDescriptionFragment extends Fragment {
             return;
         }
 
-        String posterURL = currentEvent.getPosterImageURL();
+        String posterURL = currentEvent.posterURLFor(ImageVariants.forView(posterImageView));
         if (posterURL != null && !posterURL.isEmpty()) {
             Picasso.get()
                     .load(posterURL)
@@ -268,20 +278,20 @@ public class OrganizerEventDescriptionFragment extends Fragment {
 
     /**
      * Loads and displays the event's waitlist count.
+     * The cached count is shown straight away when there is one and is updated once the
+     * server count arrives.
      * If the waitlist size is not found, a toast message is displayed.
      * If no maximum waitlist size is set, the waitlist count is displayed as "no limit".
      *
      */
     private void loadWaitlistCount() {
-        waitingListEntryService.getWaitlistSize(currentEvent.getEventID())
-                .addOnSuccessListener(size -> {
-                    currentEvent.setCurrentWaitingListSize(size.intValue());
-                    Integer maxWaitListSize = currentEvent.getWaitlistCapacity();
-                    String waitlistSizeText = (maxWaitListSize == null)
-                            ? String.format("Waitlist: %d/no limit", size)
-                            : String.format("Waitlist: %d/%d", size, maxWaitListSize);
-                    waitlistCount.setText(waitlistSizeText);
-                })
+        waitingListEntryService.getWaitlistSize(currentEvent.getEventID(), ReadPolicy.STALE_WHILE_REVALIDATE,
+                        freshSize -> {
+                            if (isAdded()) {
+                                showWaitlistCount(freshSize);
+                            }
+                        })
+                .addOnSuccessListener(this::showWaitlistCount)
                 .addOnFailureListener(e -> {
                     Log.e(TAG, "Failed to load waitlist count", e);
                     Toast.makeText(getContext(), "Failed to load waitlist count", Toast.LENGTH_SHORT)
@@ -289,6 +299,15 @@ public class OrganizerEventDescriptionFragment extends Fragment {
                 });
     }
 
+    private void showWaitlistCount(long size) {
+        currentEvent.setCurrentWaitingListSize((int) size);
+        Integer maxWaitListSize = currentEvent.getWaitlistCapacity();
+        String waitlistSizeText = (maxWaitListSize == null)
+                ? String.format("Waitlist: %d/no limit", size)
+                : String.format("Waitlist: %d/%d", size, maxWaitListSize);
+        waitlistCount.setText(waitlistSizeText);
+    }
+
     /**
      * Navigates to event editing screen, passing all current event details as arguments.
      * Sets edit mode flag to true.
@@ -320,6 +339,21 @@ public class OrganizerEventDescriptionFragment extends Fragment {
                 .navigate(R.id.action_OrganizerEventDescriptionFragment_to_CreateEventFragment, args);
     }
 
+    /**
+     * Shows the event's QR code, rendered on the device and cached, so no download is needed.
+     */
+    private void loadQRCode() {
+        qrCodeService.getQRCodeBitmap(requireContext(), currentEvent.getEventID())
+                .addOnSuccessListener(bitmap -> {
+                    if (getView() == null) {
+                        return;
+                    }
+                    qrCodeImageView.setImageBitmap(bitmap);
+                    qrCodeImageView.setVisibility(View.VISIBLE);
+                })
+                .addOnFailureListener(e -> Log.e(TAG, "Failed to render QR code", e));
+    }
+
     /**
      * Navigates to poster upload screen, passing event ID as argument.
      * Displays error if event is not loaded
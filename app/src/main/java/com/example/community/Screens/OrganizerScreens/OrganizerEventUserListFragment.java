@@ -16,7 +16,9 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.community.ArrayAdapters.UserArrayAdapter;
+import com.example.community.EntryStatus;
 import com.example.community.EventService;
+import com.example.community.ListChangeListener;
 import com.example.community.LotteryService;
 import com.example.community.R;
 import com.example.community.User;
@@ -77,6 +79,8 @@ public class OrganizerEventUserListFragment extends DialogFragment {
      * Set of user IDS that have been selected by organizer when on invited list type
      */
     private Set<String> selectedUserIds;
+    /** IDs of users shown as placeholders whose details have not been fetched yet */
+    private Set<String> pendingUserIds;
 
     /** RecyclerView and adapter for displaying the user list */
     private RecyclerView userListRecyclerView;
@@ -161,6 +165,7 @@ public class OrganizerEventUserListFragment extends DialogFragment {
         usersList = new ArrayList<>();
         waitingListEntries = new ArrayList<>();
         selectedUserIds = new HashSet<>();
+        pendingUserIds = new HashSet<>();
 
 
         if (getArguments() != null) {
@@ -168,7 +173,7 @@ public class OrganizerEventUserListFragment extends DialogFragment {
             listType = getArguments().getString(ARG_LIST_TYPE);
         }
 
-        userArrayAdapter = new UserArrayAdapter(usersList, listType);
+        userArrayAdapter = new UserArrayAdapter(listType);
         userArrayAdapter.setSelectionListener(((userId, selected) -> onUserSelectionChanged(userId, selected)));
         userListRecyclerView.setLayoutManager(new LinearLayoutManager(requireContext()));
         userListRecyclerView.setAdapter(userArrayAdapter);
@@ -199,27 +204,27 @@ public class OrganizerEventUserListFragment extends DialogFragment {
             case "waitlist":
                 listTitle.setText("Waitlist");
                 cancelUsersButton.setVisibility(View.GONE);
-                loadWaitlistUsers();
+                watchUsers(EntryStatus.WAITING);
                 break;
             case "invited":
                 listTitle.setText("Invited");
                 cancelUsersButton.setVisibility(View.VISIBLE);
-                loadInvitedUsers();
+                watchUsers(EntryStatus.INVITED);
                 break;
             case "attendees":
                 listTitle.setText("Attendees");
                 cancelUsersButton.setVisibility(View.GONE);
-                loadAttendeesUsers();
+                watchUsers(EntryStatus.ACCEPTED);
                 break;
             case "cancelled":
                 listTitle.setText("Cancelled");
                 cancelUsersButton.setVisibility(View.GONE);
-                loadCancelledUsers();
+                watchUsers(EntryStatus.CANCELLED);
                 break;
             case "declined":
                 listTitle.setText("Declined");
                 cancelUsersButton.setVisibility(View.GONE);
-                loadDeclinedUsers();
+                watchUsers(EntryStatus.DECLINED);
                 break;
             default:
                 Toast.makeText(getContext(), "List Type not valid", Toast.LENGTH_SHORT).show();
@@ -228,119 +233,88 @@ public class OrganizerEventUserListFragment extends DialogFragment {
     }
 
     /**
-     * Loads the waitlisted entrants of the event
-     */
-    private void loadWaitlistUsers() {
-        waitingListEntryService.getWaitlistEntries(eventId)
-                .addOnSuccessListener(entries -> {
-                    loadUsers(entries);
-                })
-                .addOnFailureListener(e -> {
-                    Log.e(TAG, "Failed to load waitlist entries", e);
-                    dismiss();
-                });
-    }
-
-    /**
-     * Loads the invited entrants of the event
-     */
-    private void loadInvitedUsers() {
-        waitingListEntryService.getInvitedList(eventId)
-                .addOnSuccessListener(entries -> {
-                    waitingListEntries.clear();
-                    waitingListEntries.addAll(entries);
-                    loadUsers(entries);
-                })
-                .addOnFailureListener(e -> {
-                    Log.e(TAG, "Failed to load invited entries", e);
-                    dismiss();
-                });
-    }
-
-    /**
-     * Loads the confirmed attendees of the event
-     */
-    private void loadAttendeesUsers() {
-        waitingListEntryService.getAcceptedList(eventId)
-                .addOnSuccessListener(entries -> {
-                    loadUsers(entries);
-                })
-                .addOnFailureListener(e -> {
-                    Log.e(TAG, "Failed to load attendees entries", e);
-                    dismiss();
-                });
-
-    }
-
-    /**
-     * Loads the cancelled entrants of the event
+     * Listens to the event's entries with a status while the dialog is shown, keeping
+     * {@link #waitingListEntries} and {@link #usersList} aligned row for row. Rows for new
+     * entries appear right away and are filled in once their users are fetched.
+     *
+     * @param status status of the entries to list
      */
-    private void loadCancelledUsers() {
-        waitingListEntryService.getCancelledList(eventId)
-                .addOnSuccessListener(entries -> {
-                    loadUsers(entries);
-                })
-                .addOnFailureListener(e -> {
-                    Log.e(TAG, "Failed to load cancelled entries", e);
+    private void watchUsers(EntryStatus status) {
+        waitingListEntryService.watchEntries(eventId, status).observe(getViewLifecycleOwner(),
+                new ListChangeListener<WaitingListEntry>() {
+                    @Override
+                    public void onAdded(WaitingListEntry entry, int index) {
+                        waitingListEntries.add(index, entry);
+                        usersList.add(index, placeholderUser(entry.getUserID()));
+                        pendingUserIds.add(entry.getUserID());
+                    }
+
+                    @Override
+                    public void onModified(WaitingListEntry entry, int oldIndex, int newIndex) {
+                        waitingListEntries.remove(oldIndex);
+                        waitingListEntries.add(newIndex, entry);
+                        usersList.add(newIndex, usersList.remove(oldIndex));
+                    }
+
+                    @Override
+                    public void onRemoved(WaitingListEntry entry, int index) {
+                        waitingListEntries.remove(index);
+                        usersList.remove(index);
+                        selectedUserIds.remove(entry.getUserID());
+                    }
+
+                    @Override
+                    public void onChangesApplied() {
+                        userArrayAdapter.submitList(new ArrayList<>(usersList));
+                        fetchPendingUsers();
+                    }
+                },
+                e -> {
+                    Log.e(TAG, "Failed to load entries", e);
                     dismiss();
                 });
     }
 
     /**
-     * Loads the declined entrants of the event
+     * Creates a stand-in shown for an entry until its user is fetched.
+     *
+     * @param userId ID of the user
+     * @return user with only the ID set
      */
-    private void loadDeclinedUsers() {
-        waitingListEntryService.getDeclinedList(eventId)
-                .addOnSuccessListener(entries -> {
-                    waitingListEntries.clear();
-                    waitingListEntries.addAll(entries);
-                    loadUsers(entries);
-                })
-                .addOnFailureListener(e -> {
-                    Log.e(TAG, "Failed to load declined entries", e);
-                    dismiss();
-                });
+    private User placeholderUser(String userId) {
+        User user = new User();
+        user.setUserID(userId);
+        return user;
     }
 
     /**
-     * Converts the entries to user objects and loads them into RecyclerView
-     *
-     * @param entries the waiting list entries to convert to users
+     * Fetches the users of newly listed entries in one batch and fills in their rows.
+     * If the fetch fails, the users stay pending and are fetched with the next change.
      */
-    private void loadUsers(List<WaitingListEntry> entries) {
-        usersList.clear();
-        selectedUserIds.clear();
-
-        if (entries.isEmpty()) {
-            userArrayAdapter.notifyDataSetChanged();
+    private void fetchPendingUsers() {
+        if (pendingUserIds.isEmpty()) {
             return;
         }
-
-        int[] loadedUsersCount = {0};
-
-        /**
-         * For each entry, get the user object and add it to the list
-         */
-        for (WaitingListEntry entry : entries) {
-            userService.getByUserID(entry.getUserID())
-                    .addOnSuccessListener(user -> {
-                        usersList.add(user);
-                        loadedUsersCount[0]++;
-
-                        // If all users are loaded, notify adapter
-                        if (loadedUsersCount[0] == entries.size()) {
-                            userArrayAdapter.notifyDataSetChanged();
-                        }
-                    })
-                    .addOnFailureListener(e -> {
-                        Log.e(TAG, "Failed to load user", e);
-                        loadedUsersCount[0]++;
-
-                        if (loadedUsersCount[0] == entries.size()) {
-                            userArrayAdapter.notifyDataSetChanged();
+        List<String> userIds = new ArrayList<>(pendingUserIds);
+        pendingUserIds.clear();
+
+        userService.getByUserIDs(userIds)
+                .addOnSuccessListener(users -> {
+                    for (User user : users) {
+                        for (int i = 0; i < usersList.size(); i++) {
+                            if (user.getUserID().equals(usersList.get(i).getUserID())) {
+                                usersList.set(i, user);
+                                break;
+                            }
                         }
-                    });
-        }
+                    }
+                    userArrayAdapter.submitList(new ArrayList<>(usersList));
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Failed to load users", e);
+                    // keep the rows pending so the next change fetches them again
+                    pendingUserIds.addAll(userIds);
+                });
     }
 
     /**
@@ -367,7 +341,7 @@ public class OrganizerEventUserListFragment extends DialogFragment {
      *         <li>Finds the waiting list entries for the selected users</li>
      *         <li>Calls the service to cancel each selected invitation</li>
      *         <li>Re-runs the lottery selection with the number of cancelled users</li>
-     *         <li>NReloads invited users list and clears selection</li>
+     *         <li>Clears the selection; cancelled users leave the list as their entries change</li>
      *     </ul>
      * </p>
      */
@@ -397,7 +371,6 @@ public class OrganizerEventUserListFragment extends DialogFragment {
                             Toast.makeText(getContext(), "Selected users cancelled successfully", Toast.LENGTH_SHORT).show();
                             runLotteryAgain(totalToCancel);
                             selectedUserIds.clear();
-                            loadInvitedUsers();
                         }
                     })
                     .addOnFailureListener(e -> {
@@ -406,7 +379,6 @@ public class OrganizerEventUserListFragment extends DialogFragment {
                         if (cancelledCount[0] == totalToCancel) {
                             Toast.makeText(getContext(), "Error cancelling some users", Toast.LENGTH_SHORT).show();
                             selectedUserIds.clear();
-                            loadInvitedUsers();
                         }
                     });
         }
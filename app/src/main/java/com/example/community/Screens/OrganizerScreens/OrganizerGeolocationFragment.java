@@ -21,6 +21,7 @@ import com.example.community.R;
 import com.example.community.UserService;
 
 import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Fragment for displaying organizer's events with geolocation support.
@@ -93,7 +94,7 @@ public class OrganizerGeolocationFragment extends Fragment {
         backButton = view.findViewById(R.id.geolocationBackButton);
 
         eventListRecyclerView.setLayoutManager(new LinearLayoutManager(getContext()));
-        eventArrayAdapter = new EventArrayAdapter(eventsArrayList);
+        eventArrayAdapter = new EventArrayAdapter();
         eventArrayAdapter.setOnEventClickListener(event -> {
             Log.d(TAG, "Event clicked: " + event.getEventID());
             navigateToMap(event.getEventID());
@@ -132,7 +133,8 @@ public class OrganizerGeolocationFragment extends Fragment {
      */
     private void loadEvents() {
         eventService.listEventsByOrganizer(currentOrganizerID, 100, null)
-                .addOnSuccessListener(events -> {
+                .addOnSuccessListener(page -> {
+                    List<Event> events = page.getItems();
                     if (eventsArrayList != null) {
                         eventsArrayList.clear();
                         // Only add events that have geolocation enabled
@@ -141,7 +143,7 @@ public class OrganizerGeolocationFragment extends Fragment {
                                 eventsArrayList.add(event);
                             }
                         }
-                        eventArrayAdapter.notifyDataSetChanged();
+                        eventArrayAdapter.submitList(new ArrayList<>(eventsArrayList));
 
                         if (eventsArrayList.isEmpty()) {
                             Toast.makeText(getContext(), "No events with geolocation enabled", Toast.LENGTH_SHORT).show();
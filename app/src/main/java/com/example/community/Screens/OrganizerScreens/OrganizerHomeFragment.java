@@ -15,6 +15,7 @@ import androidx.navigation.fragment.NavHostFragment;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.example.community.ArrayAdapters.AdapterListUpdater;
 import com.example.community.ArrayAdapters.EventArrayAdapter;
 import com.example.community.Event;
 import com.example.community.EventService;
@@ -116,7 +117,7 @@ public class OrganizerHomeFragment extends Fragment {
 
         // Set up RecyclerView
         hostEventList.setLayoutManager(new LinearLayoutManager(getContext()));
-        eventArrayAdapter = new EventArrayAdapter(eventsArrayList);
+        eventArrayAdapter = new EventArrayAdapter();
         eventArrayAdapter.setOnEventClickListener(event -> {
             Bundle args = new Bundle();
             args.putString("event_id", event.getEventID());
@@ -152,24 +153,18 @@ public class OrganizerHomeFragment extends Fragment {
     }
 
     /**
-     * Loads all the events created by the current organizer and fills the RecyclerView
+     * Listens to the events created by the current organizer while the screen is visible,
+     * updating only the rows of events that were created, edited or deleted.
      *
      * Displays error message if the event loading stuff fails
      */
     private void loadEvents() {
-        eventService.listEventsByOrganizer(currentOrganizerID, 100, null)
-                .addOnSuccessListener(events -> {
-                    Log.d(TAG, "events loaded: " + events.size());
-                    if (eventsArrayList != null) {
-                        eventsArrayList.clear();
-                        eventsArrayList.addAll(events);
-                        eventArrayAdapter.notifyDataSetChanged();
-                    }
-                })
-                .addOnFailureListener(e -> {
-                    Log.e(TAG, "failed to load events", e);
-                    Toast.makeText(getContext(), "Failed to load events", Toast.LENGTH_SHORT).show();
-                });
+        if (getView() == null) {
+            return;
+        }
+        eventService.watchEventsByOrganizer(currentOrganizerID).observe(getViewLifecycleOwner(),
+                new AdapterListUpdater<>(eventsArrayList, eventArrayAdapter),
+                e -> Toast.makeText(getContext(), "Failed to load events", Toast.LENGTH_SHORT).show());
     }
 
     /**
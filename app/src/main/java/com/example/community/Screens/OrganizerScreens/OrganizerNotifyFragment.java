@@ -22,6 +22,7 @@ import com.example.community.R;
 import com.example.community.UserService;
 
 import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Fragment for managin event notifications and selecting notification targets/
@@ -119,7 +120,7 @@ public class OrganizerNotifyFragment extends Fragment {
         backButton = view.findViewById(R.id.buttonBack);
 
         notifyEventList.setLayoutManager(new LinearLayoutManager(requireContext()));
-        eventArrayAdapter = new EventArrayAdapter(eventsArrayList);
+        eventArrayAdapter = new EventArrayAdapter();
         eventArrayAdapter.setOnEventClickListener(event -> {
             NotificationTargetDialogFragment dialogFragment = NotificationTargetDialogFragment.newInstance(event.getEventID());
             dialogFragment.show(getChildFragmentManager(), "notification_target");
@@ -165,13 +166,14 @@ public class OrganizerNotifyFragment extends Fragment {
     private void loadEvents() {
 
         eventService.listEventsByOrganizer(currentOrganizerID, 100, null)
-                .addOnSuccessListener(events -> {
+                .addOnSuccessListener(page -> {
+                    List<Event> events = page.getItems();
                     Log.d(TAG, "Events loaded: " + events.size());
                     if (eventsArrayList != null) {
                         eventsArrayList.clear();
                         eventsArrayList.addAll(events);
                         Log.d(TAG, "Events added to list: " + eventsArrayList.size());
-                        eventArrayAdapter.notifyDataSetChanged();
+                        eventArrayAdapter.submitList(new ArrayList<>(eventsArrayList));
                     }
                 })
                 .addOnFailureListener(e -> {
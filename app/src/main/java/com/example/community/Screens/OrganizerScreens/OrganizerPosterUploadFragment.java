@@ -30,10 +30,6 @@ import com.example.community.R;
 import com.example.community.UserService;
 import com.squareup.picasso.Picasso;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.io.InputStream;
-
 /**
  * Fragment that allows the organizer to upload a poster image for a specific event.
  * Handles image selection from gallery, permissions, preview, and uploading to Firebase.
@@ -49,8 +45,8 @@ public class OrganizerPosterUploadFragment extends Fragment {
     /** The current organizer ID */
     private String currentOrganizerId;
 
-    /** Byte array of the selected image */
-    private byte[] selectedImageData;
+    /** Content URI of the selected image; it is read and resized only when uploaded */
+    private Uri selectedImageUri;
 
     /** UI elements */
     private TextView previewTextLabel;
@@ -140,14 +136,9 @@ public class OrganizerPosterUploadFragment extends Fragment {
                                     .into(imagePosterPreviewImageView);
                             imagePosterPreviewImageView.setVisibility(View.VISIBLE);
 
-                            try {
-                                selectedImageData = getBytesFromUri(imageUri);
-                                buttonSubmitPoster.setEnabled(true);
-                                Toast.makeText(getContext(), "Image selected. Ready to be uploaded", Toast.LENGTH_SHORT).show();
-                            } catch (IOException e) {
-                                Log.e(TAG, "Failed to read image data", e);
-                                Toast.makeText(getActivity(), "Failed to read image data", Toast.LENGTH_SHORT).show();
-                            }
+                            selectedImageUri = imageUri;
+                            buttonSubmitPoster.setEnabled(true);
+                            Toast.makeText(getContext(), "Image selected. Ready to be uploaded", Toast.LENGTH_SHORT).show();
                         }
                     }
                 });
@@ -210,37 +201,20 @@ public class OrganizerPosterUploadFragment extends Fragment {
      * Clears the selected image preview and disables the submit button.
      */
     private void clearImage() {
-        selectedImageData = null;
+        selectedImageUri = null;
         buttonSubmitPoster.setEnabled(false);
         previewTextLabel.setVisibility(View.GONE);
         imagePosterPreviewImageView.setVisibility(View.GONE);
     }
 
-    /**
-     * Converts a content URI of an image into a byte array for uploading to Firebase.
-     *
-     * @param uri The URI of the selected image
-     * @return Byte array of image data
-     * @throws IOException If the image cannot be read
-     */
-    private byte[] getBytesFromUri(Uri uri) throws IOException {
-        InputStream inputStream = getContext().getContentResolver().openInputStream(uri);
-        ByteArrayOutputStream byteBuffer = new ByteArrayOutputStream();
-        byte[] buffer = new byte[1024];
-        int len;
-        while ((len = inputStream.read(buffer)) != -1) {
-            byteBuffer.write(buffer, 0, len);
-        }
-        inputStream.close();
-        return byteBuffer.toByteArray();
-    }
-
     /**
      * Uploads the selected image to the event's poster location using ImageService.
+     * The image is streamed from its URI and resized in the background, so large photos
+     * are never held in memory whole.
      * Handles progress bar and enables/disables buttons during upload.
      */
     private void uploadImage() {
-        if (selectedImageData == null) {
+        if (selectedImageUri == null) {
             Toast.makeText(getContext(), "No image selected", Toast.LENGTH_SHORT).show();
             return;
         }
@@ -249,7 +223,7 @@ public class OrganizerPosterUploadFragment extends Fragment {
         buttonSubmitPoster.setEnabled(false);
         cancelButton.setEnabled(false);
 
-        imageService.uploadEventPoster(eventId, selectedImageData, currentOrganizerId, true)
+        imageService.uploadEventPoster(eventId, requireContext(), selectedImageUri, currentOrganizerId, true)
                 .addOnSuccessListener(imageUrl -> {
                     progressBar.setVisibility(View.GONE);
                     buttonSubmitPoster.setEnabled(true);
@@ -258,6 +232,7 @@ public class OrganizerPosterUploadFragment extends Fragment {
                     NavHostFragment.findNavController(this).navigateUp();
                 })
                 .addOnFailureListener(e -> {
+                    Log.e(TAG, "Failed to upload image", e);
                     progressBar.setVisibility(View.GONE);
                     buttonSubmitPoster.setEnabled(true);
                     cancelButton.setEnabled(true);
@@ -13,6 +13,7 @@ import androidx.annotation.NonNull;
 import androidx.fragment.app.Fragment;
 import androidx.navigation.fragment.NavHostFragment;
 
+import com.example.community.EventService;
 import com.example.community.R;
 import com.example.community.UserService;
 
@@ -24,6 +25,7 @@ import com.example.community.UserService;
 public class SplashPageFragment extends Fragment {
 
     private UserService userService;
+    private EventService eventService;
     private Button loginButton;
     private Handler handler;
 
@@ -44,6 +46,7 @@ public class SplashPageFragment extends Fragment {
     /**
      * Called after the fragment's view is created.
      * Initializes UserService, sets up the login button, and handles fade-in animation.
+     * After login, any user or event deletions left unfinished are resumed in the background.
      *
      * @param view               The fragment's view
      * @param savedInstanceState Saved state bundle
@@ -53,13 +56,19 @@ public class SplashPageFragment extends Fragment {
         super.onViewCreated(view, savedInstanceState);
 
         userService = new UserService();
+        eventService = new EventService();
         loginButton = view.findViewById(R.id.loginButton);
         handler = new Handler(Looper.getMainLooper());
 
         // Handle login button click
         loginButton.setOnClickListener(v -> userService.splashScreenDeviceAuthentication()
-                .addOnSuccessListener(user -> NavHostFragment.findNavController(this)
-                        .navigate(R.id.action_SplashPageFragment_to_RoleSelectFragment))
+                .addOnSuccessListener(user -> {
+                    // finish any deletions cut short by a previous session
+                    userService.resumePendingDeletions();
+                    eventService.resumePendingDeletions(user.getUserID());
+                    NavHostFragment.findNavController(this)
+                            .navigate(R.id.action_SplashPageFragment_to_RoleSelectFragment);
+                })
         );
 
         // Fade-in animation for login button after 2 seconds
@@ -78,8 +78,8 @@ public class UserEventHistoryFragment extends Fragment {
         eventService = new EventService();
 
         // Set up RecyclerViews
-        joinedAdapter = new EventArrayAdapter(joinedEvents);
-        notSelectedAdapter = new EventArrayAdapter(notSelectedEvents);
+        joinedAdapter = new EventArrayAdapter();
+        notSelectedAdapter = new EventArrayAdapter();
 
         joinedEventsRecyclerView.setLayoutManager(new LinearLayoutManager(getContext()));
         notSelectedEventsRecyclerView.setLayoutManager(new LinearLayoutManager(getContext()));
@@ -131,8 +131,8 @@ public class UserEventHistoryFragment extends Fragment {
 
                     // If no entries → nothing to load
                     if (entries.isEmpty()) {
-                        joinedAdapter.notifyDataSetChanged();
-                        notSelectedAdapter.notifyDataSetChanged();
+                        joinedAdapter.submitList(new ArrayList<>(joinedEvents));
+                        notSelectedAdapter.submitList(new ArrayList<>(notSelectedEvents));
                         return;
                     }
 
@@ -167,8 +167,8 @@ public class UserEventHistoryFragment extends Fragment {
                                 Log.d(TAG, "Finished fetching events for history. " +
                                         "Joined=" + joinedEvents.size() +
                                         " NotSelected=" + notSelectedEvents.size());
-                                joinedAdapter.notifyDataSetChanged();
-                                notSelectedAdapter.notifyDataSetChanged();
+                                joinedAdapter.submitList(new ArrayList<>(joinedEvents));
+                                notSelectedAdapter.submitList(new ArrayList<>(notSelectedEvents));
                             })
                             .addOnFailureListener(e -> {
                                 Log.e(TAG, "Failed while fetching events for history", e);
@@ -0,0 +1,10 @@
+package com.example.community;
+
+/**
+ * Enum representing how a list of tags is matched against an event's tags.
+ * ANY keeps events with at least one of the tags, ALL keeps events with every tag.
+ */
+public enum TagMatch {
+    ANY,
+    ALL
+}
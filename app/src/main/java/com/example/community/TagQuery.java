@@ -0,0 +1,117 @@
+package com.example.community;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Helpers for planning tag queries that Firestore cannot run in a single query.
+ * Firestore matches at most {@link #MAX_DISJUNCTION_VALUES} values per array-contains-any
+ * filter and cannot combine several array-contains filters, so larger OR queries are split
+ * into sub-queries and AND queries are finished on the client.
+ */
+public final class TagQuery {
+
+    /** Maximum number of values in one array-contains-any filter. */
+    public static final int MAX_DISJUNCTION_VALUES = 30;
+
+    private TagQuery() { }
+
+    /**
+     * Trims the tags and drops empty and repeated ones, keeping their order.
+     *
+     * @param tags tags to clean up, may be null
+     * @return distinct non-empty tags
+     */
+    public static List<String> normalize(Collection<String> tags) {
+        Set<String> distinct = new LinkedHashSet<>();
+        if (tags != null) {
+            for (String tag : tags) {
+                if (tag != null && !tag.trim().isEmpty()) {
+                    distinct.add(tag.trim());
+                }
+            }
+        }
+        return new ArrayList<>(distinct);
+    }
+
+    /**
+     * Splits tags into groups small enough for one array-contains-any filter each.
+     *
+     * @param tags tags to split
+     * @return groups of at most {@link #MAX_DISJUNCTION_VALUES} tags, in order
+     */
+    public static List<List<String>> chunks(List<String> tags) {
+        List<List<String>> chunks = new ArrayList<>();
+        for (int i = 0; i < tags.size(); i += MAX_DISJUNCTION_VALUES) {
+            chunks.add(new ArrayList<>(tags.subList(i, Math.min(tags.size(), i + MAX_DISJUNCTION_VALUES))));
+        }
+        return chunks;
+    }
+
+    /**
+     * Merges the results of several sub-queries, keeping the first copy of each item.
+     *
+     * @param results results of each sub-query
+     * @param idOf    function returning the ID of an item
+     * @param <T>     type of the items
+     * @return distinct items, in the order they were first seen
+     */
+    public static <T> List<T> union(List<List<T>> results, Function<T, String> idOf) {
+        Map<String, T> merged = new LinkedHashMap<>();
+        for (List<T> result : results) {
+            for (T item : result) {
+                String id = idOf.apply(item);
+                if (!merged.containsKey(id)) {
+                    merged.put(id, item);
+                }
+            }
+        }
+        return new ArrayList<>(merged.values());
+    }
+
+    /**
+     * Returns the position of the smallest count, the tag whose events should be fetched
+     * when every tag must match. A null count is treated as unknown and never picked
+     * unless every count is unknown.
+     *
+     * @param counts number of events carrying each tag
+     * @return index of the smallest count, or 0 if none is known
+     */
+    public static int indexOfSmallest(List<Long> counts) {
+        int smallest = 0;
+        Long smallestCount = null;
+        for (int i = 0; i < counts.size(); i++) {
+            Long count = counts.get(i);
+            if (count != null && (smallestCount == null || count < smallestCount)) {
+                smallest = i;
+                smallestCount = count;
+            }
+        }
+        return smallest;
+    }
+
+    /**
+     * Returns the events that carry every one of the given tags, in their original order.
+     *
+     * @param events events to filter
+     * @param tags   tags every kept event must have
+     * @return events with all of the tags
+     */
+    public static List<Event> withAllTags(List<Event> events, Collection<String> tags) {
+        List<Event> matching = new ArrayList<>();
+        for (Event event : events) {
+            List<String> eventTags = event.getTags();
+            if (eventTags != null && new HashSet<>(eventTags).containsAll(tags)) {
+                matching.add(event);
+            }
+        }
+        return matching;
+    }
+}
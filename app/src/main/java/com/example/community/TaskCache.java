@@ -0,0 +1,104 @@
+package com.example.community;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Memoizes asynchronous loads by key. Finished results are kept in an
+ * {@link ExpiringLruCache}, and concurrent loads of the same key share one task,
+ * so a key is read at most once while a read of it is in flight.
+ * Null results are not cached.
+ *
+ * @param <V> type of the loaded values
+ */
+public class TaskCache<V> {
+
+    private final ExpiringLruCache<String, V> cache;
+    // a load is only cached if it is still registered here when it finishes
+    private final Map<String, Task<V>> inFlight = new HashMap<>();
+    private long coalesced;
+
+    /**
+     * Creates a task cache.
+     *
+     * @param maxSize   maximum number of cached values
+     * @param ttlMillis how long a value stays valid, in milliseconds
+     */
+    public TaskCache(int maxSize, long ttlMillis) {
+        this.cache = new ExpiringLruCache<>(maxSize, ttlMillis);
+    }
+
+    /**
+     * Returns the cached value for a key, joins a load already in flight, or starts one.
+     *
+     * @param key  key to look up
+     * @param load starts the load on a miss
+     * @return task containing the value
+     */
+    public synchronized Task<V> get(String key, Supplier<Task<V>> load) {
+        V cached = cache.get(key);
+        if (cached != null) {
+            return Tasks.forResult(cached);
+        }
+        Task<V> running = inFlight.get(key);
+        if (running != null) {
+            coalesced++;
+            return running;
+        }
+
+        Task<V> task = load.get();
+        inFlight.put(key, task);
+        task.addOnCompleteListener(done -> {
+            synchronized (TaskCache.this) {
+                if (inFlight.get(key) != task) {
+                    return;  // invalidated while loading
+                }
+                inFlight.remove(key);
+                if (done.isSuccessful() && done.getResult() != null) {
+                    cache.put(key, done.getResult());
+                }
+            }
+        });
+        return task;
+    }
+
+    /**
+     * Stores a value loaded some other way, such as in a batch read.
+     *
+     * @param key   key to store under
+     * @param value value to store, ignored if null
+     */
+    public synchronized void put(String key, V value) {
+        if (value != null) {
+            cache.put(key, value);
+        }
+    }
+
+    /**
+     * Drops the value for a key and detaches any load in flight, so the next
+     * {@link #get} reads it again. Call it after every local write to the key.
+     *
+     * @param key key to drop
+     */
+    public synchronized void invalidate(String key) {
+        cache.invalidate(key);
+        inFlight.remove(key);
+    }
+
+    /**
+     * Drops every value.
+     */
+    public synchronized void clear() {
+        cache.clear();
+        inFlight.clear();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return cache + " coalesced=" + coalesced;
+    }
+}
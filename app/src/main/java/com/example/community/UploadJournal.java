@@ -0,0 +1,83 @@
+package com.example.community;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import org.json.JSONException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * On-device record of the uploads in the {@link UploadQueue}, kept in shared preferences
+ * so they survive process death. Each upload is stored as JSON under its upload ID and
+ * rewritten as its parts make progress.
+ */
+public class UploadJournal {
+
+    private static final String TAG = "UploadJournal";
+    private static final String PREFS_NAME = "pending_uploads";
+
+    private final SharedPreferences prefs;
+
+    /**
+     * Creates a journal backed by the app's shared preferences.
+     *
+     * @param context any context of the app
+     */
+    public UploadJournal(Context context) {
+        this.prefs = context.getApplicationContext()
+                .getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    /**
+     * Saves an upload, replacing any earlier state of it.
+     *
+     * @param upload upload to save
+     */
+    public synchronized void save(PendingUpload upload) {
+        try {
+            prefs.edit().putString(upload.getUploadID(), upload.toJson()).apply();
+        } catch (JSONException e) {
+            Log.e(TAG, "Could not save upload " + upload.getUploadID(), e);
+        }
+    }
+
+    /**
+     * Removes a finished or abandoned upload.
+     *
+     * @param uploadID ID of the upload
+     */
+    public synchronized void remove(String uploadID) {
+        prefs.edit().remove(uploadID).apply();
+    }
+
+    /**
+     * Lists every upload that is not finished. Entries that cannot be read are dropped.
+     *
+     * @return pending uploads, in no particular order
+     */
+    public synchronized List<PendingUpload> list() {
+        List<PendingUpload> uploads = new ArrayList<>();
+        for (Map.Entry<String, ?> entry : prefs.getAll().entrySet()) {
+            try {
+                uploads.add(PendingUpload.fromJson((String) entry.getValue()));
+            } catch (JSONException | ClassCastException | IllegalArgumentException e) {
+                Log.w(TAG, "Dropping unreadable upload " + entry.getKey(), e);
+                remove(entry.getKey());
+            }
+        }
+        return uploads;
+    }
+
+    /**
+     * Checks whether any upload is waiting to finish.
+     *
+     * @return true if the journal has an upload
+     */
+    public synchronized boolean isEmpty() {
+        return prefs.getAll().isEmpty();
+    }
+}
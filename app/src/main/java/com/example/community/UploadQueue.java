@@ -0,0 +1,245 @@
+package com.example.community;
+
+import android.content.Context;
+import android.net.Uri;
+import android.util.Log;
+
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.Timestamp;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queue of image uploads that survive process death.
+ *
+ * <p>An upload is recorded in the {@link UploadJournal} before it starts, and the queue is
+ * drained by {@link ImageUploadWorker}, which WorkManager runs when the device is online and
+ * runs again after the process dies. Each file is sent as a resumable Storage session whose
+ * URI is saved as it progresses, so an interrupted file continues where it stopped instead
+ * of starting over. At most {@value #MAX_CONCURRENT_UPLOADS} images upload at once.
+ */
+public class UploadQueue {
+
+    private static final String TAG = "UploadQueue";
+    private static final String WORK_NAME = "image-uploads";
+    /** Maximum number of images uploading at once; the files of one image upload together. */
+    static final int MAX_CONCURRENT_UPLOADS = 2;
+
+    private static UploadQueue instance;
+
+    private final Context context;
+    private final UploadJournal journal;
+    private final ImageRepository imageRepository;
+
+    /** Callers waiting on an upload started in this process, by upload ID */
+    private final Map<String, TaskCompletionSource<Image>> waiting = new HashMap<>();
+    /** Uploads being worked on by the current drain */
+    private final Set<String> running = new HashSet<>();
+
+    private UploadQueue(Context context) {
+        this.context = context.getApplicationContext();
+        this.journal = new UploadJournal(this.context);
+        this.imageRepository = new ImageRepository();
+    }
+
+    /**
+     * Gets the queue of the app.
+     *
+     * @param context any context of the app
+     * @return the shared queue
+     */
+    public static synchronized UploadQueue getInstance(Context context) {
+        if (instance == null) {
+            instance = new UploadQueue(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Gets the directory prepared images are written to before upload.
+     * It is not a cache directory, so the files are still there when an upload resumes.
+     *
+     * @return directory for files waiting to upload
+     */
+    public File getStagingDir() {
+        File dir = new File(context.getFilesDir(), "uploads");
+        dir.mkdirs();
+        return dir;
+    }
+
+    /**
+     * Records an upload and schedules it.
+     *
+     * @param upload upload to run
+     * @return task that resolves to the saved Image, or fails if the first attempt fails;
+     *         a failed upload stays queued and is retried in the background
+     */
+    public Task<Image> enqueue(PendingUpload upload) {
+        TaskCompletionSource<Image> source = new TaskCompletionSource<>();
+        synchronized (this) {
+            waiting.put(upload.getUploadID(), source);
+        }
+        journal.save(upload);
+        schedule();
+        return source.getTask();
+    }
+
+    /**
+     * Schedules the queue again if uploads were left unfinished by an earlier process.
+     * Called once at app start.
+     */
+    public void resumePending() {
+        if (!journal.isEmpty()) {
+            schedule();
+        }
+    }
+
+    private void schedule() {
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(ImageUploadWorker.class)
+                .setConstraints(new Constraints.Builder()
+                        .setRequiredNetworkType(NetworkType.CONNECTED)
+                        .build())
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, 30, TimeUnit.SECONDS)
+                .build();
+        WorkManager.getInstance(context)
+                .enqueueUniqueWork(WORK_NAME, ExistingWorkPolicy.APPEND_OR_REPLACE, request);
+    }
+
+    /**
+     * Runs every upload in the journal, {@value #MAX_CONCURRENT_UPLOADS} at a time.
+     * Called by {@link ImageUploadWorker}.
+     *
+     * @return task that completes when every upload has finished, failing if any failed
+     */
+    Task<Void> drain() {
+        List<PendingUpload> uploads = new ArrayList<>();
+        synchronized (this) {
+            for (PendingUpload upload : journal.list()) {
+                if (running.add(upload.getUploadID())) {
+                    uploads.add(upload);
+                }
+            }
+        }
+        if (uploads.isEmpty()) {
+            return Tasks.forResult(null);
+        }
+
+        // a failure is reported once the rest have finished, so the worker retries
+        return BoundedTasks.forEachBounded(uploads, MAX_CONCURRENT_UPLOADS, upload ->
+                run(upload).addOnCompleteListener(task -> {
+                    synchronized (this) {
+                        running.remove(upload.getUploadID());
+                    }
+                }));
+    }
+
+    /**
+     * Uploads the parts of one image that are not up yet, then saves and attaches it.
+     */
+    private Task<Void> run(PendingUpload upload) {
+        for (PendingUpload.Part part : upload.getParts()) {
+            if (part.getDownloadURL() == null && !part.getLocalFile().exists()) {
+                // the staged files are gone, so the upload can never finish
+                abandon(upload, new IllegalStateException("Upload files missing: " + upload.getUploadID()));
+                return Tasks.forResult(null);
+            }
+        }
+
+        List<Task<String>> partUploads = new ArrayList<>();
+        for (PendingUpload.Part part : upload.getParts()) {
+            if (part.getDownloadURL() != null) {
+                continue;
+            }
+            Uri sessionUri = part.getSessionUri() != null ? Uri.parse(part.getSessionUri()) : null;
+            partUploads.add(imageRepository.uploadResumable(part.getLocalFile(), part.getStoragePath(),
+                    part.getContentType(), sessionUri, (session, bytes) -> {
+                        synchronized (upload) {
+                            part.setSessionUri(session.toString());
+                            part.setBytesTransferred(bytes);
+                            journal.save(upload);
+                        }
+                    }).addOnSuccessListener(url -> {
+                        synchronized (upload) {
+                            part.setDownloadURL(url);
+                            journal.save(upload);
+                        }
+                    }));
+        }
+
+        return Tasks.whenAll(partUploads)
+                .onSuccessTask(v -> imageRepository.save(toImage(upload)))
+                .onSuccessTask(image -> attach(upload, image).onSuccessTask(v -> {
+                    journal.remove(upload.getUploadID());
+                    upload.deleteFiles();
+                    complete(upload.getUploadID(), image, null);
+                    return Tasks.<Void>forResult(null);
+                }))
+                .addOnFailureListener(e -> {
+                    Log.w(TAG, "Upload " + upload.getUploadID() + " failed, it stays queued", e);
+                    complete(upload.getUploadID(), null, e);
+                });
+    }
+
+    private Image toImage(PendingUpload upload) {
+        Map<String, String> variantURLs = new HashMap<>();
+        for (ImageVariant variant : ImageVariant.values()) {
+            PendingUpload.Part part = upload.getPart(variant.getKey());
+            if (part != null) {
+                variantURLs.put(variant.getKey(), part.getDownloadURL());
+            }
+        }
+        Image image = new Image();
+        image.setImageID(upload.getUploadID());
+        image.setStoragePath(upload.getOriginal().getStoragePath());
+        image.setImageURL(upload.getOriginal().getDownloadURL());
+        image.setVariantURLs(variantURLs);
+        image.setUploadedBy(upload.getUploadedBy());
+        image.setUploadedAt(Timestamp.now());
+        return image;
+    }
+
+    private Task<Void> attach(PendingUpload upload, Image image) {
+        if (upload.getKind() == PendingUpload.Kind.POSTER) {
+            return new ImageService().replacePoster(upload.getEventID(), image, upload.isReplaceOld());
+        }
+        return Tasks.forResult(null);
+    }
+
+    private void abandon(PendingUpload upload, Exception reason) {
+        Log.e(TAG, "Abandoning upload " + upload.getUploadID(), reason);
+        journal.remove(upload.getUploadID());
+        upload.deleteFiles();
+        complete(upload.getUploadID(), null, reason);
+    }
+
+    private void complete(String uploadID, Image image, Exception e) {
+        TaskCompletionSource<Image> source;
+        synchronized (this) {
+            source = waiting.remove(uploadID);
+        }
+        if (source == null) {
+            return;
+        }
+        if (e != null) {
+            source.trySetException(e);
+        } else {
+            source.trySetResult(image);
+        }
+    }
+}
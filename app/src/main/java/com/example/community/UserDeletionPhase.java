@@ -0,0 +1,12 @@
+package com.example.community;
+
+/**
+ * Enum representing the steps of a user cascade deletion, in the order they run.
+ * The current phase is saved in a checkpoint so an interrupted deletion can resume.
+ */
+public enum UserDeletionPhase {
+    WAITLISTS,
+    EVENTS,
+    NOTIFICATIONS,
+    USER
+}
@@ -2,25 +2,59 @@ package com.example.community;
 
 import android.util.Log;
 
+import com.google.android.gms.tasks.OnSuccessListener;
 import com.google.android.gms.tasks.Task;
+import com.google.firebase.Timestamp;
 import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.SetOptions;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Repository for managing user data in Firestore.
  * Handles all database operations for users.
+ * Users read from the server by ID are kept in a small in-memory cache shared by every
+ * instance, which each write through this class invalidates. Cached users are shared
+ * between callers and may be minutes old, so they must not be changed and written back
+ * whole; change single fields with {@link #update(String, Map)} or the list helpers instead.
  */
 public class UserRepository {
 
     private final String TAG = "UserRepository";
 
+    /** Maximum number of values Firestore accepts in one whereIn filter. */
+    private static final int MAX_IN_QUERY_SIZE = 30;
+    /** Maximum number of whereIn queries in flight at once. */
+    private static final int MAX_IN_FLIGHT_QUERIES = 4;
+    /** Maximum number of users kept in memory. */
+    private static final int USER_CACHE_SIZE = 200;
+    /** How long a user stays in memory before it is read again. */
+    private static final long USER_CACHE_TTL_MILLIS = 5 * 60 * 1000;
+
+    // snapshots rather than users, so every caller gets its own User to change
+    private static final TaskCache<DocumentSnapshot> userCache =
+            new TaskCache<>(USER_CACHE_SIZE, USER_CACHE_TTL_MILLIS);
+
     private FirebaseFirestore db;
     private CollectionReference usersRef;
+    private CollectionReference deletionsRef;
+
+    private static final String FIELD_PHASE = "phase";
+    private static final String FIELD_CLAIMED_BY = "claimedBy";
+    private static final String FIELD_LEASE = "leaseExpiresAt";
 
     /**
      * Creates a new UserRepository instance.
@@ -29,6 +63,7 @@ public class UserRepository {
     public UserRepository() {
         this.db = FirebaseFirestore.getInstance();
         this.usersRef = db.collection("users");
+        this.deletionsRef = db.collection("userDeletions");
     }
 
     /**
@@ -38,7 +73,7 @@ public class UserRepository {
      * @return task that completes when creation finishes
      */
     public Task<Void> create(User user) {
-        return usersRef.document(user.getUserID()).set(user);
+        return invalidating(user.getUserID(), usersRef.document(user.getUserID()).set(user));
     }
 
     /**
@@ -48,12 +83,162 @@ public class UserRepository {
      * @return task containing the user or null if not found
      */
     public Task<User> getByUserID(String userID) {
-        return usersRef.document(userID).get().continueWith(task -> {
+        return getByUserID(userID, ReadPolicy.DEFAULT, null);
+    }
+
+    /**
+     * Retrieves a user by their ID under a read policy.
+     *
+     * @param userID    ID of the user
+     * @param policy    where to read the user from
+     * @param onRefresh called with the server copy after a stale answer, or null
+     * @return task containing the user or null if not found
+     */
+    public Task<User> getByUserID(String userID, ReadPolicy policy, OnSuccessListener<User> onRefresh) {
+        if (policy == ReadPolicy.DEFAULT) {
+            return userCache.get(userID, () -> readForCache(userID)).continueWith(task ->
+                    toUser(task.getResult()));
+        }
+        if (policy == ReadPolicy.CACHE_FIRST) {
+            // may answer with an old disk copy, which must not be handed to DEFAULT readers
+            return readUser(userID, policy, null).continueWith(task -> toUser(task.getResult()));
+        }
+
+        OnSuccessListener<DocumentSnapshot> onServerCopy = snapshot -> {
+            keepServerCopy(userID, snapshot);
+            if (onRefresh != null) {
+                onRefresh.onSuccess(toUser(snapshot));
+            }
+        };
+        Task<DocumentSnapshot> task = readUser(userID, policy, onServerCopy);
+        if (policy == ReadPolicy.SERVER_ONLY) {
+            task.addOnSuccessListener(snapshot -> keepServerCopy(userID, snapshot));
+        }
+        return task.continueWith(read -> toUser(read.getResult()));
+    }
+
+    /**
+     * Reads a user snapshot for the in-memory cache. Snapshots of missing users, and those
+     * the SDK answered from its local cache, e.g. while offline, are returned but not kept,
+     * so only copies read from the server are shared.
+     */
+    private Task<DocumentSnapshot> readForCache(String userID) {
+        return CachedReads.get(usersRef.document(userID), ReadPolicy.DEFAULT, null).continueWith(task -> {
             DocumentSnapshot snapshot = task.getResult();
-            return snapshot.exists() ? snapshot.toObject(User.class) : null;
+            if (!snapshot.exists() || snapshot.getMetadata().isFromCache()) {
+                userCache.invalidate(userID);
+            }
+            return snapshot;
+        });
+    }
+
+    /**
+     * Reads a user snapshot from Firestore, bypassing the in-memory cache.
+     */
+    private Task<DocumentSnapshot> readUser(String userID, ReadPolicy policy,
+                                            OnSuccessListener<DocumentSnapshot> onRefresh) {
+        return CachedReads.get(usersRef.document(userID), policy, onRefresh);
+    }
+
+    /**
+     * Keeps a snapshot in the in-memory cache if it holds a user read from the server.
+     */
+    private static void keepServerCopy(String userID, DocumentSnapshot snapshot) {
+        if (snapshot.exists() && !snapshot.getMetadata().isFromCache()) {
+            userCache.put(userID, snapshot);
+        }
+    }
+
+    private static User toUser(DocumentSnapshot snapshot) {
+        return snapshot.exists() ? snapshot.toObject(User.class) : null;
+    }
+
+    /**
+     * Drops a user from the in-memory cache. Call it after writing to the user document
+     * from outside this class.
+     *
+     * @param userID ID of the user
+     */
+    static void invalidateCachedUser(String userID) {
+        userCache.invalidate(userID);
+    }
+
+    /**
+     * Describes the in-memory user cache, for debugging.
+     *
+     * @return size, hit, miss, eviction, expiration and coalesced read counts
+     */
+    public static String getCacheStats() {
+        return userCache.toString();
+    }
+
+    /**
+     * Drops the user from the in-memory cache when a write starts and again when it
+     * finishes, so a read that overlaps the write is not kept.
+     *
+     * @param userID ID of the user being written
+     * @param write  the write
+     * @return the write task
+     */
+    private Task<Void> invalidating(String userID, Task<Void> write) {
+        userCache.invalidate(userID);
+        return write.addOnCompleteListener(task -> userCache.invalidate(userID));
+    }
+
+    /**
+     * Retrieves several users by their IDs.
+     * IDs are de-duplicated and fetched with whereIn queries of up to
+     * {@value #MAX_IN_QUERY_SIZE} IDs, with at most {@value #MAX_IN_FLIGHT_QUERIES}
+     * queries in flight at once.
+     *
+     * @param userIDs IDs of the users
+     * @return task containing the users found, in the order of their first ID in the input;
+     *         IDs with no user are skipped
+     */
+    public Task<List<User>> getByIDs(Collection<String> userIDs) {
+        List<String> ids = new ArrayList<>(new LinkedHashSet<>(userIDs));
+        List<List<String>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += MAX_IN_QUERY_SIZE) {
+            chunks.add(ids.subList(from, Math.min(from + MAX_IN_QUERY_SIZE, ids.size())));
+        }
+
+        Map<String, User> found = new ConcurrentHashMap<>();
+        return BoundedTasks.forEachBounded(chunks, MAX_IN_FLIGHT_QUERIES,
+                chunk -> fetchChunk(chunk, found)).continueWith(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            List<User> users = new ArrayList<>(found.size());
+            for (String id : ids) {
+                User user = found.get(id);
+                if (user != null) {
+                    users.add(user);
+                }
+            }
+            return users;
         });
     }
 
+    /**
+     * Fetches the users of one chunk of IDs into the given map.
+     */
+    private Task<Void> fetchChunk(List<String> chunk, Map<String, User> found) {
+        return usersRef.whereIn(FieldPath.documentId(), chunk).get()
+                .continueWith(task -> {
+                    if (!task.isSuccessful()) {
+                        throw task.getException();
+                    }
+                    for (DocumentSnapshot doc : task.getResult()) {
+                        User user = doc.toObject(User.class);
+                        if (user != null) {
+                            found.put(doc.getId(), user);
+                            keepServerCopy(doc.getId(), doc);
+                        }
+                    }
+                    return null;
+                });
+    }
+
     /**
      * Updates an existing user in the database.
      *
@@ -61,7 +246,138 @@ public class UserRepository {
      * @return task that completes when update finishes
      */
     public Task<Void> update(User user) {
-        return usersRef.document(user.getUserID()).set(user);
+        return invalidating(user.getUserID(), usersRef.document(user.getUserID()).set(user));
+    }
+
+    /**
+     * Updates only the given fields of a user, leaving every other field untouched.
+     * Fails with NOT_FOUND if the user does not exist.
+     *
+     * @param userID ID of the user
+     * @param fields field names mapped to their new values
+     * @return task that completes when update finishes
+     */
+    public Task<Void> update(String userID, Map<String, Object> fields) {
+        return invalidating(userID, usersRef.document(userID).update(fields));
+    }
+
+    /**
+     * Adds an event to a user's list of created events, without reading the user.
+     * Fails with NOT_FOUND if the user does not exist.
+     *
+     * @param userID ID of the user
+     * @param eventID ID of the event to add
+     * @return task that completes when the update finishes
+     */
+    public Task<Void> addCreatedEvent(String userID, String eventID) {
+        return invalidating(userID,
+                usersRef.document(userID).update("eventsCreatedIDs", FieldValue.arrayUnion(eventID)));
+    }
+
+    /**
+     * Removes an event from a user's list of created events.
+     *
+     * @param userID ID of the user
+     * @param eventID ID of the event to remove
+     * @return task that completes when the update finishes
+     */
+    public Task<Void> removeCreatedEvent(String userID, String eventID) {
+        return invalidating(userID,
+                usersRef.document(userID).update("eventsCreatedIDs", FieldValue.arrayRemove(eventID)));
+    }
+
+    /**
+     * Claims a user's cascade deletion, or renews the claim, in one transaction.
+     * The runner's ID and a lease expiry are saved in the deletion checkpoint. Fails if
+     * another runner holds a live lease, so only one runner works on a user at a time.
+     *
+     * @param userID   ID of the user being deleted
+     * @param runnerID ID of the signed-in account running the deletion
+     * @return task containing the phase the deletion had reached, or null if it is new
+     */
+    public Task<UserDeletionPhase> claimDeletion(String userID, String runnerID) {
+        DocumentReference ref = deletionsRef.document(userID);
+        return db.runTransaction(transaction -> {
+            DocumentSnapshot snapshot = transaction.get(ref);
+            checkClaimable(userID, snapshot, runnerID);
+
+            Map<String, Object> claim = new HashMap<>();
+            claim.put(FIELD_CLAIMED_BY, runnerID);
+            claim.put(FIELD_LEASE, leaseExpiry());
+            transaction.set(ref, claim, SetOptions.merge());
+
+            String phase = snapshot.getString(FIELD_PHASE);
+            return phase != null ? UserDeletionPhase.valueOf(phase) : null;
+        });
+    }
+
+    /**
+     * Saves the phase a user's cascade deletion has reached and renews the runner's lease.
+     * Fails if the deletion has been taken over by another runner.
+     *
+     * @param userID   ID of the user being deleted
+     * @param runnerID ID of the account holding the claim
+     * @param phase    phase that is about to run
+     * @return task that completes when the checkpoint is saved
+     */
+    public Task<Void> saveDeletionPhase(String userID, String runnerID, UserDeletionPhase phase) {
+        DocumentReference ref = deletionsRef.document(userID);
+        return db.runTransaction(transaction -> {
+            checkClaimable(userID, transaction.get(ref), runnerID);
+
+            Map<String, Object> checkpoint = new HashMap<>();
+            checkpoint.put(FIELD_PHASE, phase.name());
+            checkpoint.put(FIELD_CLAIMED_BY, runnerID);
+            checkpoint.put(FIELD_LEASE, leaseExpiry());
+            checkpoint.put("updatedAt", Timestamp.now());
+            transaction.set(ref, checkpoint);
+            return null;
+        });
+    }
+
+    /**
+     * Fails if a deletion checkpoint is claimed by another runner whose lease is still live.
+     */
+    private void checkClaimable(String userID, DocumentSnapshot checkpoint, String runnerID) {
+        Timestamp expiresAt = checkpoint.getTimestamp(FIELD_LEASE);
+        if (checkpoint.exists() && !DeletionLease.canClaim(checkpoint.getString(FIELD_CLAIMED_BY),
+                expiresAt != null ? expiresAt.toDate().getTime() : 0, runnerID, System.currentTimeMillis())) {
+            throw new IllegalStateException("User is already being deleted: " + userID);
+        }
+    }
+
+    private static Timestamp leaseExpiry() {
+        return new Timestamp(new Date(DeletionLease.expiryFrom(System.currentTimeMillis())));
+    }
+
+    /**
+     * Deletes the checkpoint of a finished user cascade deletion.
+     *
+     * @param userID ID of the user
+     * @return task that completes when the checkpoint is deleted
+     */
+    public Task<Void> clearDeletionPhase(String userID) {
+        return deletionsRef.document(userID).delete();
+    }
+
+    /**
+     * Lists the IDs of users whose cascade deletion was claimed by the given runner
+     * but never finished.
+     *
+     * @param runnerID ID of the signed-in account
+     * @return task containing the IDs of users with a deletion checkpoint claimed by the runner
+     */
+    public Task<List<String>> listPendingDeletions(String runnerID) {
+        return deletionsRef.whereEqualTo(FIELD_CLAIMED_BY, runnerID).get().continueWith(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            List<String> userIDs = new ArrayList<>();
+            for (DocumentSnapshot doc : task.getResult()) {
+                userIDs.add(doc.getId());
+            }
+            return userIDs;
+        });
     }
 
     /**
@@ -71,7 +387,7 @@ public class UserRepository {
      * @return task that completes when deletion finishes
      */
     public Task<Void> delete(String userID) {
-        return usersRef.document(userID).delete();
+        return invalidating(userID, usersRef.document(userID).delete());
     }
 
     /**
@@ -2,12 +2,15 @@ package com.example.community;
 
 import android.util.Log;
 
+import com.google.android.gms.tasks.OnSuccessListener;
 import com.google.android.gms.tasks.Task;
 import com.google.android.gms.tasks.Tasks;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
+import com.google.firebase.firestore.FirebaseFirestoreException;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
@@ -17,10 +20,13 @@ import java.util.UUID;
  */
 public class UserService {
     private static final String TAG = "UserService";
+    /** Maximum number of delete batches or event deletions in flight at once. */
+    private static final int MAX_IN_FLIGHT_DELETIONS = 4;
     private UserRepository userRepository;
     private EventRepository eventRepository;
     private WaitlistRepository waitlistRepository;
     private NotificationRepository notificationRepository;
+    private EventService eventService;
     private FirebaseAuth firebaseAuth;
 
     /**
@@ -32,6 +38,7 @@ public class UserService {
         eventRepository = new EventRepository();
         waitlistRepository = new WaitlistRepository();
         notificationRepository = new NotificationRepository();
+        eventService = new EventService();
         firebaseAuth = FirebaseAuth.getInstance();
     }
 
@@ -112,6 +119,28 @@ public class UserService {
         return userRepository.getByUserID(userID);
     }
 
+    /**
+     * Retrieves a user by their ID under a read policy.
+     *
+     * @param userID    ID of the user
+     * @param policy    where to read the user from
+     * @param onRefresh called with the server copy after a stale answer, or null
+     * @return task containing the user
+     */
+    public Task<User> getByUserID(String userID, ReadPolicy policy, OnSuccessListener<User> onRefresh) {
+        return userRepository.getByUserID(userID, policy, onRefresh);
+    }
+
+    /**
+     * Retrieves several users by their IDs in batched reads.
+     *
+     * @param userIDs IDs of the users
+     * @return task containing the users found, in input order
+     */
+    public Task<List<User>> getByUserIDs(java.util.Collection<String> userIDs) {
+        return userRepository.getByIDs(userIDs);
+    }
+
     /**
      * Retrieves a user by their device token.
      *
@@ -183,14 +212,7 @@ public class UserService {
      * @return task that completes when role is updated
      */
     public Task<Void> setRole(String userID, Role role) {
-        return userRepository.getByUserID(userID)
-                .continueWithTask(t -> {
-                    User user = t.getResult();
-                    if (user == null) return Tasks
-                            .forException(new IllegalStateException("User not found: " + userID));
-                    user.setRole(role);
-                    return userRepository.update(user);
-                });
+        return patchUser(userID, "role", role.name());
     }
 
     /**
@@ -201,14 +223,7 @@ public class UserService {
      * @return task that completes when username is updated
      */
     public Task<Void> setUsername(String userID, String username) {
-        return userRepository.getByUserID(userID)
-                .continueWithTask(t -> {
-                    User user = t.getResult();
-                    if (user == null) return Tasks
-                            .forException(new IllegalStateException("User not found: " + userID));
-                    user.setUsername(username);
-                    return userRepository.update(user);
-                });
+        return patchUser(userID, "username", username);
     }
 
     /**
@@ -219,14 +234,7 @@ public class UserService {
      * @return task that completes when email is updated
      */
     public Task<Void> setEmail(String userID, String email) {
-        return userRepository.getByUserID(userID)
-                .continueWithTask(t -> {
-                    User user = t.getResult();
-                    if (user == null) return Tasks
-                            .forException(new IllegalStateException("User not found: " + userID));
-                    user.setEmail(email);
-                    return userRepository.update(user);
-                });
+        return patchUser(userID, "email", email);
     }
 
     /**
@@ -237,14 +245,7 @@ public class UserService {
      * @return task that completes when phone is updated
      */
     public Task<Void> setPhoneNumber(String userID, String phone) {
-        return userRepository.getByUserID(userID)
-                .continueWithTask(t -> {
-                    User user = t.getResult();
-                    if (user == null) return Tasks
-                            .forException(new IllegalStateException("User not found: " + userID));
-                    user.setPhoneNumber(phone);
-                    return userRepository.update(user);
-                });
+        return patchUser(userID, "phoneNumber", phone);
     }
 
     /**
@@ -254,14 +255,7 @@ public class UserService {
      * @return task that completes when setting is updated
      */
     public Task<Void> enableNotifications(String userID) {
-        return userRepository.getByUserID(userID)
-                .continueWithTask(t -> {
-                    User user = t.getResult();
-                    if (user == null) return Tasks
-                            .forException(new IllegalStateException("User not found: " + userID));
-                    user.enableNotifications();
-                    return userRepository.update(user);
-                });
+        return patchUser(userID, "receiveNotifications", true);
     }
 
     /**
@@ -271,58 +265,31 @@ public class UserService {
      * @return task that completes when setting is updated
      */
     public Task<Void> disableNotifications(String userID) {
-        return userRepository.getByUserID(userID)
-                .continueWithTask(t -> {
-                    User user = t.getResult();
-                    if (user == null) return Tasks
-                            .forException(new IllegalStateException("User not found: " + userID));
-                    user.disableNotifications();
-                    return userRepository.update(user);
-                });
+        return patchUser(userID, "receiveNotifications", false);
     }
 
     /**
      * Adds an event to a user's list of created events.
+     * Adding an event that is already in the list leaves the list unchanged.
      *
      * @param userID ID of the user
      * @param eventID ID of the event
      * @return task that completes when list is updated
      */
     public Task<Void> addEventCreated(String userID, String eventID) {
-        return userRepository.getByUserID(userID)
-                .continueWithTask(t -> {
-                    User u = t.getResult();
-                    if (u == null) return Tasks
-                            .forException(new IllegalStateException("User not found: " + userID));
-                    if (u.hasEventCreated(eventID)) {
-                        return Tasks
-                                .forException(new IllegalArgumentException("Event already recorded as created"));
-                    }
-                    u.addEventCreated(eventID);
-                    return userRepository.update(u);
-                });
+        return notFoundAsIllegalState(userID, userRepository.addCreatedEvent(userID, eventID));
     }
 
     /**
      * Removes an event from a user's list of created events.
+     * Removing an event that is not in the list leaves the list unchanged.
      *
      * @param userID ID of the user
      * @param eventID ID of the event
      * @return task that completes when list is updated
      */
     public Task<Void> removeEventCreated(String userID, String eventID) {
-        return userRepository.getByUserID(userID)
-                .continueWithTask(t -> {
-                    User u = t.getResult();
-                    if (u == null) return Tasks
-                            .forException(new IllegalStateException("User not found: " + userID));
-                    if (!u.hasEventCreated(eventID)) {
-                        return Tasks
-                                .forException(new IllegalArgumentException("Event not in eventsCreatedIDs"));
-                    }
-                    u.removeEventCreated(eventID);
-                    return userRepository.update(u);
-                });
+        return notFoundAsIllegalState(userID, userRepository.removeCreatedEvent(userID, eventID));
     }
 
     /**
@@ -361,117 +328,206 @@ public class UserService {
     /**
      * Completely deletes a user and all related data (cascade deletion).
      *
-     * Deletes:
-     * - User from all event waitlists
+     * Deletes, in order:
+     * - User from all event waitlists, releasing their spot in events they accepted
      * - All events created by the user (which cascades to their related data)
      * - All notifications sent to the user
      * - The user document itself
      *
+     * The deletion is first claimed for the signed-in account, failing if someone else is
+     * already deleting the user. The phase reached is saved in a checkpoint before each step
+     * runs, renewing the claim, and every step is idempotent, so a deletion cut short is
+     * picked up where it left off by calling this again or by {@link #resumePendingDeletions()}.
+     *
      * @param userID ID of the user to delete
      * @return task that completes when all cascading deletions are done
      */
     public Task<Void> deleteUserCascade(String userID) {
         Log.d(TAG, "Starting cascade deletion for user: " + userID);
 
-        return userRepository.getByUserID(userID).continueWithTask(task -> {
-            if (!task.isSuccessful()) {
-                Log.e(TAG, "Failed to get user", task.getException());
-                return Tasks.forException(task.getException());
+        FirebaseUser runner = firebaseAuth.getCurrentUser();
+        if (runner == null) {
+            return Tasks.forException(new IllegalStateException("Not signed in"));
+        }
+        String runnerID = runner.getUid();
+
+        return userRepository.claimDeletion(userID, runnerID).continueWithTask(phaseTask -> {
+            if (!phaseTask.isSuccessful()) {
+                Log.e(TAG, "Could not claim deletion of user " + userID, phaseTask.getException());
+                return Tasks.forException(phaseTask.getException());
             }
+            UserDeletionPhase savedPhase = phaseTask.getResult();
+
+            return userRepository.getByUserID(userID).continueWithTask(task -> {
+                if (!task.isSuccessful()) {
+                    Log.e(TAG, "Failed to get user", task.getException());
+                    return Tasks.forException(task.getException());
+                }
+
+                User user = task.getResult();
+                if (user == null) {
+                    if (savedPhase == UserDeletionPhase.USER) {
+                        // the user document went before the checkpoint could be cleared
+                        return userRepository.clearDeletionPhase(userID);
+                    }
+                    Log.e(TAG, "User not found: " + userID);
+                    Task<Void> cleared = savedPhase == null
+                            ? userRepository.clearDeletionPhase(userID)
+                            : Tasks.forResult(null);
+                    return cleared.continueWithTask(t -> Tasks.<Void>forException(
+                            new IllegalArgumentException("User not found")));
+                }
+
+                UserDeletionPhase startPhase = savedPhase != null ? savedPhase : UserDeletionPhase.WAITLISTS;
+                Log.d(TAG, "Starting cleanup at phase " + startPhase);
+                return runDeletionPhase(user, runnerID, startPhase);
+            });
+        }).addOnSuccessListener(v -> {
+                    JoinedEventsCache.getInstance().invalidate(userID);
+                    Log.d(TAG, "User cascade deletion completed successfully");
+                })
+                .addOnFailureListener(e -> Log.e(TAG, "User cascade deletion failed", e));
+    }
 
-            User user = task.getResult();
-            if (user == null) {
-                Log.e(TAG, "User not found: " + userID);
-                return Tasks.forException(new IllegalArgumentException("User not found"));
+    /**
+     * Finishes the user deletions claimed by the signed-in account that were started but
+     * never completed. Users are resumed one at a time; a failure on one does not stop the rest.
+     *
+     * @return task that completes when every pending deletion has been attempted
+     */
+    public Task<Void> resumePendingDeletions() {
+        FirebaseUser runner = firebaseAuth.getCurrentUser();
+        if (runner == null) {
+            return Tasks.forResult(null);
+        }
+        return userRepository.listPendingDeletions(runner.getUid()).onSuccessTask(userIDs -> {
+            Task<Void> chain = Tasks.forResult(null);
+            for (String userID : userIDs) {
+                chain = chain.continueWithTask(previous -> {
+                    Log.d(TAG, "Resuming deletion of user: " + userID);
+                    return deleteUserCascade(userID).continueWith(task -> null);
+                });
+            }
+            return chain;
+        });
+    }
+
+    /**
+     * Saves a checkpoint for a deletion phase, runs it, then moves on to the next phase.
+     * The checkpoint is cleared once the user document itself is deleted.
+     *
+     * @param user     user being deleted
+     * @param runnerID ID of the account holding the deletion's claim
+     * @param phase    phase to run
+     * @return task that completes when this and all later phases are done
+     */
+    private Task<Void> runDeletionPhase(User user, String runnerID, UserDeletionPhase phase) {
+        String userID = user.getUserID();
+        return userRepository.saveDeletionPhase(userID, runnerID, phase).continueWithTask(saveTask -> {
+            if (!saveTask.isSuccessful()) {
+                throw saveTask.getException();
             }
+            switch (phase) {
+                case WAITLISTS:
+                    Log.d(TAG, "Cleaning up waitlists");
+                    return deleteWaitlistEntries(userID);
+                case EVENTS:
+                    Log.d(TAG, "Deleting created events");
+                    return deleteCreatedEvents(user);
+                case NOTIFICATIONS:
+                    Log.d(TAG, "Deleting notifications");
+                    return notificationRepository.deleteAllForUser(userID);
+                default:
+                    Log.d(TAG, "Deleting user document");
+                    return userRepository.delete(userID);
+            }
+        }).continueWithTask(phaseTask -> {
+            if (!phaseTask.isSuccessful()) {
+                Log.e(TAG, "Deletion phase " + phase + " failed", phaseTask.getException());
+                throw phaseTask.getException();
+            }
+            if (phase == UserDeletionPhase.USER) {
+                return userRepository.clearDeletionPhase(userID);
+            }
+            return runDeletionPhase(user, runnerID, UserDeletionPhase.values()[phase.ordinal() + 1]);
+        });
+    }
 
-            Log.d(TAG, "Starting cleanup");
-            List<Task<Void>> allTasks = new ArrayList<>();
-
-            // remove user from all waitlists they're in
-            Log.d(TAG, "Cleaning up waitlists");
-            Task<Void> waitlistCleanup = waitlistRepository.listByUser(userID)
-                    .continueWithTask(wTask -> {
-                        if (!wTask.isSuccessful()) {
-                            Log.e(TAG, "Failed to list waitlists", wTask.getException());
-                            return Tasks.forResult(null);
-                        }
-
-                        List<WaitingListEntry> entries = wTask.getResult();
-                        if (entries == null || entries.isEmpty()) {
-                            Log.d(TAG, "No waitlist entries to clean up");
-                            return Tasks.forResult(null);
-                        }
-
-                        Log.d(TAG, "Found " + entries.size() + " waitlist entries to clean");
-                        List<Task<Void>> tasks = new ArrayList<>();
-
-                        for (WaitingListEntry entry : entries) {
-                            // delete waitlist entry
-                            Task<Void> deleteEntry = waitlistRepository.delete(entry.getEventID(), userID)
-                                    .addOnFailureListener(e -> Log.e(TAG, "Failed to delete waitlist entry", e));
-                            tasks.add(deleteEntry);
-
-                            // update event counts if they were accepted
-                            if (entry.getStatus() == EntryStatus.ACCEPTED) {
-                                Task<Void> updateEvent = eventRepository.getByID(entry.getEventID())
-                                        .continueWithTask(eTask -> {
-                                            if (!eTask.isSuccessful()) {
-                                                Log.e(TAG, "Failed to get event", eTask.getException());
-                                                return Tasks.forResult(null);
-                                            }
-
-                                            Event event = eTask.getResult();
-                                            if (event != null && event.getCurrentCapacity() != null && event.getCurrentCapacity() > 0) {
-                                                event.setCurrentCapacity(event.getCurrentCapacity() - 1);
-                                                return eventRepository.update(event);
-                                            }
-                                            return Tasks.forResult(null);
-                                        })
-                                        .addOnFailureListener(e -> Log.e(TAG, "Failed to update event capacity", e));
-                                tasks.add(updateEvent);
-                            }
-                        }
-
-                        return Tasks.whenAll(tasks);
-                    })
-                    .addOnSuccessListener(v -> Log.d(TAG, "Waitlist cleanup completed"))
-                    .addOnFailureListener(e -> Log.e(TAG, "Waitlist cleanup failed", e));
-
-            allTasks.add(waitlistCleanup);
-
-            // delete all events created by this user (uses cascade delete)
-            Log.d(TAG, "Deleting created events");
-            List<String> eventsToDelete = new ArrayList<>(user.getEventsCreatedIDs());
-            Log.d(TAG, "Found " + eventsToDelete.size() + " events to delete");
-
-            EventService eventService = new EventService();
-            for (String eventID : eventsToDelete) {
-                Task<Void> deleteEventTask = eventService.deleteEvent(eventID)
-                        .addOnSuccessListener(v -> Log.d(TAG, "Deleted event: " + eventID))
-                        .addOnFailureListener(e -> Log.e(TAG, "Failed to delete event: " + eventID, e));
-                allTasks.add(deleteEventTask);
+    /**
+     * Deletes all of a user's waitlist entries in chunks, releasing the event capacity
+     * held by accepted entries. Each chunk is one transaction that skips entries already
+     * deleted, so a resumed deletion never releases a spot twice.
+     * At most {@value #MAX_IN_FLIGHT_DELETIONS} chunks commit at once.
+     *
+     * @param userID ID of the user
+     * @return task that completes when all entries are deleted
+     */
+    private Task<Void> deleteWaitlistEntries(String userID) {
+        return waitlistRepository.listByUser(userID).continueWithTask(wTask -> {
+            if (!wTask.isSuccessful()) {
+                throw wTask.getException();
             }
+            List<WaitingListEntry> entries = wTask.getResult();
+            Log.d(TAG, "Found " + entries.size() + " waitlist entries to clean");
 
-            // delete all notifications sent to this user
-            Log.d(TAG, "Deleting notifications");
-            Task<Void> notificationCleanup = notificationRepository.deleteAllForUser(userID)
-                    .addOnSuccessListener(v -> Log.d(TAG, "Notifications deleted"))
-                    .addOnFailureListener(e -> Log.e(TAG, "Failed to delete notifications", e));
-            allTasks.add(notificationCleanup);
-
-            // delete the user document itself
-            Log.d(TAG, "Deleting user document");
-            Task<Void> userDeletion = userRepository.delete(userID)
-                    .addOnSuccessListener(v -> Log.d(TAG, "User document deleted"))
-                    .addOnFailureListener(e -> Log.e(TAG, "Failed to delete user document", e));
-            allTasks.add(userDeletion);
-
-            // return combined task
-            return Tasks.whenAll(allTasks)
-                    .addOnSuccessListener(v -> Log.d(TAG, "User cascade deletion completed successfully"))
-                    .addOnFailureListener(e -> Log.e(TAG, "User cascade deletion failed", e));
+            List<List<WaitingListEntry>> chunks = new ArrayList<>();
+            for (int from = 0; from < entries.size(); from += WaitlistRepository.MAX_RELEASES_PER_BATCH) {
+                chunks.add(entries.subList(from,
+                        Math.min(from + WaitlistRepository.MAX_RELEASES_PER_BATCH, entries.size())));
+            }
+            return BoundedTasks.forEachBounded(chunks, MAX_IN_FLIGHT_DELETIONS,
+                    waitlistRepository::deleteReleasingCapacity);
         });
     }
 
+    /**
+     * Deletes every event the user created, at most {@value #MAX_IN_FLIGHT_DELETIONS} at once.
+     * Events that no longer exist are skipped.
+     *
+     * @param user user whose events to delete
+     * @return task that completes when all events are deleted
+     */
+    private Task<Void> deleteCreatedEvents(User user) {
+        List<String> eventsToDelete = new ArrayList<>(user.getEventsCreatedIDs());
+        Log.d(TAG, "Found " + eventsToDelete.size() + " events to delete");
+
+        return BoundedTasks.forEachBounded(eventsToDelete, MAX_IN_FLIGHT_DELETIONS, eventID ->
+                eventService.deleteEvent(eventID).continueWithTask(task -> {
+                    if (!task.isSuccessful() && task.getException() instanceof IllegalArgumentException) {
+                        Log.d(TAG, "Skipping missing event: " + eventID);
+                        return Tasks.forResult(null);
+                    }
+                    return task;
+                }));
+    }
+
+    /**
+     * Writes a single field of a user without reading or rewriting the rest of the document.
+     *
+     * @param userID ID of the user
+     * @param field  name of the field to change
+     * @param value  new value of the field
+     * @return task that completes when the field is saved, failing if the user does not exist
+     */
+    private Task<Void> patchUser(String userID, String field, Object value) {
+        return notFoundAsIllegalState(userID,
+                userRepository.update(userID, Collections.singletonMap(field, value)));
+    }
+
+    /**
+     * Reports a write to a user that does not exist as an IllegalStateException.
+     */
+    private Task<Void> notFoundAsIllegalState(String userID, Task<Void> write) {
+        return write.continueWithTask(t -> {
+            if (!t.isSuccessful() && isNotFound(t.getException())) {
+                return Tasks.forException(new IllegalStateException("User not found: " + userID));
+            }
+            return t;
+        });
+    }
+
+    private boolean isNotFound(Exception e) {
+        return e instanceof FirebaseFirestoreException
+                && ((FirebaseFirestoreException) e).getCode() == FirebaseFirestoreException.Code.NOT_FOUND;
+    }
 }
@@ -1,10 +1,13 @@
 package com.example.community;
 
+import com.google.android.gms.tasks.OnSuccessListener;
 import com.google.android.gms.tasks.Task;
 import com.google.android.gms.tasks.Tasks;
 import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.FirebaseFirestoreException;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -18,6 +21,7 @@ public class WaitingListEntryService {
     private WaitlistRepository waitlistRepository;
     private final EventRepository eventRepository;
     private final UserRepository userRepository;
+    private final JoinedEventsCache joinedEventsCache;
     /**
      * Creates a new WaitingListEntryService instance.
      * Initializes required repositories.
@@ -26,50 +30,24 @@ public class WaitingListEntryService {
         waitlistRepository = new WaitlistRepository();
         this.eventRepository = new EventRepository();
         this.userRepository = new UserRepository();
+        this.joinedEventsCache = JoinedEventsCache.getInstance();
     }
 
     /**
      * Adds a user to an event's waitlist.
+     * Existence, registration period and waitlist capacity are checked in the
+     * same transaction that writes the entry.
      *
      * @param userID ID of the user
      * @param eventID ID of the event
      * @return task that completes when user is added
      */
     public Task<Void> join(String userID, String eventID) {
-        return waitlistRepository.getByID(eventID, userID). continueWithTask(task -> {
-            WaitingListEntry existing = task.getResult();
-            if (existing != null) {
-                return Tasks.forException(new IllegalArgumentException("Already on waitlist"));
-            }
-
-            // Check waitlist capacity
-            return eventRepository.getByID(eventID). continueWithTask(eventTask -> {
-                Event event = eventTask.getResult();
-                if (event == null) {
-                    return Tasks.forException(new IllegalArgumentException("Event not found"));
-                }
-
-                Integer waitlistCapacity = event.getWaitlistCapacity();
-                if (waitlistCapacity != null && waitlistCapacity > 0) {
-                    return waitlistRepository.countByEventAndStatus(eventID, EntryStatus.WAITING).continueWithTask(countTask -> {
-                        Long currentCount = countTask.getResult();
-                        if (currentCount >= waitlistCapacity) {
-                            return Tasks. forException(new IllegalStateException("Waitlist is full"));
-                        }
-
-                        String entryID = UUID.randomUUID().toString();
-                        WaitingListEntry entry = new WaitingListEntry(entryID, eventID, userID);
-                        entry.markAsJoined();
-                        return waitlistRepository.create(entry);
-                    });
-                }
-
-                String entryID = UUID.randomUUID().toString();
-                WaitingListEntry entry = new WaitingListEntry(entryID, eventID, userID);
-                entry.markAsJoined();
-                return waitlistRepository.create(entry);
-            });
-        });
+        String entryID = UUID.randomUUID().toString();
+        WaitingListEntry entry = new WaitingListEntry(entryID, eventID, userID);
+        entry.markAsJoined();
+        return waitlistRepository.createIfJoinable(entry, DateValidation.getCurrentDate())
+                .addOnSuccessListener(v -> joinedEventsCache.markJoined(userID, eventID));
     }
 
     /**
@@ -80,19 +58,8 @@ public class WaitingListEntryService {
      * @return task that completes when user is removed
      */
     public Task<Void> leave(String userID, String eventID) {
-        return waitlistRepository.getByID(eventID, userID).continueWithTask(task -> {
-            WaitingListEntry entry = task.getResult();
-            if (entry == null) {
-                return Tasks.forException(new IllegalArgumentException("Not on waitlist"));
-            }
-            if (entry.hasStatus(EntryStatus.ACCEPTED)) {
-                return Tasks.forException(new IllegalStateException("Cannot leave after accepting"));
-            }
-
-            entry.markAsCancelled();
-
-            return waitlistRepository.delete(eventID, userID);
-        });
+        return waitlistRepository.leave(eventID, userID)
+                .addOnSuccessListener(v -> joinedEventsCache.markLeft(userID, eventID));
     }
 
     /**
@@ -104,15 +71,8 @@ public class WaitingListEntryService {
      * @return task that completes when invitation is sent
      */
     public Task<Void> invite(String organizerID, String eventID, String userID) {
-        return waitlistRepository.getByID(eventID, userID).continueWithTask(task -> {
-            WaitingListEntry entry = task.getResult();
-            if (entry == null) {
-                return Tasks.forException(new IllegalArgumentException("Entry not found"));
-            }
-            entry.setStatus(EntryStatus.INVITED);
-            entry.setInvitedAt(Timestamp.now());
-            return waitlistRepository.update(entry);
-        });
+        return waitlistRepository.updateStatus(eventID, userID, null, EntryStatus.INVITED,
+                Collections.singletonMap("invitedAt", Timestamp.now()));
     }
 
     /**
@@ -123,43 +83,7 @@ public class WaitingListEntryService {
      * @return task that completes when acceptance is recorded
      */
     public Task<Void> acceptInvite(String userID, String eventID) {
-        return waitlistRepository.getByID(eventID, userID).continueWithTask(task -> {
-            WaitingListEntry entry = task.getResult();
-            if (entry == null) {
-                return Tasks.forException(new IllegalArgumentException("Not on waitlist"));
-            }
-            if (!entry.hasStatus(EntryStatus.INVITED)) {
-                return Tasks.forException(new IllegalStateException("Invite not pending"));
-            }
-
-            return eventRepository.getByID(eventID).continueWithTask(eventTask -> {
-                Event event = eventTask.getResult();
-                if (event == null) {
-                    return Tasks.forException(new IllegalArgumentException("Event not found"));
-                }
-
-                Integer maxCap = event.getMaxCapacity();
-                Integer currCap = event.getCurrentCapacity();
-
-                if (maxCap == null) {
-                    return Tasks.forException(new IllegalStateException("Event max capacity not set"));
-                }
-                if (currCap == null) {
-                    currCap = 0;
-                }
-                if (currCap >= maxCap) {
-                    return Tasks.forException(new IllegalStateException("Event is full"));
-                }
-
-                // update event capacity
-                event.setCurrentCapacity(currCap + 1);
-
-                // update entry
-                entry.markAsAccepted();
-
-                return Tasks.whenAll(eventRepository.update(event), waitlistRepository.update(entry));
-            });
-        });
+        return waitlistRepository.acceptInvite(eventID, userID);
     }
 
     /**
@@ -170,18 +94,8 @@ public class WaitingListEntryService {
      * @return task that completes when decline is recorded
      */
     public Task<Void> declineInvite(String userID, String eventID) {
-        return waitlistRepository.getByID(eventID, userID).continueWithTask(task -> {
-            WaitingListEntry entry = task.getResult();
-            if (entry == null) {
-                return Tasks.forException(new IllegalArgumentException("Not on waitlist"));
-            }
-            if (!entry.hasStatus(EntryStatus.INVITED)) {
-                return Tasks.forException(new IllegalStateException("Invite not pending"));
-            }
-
-            entry.markAsDeclined();
-            return waitlistRepository.update(entry);
-        });
+        return waitlistRepository.updateStatus(eventID, userID, EntryStatus.INVITED, EntryStatus.DECLINED,
+                Collections.singletonMap("declinedAt", Timestamp.now()));
     }
 
 //    /**
@@ -234,6 +148,36 @@ public class WaitingListEntryService {
         return waitlistRepository.countByEventAndStatus(eventID, EntryStatus.WAITING);
     }
 
+    /**
+     * Counts the users WAITING on an event's waitlist under a read policy.
+     *
+     * @param eventID   ID of the event
+     * @param policy    where to read the count from
+     * @param onRefresh called with the server count after a stale answer, or null
+     * @return task containing the count
+     */
+    public Task<Long> getWaitlistSize(String eventID, ReadPolicy policy, OnSuccessListener<Long> onRefresh) {
+        return waitlistRepository.countByEventAndStatus(eventID, EntryStatus.WAITING, policy, onRefresh);
+    }
+
+    /**
+     * Checks whether a user is currently WAITING on an event's waitlist by reading their
+     * entry directly, without listing the waitlist.
+     *
+     * @param userID ID of the user
+     * @param eventID ID of the event
+     * @return task containing true if the user has a WAITING entry
+     */
+    public Task<Boolean> isWaiting(String userID, String eventID) {
+        return waitlistRepository.getByID(eventID, userID).continueWith(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            WaitingListEntry entry = task.getResult();
+            return entry != null && entry.getStatus() == EntryStatus.WAITING;
+        });
+    }
+
     /**
      * Gets all users who declined invitations for an event.
      *
@@ -244,6 +188,17 @@ public class WaitingListEntryService {
         return waitlistRepository.listByEventAndStatus(eventID, EntryStatus.DECLINED);
     }
 
+    /**
+     * Creates a live query over an event's entries with a given status.
+     *
+     * @param eventID ID of the event
+     * @param status status of the entries to list
+     * @return live query that starts listening once observed
+     */
+    public LiveQuery<WaitingListEntry> watchEntries(String eventID, EntryStatus status) {
+        return waitlistRepository.watchByEventAndStatus(eventID, status);
+    }
+
     /**
      * Gets all users whose invitations were cancelled for an event.
      *
@@ -264,6 +219,17 @@ public class WaitingListEntryService {
         return waitlistRepository.countsByEventGrouped(eventID);
     }
 
+    /**
+     * Rebuilds the per-status waitlist counters of an event from its entries.
+     * Use when counters have drifted or were never initialized.
+     *
+     * @param eventID ID of the event
+     * @return task containing the rebuilt map of status to count
+     */
+    public Task<Map<EntryStatus, Long>> reconcileWaitlistCounts(String eventID) {
+        return waitlistRepository.rebuildCounters(eventID);
+    }
+
     /**
      * Gets all waitlist entries for a specific user across all events.
      *
@@ -297,11 +263,11 @@ public class WaitingListEntryService {
                     }
 
                     for (WaitingListEntry entry : invitedEntries) {
-                        // If they were invited but haven't accepted by deadline, cancel them
-                        if (entry.getAcceptedAt() == null) {
-                            entry.markAsCancelled();
-                            cancelTasks.add(waitlistRepository.update(entry));
-                        }
+                        // If they were invited but haven't accepted by deadline, cancel them;
+                        // an entry that answered since the list was read is left alone
+                        cancelTasks.add(cancelIfStillInvited(eventID, entry.getUserID())
+                                .continueWithTask(t -> t.getException() instanceof IllegalStateException
+                                        ? Tasks.forResult(null) : t));
                     }
 
                     return Tasks.whenAll(cancelTasks);
@@ -317,44 +283,12 @@ public class WaitingListEntryService {
      * @return task that completes when user is added
      */
     public Task<Void> joinWithLocation(String userID, String eventID, com.google.firebase.firestore.GeoPoint location) {
-        return waitlistRepository.getByID(eventID, userID).continueWithTask(task -> {
-            WaitingListEntry existing = task.getResult();
-            if (existing != null) {
-                return Tasks.forException(new IllegalArgumentException("Already on waitlist"));
-            }
-
-                    // Check if event's waitlist has reached capacity
-                    return eventRepository.getByID(eventID). continueWithTask(eventTask -> {
-                        Event event = eventTask.getResult();
-                        if (event == null) {
-                            return Tasks.forException(new IllegalArgumentException("Event not found"));
-                        }
-
-                        Integer waitlistCapacity = event.getWaitlistCapacity();
-                        if (waitlistCapacity != null && waitlistCapacity > 0) {
-                            return waitlistRepository.countByEventAndStatus(eventID, EntryStatus.WAITING)
-                                    .continueWithTask(countTask -> {
-                                        Long currentCount = countTask.getResult();
-                                        if (currentCount >= waitlistCapacity) {
-                                            return Tasks. forException(new IllegalStateException("Waitlist is full"));
-                                        }
-
-                                        // Create and add the new entry with location
-                                        String entryID = UUID.randomUUID().toString();
-                                        WaitingListEntry entry = new WaitingListEntry(entryID, eventID, userID);
-                                        entry.markAsJoined(location);
-                                        return waitlistRepository.create(entry);
-                                    });
-                        }
-
-            String entryID = UUID.randomUUID().toString();
-            WaitingListEntry entry = new WaitingListEntry(entryID, eventID, userID);
-            entry.markAsJoined(location);
-
-            return waitlistRepository.create(entry);
-        });
-    });
-        }
+        String entryID = UUID.randomUUID().toString();
+        WaitingListEntry entry = new WaitingListEntry(entryID, eventID, userID);
+        entry.markAsJoined(location);
+        return waitlistRepository.createIfJoinable(entry, DateValidation.getCurrentDate())
+                .addOnSuccessListener(v -> joinedEventsCache.markJoined(userID, eventID));
+    }
 
     /**
      * Gets all waitlist entries with location data for an event.
@@ -374,29 +308,27 @@ public class WaitingListEntryService {
      * @return task that completes when requirement is set
      */
     public Task<Void> setGeolocationRequirement(String eventID, boolean required) {
-        return eventRepository. getByID(eventID).continueWithTask(task -> {
-            Event event = task.getResult();
-            if (event == null) {
-                return Tasks.forException(new IllegalArgumentException("Event not found"));
-            }
-            event.setRequiresGeolocation(required);
-            return eventRepository.update(event);
-        });
+        return eventRepository.update(eventID, Collections.singletonMap("requiresGeolocation", required))
+                .continueWithTask(task -> {
+                    Exception e = task.getException();
+                    if (e instanceof FirebaseFirestoreException
+                            && ((FirebaseFirestoreException) e).getCode() == FirebaseFirestoreException.Code.NOT_FOUND) {
+                        return Tasks.forException(new IllegalArgumentException("Event not found"));
+                    }
+                    return task;
+                });
     }
 
     public Task<Void> cancelInvite(String userID, String eventID) {
-        return waitlistRepository.getByID(eventID, userID). continueWithTask(task -> {
-            WaitingListEntry entry = task. getResult();
-            if (entry == null) {
-                return Tasks.forException(new IllegalArgumentException("Not on waitlist"));
-            }
-            if (!entry.hasStatus(EntryStatus.INVITED)) {
-                return Tasks.forException(new IllegalStateException("User is not invited"));
-            }
+        return cancelIfStillInvited(eventID, userID);
+    }
 
-            entry.markAsCancelled();
-            return waitlistRepository.update(entry);
-        });
+    /**
+     * Cancels an invitation, failing with IllegalStateException unless the entry is INVITED.
+     */
+    private Task<Void> cancelIfStillInvited(String eventID, String userID) {
+        return waitlistRepository.updateStatus(eventID, userID, EntryStatus.INVITED, EntryStatus.CANCELLED,
+                Collections.singletonMap("cancelledAt", Timestamp.now()));
     }
 
 }
@@ -1,11 +1,26 @@
 package com.example.community;
 
+import com.google.android.gms.tasks.OnSuccessListener;
 import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.AggregateSource;
 import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
 import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.Transaction;
+import com.google.firebase.firestore.WriteBatch;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -13,12 +28,26 @@ import java.util.Map;
 /**
  * Repository for managing waitlist entry data in Firestore.
  * Handles all database operations for event waitlists.
+ *
+ * <p>Per-status entry counts are kept in a counter document at
+ * {@code events/{eventID}/counters/waitlist}, one numeric field per {@link EntryStatus}.
+ * The counters are adjusted in the same {@link WriteBatch} as every entry write that
+ * changes a status, so counting a waitlist costs a single document read.
  */
 public class WaitlistRepository {
 
     private FirebaseFirestore db;
     private CollectionReference eventsRef;
     private static final String SUBCOLLECTION_WAITLIST = "waitlist";
+    private static final String SUBCOLLECTION_COUNTERS = "counters";
+    private static final String COUNTER_DOC_WAITLIST = "waitlist";
+    private static final String COUNTER_FIELD_INITIALIZED = "initialized";
+    private static final String COLLECTION_USERS = "users";
+
+    /** Maximum number of entries {@link #deleteAndUnlinkUsers} deletes in one batch. */
+    public static final int MAX_ENTRIES_PER_BATCH = 250;
+    /** Maximum number of entries {@link #deleteReleasingCapacity} deletes in one transaction. */
+    public static final int MAX_RELEASES_PER_BATCH = 125;
 
     /**
      * Creates a new WaitlistRepository instance.
@@ -30,15 +59,58 @@ public class WaitlistRepository {
     }
 
     /**
-     * Saves a new waitlist entry to the database.
+     * Saves a new waitlist entry to the database and increments the counter
+     * for its status.
      *
      * @param entry entry to create
      * @return task that completes when creation finishes
      */
     public Task<Void> create(WaitingListEntry entry) {
-        return eventsRef.document(entry.getEventID())
-                .collection(SUBCOLLECTION_WAITLIST)
-                .document(entry.getUserID()).set(entry);
+        WriteBatch batch = db.batch();
+        batch.set(entryRef(entry.getEventID(), entry.getUserID()), entry);
+        adjustCounter(batch, entry.getEventID(), entry.getStatus(), 1);
+        return batch.commit();
+    }
+
+    /**
+     * Atomically adds a new entry to an event's waitlist.
+     * In a single transaction, checks that the event exists, that registration is
+     * open on {@code today}, that the user is not already on the waitlist and that
+     * the WAITING counter is below the waitlist capacity, then writes the entry and
+     * increments the counter. Concurrent joins conflict on the counter document and
+     * are retried by Firestore, so the capacity is never overshot.
+     *
+     * @param entry entry to create
+     * @param today current date in yyyy-MM-dd format
+     * @return task that completes when the entry is written
+     */
+    public Task<Void> createIfJoinable(WaitingListEntry entry, String today) {
+        return runJoinTransaction(entry, today).continueWithTask(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            if (task.getResult()) {
+                return Tasks.forResult(null);
+            }
+
+            // counters were never initialized; rebuild them and try once more
+            return rebuildCounters(entry.getEventID())
+                    .continueWithTask(rebuildTask -> {
+                        if (!rebuildTask.isSuccessful()) {
+                            throw rebuildTask.getException();
+                        }
+                        return runJoinTransaction(entry, today);
+                    })
+                    .continueWith(retryTask -> {
+                        if (!retryTask.isSuccessful()) {
+                            throw retryTask.getException();
+                        }
+                        if (!retryTask.getResult()) {
+                            throw new IllegalStateException("Waitlist counters unavailable");
+                        }
+                        return null;
+                    });
+        });
     }
 
     /**
@@ -49,10 +121,26 @@ public class WaitlistRepository {
      * @return task containing the entry or null if not found
      */
     public Task<WaitingListEntry> getByID(String eventID, String userID) {
-        return eventsRef.document(eventID).collection(SUBCOLLECTION_WAITLIST)
-                .document(userID)
-                .get()
-                .continueWith(task -> {
+        return getByID(eventID, userID, ReadPolicy.DEFAULT, null);
+    }
+
+    /**
+     * Retrieves a waitlist entry by event and user ID under a read policy.
+     *
+     * @param eventID   ID of the event
+     * @param userID    ID of the user
+     * @param policy    where to read the entry from
+     * @param onRefresh called with the server copy after a stale answer, or null
+     * @return task containing the entry or null if not found
+     */
+    public Task<WaitingListEntry> getByID(String eventID, String userID, ReadPolicy policy,
+                                          OnSuccessListener<WaitingListEntry> onRefresh) {
+        OnSuccessListener<DocumentSnapshot> onRefreshSnapshot = onRefresh == null ? null
+                : snapshot -> onRefresh.onSuccess(
+                        snapshot.exists() ? snapshot.toObject(WaitingListEntry.class) : null);
+        DocumentReference ref = eventsRef.document(eventID).collection(SUBCOLLECTION_WAITLIST)
+                .document(userID);
+        return CachedReads.get(ref, policy, onRefreshSnapshot).continueWith(task -> {
             DocumentSnapshot snapshot = task.getResult();
             return snapshot.exists() ? snapshot.toObject(WaitingListEntry.class) : null;
         });
@@ -60,19 +148,108 @@ public class WaitlistRepository {
 
 
     /**
-     * Updates an existing waitlist entry.
+     * Runs the join transaction for {@link #createIfJoinable}.
      *
-     * @param entry entry with updated data
+     * @param entry entry to create
+     * @param today current date in yyyy-MM-dd format
+     * @return task containing true if the entry was written, or false if the
+     *         counters must be rebuilt first
+     */
+    private Task<Boolean> runJoinTransaction(WaitingListEntry entry, String today) {
+        DocumentReference eventRef = eventsRef.document(entry.getEventID());
+        DocumentReference entryRef = entryRef(entry.getEventID(), entry.getUserID());
+        DocumentReference counterRef = counterRef(entry.getEventID());
+
+        return db.runTransaction(transaction -> {
+            DocumentSnapshot eventSnapshot = transaction.get(eventRef);
+            DocumentSnapshot entrySnapshot = transaction.get(entryRef);
+            DocumentSnapshot counterSnapshot = transaction.get(counterRef);
+
+            Event event = eventSnapshot.exists() ? eventSnapshot.toObject(Event.class) : null;
+            if (event == null) {
+                throw new IllegalArgumentException("Event not found");
+            }
+            if (event.getStatus() != EventStatus.OPEN) {
+                throw new IllegalStateException("Event is not open");
+            }
+            if (!event.isRegistrationOpen(today)) {
+                throw new IllegalStateException("Registration is closed");
+            }
+            if (entrySnapshot.exists()) {
+                throw new IllegalArgumentException("Already on waitlist");
+            }
+            if (!isInitialized(counterSnapshot)) {
+                return false;
+            }
+
+            Integer waitlistCapacity = event.getWaitlistCapacity();
+            Long waiting = counterSnapshot.getLong(entry.getStatus().name());
+            if (waitlistCapacity != null && waitlistCapacity > 0
+                    && waiting != null && waiting >= waitlistCapacity) {
+                throw new IllegalStateException("Waitlist is full");
+            }
+
+            transaction.set(entryRef, entry);
+            transaction.set(counterRef,
+                    Collections.singletonMap(entry.getStatus().name(), FieldValue.increment(1)),
+                    SetOptions.merge());
+            return true;
+        });
+    }
+
+    /**
+     * Updates only the given fields of a waitlist entry, leaving every other field untouched.
+     * Does not touch the status counters; use
+     * {@link #updateStatus(String, String, EntryStatus, EntryStatus, Map)} to change a status.
+     *
+     * @param eventID ID of the event
+     * @param userID ID of the user
+     * @param fields field names mapped to their new values
      * @return task that completes when update finishes
      */
-    public Task<Void> update(WaitingListEntry entry) {
-        return eventsRef.document(entry.getEventID())
-                .collection(SUBCOLLECTION_WAITLIST)
-                .document(entry.getUserID()).set(entry);
+    public Task<Void> update(String eventID, String userID, Map<String, Object> fields) {
+        return entryRef(eventID, userID).update(fields);
+    }
+
+    /**
+     * Changes the status of a waitlist entry in one transaction, writing only the status and
+     * the given fields. The entry is read inside the transaction and one count is moved from
+     * the counter of its stored status to the new one, so racing status changes never move
+     * the counters twice.
+     *
+     * @param eventID        ID of the event
+     * @param userID         ID of the user
+     * @param expectedStatus status the entry must have for the change to apply, or null for any
+     * @param status         new status
+     * @param fields         other fields to change along with the status, e.g. timestamps
+     * @return task that completes when the change is committed; fails with
+     *         IllegalArgumentException if the entry does not exist, or IllegalStateException
+     *         if its status is not the expected one
+     */
+    public Task<Void> updateStatus(String eventID, String userID, EntryStatus expectedStatus,
+                                   EntryStatus status, Map<String, Object> fields) {
+        DocumentReference ref = entryRef(eventID, userID);
+        return db.runTransaction(transaction -> {
+            EntryStatus stored = storedStatus(transaction.get(ref));
+            if (expectedStatus != null && stored != expectedStatus) {
+                throw new IllegalStateException("Entry is " + stored + ", not " + expectedStatus);
+            }
+
+            Map<String, Object> patch = new HashMap<>(fields);
+            patch.put("status", status.name());
+            transaction.update(ref, patch);
+            if (stored != status) {
+                adjustCounter(transaction, eventID, stored, -1);
+                adjustCounter(transaction, eventID, status, 1);
+            }
+            return null;
+        });
     }
 
     /**
      * Deletes a waitlist entry.
+     * Does not touch the status counters; use {@link #leave(String, String)}
+     * unless the whole event is being removed.
      *
      * @param eventID ID of the event
      * @param userID ID of the user
@@ -84,6 +261,204 @@ public class WaitlistRepository {
                 .document(userID).delete();
     }
 
+    /**
+     * Takes a user off a waitlist in one transaction, unless they have accepted. The entry is
+     * read inside the transaction and the counter of its stored status is decremented.
+     *
+     * @param eventID ID of the event
+     * @param userID  ID of the user
+     * @return task that completes when the entry is deleted; fails with
+     *         IllegalArgumentException if the entry does not exist, or IllegalStateException
+     *         if it is ACCEPTED
+     */
+    public Task<Void> leave(String eventID, String userID) {
+        DocumentReference ref = entryRef(eventID, userID);
+        return db.runTransaction(transaction -> {
+            EntryStatus stored = storedStatus(transaction.get(ref));
+            if (stored == EntryStatus.ACCEPTED) {
+                throw new IllegalStateException("Cannot leave after accepting");
+            }
+            transaction.delete(ref);
+            adjustCounter(transaction, eventID, stored, -1);
+            return null;
+        });
+    }
+
+    /**
+     * Gets the status of an entry read inside a transaction.
+     *
+     * @param snapshot entry snapshot
+     * @return the stored status, or null if the entry has none
+     * @throws IllegalArgumentException if the entry does not exist
+     */
+    private EntryStatus storedStatus(DocumentSnapshot snapshot) {
+        if (!snapshot.exists()) {
+            throw new IllegalArgumentException("Not on waitlist");
+        }
+        String status = snapshot.getString("status");
+        return status != null ? EntryStatus.valueOf(status) : null;
+    }
+
+    /**
+     * Deletes a set of waitlist entries, possibly from several events, in one transaction.
+     * Each entry and its event are read again inside the transaction, and only entries that
+     * still exist are deleted: the counter for the stored status is decremented, and for
+     * ACCEPTED entries the event's {@code currentCapacity} is decremented atomically. Entries
+     * already deleted by a concurrent or earlier run release nothing, so running this again
+     * never counts an entry twice. Counters and capacity of events that are gone are skipped.
+     *
+     * @param entries entries to delete; at most {@value #MAX_RELEASES_PER_BATCH} per call
+     * @return task that completes when the transaction is committed
+     */
+    public Task<Void> deleteReleasingCapacity(List<WaitingListEntry> entries) {
+        if (entries.size() > MAX_RELEASES_PER_BATCH) {
+            return Tasks.forException(new IllegalArgumentException(
+                    "Cannot delete more than " + MAX_RELEASES_PER_BATCH + " entries in one batch"));
+        }
+        return db.runTransaction(transaction -> {
+            // every read has to happen before the first write
+            List<DocumentSnapshot> entrySnapshots = new ArrayList<>();
+            Map<String, Boolean> eventExists = new HashMap<>();
+            for (WaitingListEntry entry : entries) {
+                entrySnapshots.add(transaction.get(entryRef(entry.getEventID(), entry.getUserID())));
+                if (!eventExists.containsKey(entry.getEventID())) {
+                    eventExists.put(entry.getEventID(),
+                            transaction.get(eventsRef.document(entry.getEventID())).exists());
+                }
+            }
+
+            for (int i = 0; i < entries.size(); i++) {
+                DocumentSnapshot snapshot = entrySnapshots.get(i);
+                WaitingListEntry stored = snapshot.exists() ? snapshot.toObject(WaitingListEntry.class) : null;
+                if (stored == null) {
+                    continue;
+                }
+                String eventID = entries.get(i).getEventID();
+                transaction.delete(snapshot.getReference());
+                if (!Boolean.TRUE.equals(eventExists.get(eventID))) {
+                    continue;
+                }
+                adjustCounter(transaction, eventID, stored.getStatus(), -1);
+                if (stored.getStatus() == EntryStatus.ACCEPTED) {
+                    transaction.update(eventsRef.document(eventID), "currentCapacity", FieldValue.increment(-1));
+                }
+            }
+            return null;
+        }).continueWith(task -> {
+            for (WaitingListEntry entry : entries) {
+                EventRepository.invalidateCachedEvent(entry.getEventID());
+            }
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Accepts an invitation in one transaction. Checks that the entry is still INVITED and
+     * that the event has a free spot, then marks the entry ACCEPTED, moves one count from the
+     * INVITED counter to the ACCEPTED counter and increments the event's
+     * {@code currentCapacity}. Concurrent acceptances and releases conflict on the event
+     * document and are retried by Firestore, so capacity is never overshot or overwritten.
+     *
+     * @param eventID ID of the event
+     * @param userID  ID of the invited user
+     * @return task that completes when the acceptance is committed
+     */
+    public Task<Void> acceptInvite(String eventID, String userID) {
+        DocumentReference eventRef = eventsRef.document(eventID);
+        DocumentReference entryRef = entryRef(eventID, userID);
+        return db.runTransaction(transaction -> {
+            DocumentSnapshot eventSnapshot = transaction.get(eventRef);
+            DocumentSnapshot entrySnapshot = transaction.get(entryRef);
+
+            Event event = eventSnapshot.exists() ? eventSnapshot.toObject(Event.class) : null;
+            if (event == null) {
+                throw new IllegalArgumentException("Event not found");
+            }
+            WaitingListEntry entry = entrySnapshot.exists() ? entrySnapshot.toObject(WaitingListEntry.class) : null;
+            if (entry == null) {
+                throw new IllegalArgumentException("Not on waitlist");
+            }
+            if (!entry.hasStatus(EntryStatus.INVITED)) {
+                throw new IllegalStateException("Invite not pending");
+            }
+
+            Integer maxCapacity = event.getMaxCapacity();
+            Integer currentCapacity = event.getCurrentCapacity();
+            if (maxCapacity == null) {
+                throw new IllegalStateException("Event max capacity not set");
+            }
+            if (currentCapacity != null && currentCapacity >= maxCapacity) {
+                throw new IllegalStateException("Event is full");
+            }
+
+            Map<String, Object> patch = new HashMap<>();
+            patch.put("status", EntryStatus.ACCEPTED.name());
+            patch.put("acceptedAt", Timestamp.now());
+            transaction.update(entryRef, patch);
+            adjustCounter(transaction, eventID, EntryStatus.INVITED, -1);
+            adjustCounter(transaction, eventID, EntryStatus.ACCEPTED, 1);
+            transaction.update(eventRef, "currentCapacity", FieldValue.increment(1));
+            return null;
+        }).continueWith(task -> {
+            EventRepository.invalidateCachedEvent(eventID);
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Deletes a set of waitlist entries of an event in one batch, and removes the event
+     * from the waitlist, attending and registration history lists of the given users.
+     * Does not touch the status counters. Both writes are idempotent, so a batch can be
+     * committed again after a partial failure.
+     *
+     * <p>A batch holds two writes per entry, so at most {@value #MAX_ENTRIES_PER_BATCH}
+     * entries can be deleted in one call. Every user in {@code userIDsToUnlink} must exist,
+     * otherwise the whole batch fails with NOT_FOUND.
+     *
+     * @param eventID ID of the event
+     * @param entries entries to delete
+     * @param userIDsToUnlink IDs of the users whose lists should drop the event
+     * @return task that completes when the batch is committed
+     */
+    public Task<Void> deleteAndUnlinkUsers(String eventID, List<WaitingListEntry> entries,
+                                           Collection<String> userIDsToUnlink) {
+        if (entries.size() > MAX_ENTRIES_PER_BATCH) {
+            return Tasks.forException(new IllegalArgumentException(
+                    "Cannot delete more than " + MAX_ENTRIES_PER_BATCH + " entries in one batch"));
+        }
+        WriteBatch batch = db.batch();
+        for (String userID : userIDsToUnlink) {
+            batch.update(db.collection(COLLECTION_USERS).document(userID),
+                    "waitingListsJoinedIDs", FieldValue.arrayRemove(eventID),
+                    "attendingListsIDs", FieldValue.arrayRemove(eventID),
+                    "registrationHistoryIDs", FieldValue.arrayRemove(eventID));
+        }
+        for (WaitingListEntry entry : entries) {
+            batch.delete(entryRef(eventID, entry.getUserID()));
+        }
+        return batch.commit().addOnCompleteListener(task -> {
+            for (String userID : userIDsToUnlink) {
+                UserRepository.invalidateCachedUser(userID);
+            }
+        });
+    }
+
+    /**
+     * Deletes the status counter document of an event.
+     *
+     * @param eventID ID of the event
+     * @return task that completes when deletion finishes
+     */
+    public Task<Void> deleteCounters(String eventID) {
+        return counterRef(eventID).delete();
+    }
+
     /**
      * Gets all waitlist entries for an event.
      *
@@ -91,10 +466,72 @@ public class WaitlistRepository {
      * @return task containing list of entries
      */
     public Task<List<WaitingListEntry>> listByEvent(String eventID) {
-        return eventsRef.document(eventID)
+        return listByEvent(eventID, ReadPolicy.DEFAULT, null);
+    }
+
+    /**
+     * Gets all waitlist entries for an event under a read policy.
+     *
+     * @param eventID   ID of the event
+     * @param policy    where to read the entries from
+     * @param onRefresh called with the server result after a stale answer, or null
+     * @return task containing list of entries
+     */
+    public Task<List<WaitingListEntry>> listByEvent(String eventID, ReadPolicy policy,
+                                                    OnSuccessListener<List<WaitingListEntry>> onRefresh) {
+        return listEntries(eventsRef.document(eventID).collection(SUBCOLLECTION_WAITLIST), policy, onRefresh);
+    }
+
+    /**
+     * Creates a live query over an event's waitlist entries with a given status.
+     *
+     * @param eventID ID of the event
+     * @param status status to filter by
+     * @return live query that starts listening once observed
+     */
+    public LiveQuery<WaitingListEntry> watchByEventAndStatus(String eventID, EntryStatus status) {
+        return new LiveQuery<>(eventsRef.document(eventID)
                 .collection(SUBCOLLECTION_WAITLIST)
-                .get()
-                .continueWith(task -> {
+                .whereEqualTo("status", status), WaitingListEntry.class);
+    }
+
+    /**
+     * Gets waitlist entries for an event filtered by status.
+     *
+     * @param eventID ID of the event
+     * @param status status to filter by
+     * @return task containing list of matching entries
+     */
+    public Task<List<WaitingListEntry>> listByEventAndStatus(String eventID, EntryStatus status) {
+        return listByEventAndStatus(eventID, status, ReadPolicy.DEFAULT, null);
+    }
+
+    /**
+     * Gets waitlist entries for an event filtered by status under a read policy.
+     *
+     * @param eventID   ID of the event
+     * @param status    status to filter by
+     * @param policy    where to read the entries from
+     * @param onRefresh called with the server result after a stale answer, or null
+     * @return task containing list of matching entries
+     */
+    public Task<List<WaitingListEntry>> listByEventAndStatus(String eventID, EntryStatus status,
+                                                             ReadPolicy policy,
+                                                             OnSuccessListener<List<WaitingListEntry>> onRefresh) {
+        Query query = eventsRef.document(eventID)
+                .collection(SUBCOLLECTION_WAITLIST)
+                .whereEqualTo("status", status);
+        return listEntries(query, policy, onRefresh);
+    }
+
+    /**
+     * Runs a waitlist query under a read policy and converts the result to entries.
+     */
+    private Task<List<WaitingListEntry>> listEntries(Query query, ReadPolicy policy,
+                                                     OnSuccessListener<List<WaitingListEntry>> onRefresh) {
+        OnSuccessListener<QuerySnapshot> onRefreshSnapshot = onRefresh == null ? null
+                : snapshot -> onRefresh.onSuccess(snapshot.toObjects(WaitingListEntry.class));
+        return CachedReads.get(query, policy, onRefreshSnapshot).continueWith(task -> {
             if (!task.isSuccessful()) {
                 throw task.getException();
             }
@@ -103,22 +540,54 @@ public class WaitlistRepository {
     }
 
     /**
-     * Gets waitlist entries for an event filtered by status.
+     * Gets one page of waitlist entries for an event filtered by status,
+     * ordered by document ID so pages are stable while statuses change elsewhere.
      *
      * @param eventID ID of the event
      * @param status status to filter by
-     * @return task containing list of matching entries
+     * @param limit maximum number of entries on the page
+     * @param startAfter last snapshot of the previous page, or null for the first page
+     * @return task containing the page of matching entries
      */
-    public Task<List<WaitingListEntry>> listByEventAndStatus(String eventID, EntryStatus status) {
-        return eventsRef.document(eventID)
+    public Task<Page<WaitingListEntry>> pageByEventAndStatus(String eventID, EntryStatus status,
+                                                             int limit, DocumentSnapshot startAfter) {
+        Query query = eventsRef.document(eventID)
                 .collection(SUBCOLLECTION_WAITLIST)
-                .whereEqualTo("status", status)
-                .get()
-                .continueWith(task -> {
+                .whereEqualTo("status", status);
+        return getPage(query, limit, startAfter);
+    }
+
+    /**
+     * Gets one page of all waitlist entries for an event, ordered by document ID.
+     *
+     * @param eventID ID of the event
+     * @param limit maximum number of entries on the page
+     * @param startAfter last snapshot of the previous page, or null for the first page
+     * @return task containing the page of entries
+     */
+    public Task<Page<WaitingListEntry>> pageByEvent(String eventID, int limit, DocumentSnapshot startAfter) {
+        return getPage(eventsRef.document(eventID).collection(SUBCOLLECTION_WAITLIST), limit, startAfter);
+    }
+
+    /**
+     * Runs a waitlist query for one page ordered by document ID.
+     *
+     * @param query query to page through
+     * @param limit maximum number of entries on the page
+     * @param startAfter last snapshot of the previous page, or null for the first page
+     * @return task containing the page of entries
+     */
+    private Task<Page<WaitingListEntry>> getPage(Query query, int limit, DocumentSnapshot startAfter) {
+        query = query.orderBy(FieldPath.documentId()).limit(limit);
+        if (startAfter != null) {
+            query = query.startAfter(startAfter);
+        }
+
+        return query.get().continueWith(task -> {
             if (!task.isSuccessful()) {
                 throw task.getException();
             }
-            return task.getResult().toObjects(WaitingListEntry.class);
+            return Page.of(task.getResult(), WaitingListEntry.class, limit);
         });
     }
 
@@ -129,38 +598,109 @@ public class WaitlistRepository {
      * @return task containing the count
      */
     public Task<Long> countByEvent(String eventID) {
-        return eventsRef.document(eventID)
-                .collection(SUBCOLLECTION_WAITLIST)
-                .get()
-                .continueWith(task -> {
+        return countsByEventGrouped(eventID).continueWith(task -> {
             if (!task.isSuccessful()) {
                 throw task.getException();
             }
-            return (long) task.getResult().size();
+            long total = 0;
+            for (Long count : task.getResult().values()) {
+                total += count;
+            }
+            return total;
         });
     }
 
     /**
      * Counts waitlist entries grouped by status for an event.
+     * Reads the counter document, rebuilding it first if it was never initialized.
      *
      * @param eventID ID of the event
      * @return task containing map of status to count
      */
     public Task<Map<EntryStatus, Long>> countsByEventGrouped(String eventID) {
-        return eventsRef.document(eventID)
-                .collection(SUBCOLLECTION_WAITLIST)
-                .get()
-                .continueWith(task -> {
-            QuerySnapshot snapshot = task.getResult();
-            Map<EntryStatus, Long> counts = new HashMap<>();
-            for (DocumentSnapshot doc : snapshot.getDocuments()) {
-                WaitingListEntry entry = doc.toObject(WaitingListEntry.class);
-                if (entry != null) {
-                    EntryStatus status = entry.getStatus();
-                    counts.put(status, counts.getOrDefault(status, 0L) + 1);
+        return countsByEventGrouped(eventID, ReadPolicy.DEFAULT, null);
+    }
+
+    /**
+     * Counts waitlist entries grouped by status for an event under a read policy.
+     * Reads the counter document, rebuilding it first if it was never initialized.
+     *
+     * @param eventID   ID of the event
+     * @param policy    where to read the counter document from
+     * @param onRefresh called with the server counts after a stale answer, or null
+     * @return task containing map of status to count
+     */
+    public Task<Map<EntryStatus, Long>> countsByEventGrouped(String eventID, ReadPolicy policy,
+                                                             OnSuccessListener<Map<EntryStatus, Long>> onRefresh) {
+        OnSuccessListener<DocumentSnapshot> onRefreshSnapshot = onRefresh == null ? null
+                : snapshot -> {
+                    if (isInitialized(snapshot)) {
+                        onRefresh.onSuccess(countsOf(snapshot));
+                    }
+                };
+        return CachedReads.get(counterRef(eventID), policy, onRefreshSnapshot).continueWithTask(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            DocumentSnapshot snapshot = task.getResult();
+            if (!isInitialized(snapshot)) {
+                return rebuildCounters(eventID);
+            }
+            return Tasks.forResult(countsOf(snapshot));
+        });
+    }
+
+    /**
+     * Reads the non-zero status counts of an initialized counter document.
+     */
+    private Map<EntryStatus, Long> countsOf(DocumentSnapshot snapshot) {
+        Map<EntryStatus, Long> counts = new EnumMap<>(EntryStatus.class);
+        for (EntryStatus status : EntryStatus.values()) {
+            Long count = snapshot.getLong(status.name());
+            if (count != null && count > 0) {
+                counts.put(status, count);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Rebuilds the status counters of an event from the waitlist subcollection.
+     * Uses server-side aggregate count queries, so the cost does not depend on
+     * the size of the waitlist. Joins that commit while the rebuild is running
+     * may be overwritten; run it again if the counts look off.
+     *
+     * @param eventID ID of the event
+     * @return task containing the rebuilt map of status to count
+     */
+    public Task<Map<EntryStatus, Long>> rebuildCounters(String eventID) {
+        EntryStatus[] statuses = EntryStatus.values();
+        List<Task<Long>> countTasks = new ArrayList<>();
+        for (EntryStatus status : statuses) {
+            countTasks.add(aggregateCount(eventID, status));
+        }
+
+        return Tasks.whenAllSuccess(countTasks).continueWithTask(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            List<?> results = task.getResult();
+            Map<EntryStatus, Long> counts = new EnumMap<>(EntryStatus.class);
+            Map<String, Object> fields = new HashMap<>();
+            fields.put(COUNTER_FIELD_INITIALIZED, true);
+            for (int i = 0; i < statuses.length; i++) {
+                long count = (Long) results.get(i);
+                fields.put(statuses[i].name(), count);
+                if (count > 0) {
+                    counts.put(statuses[i], count);
                 }
             }
-            return counts;
+            return counterRef(eventID).set(fields).continueWith(t -> {
+                if (!t.isSuccessful()) {
+                    throw t.getException();
+                }
+                return counts;
+            });
         });
     }
 
@@ -190,17 +730,107 @@ public class WaitlistRepository {
      * @return task containing the count
      */
     public Task<Long> countByEventAndStatus(String eventID, EntryStatus status) {
-        return eventsRef. document(eventID)
+        return countByEventAndStatus(eventID, status, ReadPolicy.DEFAULT, null);
+    }
+
+    /**
+     * Counts waitlist entries for an event filtered by status under a read policy.
+     *
+     * @param eventID   ID of the event
+     * @param status    status to filter by
+     * @param policy    where to read the counter document from
+     * @param onRefresh called with the server count after a stale answer, or null
+     * @return task containing the count
+     */
+    public Task<Long> countByEventAndStatus(String eventID, EntryStatus status, ReadPolicy policy,
+                                            OnSuccessListener<Long> onRefresh) {
+        OnSuccessListener<Map<EntryStatus, Long>> onRefreshCounts = onRefresh == null ? null
+                : counts -> onRefresh.onSuccess(countOf(counts, status));
+        return countsByEventGrouped(eventID, policy, onRefreshCounts).continueWith(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            return countOf(task.getResult(), status);
+        });
+    }
+
+    private static long countOf(Map<EntryStatus, Long> counts, EntryStatus status) {
+        Long count = counts.get(status);
+        return count != null ? count : 0L;
+    }
+
+    /**
+     * Counts entries of one status on the server without downloading them.
+     *
+     * @param eventID ID of the event
+     * @param status status to count
+     * @return task containing the count
+     */
+    private Task<Long> aggregateCount(String eventID, EntryStatus status) {
+        return eventsRef.document(eventID)
                 .collection(SUBCOLLECTION_WAITLIST)
                 .whereEqualTo("status", status)
-                .get()
+                .count()
+                .get(AggregateSource.SERVER)
                 .continueWith(task -> {
-                    if (! task.isSuccessful()) {
+                    if (!task.isSuccessful()) {
                         throw task.getException();
                     }
-                    return (long) task.getResult(). size();
+                    return task.getResult().getCount();
                 });
     }
 
+    /**
+     * Queues an increment of one status counter on a batch.
+     *
+     * @param batch batch to add the write to
+     * @param eventID ID of the event
+     * @param status status whose counter changes
+     * @param delta amount to add
+     */
+    private void adjustCounter(WriteBatch batch, String eventID, EntryStatus status, long delta) {
+        if (status == null) {
+            return;
+        }
+        batch.set(counterRef(eventID),
+                Collections.singletonMap(status.name(), FieldValue.increment(delta)),
+                SetOptions.merge());
+    }
+
+    /**
+     * Queues an increment of one status counter on a transaction.
+     *
+     * @param transaction transaction to add the write to
+     * @param eventID ID of the event
+     * @param status status whose counter changes
+     * @param delta amount to add
+     */
+    private void adjustCounter(Transaction transaction, String eventID, EntryStatus status, long delta) {
+        if (status == null) {
+            return;
+        }
+        transaction.set(counterRef(eventID),
+                Collections.singletonMap(status.name(), FieldValue.increment(delta)),
+                SetOptions.merge());
+    }
 
+    /**
+     * Checks whether a counter document was written by {@link #rebuildCounters}.
+     * Increments on an event without counters create a partial document, which
+     * must be rebuilt before it can be trusted.
+     *
+     * @param snapshot counter document snapshot
+     * @return true if the counters are complete
+     */
+    private boolean isInitialized(DocumentSnapshot snapshot) {
+        return snapshot.exists() && Boolean.TRUE.equals(snapshot.getBoolean(COUNTER_FIELD_INITIALIZED));
+    }
+
+    private DocumentReference entryRef(String eventID, String userID) {
+        return eventsRef.document(eventID).collection(SUBCOLLECTION_WAITLIST).document(userID);
+    }
+
+    private DocumentReference counterRef(String eventID) {
+        return eventsRef.document(eventID).collection(SUBCOLLECTION_COUNTERS).document(COUNTER_DOC_WAITLIST);
+    }
 }
@@ -0,0 +1,46 @@
+package com.example.community;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CompressionBudgetTest {
+
+    @Test
+    public void testPicksHighestQualityWithinBudget() {
+        // 10 KB per quality step
+        assertEquals(72, CompressionBudget.bestQuality(q -> q * 10_000L, 725_000, 40, 92));
+        assertEquals("Exact fit is allowed",
+                70, CompressionBudget.bestQuality(q -> q * 10_000L, 700_000, 40, 92));
+    }
+
+    @Test
+    public void testSmallImagesKeepMaxQuality() {
+        List<Integer> tried = new ArrayList<>();
+        int quality = CompressionBudget.bestQuality(q -> {
+            tried.add(q);
+            return 1_000;
+        }, 1_000_000, 40, 92);
+        assertEquals(92, quality);
+        assertEquals("Should encode only once when the first try fits", 1, tried.size());
+    }
+
+    @Test
+    public void testFallsBackToMinQuality() {
+        assertEquals(40, CompressionBudget.bestQuality(q -> 5_000_000L, 1_000_000, 40, 92));
+    }
+
+    @Test
+    public void testEncodesLogarithmicallyOften() {
+        List<Integer> tried = new ArrayList<>();
+        CompressionBudget.bestQuality(q -> {
+            tried.add(q);
+            return q * 10_000L;
+        }, 500_000, 1, 100);
+        assertTrue("Tried " + tried.size() + " qualities", tried.size() <= 8);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.community;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class DateIntervalIndexTest {
+
+    private DateIntervalIndex index;
+
+    private static int day(String date) {
+        return DateValidation.toEpochDay(date);
+    }
+
+    @Before
+    public void setUp() {
+        index = new DateIntervalIndex();
+        index.add(day("2026-01-10"), day("2026-03-01"));           // 0
+        index.add(day("2026-02-01"), DateValidation.NO_DATE);      // 1, one day
+        index.add(day("2026-05-01"), day("2026-06-30"));           // 2
+        index.add(DateValidation.NO_DATE, DateValidation.NO_DATE); // 3, undated
+    }
+
+    @Test
+    public void testToEpochDay() {
+        assertEquals(0, DateValidation.toEpochDay("1970-01-01"));
+        assertEquals(DateValidation.NO_DATE, DateValidation.toEpochDay("2026-02-30"));
+        assertEquals(DateValidation.NO_DATE, DateValidation.toEpochDay("11-29"));
+        assertEquals(DateValidation.NO_DATE, DateValidation.toEpochDay(null));
+    }
+
+    @Test
+    public void testQueryReturnsOverlappingIdsInOrder() {
+        assertArrayEquals(new int[]{0, 2}, index.query(day("2026-02-15"), day("2026-05-15")));
+        assertArrayEquals(new int[]{0, 1}, index.query(day("2026-02-01"), day("2026-02-01")));
+        assertArrayEquals(new int[0], index.query(day("2026-03-02"), day("2026-04-30")));
+    }
+
+    @Test
+    public void testOpenEndedRanges() {
+        assertArrayEquals(new int[]{2},
+                index.query(day("2026-06-30"), DateIntervalIndex.UNBOUNDED_TO));
+        assertArrayEquals(new int[]{0, 1},
+                index.query(DateIntervalIndex.UNBOUNDED_FROM, day("2026-04-01")));
+        assertEquals("Unbounded range keeps undated intervals", 4,
+                index.query(DateIntervalIndex.UNBOUNDED_FROM, DateIntervalIndex.UNBOUNDED_TO).length);
+    }
+
+    @Test
+    public void testOverlapsMatchesQuery() {
+        assertTrue(index.overlaps(0, day("2026-03-01"), day("2026-03-01")));
+        assertFalse(index.overlaps(1, day("2026-02-02"), DateIntervalIndex.UNBOUNDED_TO));
+        assertFalse(index.overlaps(3, day("2026-01-01"), day("2026-12-31")));
+    }
+
+    @Test
+    public void testAddAfterQueryAndClear() {
+        index.query(day("2026-01-01"), day("2026-12-31"));
+        int id = index.add(day("2025-12-01"), day("2026-08-01"));
+        assertArrayEquals(new int[]{2, id}, index.query(day("2026-07-01"), day("2026-07-31")));
+
+        index.clear();
+        assertEquals(0, index.size());
+        assertArrayEquals(new int[0], index.query(day("2026-01-01"), day("2026-12-31")));
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.community;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class DeletionLeaseTest {
+
+    private static final long NOW = 1_000_000L;
+
+    @Test
+    public void testUnheldDeletionCanBeClaimed() {
+        assertTrue(DeletionLease.canClaim(null, 0, "organizer", NOW));
+    }
+
+    @Test
+    public void testHolderCanRenew() {
+        assertTrue(DeletionLease.canClaim("organizer", NOW + 1, "organizer", NOW));
+    }
+
+    @Test
+    public void testLiveLeaseBlocksOthers() {
+        assertFalse(DeletionLease.canClaim("organizer", NOW + 1, "admin", NOW));
+    }
+
+    @Test
+    public void testExpiredLeaseCanBeTakenOver() {
+        assertTrue(DeletionLease.canClaim("organizer", NOW, "admin", NOW));
+        assertEquals(NOW + DeletionLease.DURATION_MILLIS, DeletionLease.expiryFrom(NOW));
+    }
+}
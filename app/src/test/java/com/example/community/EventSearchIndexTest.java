@@ -0,0 +1,86 @@
+package com.example.community;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class EventSearchIndexTest {
+
+    private EventSearchIndex index;
+
+    private static Event event(String title, String location, String description,
+                               String start, String end) {
+        Event event = new Event();
+        event.setTitle(title);
+        event.setLocation(location);
+        event.setDescription(description);
+        event.setEventStartDate(start);
+        event.setEventEndDate(end);
+        return event;
+    }
+
+    @Before
+    public void setUp() {
+        index = new EventSearchIndex();
+        index.add(event("Swimming Lessons", "Kinsmen Pool", "Learn to swim", "2026-01-10", "2026-03-01"));
+        index.add(event("Piano Recital", "City Hall", "An evening of swimming-themed songs", "2026-02-01", "2026-02-01"));
+        index.add(event("Chess Club", "Library", "Weekly chess for all levels", "2026-05-01", "2026-06-30"));
+    }
+
+    @Test
+    public void testTokenize() {
+        assertEquals("Should split on punctuation and lowercase",
+                Arrays.asList("swim", "2026", "lessons"), EventSearchIndex.tokenize("Swim-2026 LESSONS!"));
+        assertTrue("Should handle null", EventSearchIndex.tokenize(null).isEmpty());
+    }
+
+    @Test
+    public void testPrefixMatchesLongerTokens() {
+        List<Event> results = index.search("swim");
+        assertEquals("Should match swim and swimming", 2, results.size());
+    }
+
+    @Test
+    public void testTitleMatchesRankFirst() {
+        List<Event> results = index.search("swimming");
+        assertEquals("Title match should outrank description match",
+                "Swimming Lessons", results.get(0).getTitle());
+        assertEquals("Piano Recital", results.get(1).getTitle());
+    }
+
+    @Test
+    public void testAllTermsMustMatch() {
+        assertEquals(1, index.search("chess library").size());
+        assertTrue("No event has both terms", index.search("chess pool").isEmpty());
+        assertTrue("Unknown term matches nothing", index.search("karate").isEmpty());
+    }
+
+    @Test
+    public void testEmptyQueryReturnsAllInOrder() {
+        List<Event> results = index.search("  ");
+        assertEquals(3, results.size());
+        assertEquals("Swimming Lessons", results.get(0).getTitle());
+    }
+
+    @Test
+    public void testDateRangeKeepsOverlappingEvents() {
+        List<Event> results = index.search("", "2026-02-15", "2026-05-15");
+        assertEquals("Should keep events overlapping the range", 2, results.size());
+        assertEquals("Swimming Lessons", results.get(0).getTitle());
+        assertEquals("Chess Club", results.get(1).getTitle());
+    }
+
+    @Test
+    public void testEventsAddedLaterAreSearchable() {
+        index.addAll(Arrays.asList(event("Swim Meet", "Pool", "", "2026-07-01", null)));
+        assertEquals(3, index.search("swim").size());
+        index.clear();
+        assertTrue(index.search("swim").isEmpty());
+        assertEquals(0, index.size());
+    }
+}
@@ -126,4 +126,19 @@ public class EventTest {
         event.addUserToCancelledList(USER_A);
         assertThrows(IllegalArgumentException.class, () -> event.removeUserFromCancelledList(USER_B));
     }
+
+    @Test
+    public void testIsRegistrationOpen() {
+        event.setRegistrationStart("2025-01-01");
+        event.setRegistrationEnd("2025-01-10");
+        assertTrue("Should be open on first day", event.isRegistrationOpen("2025-01-01"));
+        assertTrue("Should be open on last day", event.isRegistrationOpen("2025-01-10"));
+        assertFalse("Should be closed before start", event.isRegistrationOpen("2024-12-31"));
+        assertFalse("Should be closed after end", event.isRegistrationOpen("2025-01-11"));
+    }
+
+    @Test
+    public void testIsRegistrationOpenWithoutDates() {
+        assertTrue("Should be open without a registration period", event.isRegistrationOpen("2025-01-01"));
+    }
 }
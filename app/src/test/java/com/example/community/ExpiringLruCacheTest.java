@@ -0,0 +1,54 @@
+package com.example.community;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class ExpiringLruCacheTest {
+
+    private long now;
+    private ExpiringLruCache<String, String> cache;
+
+    @Before
+    public void setUp() {
+        now = 0;
+        cache = new ExpiringLruCache<>(2, 1000, () -> now);
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        cache.put("a", "A");
+        cache.put("b", "B");
+        assertEquals("A", cache.get("a"));
+        cache.put("c", "C");
+
+        assertNull("b was used least recently", cache.get("b"));
+        assertEquals("A", cache.get("a"));
+        assertEquals("C", cache.get("c"));
+        assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    public void testEntriesExpire() {
+        cache.put("a", "A");
+        now = 999;
+        assertEquals("A", cache.get("a"));
+        now = 1000;
+        assertNull(cache.get("a"));
+        assertEquals(1, cache.getExpirations());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testInvalidateAndCounters() {
+        cache.put("a", "A");
+        cache.invalidate("a");
+        assertNull(cache.get("a"));
+        cache.put("a", "A2");
+        assertEquals("A2", cache.get("a"));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.community;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+public class ImageVariantTest {
+
+    @Test
+    public void testStoragePathFor() {
+        assertEquals("images/events/1/poster_thumbnail.webp",
+                ImageVariant.THUMBNAIL.storagePathFor("images/events/1/poster.jpg"));
+        assertEquals("Dots in folders are not extensions",
+                "images/v1.2/poster_full.webp", ImageVariant.FULL.storagePathFor("images/v1.2/poster"));
+    }
+
+    @Test
+    public void testKeysRoundTrip() {
+        for (ImageVariant variant : ImageVariant.values()) {
+            assertEquals(variant, ImageVariant.fromKey(variant.getKey()));
+        }
+        assertNull(ImageVariant.fromKey("huge"));
+    }
+
+    @Test
+    public void testForSizePicksSmallestCoveringVariant() {
+        assertEquals(ImageVariant.THUMBNAIL, ImageVariant.forSize(231));
+        assertEquals(ImageVariant.MEDIUM, ImageVariant.forSize(257));
+        assertEquals(ImageVariant.FULL, ImageVariant.forSize(1080));
+        assertEquals("Larger than every variant", ImageVariant.FULL, ImageVariant.forSize(4000));
+        assertEquals("Unknown size", ImageVariant.FULL, ImageVariant.forSize(0));
+    }
+
+    @Test
+    public void testSampleSizeNeverDecodesBelowBound() {
+        assertEquals(8, ImageVariant.sampleSize(4032, 3024, 256));
+        assertEquals(2, ImageVariant.sampleSize(4032, 3024, 1600));
+        assertEquals("Small images are decoded whole", 1, ImageVariant.sampleSize(300, 200, 720));
+    }
+
+    @Test
+    public void testScaledSizeKeepsAspectRatio() {
+        assertArrayEquals(new int[]{256, 192}, ImageVariant.scaledSize(4032, 3024, 256));
+        assertArrayEquals(new int[]{540, 720}, ImageVariant.scaledSize(1080, 1440, 720));
+        assertArrayEquals("Should not upscale", new int[]{300, 200}, ImageVariant.scaledSize(300, 200, 720));
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.community;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+public class JoinedEventsCacheTest {
+
+    private JoinedEventsCache cache;
+
+    @Before
+    public void setUp() {
+        cache = new JoinedEventsCache();
+    }
+
+    @Test
+    public void testPutAndGet() {
+        assertNull(cache.get("user1"));
+        assertTrue(cache.put("user1", Arrays.asList("e1", "e2"), cache.generation()));
+        assertEquals(new HashSet<>(Arrays.asList("e1", "e2")), cache.get("user1"));
+    }
+
+    @Test
+    public void testJoinAndLeaveUpdateCachedUser() {
+        cache.put("user1", Collections.singletonList("e1"), cache.generation());
+        cache.markJoined("user1", "e2");
+        cache.markLeft("user1", "e1");
+        assertEquals(Collections.singleton("e2"), cache.get("user1"));
+
+        cache.markJoined("user2", "e3");
+        assertNull("Uncached users stay uncached", cache.get("user2"));
+    }
+
+    @Test
+    public void testLoadStartedBeforeJoinIsDropped() {
+        long loadedFrom = cache.generation();
+        cache.markJoined("user1", "e2");
+        assertFalse(cache.put("user1", Collections.singletonList("e1"), loadedFrom));
+        assertNull(cache.get("user1"));
+    }
+
+    @Test
+    public void testInvalidate() {
+        cache.put("user1", Collections.singletonList("e1"), cache.generation());
+        cache.invalidate("user1");
+        assertNull(cache.get("user1"));
+    }
+}
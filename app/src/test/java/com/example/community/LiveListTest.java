@@ -0,0 +1,115 @@
+package com.example.community;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class LiveListTest {
+
+    private List<String> shown;
+    private List<String> log;
+    private LiveList<String> list;
+
+    /** Replays every change on a plain list, the way an adapter would. */
+    private ListChangeListener<String> recorder() {
+        return new ListChangeListener<String>() {
+            @Override
+            public void onAdded(String item, int index) {
+                shown.add(index, item);
+                log.add("add " + item + "@" + index);
+            }
+
+            @Override
+            public void onModified(String item, int oldIndex, int newIndex) {
+                shown.remove(oldIndex);
+                shown.add(newIndex, item);
+                log.add("mod " + item + "@" + oldIndex + ">" + newIndex);
+            }
+
+            @Override
+            public void onRemoved(String item, int index) {
+                shown.remove(index);
+                log.add("rem " + item + "@" + index);
+            }
+        };
+    }
+
+    private void replaceAll(String... items) {
+        List<String> ids = new ArrayList<>();
+        List<Object> contents = new ArrayList<>();
+        for (String item : items) {
+            ids.add(item.substring(0, 1));
+            contents.add(item);
+        }
+        list.replaceAll(ids, Arrays.asList(items), contents);
+    }
+
+    @Before
+    public void setUp() {
+        shown = new ArrayList<>();
+        log = new ArrayList<>();
+        list = new LiveList<>(item -> !item.endsWith("-hidden"), recorder());
+    }
+
+    @Test
+    public void testChangesReplayInOrder() {
+        list.add(0, "a", "a1", "a1");
+        list.add(1, "b", "b1", "b1");
+        list.add(0, "c", "c1", "c1");
+        list.modify(0, 2, "c2", "c2");
+        list.remove(0);
+        assertEquals(Arrays.asList("b1", "c2"), shown);
+        assertEquals(list.getItems(), shown);
+    }
+
+    @Test
+    public void testHiddenItemsShiftVisibleIndexes() {
+        list.add(0, "a", "a1", "a1");
+        list.add(1, "b", "b-hidden", "b");
+        list.add(2, "c", "c1", "c1");
+        assertEquals("Hidden item takes no visible index", "add c1@1", log.get(log.size() - 1));
+
+        list.modify(1, 1, "b1", "b1");
+        assertEquals("Unhidden item is reported as added", "add b1@1", log.get(log.size() - 1));
+
+        list.modify(0, 0, "a-hidden", "a");
+        assertEquals("Newly hidden item is reported as removed", "rem a1@0", log.get(log.size() - 1));
+        assertEquals(Arrays.asList("b1", "c1"), shown);
+        assertEquals(3, list.size());
+    }
+
+    @Test
+    public void testReplaceAllReportsOnlyDifferences() {
+        replaceAll("a1", "b1", "c1", "d1");
+        log.clear();
+
+        replaceAll("d1", "a1", "c2", "e1");
+        assertEquals(Arrays.asList("d1", "a1", "c2", "e1"), shown);
+        assertEquals("Unchanged items in place are not reported", 4, log.size());
+        assertEquals("rem b1@1", log.get(0));
+    }
+
+    @Test
+    public void testReplaceAllWithSameContentReportsNothing() {
+        replaceAll("a1", "b-hidden", "c1");
+        log.clear();
+        replaceAll("a1", "b-hidden", "c1");
+        assertEquals(0, log.size());
+        assertEquals(Arrays.asList("a1", "c1"), shown);
+    }
+
+    @Test
+    public void testClearForgetsItemsSilently() {
+        replaceAll("a1", "b1");
+        log.clear();
+        list.clear();
+        assertEquals(0, log.size());
+        assertEquals(0, list.size());
+        assertEquals(0, list.getItems().size());
+    }
+}
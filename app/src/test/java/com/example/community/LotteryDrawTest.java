@@ -0,0 +1,70 @@
+package com.example.community;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+public class LotteryDrawTest {
+
+    private static WaitingListEntry entry(String userID) {
+        return new WaitingListEntry("entry-" + userID, "event", userID);
+    }
+
+    @Test
+    public void testIdsOf() {
+        List<WaitingListEntry> entries = Arrays.asList(entry("a"), entry("b"));
+        Set<String> ids = LotteryDraw.idsOf(entries, WaitingListEntry::getUserID);
+        assertEquals("Should have 2 IDs", 2, ids.size());
+        assertTrue("Should contain a", ids.contains("a"));
+        assertTrue("Should contain b", ids.contains("b"));
+    }
+
+    @Test
+    public void testExcludingKeepsOrder() {
+        List<WaitingListEntry> entries = Arrays.asList(entry("a"), entry("b"), entry("c"), entry("d"));
+        Set<String> winners = LotteryDraw.idsOf(Arrays.asList(entry("b"), entry("d")),
+                WaitingListEntry::getUserID);
+        List<WaitingListEntry> losers = LotteryDraw.excluding(entries, winners, WaitingListEntry::getUserID);
+        assertEquals("Should have 2 losers", 2, losers.size());
+        assertEquals("a", losers.get(0).getUserID());
+        assertEquals("c", losers.get(1).getUserID());
+    }
+
+    @Test
+    public void testReplayIsDeterministic() {
+        List<WaitingListEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            entries.add(entry(String.format("user-%03d", i)));
+        }
+        List<WaitingListEntry> first = LotteryDraw.replay(entries, 20, 1234L);
+        List<WaitingListEntry> second = LotteryDraw.replay(entries, 20, 1234L);
+        assertEquals("Should draw the same number of winners", first.size(), second.size());
+        for (int i = 0; i < first.size(); i++) {
+            assertEquals("Same seed should give the same winners",
+                    first.get(i).getUserID(), second.get(i).getUserID());
+        }
+    }
+
+    @Test
+    public void testReplayMatchesPagedDraw() {
+        List<WaitingListEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            entries.add(entry(String.format("user-%03d", i)));
+        }
+        ReservoirSampler<WaitingListEntry> sampler = LotteryDraw.newSampler(20, 99L);
+        for (int from = 0; from < entries.size(); from += 64) {
+            sampler.offerAll(entries.subList(from, Math.min(from + 64, entries.size())));
+        }
+        List<WaitingListEntry> replayed = LotteryDraw.replay(entries, 20, 99L);
+        for (int i = 0; i < replayed.size(); i++) {
+            assertEquals("Paging should not change the draw",
+                    sampler.getSample().get(i).getUserID(), replayed.get(i).getUserID());
+        }
+    }
+}
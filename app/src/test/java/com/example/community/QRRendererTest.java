@@ -0,0 +1,57 @@
+package com.example.community;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class QRRendererTest {
+
+    private BitMatrix checkerboard;
+
+    @Before
+    public void setUp() {
+        checkerboard = new BitMatrix(3, 3);
+        for (int y = 0; y < 3; y++) {
+            for (int x = 0; x < 3; x++) {
+                if ((x + y) % 2 == 0) {
+                    checkerboard.set(x, y);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testScaleFor() {
+        assertEquals(17, QRRenderer.scaleFor(29, 512));
+        assertEquals("Should never scale below one pixel", 1, QRRenderer.scaleFor(600, 512));
+    }
+
+    @Test
+    public void testRenderScalesEveryModule() {
+        int scale = 4;
+        int[] pixels = QRRenderer.render(checkerboard, scale, 1, 0);
+        int size = 3 * scale;
+        assertEquals(size * size, pixels.length);
+
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                int expected = checkerboard.get(x / scale, y / scale) ? 1 : 0;
+                assertEquals("Pixel " + x + "," + y, expected, pixels[y * size + x]);
+            }
+        }
+    }
+
+    @Test
+    public void testEncodeIsDeterministic() throws WriterException {
+        BitMatrix first = QRRenderer.encode("event-123");
+        BitMatrix second = QRRenderer.encode("event-123");
+        assertEquals("Version 1 code plus a four-module quiet zone", 29, first.getWidth());
+        assertArrayEquals(QRRenderer.render(first, 2, QRRenderer.DARK, QRRenderer.LIGHT),
+                QRRenderer.render(second, 2, QRRenderer.DARK, QRRenderer.LIGHT));
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.community;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class ReadStatsTest {
+
+    private ReadStats stats;
+
+    @Before
+    public void setUp() {
+        stats = new ReadStats();
+    }
+
+    @Test
+    public void testHitRatioIgnoresMisses() {
+        assertEquals(0, stats.getHitRatio(), 0);
+        stats.recordCacheHit();
+        stats.recordCacheHit();
+        stats.recordCacheHit();
+        stats.recordCacheMiss();
+        stats.recordServerRead();
+        assertEquals(0.75, stats.getHitRatio(), 1e-9);
+        assertEquals(1, stats.getCacheMisses());
+    }
+
+    @Test
+    public void testReset() {
+        stats.recordCacheHit();
+        stats.recordServerRead();
+        stats.reset();
+        assertEquals(0, stats.getCacheHits() + stats.getServerReads() + stats.getCacheMisses());
+        assertEquals("hits=0 misses=0 server=0 hitRatio=0.00", stats.toString());
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.community;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.Set;
+
+public class ReservoirSamplerTest {
+
+    private static List<Integer> range(int n) {
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            items.add(i);
+        }
+        return items;
+    }
+
+    @Test
+    public void testKeepsAllItemsWhenStreamIsSmall() {
+        ReservoirSampler<Integer> sampler = new ReservoirSampler<>(10, new SplittableRandom(1));
+        sampler.offerAll(range(4));
+        assertEquals("Should keep every item", 4, sampler.getSample().size());
+        assertEquals("Should count every item", 4, sampler.getSeen());
+    }
+
+    @Test
+    public void testSampleHasFixedSizeAndDistinctItems() {
+        ReservoirSampler<Integer> sampler = new ReservoirSampler<>(25, new SplittableRandom(2));
+        for (int page = 0; page < 10; page++) {
+            List<Integer> items = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                items.add(page * 100 + i);
+            }
+            sampler.offerAll(items);
+        }
+        Set<Integer> distinct = new HashSet<>(sampler.getSample());
+        assertEquals("Should keep sample size items", 25, sampler.getSample().size());
+        assertEquals("Should not repeat items", 25, distinct.size());
+        assertEquals("Should count every item", 1000, sampler.getSeen());
+    }
+
+    @Test
+    public void testSampleIsRoughlyUniform() {
+        int[] hits = new int[10];
+        SplittableRandom random = new SplittableRandom(3);
+        for (int run = 0; run < 10000; run++) {
+            ReservoirSampler<Integer> sampler = new ReservoirSampler<>(1, random);
+            sampler.offerAll(range(10));
+            hits[sampler.getSample().get(0)]++;
+        }
+        for (int count : hits) {
+            assertTrue("Each item should be picked about 1000 times", count > 850 && count < 1150);
+        }
+    }
+
+    @Test
+    public void testNegativeSampleSizeException() {
+        assertThrows(IllegalArgumentException.class, () -> new ReservoirSampler<Integer>(-1, new SplittableRandom()));
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.community;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class TagQueryTest {
+
+    private static Event event(String eventID, String... tags) {
+        Event event = new Event();
+        event.setEventID(eventID);
+        event.setTags(Arrays.asList(tags));
+        return event;
+    }
+
+    @Test
+    public void testNormalizeDropsBlanksAndRepeats() {
+        assertEquals(Arrays.asList("music", "art"),
+                TagQuery.normalize(Arrays.asList(" music", "", null, "art", "music ")));
+        assertTrue(TagQuery.normalize(null).isEmpty());
+    }
+
+    @Test
+    public void testChunksRespectDisjunctionLimit() {
+        List<String> tags = new ArrayList<>();
+        for (int i = 0; i < 65; i++) {
+            tags.add("tag" + i);
+        }
+        List<List<String>> chunks = TagQuery.chunks(tags);
+        assertEquals(3, chunks.size());
+        assertEquals(TagQuery.MAX_DISJUNCTION_VALUES, chunks.get(0).size());
+        assertEquals(5, chunks.get(2).size());
+        assertEquals("tag60", chunks.get(2).get(0));
+    }
+
+    @Test
+    public void testUnionRemovesDuplicatesAcrossSubQueries() {
+        Event a = event("a", "music");
+        Event b = event("b", "music", "art");
+        Event c = event("c", "art");
+        List<Event> merged = TagQuery.union(
+                Arrays.asList(Arrays.asList(a, b), Arrays.asList(b, c)), Event::getEventID);
+        assertEquals(Arrays.asList(a, b, c), merged);
+    }
+
+    @Test
+    public void testIndexOfSmallestSkipsUnknownCounts() {
+        assertEquals(2, TagQuery.indexOfSmallest(Arrays.asList(40L, null, 3L, 7L)));
+        assertEquals(0, TagQuery.indexOfSmallest(Arrays.asList(null, null)));
+    }
+
+    @Test
+    public void testWithAllTags() {
+        Event a = event("a", "music", "kids");
+        Event b = event("b", "music");
+        Event c = event("c", "kids", "music", "outdoor");
+        assertEquals(Arrays.asList(a, c),
+                TagQuery.withAllTags(Arrays.asList(a, b, c), Arrays.asList("music", "kids")));
+    }
+}
@@ -0,0 +1,29 @@
+// JVM-only JMH benchmarks for app logic that has no Android dependencies.
+// Run with: ./gradlew :benchmarks:jmh
+plugins {
+    java
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+sourceSets {
+    named("jmh") {
+        java {
+            // Compile the pure-Java draw classes straight from the app sources
+            srcDir("../app/src/main/java")
+            include("com/example/community/LotteryDraw.java")
+            include("com/example/community/ReservoirSampler.java")
+            include("com/example/community/benchmarks/**")
+        }
+    }
+}
+
+jmh {
+    warmupIterations.set(2)
+    iterations.set(5)
+    fork.set(1)
+}
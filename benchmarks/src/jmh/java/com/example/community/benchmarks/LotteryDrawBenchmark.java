@@ -0,0 +1,107 @@
+package com.example.community.benchmarks;
+
+import com.example.community.LotteryDraw;
+import com.example.community.ReservoirSampler;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares lottery draw latency for the old copy-shuffle-removeAll draw,
+ * the ID-set partition, and the paged reservoir draw used by LotteryService.
+ * Winners are 10% of the entrants in every case.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LotteryDrawBenchmark {
+
+    private static final int PAGE_SIZE = 1000;
+
+    /** Stand-in for WaitingListEntry, which depends on Firebase types. */
+    static final class Entry {
+        final String userID;
+
+        Entry(String userID) {
+            this.userID = userID;
+        }
+
+        String getUserID() {
+            return userID;
+        }
+    }
+
+    @Param({"1000", "10000", "100000"})
+    public int entrants;
+
+    private List<Entry> entries;
+    private int sampleSize;
+
+    @Setup
+    public void setUp() {
+        entries = new ArrayList<>(entrants);
+        for (int i = 0; i < entrants; i++) {
+            entries.add(new Entry("user-" + i));
+        }
+        sampleSize = entrants / 10;
+    }
+
+    @Benchmark
+    public void removeAllLosers(Blackhole blackhole) {
+        List<Entry> winners = shuffledWinners(new Random(42));
+        List<Entry> losers = new ArrayList<>(entries);
+        losers.removeAll(winners);
+        blackhole.consume(winners);
+        blackhole.consume(losers);
+    }
+
+    @Benchmark
+    public void idSetLosers(Blackhole blackhole) {
+        List<Entry> winners = shuffledWinners(new Random(42));
+        Set<String> winnerIDs = LotteryDraw.idsOf(winners, Entry::getUserID);
+        List<Entry> losers = LotteryDraw.excluding(entries, winnerIDs, Entry::getUserID);
+        blackhole.consume(winners);
+        blackhole.consume(losers);
+    }
+
+    @Benchmark
+    public void pagedReservoirDraw(Blackhole blackhole) {
+        ReservoirSampler<Entry> sampler = LotteryDraw.newSampler(sampleSize, 42L);
+        for (int from = 0; from < entrants; from += PAGE_SIZE) {
+            sampler.offerAll(entries.subList(from, Math.min(from + PAGE_SIZE, entrants)));
+        }
+        Set<String> winnerIDs = LotteryDraw.idsOf(sampler.getSample(), Entry::getUserID);
+        for (int from = 0; from < entrants; from += PAGE_SIZE) {
+            List<Entry> page = entries.subList(from, Math.min(from + PAGE_SIZE, entrants));
+            blackhole.consume(LotteryDraw.excluding(page, winnerIDs, Entry::getUserID));
+        }
+        blackhole.consume(sampler.getSample());
+    }
+
+    /**
+     * Partial Fisher-Yates shuffle of a copy of the entries, as the old draw did.
+     */
+    private List<Entry> shuffledWinners(Random random) {
+        List<Entry> copy = new ArrayList<>(entries);
+        for (int i = 0; i < sampleSize; i++) {
+            int randomIndex = i + random.nextInt(copy.size() - i);
+            Entry temp = copy.get(i);
+            copy.set(i, copy.get(randomIndex));
+            copy.set(randomIndex, temp);
+        }
+        return copy.subList(0, sampleSize);
+    }
+}